@@ -0,0 +1,92 @@
+package org.vaadin.smartgwt.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.vaadin.smartgwt.server.core.AttributeStore;
+
+/**
+ * Measures the heap retained by the attributes of a widget, held in an {@link AttributeStore} and in the <code>HashMap</code> widgets used before.
+ * Both hold the same names, shared as the literal names of the setters are, and the values of {@link Fixtures}. Run with:
+ * <code>java -cp target/benchmarks.jar org.vaadin.smartgwt.benchmarks.AttributeFootprint</code>
+ */
+public final class AttributeFootprint {
+	private static final int INSTANCES = 10000;
+	private static final int[] ATTRIBUTE_COUNTS = { 10, 50, 200 };
+	private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+	private AttributeFootprint() {
+
+	}
+
+	public static void main(String[] args) {
+		System.out.println("attributes  store bytes  map bytes");
+
+		for (int attributeCount : ATTRIBUTE_COUNTS) {
+			final String[] names = newNames(attributeCount);
+			final long storeBytes = measure(names, true);
+			final long mapBytes = measure(names, false);
+			System.out.println(String.format("%10d  %11d  %9d", attributeCount, storeBytes, mapBytes));
+		}
+	}
+
+	/**
+	 * Returns the heap retained by one instance, averaged over many instances kept reachable while the heap is measured.
+	 */
+	private static long measure(String[] names, boolean store) {
+		final Object[] instances = new Object[INSTANCES];
+		final long before = usedHeap();
+
+		for (int i = 0; i < INSTANCES; i++) {
+			instances[i] = store ? newStore(names, i) : newMap(names, i);
+		}
+
+		final long after = usedHeap();
+
+		if (instances[INSTANCES - 1] == null) {
+			throw new IllegalStateException();
+		}
+
+		return (after - before) / INSTANCES;
+	}
+
+	private static AttributeStore newStore(String[] names, int row) {
+		final AttributeStore store = new AttributeStore();
+
+		for (int i = 0; i < names.length; i++) {
+			store.set(names[i], Fixtures.newValue(row, i));
+		}
+
+		return store;
+	}
+
+	private static Map<String, Object> newMap(String[] names, int row) {
+		final Map<String, Object> map = new HashMap<String, Object>();
+
+		for (int i = 0; i < names.length; i++) {
+			map.put(names[i], Fixtures.newValue(row, i));
+		}
+
+		return map;
+	}
+
+	private static String[] newNames(int attributeCount) {
+		final String[] names = new String[attributeCount];
+
+		for (int i = 0; i < attributeCount; i++) {
+			names[i] = ("attribute" + i).intern();
+		}
+
+		return names;
+	}
+
+	private static long usedHeap() {
+		for (int i = 0; i < 4; i++) {
+			System.gc();
+		}
+
+		return MEMORY.getHeapMemoryUsage().getUsed();
+	}
+}
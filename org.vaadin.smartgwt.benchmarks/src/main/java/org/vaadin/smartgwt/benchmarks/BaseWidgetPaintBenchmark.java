@@ -0,0 +1,54 @@
+package org.vaadin.smartgwt.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vaadin.smartgwt.server.Canvas;
+
+import com.vaadin.terminal.PaintException;
+
+/**
+ * Measures {@link org.vaadin.smartgwt.server.BaseWidget#paintContent} for a full repaint of all the attributes and for a partial repaint after a single
+ * attribute changed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BaseWidgetPaintBenchmark {
+	@Param({ "10", "50", "200" })
+	private int attributeCount;
+
+	private Canvas canvas;
+	private int width;
+
+	@Setup
+	public void setup() throws PaintException {
+		canvas = new Canvas();
+		Fixtures.setAttributes(canvas, attributeCount);
+		BenchmarkPaintTarget.newInstance(true).paint(canvas);
+	}
+
+	@Benchmark
+	public long fullRepaint() throws PaintException {
+		return BenchmarkPaintTarget.newInstance(true).paint(canvas);
+	}
+
+	@Benchmark
+	public long partialRepaint() throws PaintException {
+		canvas.setWidth(++width);
+		return BenchmarkPaintTarget.newInstance(false).paint(canvas);
+	}
+}
@@ -0,0 +1,108 @@
+package org.vaadin.smartgwt.benchmarks;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import com.vaadin.terminal.PaintException;
+import com.vaadin.terminal.Paintable;
+import com.vaadin.terminal.gwt.server.JsonPaintTarget;
+
+/**
+ * Stand-in for the paint target of a communication manager. The attributes go through the real JSON encoding of {@link JsonPaintTarget}, while paintable
+ * identifiers and tags are resolved locally, so components can be painted without an application. The output is only counted.
+ */
+public class BenchmarkPaintTarget extends JsonPaintTarget {
+	private final CountingWriter writer;
+	private final Map<Paintable, String> paintIdentifiers = new IdentityHashMap<Paintable, String>();
+	private final boolean fullRepaint;
+
+	public static BenchmarkPaintTarget newInstance(boolean fullRepaint) {
+		try {
+			return new BenchmarkPaintTarget(new CountingWriter(), fullRepaint);
+		} catch (PaintException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private BenchmarkPaintTarget(CountingWriter writer, boolean fullRepaint) throws PaintException {
+		super(null, new PrintWriter(writer), false);
+		this.writer = writer;
+		this.fullRepaint = fullRepaint;
+	}
+
+	/**
+	 * Paints the paintable as the communication manager does for a dirty paintable.
+	 *
+	 * @param paintable the paintable to paint.
+	 * @return the number of characters written, to be consumed by the benchmark.
+	 * @throws PaintException when the paintable could not be painted.
+	 */
+	public long paint(Paintable paintable) throws PaintException {
+		paintable.paint(this);
+		return finish();
+	}
+
+	/**
+	 * Closes the paint target.
+	 *
+	 * @return the number of characters written, to be consumed by the benchmark.
+	 * @throws PaintException when a tag is left open.
+	 */
+	public long finish() throws PaintException {
+		close();
+		return writer.count;
+	}
+
+	@Override
+	public boolean isFullRepaint() {
+		return fullRepaint;
+	}
+
+	@Override
+	public String getTag(Paintable paintable) {
+		return paintable.getClass().getSimpleName();
+	}
+
+	@Override
+	public boolean startTag(Paintable paintable, String tagName) throws PaintException {
+		startTag(tagName);
+		return false;
+	}
+
+	@Override
+	public String getPaintIdentifier(Paintable paintable) throws PaintException {
+		String identifier = paintIdentifiers.get(paintable);
+
+		if (identifier == null) {
+			paintIdentifiers.put(paintable, identifier = "PID" + paintIdentifiers.size());
+		}
+
+		return identifier;
+	}
+
+	@Override
+	public boolean needsToBePainted(Paintable paintable) {
+		return false;
+	}
+
+	private static class CountingWriter extends Writer {
+		private long count;
+
+		@Override
+		public void write(char[] buffer, int offset, int length) {
+			count += length;
+		}
+
+		@Override
+		public void flush() {
+
+		}
+
+		@Override
+		public void close() {
+
+		}
+	}
+}
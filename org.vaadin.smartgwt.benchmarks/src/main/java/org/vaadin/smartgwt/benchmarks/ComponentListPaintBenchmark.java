@@ -0,0 +1,59 @@
+package org.vaadin.smartgwt.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vaadin.smartgwt.server.Canvas;
+import org.vaadin.smartgwt.server.core.ComponentList;
+import org.vaadin.smartgwt.server.grid.ListGridField;
+
+import com.vaadin.terminal.PaintException;
+
+/**
+ * Measures {@link ComponentList#paintContent} on a full repaint, which paints every element and a single replace instruction listing them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ComponentListPaintBenchmark {
+	@Param({ "10", "100", "1000" })
+	private int componentCount;
+
+	@Param({ "5", "20" })
+	private int attributeCount;
+
+	private ComponentList<ListGridField> components;
+
+	@Setup
+	public void setup() {
+		components = new ComponentList<ListGridField>(new Canvas(), "fields");
+
+		for (int i = 0; i < componentCount; i++) {
+			final ListGridField field = new ListGridField("field" + i);
+			Fixtures.setAttributes(field, attributeCount);
+			components.add(field);
+		}
+	}
+
+	@Benchmark
+	public long fullRepaint() throws PaintException {
+		final BenchmarkPaintTarget target = BenchmarkPaintTarget.newInstance(true);
+		target.startTag("list");
+		components.paintContent(target);
+		target.endTag("list");
+		return target.finish();
+	}
+}
@@ -0,0 +1,45 @@
+package org.vaadin.smartgwt.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vaadin.smartgwt.server.grid.ListGridField;
+
+import com.vaadin.terminal.PaintException;
+
+/**
+ * Measures {@link org.vaadin.smartgwt.server.core.DataClass#paintContent}, with a list grid field as the data class.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DataClassPaintBenchmark {
+	@Param({ "10", "50", "200" })
+	private int attributeCount;
+
+	private ListGridField field;
+
+	@Setup
+	public void setup() {
+		field = new ListGridField("name");
+		Fixtures.setAttributes(field, attributeCount);
+	}
+
+	@Benchmark
+	public long paint() throws PaintException {
+		return BenchmarkPaintTarget.newInstance(true).paint(field);
+	}
+}
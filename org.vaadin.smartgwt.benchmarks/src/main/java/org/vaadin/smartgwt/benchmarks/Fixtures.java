@@ -0,0 +1,55 @@
+package org.vaadin.smartgwt.benchmarks;
+
+import org.vaadin.smartgwt.server.PropertyAccessor;
+import org.vaadin.smartgwt.server.core.DataClass;
+import org.vaadin.smartgwt.server.data.Record;
+
+/**
+ * Builds the attribute sets and records shared by the benchmarks. Values cycle through strings, integers, doubles and booleans, the types painted by the
+ * widgets and carried by records.
+ */
+final class Fixtures {
+	private Fixtures() {
+
+	}
+
+	static void setAttributes(PropertyAccessor accessor, int attributeCount) {
+		for (int i = 0; i < attributeCount; i++) {
+			accessor.setAttribute("attribute" + i, newValue(i, i), true);
+		}
+	}
+
+	static void setAttributes(DataClass dataClass, int attributeCount) {
+		for (int i = 0; i < attributeCount; i++) {
+			dataClass.setAttribute("attribute" + i, newValue(i, i));
+		}
+	}
+
+	static Record[] newRecords(int recordCount, int fieldCount) {
+		final Record[] records = new Record[recordCount];
+
+		for (int i = 0; i < recordCount; i++) {
+			records[i] = new Record();
+			records[i].setAttribute("id", i);
+
+			for (int j = 1; j < fieldCount; j++) {
+				records[i].setAttribute("field" + j, newValue(i, j));
+			}
+		}
+
+		return records;
+	}
+
+	static Object newValue(int row, int column) {
+		switch (column % 4) {
+		case 0:
+			return "value " + row + "/" + column;
+		case 1:
+			return row * column;
+		case 2:
+			return row / (column + 1d);
+		default:
+			return row % 2 == 0;
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package org.vaadin.smartgwt.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vaadin.smartgwt.server.data.Record;
+import org.vaadin.smartgwt.server.util.JSONHelper;
+
+/**
+ * Measures the serialization of records by {@link JSONHelper#getJsonString(Record[])}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JSONHelperBenchmark {
+	@Param({ "10", "1000", "10000" })
+	private int recordCount;
+
+	@Param({ "5", "20" })
+	private int fieldCount;
+
+	private Record[] records;
+
+	@Setup
+	public void setup() {
+		records = Fixtures.newRecords(recordCount, fieldCount);
+	}
+
+	@Benchmark
+	public String getJsonString() throws IOException {
+		return JSONHelper.getJsonString(records);
+	}
+}
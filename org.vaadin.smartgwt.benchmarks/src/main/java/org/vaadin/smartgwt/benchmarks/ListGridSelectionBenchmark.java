@@ -0,0 +1,74 @@
+package org.vaadin.smartgwt.benchmarks;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vaadin.smartgwt.server.data.Record;
+import org.vaadin.smartgwt.server.grid.ListGrid;
+import org.vaadin.smartgwt.server.grid.ListGridRecord;
+import org.vaadin.smartgwt.server.util.JSONHelper;
+
+/**
+ * Measures the parsing of the selection sent by the client to {@link ListGrid#changeVariables}, either as all the selected records or as the primary keys
+ * added to the selection.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ListGridSelectionBenchmark {
+	@Param({ "10", "1000", "10000" })
+	private int recordCount;
+
+	@Param({ "5", "20" })
+	private int fieldCount;
+
+	private ListGrid recordsGrid;
+	private ListGrid keysGrid;
+	private Map<String, Object> selectedRecords;
+	private Map<String, Object> selectionDelta;
+
+	@Setup
+	public void setup() throws IOException {
+		final Record[] records = Fixtures.newRecords(recordCount, fieldCount);
+		final StringBuilder keys = new StringBuilder();
+
+		for (int i = 0; i < recordCount; i++) {
+			keys.append(i == 0 ? "" : ",").append(i);
+		}
+
+		recordsGrid = new ListGrid();
+		keysGrid = new ListGrid();
+		keysGrid.setPrimaryKeyField("id");
+		keysGrid.setData(records);
+		selectedRecords = Collections.<String, Object> singletonMap("selectedRecords", JSONHelper.getJsonString(records));
+		selectionDelta = Collections.<String, Object> singletonMap("selectionDelta", "{\"added\":[" + keys + "],\"removed\":[]}");
+	}
+
+	@Benchmark
+	public ListGridRecord[] selectedRecords() {
+		recordsGrid.changeVariables(this, selectedRecords);
+		return recordsGrid.getSelectedRecords();
+	}
+
+	@Benchmark
+	public ListGridRecord[] selectionDelta() {
+		keysGrid.changeVariables(this, selectionDelta);
+		return keysGrid.getSelectedRecords();
+	}
+}
@@ -0,0 +1,79 @@
+package org.vaadin.smartgwt.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.vaadin.smartgwt.server.data.Record;
+import org.vaadin.smartgwt.server.data.RecordJSONUpdater;
+import org.vaadin.smartgwt.server.grid.ListGridRecord;
+import org.vaadin.smartgwt.server.grid.ListGridRecordFactory;
+import org.vaadin.smartgwt.server.util.JSONHelper;
+
+import argo.jdom.JdomParser;
+import argo.jdom.JsonNode;
+import argo.saj.InvalidSyntaxException;
+
+/**
+ * Measures the decoding of JSON records into records by {@link RecordJSONUpdater#update}: from already parsed nodes, from text through the node tree and
+ * from text through the pull parser.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RecordJSONUpdaterBenchmark {
+	@Param({ "10", "1000", "10000" })
+	private int recordCount;
+
+	@Param({ "5", "20" })
+	private int fieldCount;
+
+	private final RecordJSONUpdater updater = new RecordJSONUpdater();
+	private final ListGridRecordFactory listGridRecordFactory = new ListGridRecordFactory(updater);
+	private String json;
+	private List<JsonNode> nodes;
+
+	@Setup
+	public void setup() throws IOException, InvalidSyntaxException {
+		json = JSONHelper.getJsonString(Fixtures.newRecords(recordCount, fieldCount));
+		nodes = new JdomParser().parse(json).getElements();
+	}
+
+	@Benchmark
+	public void update(Blackhole blackhole) {
+		for (JsonNode node : nodes) {
+			final Record record = new Record();
+			updater.update(record, node);
+			blackhole.consume(record);
+		}
+	}
+
+	@Benchmark
+	public void parseAndUpdate(Blackhole blackhole) throws InvalidSyntaxException {
+		for (JsonNode node : new JdomParser().parse(json).getElements()) {
+			final Record record = new Record();
+			updater.update(record, node);
+			blackhole.consume(record);
+		}
+	}
+
+	@Benchmark
+	public ListGridRecord[] stream() throws IOException {
+		return listGridRecordFactory.newListGridRecords(json);
+	}
+}
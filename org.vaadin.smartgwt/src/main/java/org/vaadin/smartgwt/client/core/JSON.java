@@ -43,25 +43,49 @@ public class JSON {
 	}
 
 	/**
-	 * creates a replacer function that will exclude keys in the exclusion list.
+	 * creates a replacer function that will exclude keys in the exclusion list. The patterns are combined into a single regular expression, compiled
+	 * once when the replacer is created.
 	 * 
 	 * @param excludedKeys
-	 *            to be excluded at stringification.
+	 *            regular expressions of the keys to be excluded at stringification.
+	 * @return the exclusion function.
+	 */
+	public static JavaScriptObject newExclusionReplacer(String[] excludedKeys) {
+		return newExclusionReplacer(new String[0], excludedKeys);
+	}
+
+	/**
+	 * creates a replacer function that will exclude the given keys and the keys matching the given patterns. Exact keys are looked up in a set, and
+	 * the patterns are combined into a single regular expression compiled once, so the replacer can be created once and reused for every
+	 * stringification.
+	 * 
+	 * @param excludedKeys
+	 *            keys to be excluded at stringification.
+	 * @param excludedPatterns
+	 *            regular expressions of the keys to be excluded at stringification.
 	 * @return the exclusion function.
 	 */
 	// @formatter:off
-	public static native JavaScriptObject newExclusionReplacer(String[] excludedKeys) /*-{ 
-		var excludedKeysJS = @com.smartgwt.client.util.JSOHelper::convertToJavaScriptArray([Ljava/lang/Object;)(excludedKeys);
+	public static native JavaScriptObject newExclusionReplacer(String[] excludedKeys, String[] excludedPatterns) /*-{
+		var keys = {};
 
-		return function(key, value) { 
-			for(var i = 0; i < excludedKeysJS.length; i++)
-			{
-				var pattern = new RegExp(excludedKeysJS[i]);
-				if(pattern.exec(key)!=null)
-				{
+		for (var i = 0; i < excludedKeys.length; i++) {
+			keys[excludedKeys[i]] = true;
+		}
+
+		var patterns = [];
+
+		for (var i = 0; i < excludedPatterns.length; i++) {
+			patterns.push("(?:" + excludedPatterns[i] + ")");
+		}
+
+		var pattern = patterns.length == 0 ? null : new RegExp(patterns.join("|"));
+
+		return function(key, value) {
+			if (keys.hasOwnProperty(key) || (pattern != null && pattern.test(key))) {
 				return undefined;
-				}
 			}
+
 			return value;
 		};
 	}-*/;
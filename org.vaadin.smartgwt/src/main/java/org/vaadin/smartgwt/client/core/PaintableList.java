@@ -30,31 +30,11 @@ public class PaintableList implements PaintableProperty {
 			final UIDL elementUIDL = (UIDL) iterator.next();
 
 			if ("add".equals(elementUIDL.getTag())) {
-				final Integer index = elementUIDL.hasAttribute("index") ? elementUIDL.getIntAttribute("index") : null;
-				final Paintable element = elementUIDL.hasAttribute("element") ? elementUIDL.getPaintableAttribute("element", client) : null;
-
-				if (element != null) {
-					if (index == null) {
-						references.add(element);
-					} else {
-						references.add(index, element);
-					}
-
-					fireOnAdd(index, element);
-				}
+				add(elementUIDL.getIntAttribute("index"), getElements(elementUIDL, client));
 			} else if ("remove".equals(elementUIDL.getTag())) {
-				final Integer index = elementUIDL.hasAttribute("index") ? elementUIDL.getIntAttribute("index") : null;
-				final Paintable element = elementUIDL.hasAttribute("element") ? elementUIDL.getPaintableAttribute("element", client) : null;
-
-				if (element != null) {
-					if (index == null) {
-						references.remove(element);
-					} else {
-						references.remove(index.intValue());
-					}
-
-					fireOnRemove(index, element);
-				}
+				remove(elementUIDL.getIntAttribute("index"), elementUIDL.getIntAttribute("count"));
+			} else if ("replace".equals(elementUIDL.getTag())) {
+				replace(getElements(elementUIDL, client));
 			} else {
 				client.getPaintable(elementUIDL).updateFromUIDL(elementUIDL, client);
 			}
@@ -65,15 +45,76 @@ public class PaintableList implements PaintableProperty {
 		listeners.add(listener);
 	}
 
-	private void fireOnAdd(Integer index, Paintable element) {
-		for (PaintableListListener listener : listeners) {
-			listener.onAdd(references.toArray(new Paintable[0]), index, element);
+	/**
+	 * inserts a range of elements. Range listeners are notified once, other listeners once per element.
+	 */
+	private void add(int index, List<Paintable> elements) {
+		for (int i = 0; i < elements.size(); i++) {
+			references.add(index + i, elements.get(i));
+
+			for (PaintableListListener listener : listeners) {
+				if (!(listener instanceof PaintableListRangeListener)) {
+					listener.onAdd(references.toArray(new Paintable[0]), index + i, elements.get(i));
+				}
+			}
+		}
+
+		if (!elements.isEmpty()) {
+			for (PaintableListListener listener : listeners) {
+				if (listener instanceof PaintableListRangeListener) {
+					((PaintableListRangeListener) listener).onAddRange(references.toArray(new Paintable[0]), index, elements.toArray(new Paintable[0]));
+				}
+			}
 		}
 	}
 
-	private void fireOnRemove(Integer index, Paintable element) {
-		for (PaintableListListener listener : listeners) {
-			listener.onRemove(references.toArray(new Paintable[0]), index, element);
+	/**
+	 * removes a range of elements, from the last one. Range listeners are notified once, other listeners once per element.
+	 */
+	private void remove(int index, int count) {
+		final Paintable[] elements = references.subList(index, index + count).toArray(new Paintable[0]);
+
+		for (int i = count - 1; i >= 0; i--) {
+			references.remove(index + i);
+
+			for (PaintableListListener listener : listeners) {
+				if (!(listener instanceof PaintableListRangeListener)) {
+					listener.onRemove(references.toArray(new Paintable[0]), index + i, elements[i]);
+				}
+			}
+		}
+
+		if (count > 0) {
+			for (PaintableListListener listener : listeners) {
+				if (listener instanceof PaintableListRangeListener) {
+					((PaintableListRangeListener) listener).onRemoveRange(references.toArray(new Paintable[0]), index, elements);
+				}
+			}
 		}
 	}
+
+	/**
+	 * replaces the content with the listed elements. The elements both lists start with are kept, and only the old elements that follow are removed
+	 * and the new ones added.
+	 */
+	private void replace(List<Paintable> elements) {
+		int common = 0;
+
+		while (common < references.size() && common < elements.size() && references.get(common) == elements.get(common)) {
+			common++;
+		}
+
+		remove(common, references.size() - common);
+		add(common, elements.subList(common, elements.size()));
+	}
+
+	private static List<Paintable> getElements(UIDL instructionUIDL, ApplicationConnection client) {
+		final List<Paintable> elements = new ArrayList<Paintable>();
+
+		for (Iterator<Object> iterator = instructionUIDL.getChildIterator(); iterator.hasNext();) {
+			elements.add(((UIDL) iterator.next()).getPaintableAttribute("element", client));
+		}
+
+		return elements;
+	}
 }
@@ -0,0 +1,14 @@
+package org.vaadin.smartgwt.client.core;
+
+import com.vaadin.terminal.gwt.client.Paintable;
+
+/**
+ * list listener notified once per range of added or removed elements, instead of once per element, for widgets that can apply a whole range in one
+ * call.
+ */
+public interface PaintableListRangeListener extends PaintableListListener
+{
+	void onAddRange(Paintable[] source, int index, Paintable[] elements);
+
+	void onRemoveRange(Paintable[] source, int index, Paintable[] elements);
+}
@@ -1,8 +1,7 @@
 package org.vaadin.smartgwt.client.core;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
 import com.vaadin.terminal.gwt.client.ApplicationConnection;
 import com.vaadin.terminal.gwt.client.UIDL;
@@ -12,7 +11,7 @@ import com.vaadin.terminal.gwt.client.UIDL;
  * updating from UIDL.  Further behavior can be defined through listener registration, like adding or removing paintables from their respective parent.
  */
 public class PaintablePropertyUpdater {
-	private final List<PaintableProperty> properties = new ArrayList<PaintableProperty>();
+	private final Map<String, PaintableProperty> properties = new HashMap<String, PaintableProperty>();
 
 	/**
 	 * Registers a listener to be notified when the specified property reference is modified.
@@ -21,11 +20,11 @@ public class PaintablePropertyUpdater {
 	 * @param listener the listener to notify.
 	 */
 	public void addPaintableReferenceListener(String propertyName, PaintableReferenceListener listener) {
-		((PaintableReference) getOrCreateProperty(propertyName, "Reference")).addPaintableReferenceListener(listener);
+		((PaintableReference) getOrCreateProperty("$" + propertyName, "Reference")).addPaintableReferenceListener(listener);
 	}
 
 	public void addPaintableArrayListener(String propertyName, PaintableArrayListener listener) {
-		((PaintableArray) getOrCreateProperty(propertyName, "Array")).addPaintableArrayListener(listener);
+		((PaintableArray) getOrCreateProperty("$" + propertyName, "Array")).addPaintableArrayListener(listener);
 	}
 
 	/**
@@ -35,49 +34,56 @@ public class PaintablePropertyUpdater {
 	 * @param listener the listener to be notified.
 	 */
 	public void addPaintableListListener(String propertyName, PaintableListListener listener) {
-		((PaintableList) getOrCreateProperty(propertyName, "List")).addPaintableListListener(listener);
+		((PaintableList) getOrCreateProperty("$" + propertyName, "List")).addPaintableListListener(listener);
 	}
 
 	/**
-	 * Equivalent of Paintable.updateFromUIDL.  It must be called when updating the client-side component that uses this instance.
+	 * Equivalent of Paintable.updateFromUIDL.  It must be called when updating the client-side component that uses this instance.  Properties are
+	 * looked up by their tag, and the children are read in place, without building a list or an iterator.
 	 * 
 	 * @param uidl the client-side component uidl
 	 * @param client the application connection
 	 */
 	public void updateFromUIDL(UIDL uidl, ApplicationConnection client) {
-		for (UIDL propertyUIDL : filterUIDLPropertyChildren(uidl.getChildIterator())) {
-			final String name = propertyUIDL.getTag().substring(1);
-			final String type = propertyUIDL.hasAttribute("type") ? propertyUIDL.getStringAttribute("type") : null;
-			getOrCreateProperty(name, type).updateFromUIDL(propertyUIDL, client);
-		}
-	}
+		final int childCount = uidl.getChildCount();
+
+		for (int i = 0; i < childCount; i++) {
+			final UIDL propertyUIDL = getPropertyChild(uidl, i);
+
+			if (propertyUIDL != null) {
+				final String tag = propertyUIDL.getTag();
+				PaintableProperty property = properties.get(tag);
 
-	private PaintableProperty getOrCreateProperty(String name, String type) {
-		for (PaintableProperty property : properties) {
-			if (name.equals(property.getName())) {
-				return property;
+				if (property == null) {
+					final String type = propertyUIDL.hasAttribute("type") ? propertyUIDL.getStringAttribute("type") : null;
+					property = getOrCreateProperty(tag, type);
+				}
+
+				property.updateFromUIDL(propertyUIDL, client);
 			}
 		}
-
-		final PaintableProperty property = newPaintableProperty(name, type);
-		properties.add(property);
-		return property;
 	}
 
-	private static List<UIDL> filterUIDLPropertyChildren(Iterator<Object> childrenIterator) {
-		final List<UIDL> children = new ArrayList<UIDL>();
+	private PaintableProperty getOrCreateProperty(String tag, String type) {
+		PaintableProperty property = properties.get(tag);
 
-		while (childrenIterator.hasNext()) {
-			final Object next = childrenIterator.next();
-
-			if (next instanceof UIDL && ((UIDL) next).getTag().startsWith("$")) {
-				children.add((UIDL) next);
-			}
+		if (property == null) {
+			property = newPaintableProperty(tag.substring(1), type);
+			properties.put(tag, property);
 		}
 
-		return children;
+		return property;
 	}
 
+	/**
+	 * Returns the child at the index if it is a property tag, that is a UIDL whose tag starts with '$', and null for other children, including text.
+	 * Relies on the UIDL layout: the tag, the attributes, then the children.
+	 */
+	private static native UIDL getPropertyChild(UIDL uidl, int index) /*-{
+		var child = uidl[index + 2];
+		return typeof child == "object" && child[0].charAt(0) == "$" ? child : null;
+	}-*/;
+
 	private static PaintableProperty newPaintableProperty(final String name, final String type) {
 		if ("List".equals(type)) {
 			return new PaintableList(name);
@@ -89,4 +95,4 @@ public class PaintablePropertyUpdater {
 			throw new UnsupportedOperationException("unknow paintable property type.");
 		}
 	}
-}
\ No newline at end of file
+}
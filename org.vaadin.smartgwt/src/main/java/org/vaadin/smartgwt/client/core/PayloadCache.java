@@ -0,0 +1,77 @@
+package org.vaadin.smartgwt.client.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.util.JSON;
+
+/**
+ * decodes the frozen payloads painted by the server, as 'h' prefixed values holding the content hash and the JSON text. A payload is decoded once
+ * per hash, so the static cache data and value maps repainted with each component are not parsed again. Value maps are shared as decoded; record
+ * arrays are handed out as shallow copies, since grids and data sources add their own markers to the records they are given.
+ */
+public class PayloadCache {
+	private static final int MAX_PAYLOADS = 64;
+
+	private static final Map<String, JavaScriptObject> PAYLOADS = new LinkedHashMap<String, JavaScriptObject>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, JavaScriptObject> eldest) {
+			return size() > MAX_PAYLOADS;
+		}
+	};
+
+	private PayloadCache() {
+	}
+
+	/**
+	 * returns the value of a payload, decoding it only if its hash is not cached.
+	 *
+	 * @param paintValue
+	 *            the painted value, starting with the 'h' prefix.
+	 * @return the decoded value; a value map is shared and must not be modified, an array is a copy holding copies of its records.
+	 */
+	public static JavaScriptObject decode(String paintValue) {
+		final int separator = paintValue.indexOf(':');
+		final String hash = paintValue.substring(1, separator);
+		JavaScriptObject value = PAYLOADS.get(hash);
+
+		if (value == null) {
+			value = JSON.decode(paintValue.substring(separator + 1));
+			PAYLOADS.put(hash, value);
+		}
+
+		return copyRecords(value);
+	}
+
+	/**
+	 * returns a copy of an array, each record object in it copied shallowly, or the value itself if it is not an array.
+	 */
+	private static native JavaScriptObject copyRecords(JavaScriptObject value) /*-{
+		if (Object.prototype.toString.call(value) != "[object Array]") {
+			return value;
+		}
+
+		var copy = new Array(value.length);
+
+		for (var i = 0; i < value.length; i++) {
+			var record = value[i];
+
+			if (record != null && typeof record == "object") {
+				var recordCopy = {};
+
+				for (var name in record) {
+					if (record.hasOwnProperty(name)) {
+						recordCopy[name] = record[name];
+					}
+				}
+
+				copy[i] = recordCopy;
+			} else {
+				copy[i] = record;
+			}
+		}
+
+		return copy;
+	}-*/;
+}
@@ -0,0 +1,57 @@
+package org.vaadin.smartgwt.client.core;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * keeps the primary keys of the last selection sent to the server, so that only the keys added to or removed from the selection have to be sent.
+ */
+public class SelectionKeyTracker {
+	private JavaScriptObject sentKeys = JavaScriptObject.createObject();
+
+	/**
+	 * forgets the keys sent so far, to be called when the selection is reset along with the data.
+	 */
+	public void reset() {
+		sentKeys = JavaScriptObject.createObject();
+	}
+
+	/**
+	 * computes the difference between the selection and the last sent selection.
+	 * 
+	 * @param selection
+	 *            array of the selected records.
+	 * @param primaryKeyField
+	 *            name of the field holding the primary keys.
+	 * @return the json delta, of the form {"added": [keys], "removed": [keys]}, or null if the selection did not change.
+	 */
+	public String update(JavaScriptObject selection, String primaryKeyField) {
+		final JavaScriptObject keys = JavaScriptObject.createObject();
+		final JavaScriptObject delta = nDiff(sentKeys, keys, selection, primaryKeyField);
+		sentKeys = keys;
+		return delta == null ? null : JSON.stringify(delta);
+	}
+
+	// @formatter:off
+	private static native JavaScriptObject nDiff(JavaScriptObject sentKeys, JavaScriptObject keys, JavaScriptObject selection, String primaryKeyField) /*-{
+		var added = [];
+		var removed = [];
+
+		for (var i = 0; i < selection.length; i++) {
+			var key = selection[i][primaryKeyField];
+			keys[key] = key;
+
+			if (!sentKeys.hasOwnProperty(key)) {
+				added.push(key);
+			}
+		}
+
+		for (var sentKey in sentKeys) {
+			if (sentKeys.hasOwnProperty(sentKey) && !keys.hasOwnProperty(sentKey)) {
+				removed.push(sentKeys[sentKey]);
+			}
+		}
+
+		return added.length == 0 && removed.length == 0 ? null : { added: added, removed: removed };
+	}-*/;
+	// @formatter:on
+}
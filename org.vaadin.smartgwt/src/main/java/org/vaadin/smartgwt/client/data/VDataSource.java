@@ -1,12 +1,22 @@
 package org.vaadin.smartgwt.client.data;
 
+import org.vaadin.smartgwt.client.core.JSON;
 import org.vaadin.smartgwt.client.core.PaintableListListener;
 import org.vaadin.smartgwt.client.core.PaintablePropertyUpdater;
 import org.vaadin.smartgwt.client.core.VBaseClass;
 import org.vaadin.smartgwt.client.core.VDataClass;
 
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.data.DSRequest;
+import com.smartgwt.client.data.DSResponse;
 import com.smartgwt.client.data.DataSource;
 import com.smartgwt.client.data.DataSourceField;
+import com.smartgwt.client.data.Record;
+import com.smartgwt.client.data.SortSpecifier;
+import com.smartgwt.client.types.DSOperationType;
+import com.smartgwt.client.types.DSProtocol;
+import com.smartgwt.client.types.SortDirection;
+import com.smartgwt.client.util.JSOHelper;
 import com.vaadin.terminal.gwt.client.ApplicationConnection;
 import com.vaadin.terminal.gwt.client.Paintable;
 import com.vaadin.terminal.gwt.client.UIDL;
@@ -14,10 +24,13 @@ import com.vaadin.terminal.gwt.client.UIDL;
 public class VDataSource extends VBaseClass<DataSource>
 {
 	private final PaintablePropertyUpdater propertyUpdater = new PaintablePropertyUpdater();
+	private ApplicationConnection client;
+	private String pid;
 
 	public VDataSource()
 	{
-		super(new DataSource());
+		super(new ServerDataSource());
+		((ServerDataSource) getJSObject()).owner = this;
 
 		propertyUpdater.addPaintableListListener("fields", new PaintableListListener()
 			{
@@ -38,6 +51,14 @@ public class VDataSource extends VBaseClass<DataSource>
 	@Override
 	protected void preAttributeUpdateFromUIDL(UIDL uidl, ApplicationConnection client)
 	{
+		this.client = client;
+		this.pid = uidl.getId();
+
+		if (uidl.hasAttribute("*serverHandler") && getJSObject().getDataProtocol() != DSProtocol.CLIENTCUSTOM)
+		{
+			getJSObject().setDataProtocol(DSProtocol.CLIENTCUSTOM);
+		}
+
 		propertyUpdater.updateFromUIDL(uidl, client);
 	}
 
@@ -48,5 +69,117 @@ public class VDataSource extends VBaseClass<DataSource>
 		{
 			getJSObject().setID(uidl.getStringAttribute("*ID").substring(1));
 		}
+
+		if (uidl.hasAttribute("*dsResponses"))
+		{
+			processResponses(com.smartgwt.client.util.JSON.decode(uidl.getStringAttribute("*dsResponses")));
+		}
+	}
+
+	/**
+	 * sends a request of a DataSource backed by a server-side handler. Fetches send their rows, sort and criteria; other operations send the record
+	 * values.
+	 */
+	private void sendRequest(DSRequest dsRequest)
+	{
+		final JavaScriptObject requestJSO = JavaScriptObject.createObject();
+		JSOHelper.setAttribute(requestJSO, "requestId", dsRequest.getRequestId());
+		JSOHelper.setAttribute(requestJSO, "operationType", dsRequest.getOperationType().getValue());
+
+		if (dsRequest.getOperationType() == DSOperationType.FETCH)
+		{
+			if (dsRequest.getStartRow() != null)
+			{
+				JSOHelper.setAttribute(requestJSO, "startRow", dsRequest.getStartRow());
+			}
+
+			if (dsRequest.getEndRow() != null)
+			{
+				JSOHelper.setAttribute(requestJSO, "endRow", dsRequest.getEndRow());
+			}
+
+			if (dsRequest.getTextMatchStyle() != null)
+			{
+				JSOHelper.setAttribute(requestJSO, "textMatchStyle", dsRequest.getTextMatchStyle().getValue());
+			}
+
+			JSOHelper.setAttribute(requestJSO, "criteria", dsRequest.getData());
+			JSOHelper.setAttribute(requestJSO, "sortBy", toSortBy(dsRequest.getSortBy()));
+		}
+		else
+		{
+			JSOHelper.setAttribute(requestJSO, "data", dsRequest.getData());
+
+			if (dsRequest.getOldValues() != null)
+			{
+				JSOHelper.setAttribute(requestJSO, "oldValues", dsRequest.getOldValues().getJsObj());
+			}
+		}
+
+		client.updateVariable(pid, "dsRequest", JSON.stringify(requestJSO), true);
+	}
+
+	private void processResponses(JavaScriptObject responses)
+	{
+		for (JavaScriptObject responseJSO : JSOHelper.toArray(responses))
+		{
+			final DSResponse response = new DSResponse();
+			response.setStatus(JSOHelper.getAttributeAsInt(responseJSO, "status"));
+
+			if (JSOHelper.getAttribute(responseJSO, "startRow") != null)
+			{
+				response.setStartRow(JSOHelper.getAttributeAsInt(responseJSO, "startRow"));
+				response.setEndRow(JSOHelper.getAttributeAsInt(responseJSO, "endRow"));
+				response.setTotalRows(JSOHelper.getAttributeAsInt(responseJSO, "totalRows"));
+			}
+
+			if (JSOHelper.getAttribute(responseJSO, "errorMessage") != null)
+			{
+				JSOHelper.setAttribute(response.getJsObj(), "data", JSOHelper.getAttribute(responseJSO, "errorMessage"));
+			}
+			else
+			{
+				response.setData(Record.convertToRecordArray(JSOHelper.getAttributeAsJavaScriptObject(responseJSO, "data")));
+			}
+
+			if (JSOHelper.getAttributeAsJavaScriptObject(responseJSO, "errors") != null)
+			{
+				response.setErrors(JSOHelper.getAttributeAsJavaScriptObject(responseJSO, "errors"));
+			}
+
+			getJSObject().processResponse(JSOHelper.getAttribute(responseJSO, "requestId"), response);
+		}
+	}
+
+	private static String[] toSortBy(SortSpecifier[] sortSpecifiers)
+	{
+		final String[] sortBy = new String[sortSpecifiers == null ? 0 : sortSpecifiers.length];
+
+		for (int i = 0; i < sortBy.length; i++)
+		{
+			final String field = sortSpecifiers[i].getField();
+			sortBy[i] = sortSpecifiers[i].getSortDirection() == SortDirection.DESCENDING ? "-" + field : field;
+		}
+
+		return sortBy;
+	}
+
+	/**
+	 * DataSource forwarding its requests to the server when the server-side DataSource has a handler.
+	 */
+	private static class ServerDataSource extends DataSource
+	{
+		private VDataSource owner;
+
+		@Override
+		protected Object transformRequest(DSRequest dsRequest)
+		{
+			if (getDataProtocol() == DSProtocol.CLIENTCUSTOM)
+			{
+				owner.sendRequest(dsRequest);
+			}
+
+			return super.transformRequest(dsRequest);
+		}
 	}
 }
@@ -0,0 +1,106 @@
+package org.vaadin.smartgwt.client.extra;
+
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestBuilder;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.RequestException;
+import com.google.gwt.http.client.Response;
+import com.google.gwt.http.client.URL;
+import com.google.gwt.user.client.DOM;
+import com.google.gwt.user.client.Element;
+import com.google.gwt.user.client.Timer;
+import com.google.gwt.user.client.ui.Widget;
+import com.vaadin.terminal.gwt.client.ApplicationConnection;
+import com.vaadin.terminal.gwt.client.Paintable;
+import com.vaadin.terminal.gwt.client.UIDL;
+
+public class VPusher extends Widget implements Paintable {
+	private static final int RETRY_DELAY = 5000;
+
+	private final Timer retry = new Timer() {
+		@Override
+		public void run() {
+			poll();
+		}
+	};
+	private Element element;
+	private String pid;
+	private ApplicationConnection client;
+	private String channelUrl;
+	private Request request;
+
+	@Override
+	public Element getElement() {
+		return element == null ? element = DOM.createDiv() : element;
+	}
+
+	@Override
+	public void updateFromUIDL(UIDL uidl, ApplicationConnection client) {
+		if (this.pid == null) {
+			this.pid = uidl.getId();
+			this.client = client;
+		}
+
+		if (!uidl.hasAttribute("cached")) {
+			final String channelUrl = uidl.hasAttribute("channel") ? uidl.getStringAttribute("url") + "?channel="
+					+ URL.encodeQueryString(uidl.getStringAttribute("channel")) : null;
+
+			if (channelUrl == null ? this.channelUrl != null : !channelUrl.equals(this.channelUrl)) {
+				stop();
+				this.channelUrl = channelUrl;
+				poll();
+			}
+		}
+	}
+
+	@Override
+	protected void onDetach() {
+		stop();
+		channelUrl = null;
+		super.onDetach();
+	}
+
+	private void poll() {
+		if (channelUrl == null) {
+			return;
+		}
+
+		final RequestBuilder builder = new RequestBuilder(RequestBuilder.GET, channelUrl);
+
+		try {
+			request = builder.sendRequest(null, new RequestCallback() {
+				@Override
+				public void onResponseReceived(Request request, Response response) {
+					final String answer = response.getStatusCode() == Response.SC_OK ? response.getText().trim() : null;
+					VPusher.this.request = null;
+
+					if ("1".equals(answer)) {
+						client.updateVariable(pid, "p", true, true);
+						poll();
+					} else if ("0".equals(answer)) {
+						poll();
+					} else if (!"x".equals(answer)) {
+						retry.schedule(RETRY_DELAY);
+					}
+				}
+
+				@Override
+				public void onError(Request request, Throwable exception) {
+					VPusher.this.request = null;
+					retry.schedule(RETRY_DELAY);
+				}
+			});
+		} catch (RequestException e) {
+			retry.schedule(RETRY_DELAY);
+		}
+	}
+
+	private void stop() {
+		retry.cancel();
+
+		if (request != null) {
+			request.cancel();
+			request = null;
+		}
+	}
+}
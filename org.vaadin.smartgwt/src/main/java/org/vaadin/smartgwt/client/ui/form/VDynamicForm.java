@@ -3,37 +3,69 @@ package org.vaadin.smartgwt.client.ui.form;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.vaadin.smartgwt.client.core.PaintableListListener;
+import org.vaadin.smartgwt.client.core.PaintableListRangeListener;
 import org.vaadin.smartgwt.client.core.PaintablePropertyUpdater;
+import org.vaadin.smartgwt.client.ui.form.fields.FormItemValueBuffer;
 import org.vaadin.smartgwt.client.ui.form.fields.VAbstractFormItem;
 import org.vaadin.smartgwt.client.ui.utils.PainterHelper;
 
 import com.google.gwt.user.client.DOM;
 import com.google.gwt.user.client.Element;
+import com.google.gwt.user.client.Timer;
 import com.smartgwt.client.widgets.form.DynamicForm;
+import com.smartgwt.client.widgets.form.events.SubmitValuesEvent;
+import com.smartgwt.client.widgets.form.events.SubmitValuesHandler;
 import com.smartgwt.client.widgets.form.fields.FormItem;
 import com.vaadin.terminal.gwt.client.ApplicationConnection;
 import com.vaadin.terminal.gwt.client.Paintable;
 import com.vaadin.terminal.gwt.client.UIDL;
 
-public class VDynamicForm extends DynamicForm implements Paintable
+public class VDynamicForm extends DynamicForm implements Paintable, FormItemValueBuffer
 {
 	private final PaintablePropertyUpdater propertyUpdater = new PaintablePropertyUpdater();
 	private final Element element = DOM.createDiv();
+	private final Timer syncTimer = new Timer()
+		{
+			@Override
+			public void run()
+			{
+				flushValues();
+			}
+		};
+	private Paintable[] items = new Paintable[0];
+	private ApplicationConnection client;
+	private boolean hasPendingValues;
+	private int valueSyncDelay = -1;
 
 	public VDynamicForm()
 	{
-		propertyUpdater.addPaintableListListener("fields", new PaintableListListener()
+		propertyUpdater.addPaintableListListener("fields", new PaintableListRangeListener()
 			{
 				@Override
 				public void onRemove(Paintable[] source, Integer index, Paintable element)
 				{
+					items = source;
 					setFields(toFormItemArray(source).toArray(new FormItem[0]));
 				}
 
 				@Override
 				public void onAdd(Paintable[] source, Integer index, Paintable element)
 				{
+					items = source;
+					setFields(toFormItemArray(source).toArray(new FormItem[0]));
+				}
+
+				@Override
+				public void onAddRange(Paintable[] source, int index, Paintable[] elements)
+				{
+					items = source;
+					setFields(toFormItemArray(source).toArray(new FormItem[0]));
+				}
+
+				@Override
+				public void onRemoveRange(Paintable[] source, int index, Paintable[] elements)
+				{
+					items = source;
 					setFields(toFormItemArray(source).toArray(new FormItem[0]));
 				}
 
@@ -48,6 +80,15 @@ public class VDynamicForm extends DynamicForm implements Paintable
 					return formItems;
 				}
 			});
+
+		addSubmitValuesHandler(new SubmitValuesHandler()
+			{
+				@Override
+				public void onSubmitValues(SubmitValuesEvent event)
+				{
+					flushValues();
+				}
+			});
 	}
 
 	@Override
@@ -59,7 +100,50 @@ public class VDynamicForm extends DynamicForm implements Paintable
 	@Override
 	public void updateFromUIDL(UIDL uidl, ApplicationConnection client)
 	{
+		this.client = client;
+		valueSyncDelay = uidl.hasAttribute("*valueSyncDelay") ? uidl.getIntAttribute("*valueSyncDelay") : -1;
 		propertyUpdater.updateFromUIDL(uidl, client);
+
+		for (Paintable item : items)
+		{
+			((VAbstractFormItem<?, ?>) item).setValueBuffer(valueSyncDelay < 0 ? null : this);
+		}
+
+		if (valueSyncDelay < 0)
+		{
+			flushValues();
+		}
+
 		PainterHelper.updateSmartGWTComponent(client, this, uidl);
 	}
+
+	@Override
+	public void valueChanged(String pid, String value, boolean flush)
+	{
+		client.updateVariable(pid, "value", value, false);
+		hasPendingValues = true;
+
+		if (flush)
+		{
+			flushValues();
+		}
+		else if (valueSyncDelay > 0)
+		{
+			syncTimer.schedule(valueSyncDelay);
+		}
+	}
+
+	/**
+	 * sends the queued values now; values that already rode along with an earlier request are not sent again.
+	 */
+	private void flushValues()
+	{
+		syncTimer.cancel();
+
+		if (hasPendingValues)
+		{
+			hasPendingValues = false;
+			client.sendPendingVariableChanges();
+		}
+	}
 }
@@ -0,0 +1,18 @@
+package org.vaadin.smartgwt.client.ui.form.fields;
+
+/**
+ * collects the value changes of form items, to be sent to the server along with the next request.
+ */
+public interface FormItemValueBuffer {
+	/**
+	 * queues the new value of an item.
+	 *
+	 * @param pid
+	 *            the paintable id of the item.
+	 * @param value
+	 *            the new value, as sent to the server.
+	 * @param flush
+	 *            true if the server needs the value right away.
+	 */
+	void valueChanged(String pid, String value, boolean flush);
+}
@@ -19,6 +19,8 @@ public abstract class VAbstractFormItem<T extends FormItem, V> extends VDataClas
 	private V value = null;
 	private ApplicationConnection client;
 	private String pid;
+	private FormItemValueBuffer valueBuffer;
+	private boolean hasValueChangeListeners;
 
 	protected VAbstractFormItem(T dataClass) {
 		super(dataClass);
@@ -60,6 +62,7 @@ public abstract class VAbstractFormItem<T extends FormItem, V> extends VDataClas
 
 		this.pid = uidl.getId();
 		this.client = client;
+		this.hasValueChangeListeners = uidl.hasAttribute("*hasValueChangeListeners");
 		propertyUpdater.updateFromUIDL(uidl, client);
 		super.preAttributeUpdateFromUIDL(uidl, client);
 	}
@@ -75,9 +78,27 @@ public abstract class VAbstractFormItem<T extends FormItem, V> extends VDataClas
 
 	protected abstract V getFormItemValue();
 
+	/**
+	 * sets the buffer the value changes are handed to instead of being sent right away.
+	 * 
+	 * @param valueBuffer
+	 *            the buffer, or null to send each change on its own.
+	 */
+	public void setValueBuffer(FormItemValueBuffer valueBuffer) {
+		this.valueBuffer = valueBuffer;
+	}
+
 	private void postChange() {
-		if (!equal(value, getFormItemValue())) {
-			client.updateVariable(pid, "value", getFormItemValue() == null ? null : getFormItemValue().toString(), true);
+		final V formItemValue = getFormItemValue();
+
+		if (!equal(value, formItemValue)) {
+			final String newValue = formItemValue == null ? null : formItemValue.toString();
+
+			if (valueBuffer != null) {
+				valueBuffer.valueChanged(pid, newValue, hasValueChangeListeners);
+			} else {
+				client.updateVariable(pid, "value", newValue, true);
+			}
 		}
 	}
 
@@ -3,7 +3,7 @@ package org.vaadin.smartgwt.client.ui.form.fields;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.vaadin.smartgwt.client.core.PaintableListListener;
+import org.vaadin.smartgwt.client.core.PaintableListRangeListener;
 import org.vaadin.smartgwt.client.core.PaintablePropertyUpdater;
 import org.vaadin.smartgwt.client.core.VJSObject;
 import org.vaadin.smartgwt.client.ui.grid.VListGridField;
@@ -23,10 +23,33 @@ public class VSelectItem extends VAbstractFormItem<SelectItem, String>
 	{
 		super(new SelectItem());
 
-		propertyUpdater.addPaintableListListener("pickListFields", new PaintableListListener()
+		propertyUpdater.addPaintableListListener("pickListFields", new PaintableListRangeListener()
 			{
 				@Override
 				public void onAdd(Paintable[] source, Integer index, Paintable element)
+				{
+					setPickListFields(source);
+				}
+
+				@Override
+				public void onRemove(Paintable[] source, Integer index, Paintable element)
+				{
+
+				}
+
+				@Override
+				public void onAddRange(Paintable[] source, int index, Paintable[] elements)
+				{
+					setPickListFields(source);
+				}
+
+				@Override
+				public void onRemoveRange(Paintable[] source, int index, Paintable[] elements)
+				{
+					setPickListFields(source);
+				}
+
+				private void setPickListFields(Paintable[] source)
 				{
 					final List<ListGridField> pickListFields = new ArrayList<ListGridField>();
 
@@ -37,12 +60,6 @@ public class VSelectItem extends VAbstractFormItem<SelectItem, String>
 
 					getJSObject().setPickListFields(pickListFields.toArray(new ListGridField[0]));
 				}
-
-				@Override
-				public void onRemove(Paintable[] source, Integer index, Paintable element)
-				{
-
-				}
 			});
 	}
 
@@ -0,0 +1,133 @@
+package org.vaadin.smartgwt.client.ui.grid;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.util.JSOHelper;
+import com.vaadin.terminal.gwt.client.UIDL;
+
+/**
+ * encodes grid events into the single envelope variable decoded by the server-side GridEventEnvelope. When the grid has a primary key field, records
+ * are sent as their key, plus the fields requested by the server if any; without a primary key, records are sent with the requested fields, or
+ * whole.
+ */
+public class GridEventEncoder {
+	private String primaryKeyField;
+	private JavaScriptObject recordFields;
+
+	/**
+	 * reads the primary key field and the requested record fields painted by the server.
+	 *
+	 * @param uidl
+	 *            the grid's UIDL.
+	 */
+	public void updateFromUIDL(UIDL uidl) {
+		primaryKeyField = uidl.hasAttribute("*primaryKeyField") ? uidl.getStringAttribute("*primaryKeyField") : null;
+		recordFields = uidl.hasAttribute("*eventRecordFields") ? JSOHelper.convertToJavaScriptArray(uidl.getStringArrayAttribute("*eventRecordFields"))
+				: null;
+	}
+
+	/**
+	 * adds a record to the envelope.
+	 *
+	 * @param envelope
+	 *            the envelope.
+	 * @param keyName
+	 *            the member holding the key.
+	 * @param dataName
+	 *            the member holding the fields.
+	 * @param record
+	 *            the record, may be null.
+	 */
+	public void putRecord(JavaScriptObject envelope, String keyName, String dataName, JavaScriptObject record) {
+		if (record != null) {
+			if (primaryKeyField != null) {
+				nPutKey(envelope, keyName, record, primaryKeyField);
+			}
+
+			if (recordFields != null) {
+				nPut(envelope, dataName, nPick(record, recordFields));
+			} else if (primaryKeyField == null) {
+				nPut(envelope, dataName, copyRecord(record));
+			}
+		}
+	}
+
+	/**
+	 * adds an array of records to the envelope.
+	 *
+	 * @param envelope
+	 *            the envelope.
+	 * @param keysName
+	 *            the member holding the keys.
+	 * @param dataName
+	 *            the member holding the fields.
+	 * @param records
+	 *            the records.
+	 */
+	public void putRecords(JavaScriptObject envelope, String keysName, String dataName, JavaScriptObject records) {
+		final int length = JSOHelper.getArrayLength(records);
+
+		if (primaryKeyField != null) {
+			nPut(envelope, keysName, nPluck(records, primaryKeyField));
+		}
+
+		if (recordFields != null || primaryKeyField == null) {
+			final JavaScriptObject data = JavaScriptObject.createArray();
+
+			for (int i = 0; i < length; i++) {
+				final JavaScriptObject record = JSOHelper.getValueFromJavaScriptObjectArray(records, i);
+				nSet(data, i, recordFields != null ? nPick(record, recordFields) : copyRecord(record));
+			}
+
+			nPut(envelope, dataName, data);
+		}
+	}
+
+	/**
+	 * returns the record as sent when no fields were requested and the grid has no primary key field.
+	 *
+	 * @param record
+	 *            the record.
+	 * @return the record to send.
+	 */
+	protected JavaScriptObject copyRecord(JavaScriptObject record) {
+		return record;
+	}
+
+	// @formatter:off
+	private static native void nPutKey(JavaScriptObject envelope, String name, JavaScriptObject record, String primaryKeyField) /*-{
+		envelope[name] = record[primaryKeyField];
+	}-*/;
+
+	private static native void nPut(JavaScriptObject envelope, String name, JavaScriptObject value) /*-{
+		envelope[name] = value;
+	}-*/;
+
+	private static native void nSet(JavaScriptObject array, int index, JavaScriptObject value) /*-{
+		array[index] = value;
+	}-*/;
+
+	private static native JavaScriptObject nPluck(JavaScriptObject records, String name) /*-{
+		var values = new Array(records.length);
+
+		for (var i = 0; i < records.length; i++) {
+			values[i] = records[i][name];
+		}
+
+		return values;
+	}-*/;
+
+	private static native JavaScriptObject nPick(JavaScriptObject record, JavaScriptObject fields) /*-{
+		var copy = {};
+
+		for (var i = 0; i < fields.length; i++) {
+			var value = record[fields[i]];
+
+			if (value !== undefined) {
+				copy[fields[i]] = value;
+			}
+		}
+
+		return copy;
+	}-*/;
+	// @formatter:on
+}
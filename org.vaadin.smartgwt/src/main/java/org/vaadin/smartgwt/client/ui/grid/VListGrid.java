@@ -1,10 +1,10 @@
 package org.vaadin.smartgwt.client.ui.grid;
 
 import org.vaadin.smartgwt.client.core.JSON;
-import org.vaadin.smartgwt.client.core.PaintableListListener;
+import org.vaadin.smartgwt.client.core.PaintableListRangeListener;
 import org.vaadin.smartgwt.client.core.PaintablePropertyUpdater;
+import org.vaadin.smartgwt.client.core.SelectionKeyTracker;
 import org.vaadin.smartgwt.client.core.ServerSideEventRegistration;
-import org.vaadin.smartgwt.client.core.VDataClass;
 import org.vaadin.smartgwt.client.core.VJSObject;
 import org.vaadin.smartgwt.client.ui.utils.PainterHelper;
 
@@ -13,10 +13,19 @@ import com.google.gwt.event.shared.HandlerRegistration;
 import com.google.gwt.user.client.DOM;
 import com.google.gwt.user.client.Element;
 import com.smartgwt.client.core.DataClass;
+import com.smartgwt.client.data.DSRequest;
+import com.smartgwt.client.data.DSResponse;
 import com.smartgwt.client.data.DataSource;
+import com.smartgwt.client.data.Record;
+import com.smartgwt.client.data.SortSpecifier;
+import com.smartgwt.client.types.DSOperationType;
+import com.smartgwt.client.types.DSProtocol;
+import com.smartgwt.client.types.FetchMode;
+import com.smartgwt.client.types.SortDirection;
 import com.smartgwt.client.util.JSOHelper;
 import com.smartgwt.client.widgets.grid.ListGrid;
 import com.smartgwt.client.widgets.grid.ListGridField;
+import com.smartgwt.client.widgets.grid.ListGridRecord;
 import com.smartgwt.client.widgets.grid.events.RecordDoubleClickEvent;
 import com.smartgwt.client.widgets.grid.events.RecordDoubleClickHandler;
 import com.smartgwt.client.widgets.grid.events.SelectionChangedHandler;
@@ -30,14 +39,18 @@ import com.vaadin.terminal.gwt.client.UIDL;
 public class VListGrid extends ListGrid implements Paintable {
 	private final PaintablePropertyUpdater propertyUpdater = new PaintablePropertyUpdater();
 	private final Element element = DOM.createDiv();
+	private final SelectionKeyTracker selectionKeyTracker = new SelectionKeyTracker();
+	private final GridEventEncoder eventEncoder = new GridEventEncoder();
 	private String pid;
 	private ApplicationConnection client;
 	private ServerSideEventRegistration selectedChangedEventRegistration;
 	private ServerSideEventRegistration selectionUpdatedEventRegistration;
 	private ServerSideEventRegistration recordDoubleClickedEventRegistration;
+	private DataSource providerDataSource;
+	private String primaryKeyField;
 
 	public VListGrid() {
-		propertyUpdater.addPaintableListListener("fields", new PaintableListListener() {
+		propertyUpdater.addPaintableListListener("fields", new PaintableListRangeListener() {
 			@Override
 			public void onAdd(Paintable[] source, Integer index, Paintable element) {
 				setFields(toListGridFieldArray(source));
@@ -48,6 +61,16 @@ public class VListGrid extends ListGrid implements Paintable {
 				setFields(toListGridFieldArray(source));
 			}
 
+			@Override
+			public void onAddRange(Paintable[] source, int index, Paintable[] elements) {
+				setFields(toListGridFieldArray(source));
+			}
+
+			@Override
+			public void onRemoveRange(Paintable[] source, int index, Paintable[] elements) {
+				setFields(toListGridFieldArray(source));
+			}
+
 			private ListGridField[] toListGridFieldArray(Paintable[] source) {
 				final ListGridField[] fields = new ListGridField[source.length];
 
@@ -79,7 +102,16 @@ public class VListGrid extends ListGrid implements Paintable {
 				@Override
 				public void onSelectionUpdated(SelectionUpdatedEvent event) {
 					final JavaScriptObject selectedRecordsJSA = toJSOArray(getSelectedRecords());
-					VListGrid.this.client.updateVariable(pid, "selectedRecords", JSON.stringify(selectedRecordsJSA), false);
+
+					if (primaryKeyField != null) {
+						final String delta = selectionKeyTracker.update(selectedRecordsJSA, primaryKeyField);
+
+						if (delta != null) {
+							VListGrid.this.client.updateVariable(pid, "selectionDelta", delta, false);
+						}
+					} else {
+						VListGrid.this.client.updateVariable(pid, "selectedRecords", JSON.stringify(selectedRecordsJSA), false);
+					}
 				}
 			});
 
@@ -89,12 +121,12 @@ public class VListGrid extends ListGrid implements Paintable {
 					return addSelectionChangedHandler(new SelectionChangedHandler() {
 						@Override
 						public void onSelectionChanged(SelectionEvent event) {
-							final JavaScriptObject eventJSO = JavaScriptObject.createObject();
-							JSOHelper.setAttribute(eventJSO, "record", toJSO(event.getRecord()));
-							JSOHelper.setAttribute(eventJSO, "state", event.getState());
-							JSOHelper.setAttribute(eventJSO, "selection", toJSOArray(event.getSelection()));
-							JSOHelper.setAttribute(eventJSO, "selectedRecord", toJSO(event.getSelectedRecord()));
-							VListGrid.this.client.updateVariable(pid, "onSelectionChanged.event", JSON.stringify(eventJSO), true);
+							final JavaScriptObject envelope = JavaScriptObject.createObject();
+							eventEncoder.putRecord(envelope, "k", "d", toJSO(event.getRecord()));
+							JSOHelper.setAttribute(envelope, "s", event.getState());
+							eventEncoder.putRecords(envelope, "sk", "sd", toJSOArray(event.getSelection()));
+							eventEncoder.putRecord(envelope, "xk", "xd", toJSO(event.getSelectedRecord()));
+							VListGrid.this.client.updateVariable(pid, "onSelectionChanged", JSON.stringify(envelope), true);
 						}
 					});
 				}
@@ -118,18 +150,25 @@ public class VListGrid extends ListGrid implements Paintable {
 					return addRecordDoubleClickHandler(new RecordDoubleClickHandler() {
 						@Override
 						public void onRecordDoubleClick(RecordDoubleClickEvent event) {
-							final ApplicationConnection client = VListGrid.this.client;
-							client.updateVariable(pid, "onRecordDoubleClick", true, false);
-							client.updateVariable(pid, "onRecordDoubleClick.event.record", JSON.stringify(toJSO(event.getRecord())), false);
-							client.updateVariable(pid, "onRecordDoubleClick.event.recordNum", event.getRecordNum(), false);
-							client.updateVariable(pid, "onRecordDoubleClick.event.field", VDataClass.getVDataClass(client, event.getField()), false);
-							client.updateVariable(pid, "onRecordDoubleClick.event.fieldNum", event.getFieldNum(), true);
+							final JavaScriptObject envelope = JavaScriptObject.createObject();
+							eventEncoder.putRecord(envelope, "k", "d", toJSO(event.getRecord()));
+							JSOHelper.setAttribute(envelope, "r", event.getRecordNum());
+							JSOHelper.setAttribute(envelope, "c", event.getFieldNum());
+							JSOHelper.setAttribute(envelope, "f", event.getField() == null ? null : event.getField().getName());
+							VListGrid.this.client.updateVariable(pid, "onRecordDoubleClick", JSON.stringify(envelope), true);
 						}
 					});
 				}
 			};
 		}
 
+		primaryKeyField = uidl.hasAttribute("*primaryKeyField") ? uidl.getStringAttribute("*primaryKeyField") : null;
+		eventEncoder.updateFromUIDL(uidl);
+
+		if (uidl.hasAttribute("data")) {
+			selectionKeyTracker.reset();
+		}
+
 		selectedChangedEventRegistration.updateFromUIDL(uidl);
 		selectionUpdatedEventRegistration.updateFromUIDL(uidl);
 		recordDoubleClickedEventRegistration.updateFromUIDL(uidl);
@@ -140,9 +179,112 @@ public class VListGrid extends ListGrid implements Paintable {
 			setDataSource(((VJSObject<DataSource>) paintable).getJSObject());
 		}
 
+		if (uidl.hasAttribute("*dataProvider")) {
+			updateDataProvider(uidl);
+		} else if (providerDataSource != null) {
+			unbindDataProvider(uidl);
+		}
+
+		if (uidl.hasAttribute("*dataChanges")) {
+			final JavaScriptObject changes = com.smartgwt.client.util.JSON.decode(uidl.getStringAttribute("*dataChanges"));
+
+			for (JavaScriptObject change : JSOHelper.toArray(changes)) {
+				applyDataChange(getRecordList().getJsObj(), primaryKeyField, JSOHelper.getAttribute(change, "op"),
+						JSOHelper.getAttributeAsJavaScriptObject(change, "record"));
+			}
+		}
+
 		PainterHelper.updateSmartGWTComponent(client, this, uidl);
 	}
 
+	private void updateDataProvider(UIDL uidl) {
+		if (providerDataSource == null) {
+			providerDataSource = new DataSource() {
+				@Override
+				protected Object transformRequest(DSRequest dsRequest) {
+					if (dsRequest.getOperationType() == DSOperationType.FETCH) {
+						sendFetchRequest(dsRequest);
+					}
+
+					return super.transformRequest(dsRequest);
+				}
+			};
+			providerDataSource.setDataProtocol(DSProtocol.CLIENTCUSTOM);
+			setDataSource(providerDataSource);
+			setDataFetchMode(FetchMode.PAGED);
+			fetchData();
+		} else if (uidl.hasAttribute("*invalidateCache")) {
+			invalidateCache();
+		}
+
+		if (uidl.hasAttribute("*fetchResponses")) {
+			final JavaScriptObject responses = com.smartgwt.client.util.JSON.decode(uidl.getStringAttribute("*fetchResponses"));
+
+			for (JavaScriptObject responseJSO : JSOHelper.toArray(responses)) {
+				final DSResponse response = new DSResponse();
+				response.setStartRow(JSOHelper.getAttributeAsInt(responseJSO, "startRow"));
+				response.setEndRow(JSOHelper.getAttributeAsInt(responseJSO, "endRow"));
+				response.setTotalRows(JSOHelper.getAttributeAsInt(responseJSO, "totalRows"));
+				response.setData(Record.convertToRecordArray(JSOHelper.getAttributeAsJavaScriptObject(responseJSO, "data")));
+				providerDataSource.processResponse(JSOHelper.getAttribute(responseJSO, "requestId"), response);
+			}
+		}
+	}
+
+	private void unbindDataProvider(UIDL uidl) {
+		providerDataSource = null;
+		setDataFetchMode(FetchMode.LOCAL);
+
+		if (!uidl.hasAttribute("dataSource")) {
+			unbindDataSource(getOrCreateJsObj());
+		}
+
+		if (!uidl.hasAttribute("data")) {
+			setData(new ListGridRecord[0]);
+		}
+	}
+
+	private void sendFetchRequest(DSRequest dsRequest) {
+		final JavaScriptObject requestJSO = JavaScriptObject.createObject();
+		JSOHelper.setAttribute(requestJSO, "requestId", dsRequest.getRequestId());
+		JSOHelper.setAttribute(requestJSO, "startRow", dsRequest.getStartRow());
+		JSOHelper.setAttribute(requestJSO, "endRow", dsRequest.getEndRow());
+		JSOHelper.setAttribute(requestJSO, "criteria", JSOHelper.getAttributeAsJavaScriptObject(dsRequest.getJsObj(), "data"));
+
+		final SortSpecifier[] sortSpecifiers = dsRequest.getSortBy();
+
+		if (sortSpecifiers != null) {
+			final String[] sortBy = new String[sortSpecifiers.length];
+
+			for (int i = 0; i < sortBy.length; i++) {
+				final String field = sortSpecifiers[i].getField();
+				sortBy[i] = sortSpecifiers[i].getSortDirection() == SortDirection.DESCENDING ? "-" + field : field;
+			}
+
+			JSOHelper.setAttribute(requestJSO, "sortBy", sortBy);
+		}
+
+		client.updateVariable(pid, "fetchRequest", JSON.stringify(requestJSO), true);
+	}
+
+	private static native void unbindDataSource(JavaScriptObject grid) /*-{
+		grid.setDataSource(null);
+	}-*/;
+
+	private static native void applyDataChange(JavaScriptObject data, String primaryKeyField, String op, JavaScriptObject record) /*-{
+		if (op == "add") {
+			data.add(record);
+		} else {
+			var index = data.findIndex(primaryKeyField, record[primaryKeyField]);
+
+			if (index >= 0 && op == "update") {
+				data.set(index, record);
+			} else if (index >= 0) {
+				data.removeAt(index);
+			}
+		}
+	}-*/;
+
 	private static JavaScriptObject toJSOArray(DataClass[] array) {
 		final JavaScriptObject arrayJSO = JavaScriptObject.createArray();
 		for (int i = 0; i < array.length; i++) {
@@ -1,6 +1,6 @@
 package org.vaadin.smartgwt.client.ui.layout;
 
-import org.vaadin.smartgwt.client.core.PaintableListListener;
+import org.vaadin.smartgwt.client.core.PaintableListRangeListener;
 import org.vaadin.smartgwt.client.core.PaintablePropertyUpdater;
 import org.vaadin.smartgwt.client.ui.utils.PainterHelper;
 
@@ -19,7 +19,7 @@ public class VHLayout extends HLayout implements Paintable
 
 	public VHLayout()
 	{
-		propertyUpdater.addPaintableListListener("members", new PaintableListListener()
+		propertyUpdater.addPaintableListListener("members", new PaintableListRangeListener()
 			{
 				@Override
 				public void onAdd(Paintable[] source, Integer index, Paintable element)
@@ -39,6 +39,37 @@ public class VHLayout extends HLayout implements Paintable
 				{
 					removeMember((Canvas) element);
 				}
+
+				@Override
+				public void onAddRange(Paintable[] source, int index, Paintable[] elements)
+				{
+					if (elements.length == 1)
+					{
+						addMember((Canvas) elements[0], index);
+					}
+					else
+					{
+						setMembers(toCanvasArray(source));
+					}
+				}
+
+				@Override
+				public void onRemoveRange(Paintable[] source, int index, Paintable[] elements)
+				{
+					removeMembers(toCanvasArray(elements));
+				}
+
+				private Canvas[] toCanvasArray(Paintable[] paintables)
+				{
+					final Canvas[] canvases = new Canvas[paintables.length];
+
+					for (int i = 0; i < paintables.length; i++)
+					{
+						canvases[i] = (Canvas) paintables[i];
+					}
+
+					return canvases;
+				}
 			});
 	}
 
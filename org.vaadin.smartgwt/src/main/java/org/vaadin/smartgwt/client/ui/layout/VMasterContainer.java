@@ -5,6 +5,7 @@ import org.vaadin.smartgwt.client.core.PaintablePropertyUpdater;
 import org.vaadin.smartgwt.client.core.PaintableReferenceListener;
 import org.vaadin.smartgwt.client.ui.VWindow;
 
+import com.google.gwt.user.client.Timer;
 import com.smartgwt.client.widgets.Canvas;
 import com.smartgwt.client.widgets.layout.VLayout;
 import com.vaadin.terminal.gwt.client.ApplicationConnection;
@@ -13,8 +14,17 @@ import com.vaadin.terminal.gwt.client.UIDL;
 
 public class VMasterContainer extends VLayout implements Paintable {
 	private final PaintablePropertyUpdater paintablePropertyUpdater = new PaintablePropertyUpdater();
+	private final Timer poller = new Timer() {
+		@Override
+		public void run() {
+			polling = true;
+			client.updateVariable(pid, "poll", true, true);
+		}
+	};
 	private String pid;
 	private ApplicationConnection client;
+	private int pollInterval;
+	private boolean polling;
 
 	public VMasterContainer() {
 		setSize("100%", "100%");
@@ -47,5 +57,20 @@ public class VMasterContainer extends VLayout implements Paintable {
 		}
 
 		paintablePropertyUpdater.updateFromUIDL(uidl, client);
+
+		if (!uidl.hasAttribute("cached")) {
+			final int interval = uidl.hasAttribute("*pollInterval") ? uidl.getIntAttribute("*pollInterval") : 0;
+
+			// unrelated repaints leave the countdown running, so that they do not postpone a backed-off poll
+			if (interval != pollInterval || polling) {
+				pollInterval = interval;
+				polling = false;
+				poller.cancel();
+
+				if (interval > 0) {
+					poller.schedule(interval);
+				}
+			}
+		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package org.vaadin.smartgwt.client.ui.tree;
+
+import org.vaadin.smartgwt.client.core.JSON;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * encodes tree nodes for the server. Each node is copied one level deep, leaving out the children, the links to the parent tree and the selection
+ * bookkeeping SmartGWT adds to the nodes, so stringifying a selection never walks into the rest of the tree. The key filter is compiled once, when
+ * the encoder is created.
+ */
+public class TreeSelectionEncoder {
+	private final JavaScriptObject keyFilter = JSON.newExclusionReplacer(new String[] { "children", "selections", "messages" },
+			new String[] { "^_parent_isc_Tree_[0-9]+" });
+
+	/**
+	 * encodes a single node.
+	 * 
+	 * @param node
+	 *            the node, may be null.
+	 * @return the copy of the node, or null.
+	 */
+	public JavaScriptObject encode(JavaScriptObject node) {
+		return node == null ? null : nCopy(keyFilter, node);
+	}
+
+	/**
+	 * encodes an array of nodes.
+	 * 
+	 * @param nodes
+	 *            the nodes.
+	 * @return the array of copies.
+	 */
+	public JavaScriptObject encodeArray(JavaScriptObject nodes) {
+		return nCopyArray(keyFilter, nodes);
+	}
+
+	// @formatter:off
+	private static native JavaScriptObject nCopyArray(JavaScriptObject keyFilter, JavaScriptObject nodes) /*-{
+		var copies = new Array(nodes.length);
+
+		for (var i = 0; i < nodes.length; i++) {
+			copies[i] = @org.vaadin.smartgwt.client.ui.tree.TreeSelectionEncoder::nCopy(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(keyFilter, nodes[i]);
+		}
+
+		return copies;
+	}-*/;
+
+	private static native JavaScriptObject nCopy(JavaScriptObject keyFilter, JavaScriptObject node) /*-{
+		var copy = {};
+
+		for (var key in node) {
+			if (node.hasOwnProperty(key) && typeof node[key] != "function") {
+				var value = keyFilter(key, node[key]);
+
+				if (value !== undefined) {
+					copy[key] = value;
+				}
+			}
+		}
+
+		return copy;
+	}-*/;
+	// @formatter:on
+}
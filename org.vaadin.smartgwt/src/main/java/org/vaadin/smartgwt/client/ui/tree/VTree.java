@@ -2,7 +2,10 @@ package org.vaadin.smartgwt.client.ui.tree;
 
 import org.vaadin.smartgwt.client.core.VBaseClass;
 
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.util.JSOHelper;
 import com.smartgwt.client.widgets.tree.Tree;
+import com.smartgwt.client.widgets.tree.TreeNode;
 import com.vaadin.terminal.gwt.client.ApplicationConnection;
 import com.vaadin.terminal.gwt.client.UIDL;
 
@@ -15,4 +18,60 @@ public class VTree extends VBaseClass<Tree> {
 	protected void preAttributeUpdateFromUIDL(UIDL uidl, ApplicationConnection client) {
 		super.preAttributeUpdateFromUIDL(uidl, client);
 	}
-}
\ No newline at end of file
+
+	@Override
+	protected void postAttributeUpdateFromUIDL(UIDL uidl, ApplicationConnection client) {
+		super.postAttributeUpdateFromUIDL(uidl, client);
+
+		if (uidl.hasAttribute("*flatData")) {
+			final Tree tree = getJSObject();
+			final JavaScriptObject flatData = com.smartgwt.client.util.JSON.decode(uidl.getStringAttribute("*flatData"));
+			final JavaScriptObject[] nodeJSOs = JSOHelper.toArray(toNodes(flatData, tree.getIdField(), tree.getParentIdField(), tree.getIsFolderProperty()));
+			final TreeNode[] nodes = new TreeNode[nodeJSOs.length];
+
+			for (int i = 0; i < nodes.length; i++) {
+				nodes[i] = TreeNode.getOrCreateRef(nodeJSOs[i]);
+			}
+
+			tree.setData(nodes);
+		}
+	}
+
+	/**
+	 * Rebuilds the node objects from the flat columns painted by the server-side FlatTreeEncoder, in a single pass over each column.
+	 */
+	private static native JavaScriptObject toNodes(JavaScriptObject flatData, String idField, String parentIdField, String isFolderProperty) /*-{
+		var ids = flatData.ids;
+		var parentIds = flatData.parentIds;
+		var folders = flatData.folders;
+		var columns = flatData.columns;
+		var nodes = new Array(ids.length);
+
+		for (var i = 0; i < ids.length; i++) {
+			var node = {};
+			node[idField] = ids[i];
+
+			if (parentIds[i] != null) {
+				node[parentIdField] = parentIds[i];
+			}
+
+			if (folders[i]) {
+				node[isFolderProperty] = true;
+			}
+
+			nodes[i] = node;
+		}
+
+		for (var name in columns) {
+			var column = columns[name];
+
+			for (var i = 0; i < column.length; i++) {
+				if (column[i] != null) {
+					nodes[i][name] = column[i];
+				}
+			}
+		}
+
+		return nodes;
+	}-*/;
+}
@@ -1,11 +1,13 @@
 package org.vaadin.smartgwt.client.ui.tree;
 
 import org.vaadin.smartgwt.client.core.JSON;
-import org.vaadin.smartgwt.client.core.PaintableListListener;
+import org.vaadin.smartgwt.client.core.PaintableListRangeListener;
 import org.vaadin.smartgwt.client.core.PaintablePropertyUpdater;
 import org.vaadin.smartgwt.client.core.PaintableReferenceListener;
+import org.vaadin.smartgwt.client.core.SelectionKeyTracker;
 import org.vaadin.smartgwt.client.core.VBaseClass;
 import org.vaadin.smartgwt.client.core.VJSObject;
+import org.vaadin.smartgwt.client.ui.grid.GridEventEncoder;
 import org.vaadin.smartgwt.client.ui.utils.PainterHelper;
 
 import com.google.gwt.core.client.JavaScriptObject;
@@ -13,7 +15,13 @@ import com.google.gwt.event.shared.HandlerRegistration;
 import com.google.gwt.user.client.DOM;
 import com.google.gwt.user.client.Element;
 import com.smartgwt.client.core.DataClass;
+import com.smartgwt.client.data.DSRequest;
+import com.smartgwt.client.data.DSResponse;
 import com.smartgwt.client.data.DataSource;
+import com.smartgwt.client.data.Record;
+import com.smartgwt.client.data.fields.DataSourceTextField;
+import com.smartgwt.client.types.DSOperationType;
+import com.smartgwt.client.types.DSProtocol;
 import com.smartgwt.client.util.JSOHelper;
 import com.smartgwt.client.widgets.grid.events.SelectionChangedHandler;
 import com.smartgwt.client.widgets.grid.events.SelectionEvent;
@@ -22,6 +30,8 @@ import com.smartgwt.client.widgets.grid.events.SelectionUpdatedHandler;
 import com.smartgwt.client.widgets.tree.Tree;
 import com.smartgwt.client.widgets.tree.TreeGrid;
 import com.smartgwt.client.widgets.tree.TreeGridField;
+import com.smartgwt.client.widgets.tree.events.FolderClosedEvent;
+import com.smartgwt.client.widgets.tree.events.FolderClosedHandler;
 import com.vaadin.terminal.gwt.client.ApplicationConnection;
 import com.vaadin.terminal.gwt.client.Paintable;
 import com.vaadin.terminal.gwt.client.UIDL;
@@ -29,20 +39,31 @@ import com.vaadin.terminal.gwt.client.UIDL;
 public class VTreeGrid extends TreeGrid implements Paintable {
 	protected final PaintablePropertyUpdater propertyUpdater = new PaintablePropertyUpdater();
 	private final Element element = DOM.createDiv();
+	private final SelectionKeyTracker selectionKeyTracker = new SelectionKeyTracker();
+	private final TreeSelectionEncoder selectionEncoder = new TreeSelectionEncoder();
+	private final GridEventEncoder eventEncoder = new GridEventEncoder() {
+		@Override
+		protected JavaScriptObject copyRecord(JavaScriptObject record) {
+			return selectionEncoder.encode(record);
+		}
+	};
+	private String primaryKeyField;
 	protected String pid;
 	protected ApplicationConnection client;
 	protected ServerSideEventRegistration selectedChangedEventRegistration;
 	protected ServerSideEventRegistration selectionUpdatedEventRegistration;
+	private DataSource providerDataSource;
 
 	public VTreeGrid() {
 		propertyUpdater.addPaintableReferenceListener("data", new PaintableReferenceListener() {
 			@Override
 			public void onChange(Paintable paintable) {
 				setData(((VBaseClass<Tree>) paintable).getJSObject());
+				selectionKeyTracker.reset();
 			}
 		});
 
-		propertyUpdater.addPaintableListListener("fields", new PaintableListListener() {
+		propertyUpdater.addPaintableListListener("fields", new PaintableListRangeListener() {
 			@Override
 			public void onAdd(Paintable[] source, Integer index, Paintable element) {
 				setFields(toTreeGridFieldArray(source));
@@ -53,6 +74,16 @@ public class VTreeGrid extends TreeGrid implements Paintable {
 				setFields(toTreeGridFieldArray(source));
 			}
 
+			@Override
+			public void onAddRange(Paintable[] source, int index, Paintable[] elements) {
+				setFields(toTreeGridFieldArray(source));
+			}
+
+			@Override
+			public void onRemoveRange(Paintable[] source, int index, Paintable[] elements) {
+				setFields(toTreeGridFieldArray(source));
+			}
+
 			private TreeGridField[] toTreeGridFieldArray(Paintable[] source) {
 				final TreeGridField[] fields = new TreeGridField[source.length];
 
@@ -84,9 +115,16 @@ public class VTreeGrid extends TreeGrid implements Paintable {
 				@Override
 				public void onSelectionUpdated(SelectionUpdatedEvent event) {
 					final JavaScriptObject selectedRecordsJSA = toJSOArray(getSelectedRecords());
-					JavaScriptObject newExclusionReplacer = JSON.newExclusionReplacer(new String[] { "children", "^_parent_isc_Tree_[0-9]+", "selections",
-							"messages" });
-					VTreeGrid.this.client.updateVariable(pid, "selectedRecords", JSON.stringify(selectedRecordsJSA, newExclusionReplacer), false);
+
+					if (primaryKeyField != null) {
+						final String delta = selectionKeyTracker.update(selectedRecordsJSA, primaryKeyField);
+
+						if (delta != null) {
+							VTreeGrid.this.client.updateVariable(pid, "selectionDelta", delta, false);
+						}
+					} else {
+						VTreeGrid.this.client.updateVariable(pid, "selectedRecords", JSON.stringify(selectionEncoder.encodeArray(selectedRecordsJSA)), false);
+					}
 				}
 			});
 
@@ -96,17 +134,12 @@ public class VTreeGrid extends TreeGrid implements Paintable {
 					return addSelectionChangedHandler(new SelectionChangedHandler() {
 						@Override
 						public void onSelectionChanged(SelectionEvent event) {
-							final JavaScriptObject eventJSO = JavaScriptObject.createObject();
-							JSOHelper.setAttribute(eventJSO, "record", toJSO(event.getRecord()));
-							JSOHelper.setAttribute(eventJSO, "state", event.getState());
-							JSOHelper.setAttribute(eventJSO, "selection", toJSOArray(event.getSelection()));
-							JSOHelper.setAttribute(eventJSO, "selectedRecord", toJSO(event.getSelectedRecord()));
-							VTreeGrid.this.client
-									.updateVariable(
-											pid,
-											"onSelectionChanged.event",
-											JSON.stringify(eventJSO, JSON.newExclusionReplacer(new String[] { "children", "^_parent_isc_Tree_[0-9]+",
-													"selections", "messages" })), true);
+							final JavaScriptObject envelope = JavaScriptObject.createObject();
+							eventEncoder.putRecord(envelope, "k", "d", toJSO(event.getRecord()));
+							JSOHelper.setAttribute(envelope, "s", event.getState());
+							eventEncoder.putRecords(envelope, "sk", "sd", toJSOArray(event.getSelection()));
+							eventEncoder.putRecord(envelope, "xk", "xd", toJSO(event.getSelectedRecord()));
+							VTreeGrid.this.client.updateVariable(pid, "onSelectionChanged", JSON.stringify(envelope), true);
 						}
 					});
 				}
@@ -125,6 +158,8 @@ public class VTreeGrid extends TreeGrid implements Paintable {
 			};
 		}
 
+		primaryKeyField = uidl.hasAttribute("*primaryKeyField") ? uidl.getStringAttribute("*primaryKeyField") : null;
+		eventEncoder.updateFromUIDL(uidl);
 		selectedChangedEventRegistration.updateFromUIDL(uidl);
 		selectionUpdatedEventRegistration.updateFromUIDL(uidl);
 		propertyUpdater.updateFromUIDL(uidl, client);
@@ -134,9 +169,79 @@ public class VTreeGrid extends TreeGrid implements Paintable {
 			setDataSource(((VJSObject<DataSource>) paintable).getJSObject());
 		}
 
+		if (uidl.hasAttribute("*treeDataProvider")) {
+			updateTreeDataProvider(uidl);
+		}
+
 		PainterHelper.updateSmartGWTComponent(client, this, uidl);
 	}
 
+	private void updateTreeDataProvider(UIDL uidl) {
+		if (providerDataSource == null) {
+			providerDataSource = new DataSource() {
+				@Override
+				protected Object transformRequest(DSRequest dsRequest) {
+					if (dsRequest.getOperationType() == DSOperationType.FETCH) {
+						sendChildrenRequest(dsRequest);
+					}
+
+					return super.transformRequest(dsRequest);
+				}
+			};
+
+			final DataSourceTextField idField = new DataSourceTextField("id");
+			idField.setPrimaryKey(true);
+			final DataSourceTextField parentIdField = new DataSourceTextField("parentId");
+			parentIdField.setForeignKey("id");
+			providerDataSource.setFields(idField, parentIdField);
+			providerDataSource.setDataProtocol(DSProtocol.CLIENTCUSTOM);
+
+			addFolderClosedHandler(new FolderClosedHandler() {
+				@Override
+				public void onFolderClosed(FolderClosedEvent event) {
+					getData().unloadChildren(event.getNode());
+				}
+			});
+
+			setLoadDataOnDemand(true);
+			setDataSource(providerDataSource);
+			fetchData();
+		} else if (uidl.hasAttribute("*invalidateCache")) {
+			invalidateCache();
+		}
+
+		if (uidl.hasAttribute("*childrenResponses")) {
+			final JavaScriptObject responses = com.smartgwt.client.util.JSON.decode(uidl.getStringAttribute("*childrenResponses"));
+
+			for (JavaScriptObject responseJSO : JSOHelper.toArray(responses)) {
+				final JavaScriptObject data = JSOHelper.getAttributeAsJavaScriptObject(responseJSO, "data");
+				final String parentId = JSOHelper.getAttribute(responseJSO, "parentId");
+
+				if (parentId != null) {
+					for (JavaScriptObject child : JSOHelper.toArray(data)) {
+						JSOHelper.setAttribute(child, "parentId", parentId);
+					}
+				}
+
+				final DSResponse response = new DSResponse();
+				response.setData(Record.convertToRecordArray(data));
+				providerDataSource.processResponse(JSOHelper.getAttribute(responseJSO, "requestId"), response);
+			}
+		}
+	}
+
+	private void sendChildrenRequest(DSRequest dsRequest) {
+		final JavaScriptObject criteria = JSOHelper.getAttributeAsJavaScriptObject(dsRequest.getJsObj(), "data");
+		final JavaScriptObject requestJSO = JavaScriptObject.createObject();
+		JSOHelper.setAttribute(requestJSO, "requestId", dsRequest.getRequestId());
+
+		if (criteria != null && JSOHelper.getAttribute(criteria, "parentId") != null) {
+			JSOHelper.setAttribute(requestJSO, "parentId", JSOHelper.getAttribute(criteria, "parentId"));
+		}
+
+		client.updateVariable(pid, "childrenRequest", JSON.stringify(requestJSO), true);
+	}
+
 	private static JavaScriptObject toJSOArray(DataClass[] array) {
 		final JavaScriptObject arrayJSO = JavaScriptObject.createArray();
 		for (int i = 0; i < array.length; i++) {
@@ -3,6 +3,7 @@ package org.vaadin.smartgwt.client.ui.utils;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.vaadin.smartgwt.client.core.PayloadCache;
 import org.vaadin.smartgwt.client.core.VBaseClass;
 import org.vaadin.smartgwt.client.core.VDataClass;
 
@@ -74,7 +75,7 @@ public class PainterHelper
 							break;
 						}
 
-						break;
+						continue;
 					}
 
 					// Names starting with the character '#' indicate a reference to a Paintable
@@ -199,6 +200,17 @@ public class PainterHelper
 						data.setProperty(att, value);
 			}
 			break;
+
+			case 'h':
+			{
+				JavaScriptObject value = PayloadCache.decode(sValue);
+
+				if (!data.isCreated())
+					JSOHelper.setAttribute(data.getConfig(), att, value);
+				else
+					data.setProperty(att, value);
+			}
+				break;
 		}
 	}
 
@@ -230,6 +242,14 @@ public class PainterHelper
 			case 'b':
 				value = Boolean.valueOf(sValue.substring(1));
 				break;
+
+			case 'j':
+				data.setAttribute(att, JSON.decode(sValue.substring(1)));
+				return;
+
+			case 'h':
+				data.setAttribute(att, PayloadCache.decode(sValue));
+				return;
 		}
 
 		data.setAttribute(att, value);
@@ -303,6 +323,17 @@ public class PainterHelper
 			{
 				JavaScriptObject value = JSON.decode(sValue.substring(1));
 
+				if (!widget.isCreated())
+					JSOHelper.setAttribute(widget.getConfig(), att, value);
+				else
+					widget.setProperty(att, value);
+			}
+				break;
+
+			case 'h':
+			{
+				JavaScriptObject value = PayloadCache.decode(sValue);
+
 				if (!widget.isCreated())
 					JSOHelper.setAttribute(widget.getConfig(), att, value);
 				else
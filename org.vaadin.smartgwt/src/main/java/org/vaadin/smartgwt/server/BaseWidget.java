@@ -1,15 +1,14 @@
 package org.vaadin.smartgwt.server;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.apache.log4j.Logger;
 import org.codehaus.jackson.annotate.JsonProperty;
+import org.vaadin.smartgwt.server.core.AttributeStore;
 import org.vaadin.smartgwt.server.data.Record;
 import org.vaadin.smartgwt.server.util.JSONHelper;
 
@@ -899,7 +898,8 @@ public abstract class BaseWidget extends AbstractComponent implements PropertyAc
 
 	private static final long serialVersionUID = 1L;
 	private static final Logger LOGGER = Logger.getLogger(BaseWidget.class);
-	protected Map<String, Object> attributes = new HashMap<String, Object>();
+	protected final AttributeStore attributes = new AttributeStore();
+	private final PartialPaintChecker paintChecker = new PartialPaintChecker(this);
 	private boolean isCreated = false;
 
 	/*
@@ -921,7 +921,11 @@ public abstract class BaseWidget extends AbstractComponent implements PropertyAc
 	@Override
 	public void removeAttribute(String attribute)
 	{
-		attributes.remove(attribute);
+		if (attributes.contains(attribute))
+		{
+			attributes.remove(attribute);
+			paintChecker.setDirty(attribute);
+		}
 	}
 
 	/*
@@ -938,9 +942,19 @@ public abstract class BaseWidget extends AbstractComponent implements PropertyAc
 		}
 
 		if (value == null)
-			attributes.remove(attribute);
-		else
-			attributes.put(attribute, value);
+		{
+			removeAttribute(attribute);
+		}
+		else if (!isUnchanged(attribute, value))
+		{
+			attributes.set(attribute, value);
+			paintChecker.setDirty(attribute);
+		}
+	}
+
+	private boolean isUnchanged(String attribute, Object value)
+	{
+		return (value instanceof String || value instanceof Number || value instanceof Boolean) && value.equals(attributes.get(attribute));
 	}
 
 	/*
@@ -962,12 +976,7 @@ public abstract class BaseWidget extends AbstractComponent implements PropertyAc
 	@Override
 	public String getAttributeAsString(String attribute)
 	{
-		Object value = attributes.get(attribute);
-
-		if (value == null)
-			return null;
-		else
-			return value.toString();
+		return attributes.getString(attribute);
 	}
 
 	/*
@@ -989,12 +998,7 @@ public abstract class BaseWidget extends AbstractComponent implements PropertyAc
 	@Override
 	public Integer getAttributeAsInt(String attribute)
 	{
-		Object value = attributes.get(attribute);
-
-		if (value == null)
-			return null;
-		else
-			return Integer.valueOf(value.toString());
+		return attributes.getInt(attribute);
 	}
 
 	/*
@@ -1005,12 +1009,7 @@ public abstract class BaseWidget extends AbstractComponent implements PropertyAc
 	@Override
 	public Boolean getAttributeAsBoolean(String attribute)
 	{
-		Object value = attributes.get(attribute);
-
-		if (value == null)
-			return null;
-		else
-			return Boolean.valueOf(value.toString());
+		return attributes.getBoolean(attribute);
 	}
 
 	/*
@@ -1021,12 +1020,7 @@ public abstract class BaseWidget extends AbstractComponent implements PropertyAc
 	@Override
 	public Double getAttributeAsDouble(String attribute)
 	{
-		Object value = attributes.get(attribute);
-
-		if (value == null)
-			return null;
-		else
-			return Double.valueOf(value.toString());
+		return attributes.getDouble(attribute);
 	}
 
 	/*
@@ -1037,12 +1031,7 @@ public abstract class BaseWidget extends AbstractComponent implements PropertyAc
 	@Override
 	public Float getAttributeAsFloat(String attribute)
 	{
-		Object value = attributes.get(attribute);
-
-		if (value == null)
-			return null;
-		else
-			return Float.valueOf(value.toString());
+		return attributes.getFloat(attribute);
 	}
 
 	/*
@@ -1053,12 +1042,7 @@ public abstract class BaseWidget extends AbstractComponent implements PropertyAc
 	@Override
 	public Map<?, ?> getAttributeAsMap(String attribute)
 	{
-		Object value = attributes.get(attribute);
-
-		if (value == null)
-			return null;
-		else
-			return (Map<?, ?>) value;
+		return (Map<?, ?>) attributes.get(attribute);
 	}
 
 	/*
@@ -1069,24 +1053,7 @@ public abstract class BaseWidget extends AbstractComponent implements PropertyAc
 	@Override
 	public Date getAttributeAsDate(String attribute)
 	{
-		Object value = attributes.get(attribute);
-
-		if (value == null)
-			return null;
-		else
-		{
-			DateFormat df = new SimpleDateFormat();
-			try
-			{
-				Date d = df.parse(value.toString());
-				return d;
-			}
-			catch (Exception e)
-			{
-				e.printStackTrace();
-			}
-		}
-		return null;
+		return attributes.getDate(attribute);
 	}
 
 	/*
@@ -1097,12 +1064,7 @@ public abstract class BaseWidget extends AbstractComponent implements PropertyAc
 	@Override
 	public String[] getAttributeAsStringArray(String attribute)
 	{
-		Object value = attributes.get(attribute);
-
-		if (value == null)
-			return null;
-		else
-			return (String[]) value;
+		return (String[]) attributes.get(attribute);
 	}
 
 	// public JavaScriptObject getAttributeAsJavaScriptObject(String property)
@@ -1130,7 +1092,38 @@ public abstract class BaseWidget extends AbstractComponent implements PropertyAc
 	@JsonProperty
 	public Map<String, Object> getAttributes()
 	{
-		return attributes;
+		return attributes.toMap();
+	}
+
+	/**
+	 * Requests a repaint that only sends the attributes changed since the last paint. Subclasses use it for the changes they paint themselves, the flag
+	 * naming the change; flags of attributes are set by {@link #setAttribute(String, Object, boolean)}, so flags of other changes should be meta
+	 * names starting with '*'. Once created, a plain {@link #requestRepaint()} sends all the attributes again.
+	 *
+	 * @param flag the name of the change.
+	 */
+	protected void requestPartialRepaint(String flag)
+	{
+		paintChecker.setDirty(flag);
+	}
+
+	/**
+	 * Tells whether the paint in progress sends all the attributes, either because the whole application is repainted or because a full repaint was
+	 * requested. Only valid before {@link #paintContent(PaintTarget)} returns.
+	 *
+	 * @param target the paint target.
+	 * @return true if all the attributes are painted.
+	 */
+	protected boolean isFullRepaint(PaintTarget target)
+	{
+		return target.isFullRepaint() || paintChecker.isFullRepaint();
+	}
+
+	@Override
+	public void requestRepaint()
+	{
+		paintChecker.checkBeforeRequestRepaint();
+		super.requestRepaint();
 	}
 
 	@Override
@@ -1141,113 +1134,129 @@ public abstract class BaseWidget extends AbstractComponent implements PropertyAc
 		// if (jspt.needsToBePainted(this) == false && (this instanceof MasterContainer == false))
 		// return;
 
-		for (Map.Entry<String, Object> entry : attributes.entrySet())
+		if (isFullRepaint(jspt))
 		{
-			Object value = entry.getValue();
-			String name = entry.getKey();
-
-			if (name.length() >= 2 && name.charAt(1) == '$') {
-				switch (name.charAt(0)) {
-				case 'b':
-					target.addAttribute(name, (Boolean) value);
-					break;
-				}
-
-				break;
-			}
-
-			if (value == null)
+			for (int i = 0; i < attributes.size(); i++)
 			{
-				logPaintContentAttribute(name, null);
-				target.addAttribute(name, "null");
+				paintAttribute(jspt, i);
 			}
-			else if (value instanceof Boolean)
+		}
+		else
+		{
+			for (String name : paintChecker.getFlagged())
 			{
-				logPaintContentAttribute(name, value);
-				target.addAttribute(name, "b" + String.valueOf(value));
+				final int index = attributes.indexOf(name);
+
+				if (index >= 0)
+				{
+					paintAttribute(jspt, index);
+				}
+				else if (name.charAt(0) != '*' && !(name.length() >= 2 && name.charAt(1) == '$'))
+				{
+					logPaintContentAttribute(name, null);
+					target.addAttribute(name, "null");
+				}
 			}
-			else if (value instanceof Integer)
-			{
-				logPaintContentAttribute(name, value);
-				target.addAttribute(name, "i" + String.valueOf(value));
+		}
+
+		paintChecker.paintContentPerformed();
+
+		// Since the paint is finished, set the created attribute
+		isCreated = true;
+	}
+
+	private void paintAttribute(JsonPaintTarget target, int index) throws PaintException
+	{
+		String name = attributes.getName(index);
+
+		if (name.length() >= 2 && name.charAt(1) == '$') {
+			switch (name.charAt(0)) {
+			case 'b':
+				target.addAttribute(name, (Boolean) attributes.getValue(index));
+				break;
 			}
-			else if (value instanceof Float)
+
+			return;
+		}
+
+		String paintValue = attributes.getPaintValue(index);
+
+		if (paintValue != null)
+		{
+			logPaintContentAttribute(name, paintValue);
+			target.addAttribute(name, paintValue);
+			return;
+		}
+
+		Object value = attributes.getValue(index);
+
+		if (value == null)
+		{
+			logPaintContentAttribute(name, null);
+			target.addAttribute(name, "null");
+		}
+		else if (value instanceof String[])
+		{
+			logPaintContentAttribute(name, value);
+
+			if (name.charAt(0) != '*')
+				name = "!" + name;
+
+			target.addAttribute(name, (String[]) value);
+		}
+		else if (value instanceof Record[])
+		{
+			try
 			{
-				logPaintContentAttribute(name, value);
-				target.addAttribute(name, "f" + String.valueOf(value));
+				target.addAttribute(name, JSONHelper.getJsonAttributeValue((Record[]) value));
 			}
-			else if (value instanceof Long)
+			catch (Exception e)
 			{
-				logPaintContentAttribute(name, value);
-				target.addAttribute(name, "l" + String.valueOf(value));
+				e.printStackTrace();
 			}
-			else if (value instanceof Double)
+		}
+		else if (value instanceof Record)
+		{
+			try
 			{
-				logPaintContentAttribute(name, value);
-				target.addAttribute(name, "d" + String.valueOf(value));
+				target.addAttribute(name, JSONHelper.getJsonAttributeValue((Record) value));
 			}
-			else if (value instanceof String)
+			catch (IOException e)
 			{
-				logPaintContentAttribute(name, value);
-				target.addAttribute(name, "s" + String.valueOf(value));
+				throw new PaintException(e);
 			}
-			else if (value instanceof String[])
-			{
-				logPaintContentAttribute(name, value);
-
-				if (name.charAt(0) != '*')
-					name = "!" + name;
+		}
+		else if (value instanceof Paintable[])
+		{
+			logPaintContentAttribute(name, value);
+			List<String> references = new ArrayList<String>();
 
-				target.addAttribute(name, (String[]) value);
-			}
-			else if (value instanceof Record[])
+			for (Paintable p : (Paintable[]) value)
 			{
-				try
-				{
-					String json = JSONHelper.getJsonString((Record[]) value);
-					target.addAttribute(name, "j" + json);
+				if (target.needsToBePainted(p))
+					p.paint(target);
 
-				}
-				catch (Exception e)
-				{
-					e.printStackTrace();
-				}
+				references.add(target.getPaintIdentifier(p));
 			}
-			else if (value instanceof Paintable[])
-			{
-				logPaintContentAttribute(name, value);
-				List<String> references = new ArrayList<String>();
-
-				for (Paintable p : (Paintable[]) value)
-				{
-					if (jspt.needsToBePainted(p))
-						p.paint(target);
-
-					references.add(jspt.getPaintIdentifier(p));
-				}
 
-				if (name.charAt(0) != '*')
-					name = "[" + name;
+			if (name.charAt(0) != '*')
+				name = "[" + name;
 
-				target.addAttribute(name, references.toArray()); // [ = array
-			}
-			else if (value instanceof Paintable)
-			{
-				logPaintContentAttribute(name, value);
-				String ref = jspt.getPaintIdentifier((Paintable) value);
+			target.addAttribute(name, references.toArray()); // [ = array
+		}
+		else if (value instanceof Paintable)
+		{
+			logPaintContentAttribute(name, value);
+			String ref = target.getPaintIdentifier((Paintable) value);
 
-				if (jspt.needsToBePainted((Paintable) value))
-					((Paintable) value).paint(target);
+			if (target.needsToBePainted((Paintable) value))
+				((Paintable) value).paint(target);
 
-				if (name.charAt(0) != '*')
-					name = "#" + name;
+			if (name.charAt(0) != '*')
+				name = "#" + name;
 
-				target.addAttribute(name, ref); // # = reference
-			}
+			target.addAttribute(name, ref); // # = reference
 		}
-
-		// Since the paint is finished, set the created attribute
-		isCreated = true;
 	}
 
 	/*
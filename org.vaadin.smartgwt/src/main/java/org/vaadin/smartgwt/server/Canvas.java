@@ -3879,7 +3879,6 @@ public class Canvas extends BaseWidget implements HasClickHandlers {
 	 */
 	public void setDisabled(boolean disabled) {
 		setAttribute("b$disabled", disabled);
-		requestRepaint();
 	}
 
 	/**
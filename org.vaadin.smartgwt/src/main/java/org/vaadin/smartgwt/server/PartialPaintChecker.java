@@ -1,10 +1,14 @@
 package org.vaadin.smartgwt.server;
 
 import java.io.Serializable;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Set;
 
+import org.vaadin.smartgwt.MasterContainerHolder;
+
+import com.vaadin.Application;
 import com.vaadin.terminal.Paintable;
+import com.vaadin.ui.Component;
 
 /**
  * <p>
@@ -12,6 +16,10 @@ import com.vaadin.terminal.Paintable;
  * private field and implement calls at key points (see all methods' javadocs).
  * </p>
  * <p>
+ * Full repaints can be forced for all the components of an application through the {@link RepaintPolicy} of its master container, when the
+ * application is a {@link MasterContainerHolder}. Like the component itself, the checker must only be used while holding the application lock.
+ * </p>
+ * <p>
  * Creditation: the main idea is obtained from http://code.google.com/p/vopenlayers/source/browse/trunk/src/main/java/org/vaadin/vol/OpenLayersMap.java
  * </p>
  * 
@@ -24,25 +32,14 @@ public class PartialPaintChecker implements Serializable
 	 * 
 	 */
 	private static final long serialVersionUID = 1L;
-	private HashMap<String, Boolean> flags = new HashMap<String, Boolean>();
-	private boolean partialRepaint = true;
+	private static final ThreadLocal<PartialPaintChecker> partialRepaint = new ThreadLocal<PartialPaintChecker>();
+	private final Set<String> flags = new HashSet<String>();
 	private boolean fullRepaint = true;
 	private Paintable p;
-	private static boolean forcedFullRepaint = false;
-
-	public static void forceFullRepaint()
-	{
-		forcedFullRepaint = true;
-	}
-
-	public static void resetFullRepaint()
-	{
-		forcedFullRepaint = false;
-	}
 
 	public Set<String> getFlagged()
 	{
-		return flags.keySet();
+		return flags;
 	}
 
 	/**
@@ -67,9 +64,9 @@ public class PartialPaintChecker implements Serializable
 	 **/
 	public boolean isPartialRepaint()
 	{
-		if (fullRepaint || forcedFullRepaint)
+		if (isFullRepaint())
 			return false;
-		return flags.size() > 0;
+		return !flags.isEmpty();
 	}
 
 	/**
@@ -81,7 +78,7 @@ public class PartialPaintChecker implements Serializable
 	 **/
 	public boolean isFullRepaint()
 	{
-		return fullRepaint || forcedFullRepaint;
+		return fullRepaint || isFullRepaintForced();
 	}
 
 	/**
@@ -96,7 +93,7 @@ public class PartialPaintChecker implements Serializable
 	 **/
 	public boolean isDirty(final String flag)
 	{
-		return (fullRepaint || forcedFullRepaint || flags.containsKey(flag));
+		return (isFullRepaint() || flags.contains(flag));
 	}
 
 	/**
@@ -115,7 +112,7 @@ public class PartialPaintChecker implements Serializable
 	{
 		if (!fullRepaint)
 		{
-			flags.put(attribute, true);
+			flags.add(attribute);
 			partialPaint();
 		}
 	}
@@ -138,7 +135,7 @@ public class PartialPaintChecker implements Serializable
 	 **/
 	public void checkBeforeRequestRepaint()
 	{
-		if (!partialRepaint)
+		if (partialRepaint.get() != this)
 		{
 			clearDirtyFlags();
 			fullRepaint = true;
@@ -150,16 +147,28 @@ public class PartialPaintChecker implements Serializable
 		flags.clear();
 	}
 
+	private boolean isFullRepaintForced()
+	{
+		if (p instanceof Component)
+		{
+			final Application application = ((Component) p).getApplication();
+			return application instanceof MasterContainerHolder
+					&& ((MasterContainerHolder) application).getMasterContainer().getRepaintPolicy().isFullRepaintForced();
+		}
+
+		return false;
+	}
+
 	private void partialPaint()
 	{
-		partialRepaint = true;
+		partialRepaint.set(this);
 		try
 		{
 			p.requestRepaint();
 		}
 		finally
 		{
-			partialRepaint = false;
+			partialRepaint.remove();
 		}
 	}
 }
\ No newline at end of file
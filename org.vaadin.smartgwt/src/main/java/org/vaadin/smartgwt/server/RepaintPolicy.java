@@ -0,0 +1,30 @@
+package org.vaadin.smartgwt.server;
+
+import java.io.Serializable;
+
+import org.vaadin.smartgwt.server.layout.MasterContainer;
+
+/**
+ * Repaint policy of an application, held by its {@link MasterContainer} and consulted by the {@link PartialPaintChecker} of its components. Forcing
+ * full repaints through {@link #forceFullRepaint()} only affects the components of that application. The policy may be changed from any thread.
+ */
+public class RepaintPolicy implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private volatile boolean forcedFullRepaint;
+
+	/**
+	 * Makes the components of the application send all their attributes on every paint, until {@link #resetFullRepaint()} is called.
+	 */
+	public void forceFullRepaint() {
+		forcedFullRepaint = true;
+	}
+
+	public void resetFullRepaint() {
+		forcedFullRepaint = false;
+	}
+
+	public boolean isFullRepaintForced() {
+		return forcedFullRepaint;
+	}
+}
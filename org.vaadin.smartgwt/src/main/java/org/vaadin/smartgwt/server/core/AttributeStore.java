@@ -0,0 +1,424 @@
+package org.vaadin.smartgwt.server.core;
+
+import java.io.Serializable;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * Compact attribute storage shared by {@link BaseClass}, {@link DataClass} and {@link org.vaadin.smartgwt.server.BaseWidget}.
+ * <p/>
+ * Attributes are kept in parallel arrays, in insertion order. int, long, float, double and boolean values live unboxed in a primitive slot, and only
+ * other values use the object slot. Attribute names are interned JVM-wide, so that lookups with the literal names used by the setters and getters
+ * match by identity; the interner only holds names weakly, so data-driven names are released along with the objects using them. The typed getters
+ * convert between the stored type and the requested type without going through strings.
+ */
+public class AttributeStore implements Serializable {
+	private static final long serialVersionUID = 1L;
+	private static final Interner<String> NAMES = Interners.newWeakInterner();
+	private static final ThreadLocal<DateFormat> DATE_FORMAT = new ThreadLocal<DateFormat>() {
+		@Override
+		protected DateFormat initialValue() {
+			return new SimpleDateFormat();
+		}
+	};
+
+	private static final byte OBJECT = 0;
+	private static final byte INT = 1;
+	private static final byte LONG = 2;
+	private static final byte FLOAT = 3;
+	private static final byte DOUBLE = 4;
+	private static final byte BOOLEAN = 5;
+
+	private static final String[] NO_NAMES = new String[0];
+	private static final byte[] NO_TYPES = new byte[0];
+	private static final long[] NO_PRIMITIVES = new long[0];
+	private static final Object[] NO_OBJECTS = new Object[0];
+
+	private String[] names = NO_NAMES;
+	private byte[] types = NO_TYPES;
+	private long[] primitives = NO_PRIMITIVES;
+	private Object[] objects = NO_OBJECTS;
+	private int size;
+
+	/**
+	 * Sets the attribute, storing primitive wrappers in a primitive slot.
+	 *
+	 * @param name the attribute name.
+	 * @param value the attribute value, may be null.
+	 */
+	public void set(String name, Object value) {
+		if (value instanceof Integer) {
+			setInt(name, ((Integer) value).intValue());
+		} else if (value instanceof Boolean) {
+			setBoolean(name, ((Boolean) value).booleanValue());
+		} else if (value instanceof Double) {
+			setDouble(name, ((Double) value).doubleValue());
+		} else if (value instanceof Float) {
+			setFloat(name, ((Float) value).floatValue());
+		} else if (value instanceof Long) {
+			setLong(name, ((Long) value).longValue());
+		} else {
+			final int index = slot(name, OBJECT);
+			objects[index] = value;
+		}
+	}
+
+	public void setInt(String name, int value) {
+		final int index = slot(name, INT);
+		primitives[index] = value;
+	}
+
+	public void setLong(String name, long value) {
+		final int index = slot(name, LONG);
+		primitives[index] = value;
+	}
+
+	public void setFloat(String name, float value) {
+		final int index = slot(name, FLOAT);
+		primitives[index] = Float.floatToRawIntBits(value);
+	}
+
+	public void setDouble(String name, double value) {
+		final int index = slot(name, DOUBLE);
+		primitives[index] = Double.doubleToRawLongBits(value);
+	}
+
+	public void setBoolean(String name, boolean value) {
+		final int index = slot(name, BOOLEAN);
+		primitives[index] = value ? 1 : 0;
+	}
+
+	public boolean contains(String name) {
+		return indexOf(name) >= 0;
+	}
+
+	public void remove(String name) {
+		final int index = indexOf(name);
+
+		if (index >= 0) {
+			final int moved = size - index - 1;
+			System.arraycopy(names, index + 1, names, index, moved);
+			System.arraycopy(types, index + 1, types, index, moved);
+			System.arraycopy(primitives, index + 1, primitives, index, moved);
+			System.arraycopy(objects, index + 1, objects, index, moved);
+			size--;
+			names[size] = null;
+			objects[size] = null;
+		}
+	}
+
+	/**
+	 * Returns the attribute value, boxing primitive values.
+	 *
+	 * @param name the attribute name.
+	 * @return the value, or null if the attribute is not set.
+	 */
+	public Object get(String name) {
+		final int index = indexOf(name);
+		return index < 0 ? null : getValue(index);
+	}
+
+	public String getString(String name) {
+		final int index = indexOf(name);
+
+		if (index < 0) {
+			return null;
+		}
+
+		switch (types[index]) {
+		case INT:
+			return String.valueOf((int) primitives[index]);
+		case LONG:
+			return String.valueOf(primitives[index]);
+		case FLOAT:
+			return String.valueOf(floatValue(index));
+		case DOUBLE:
+			return String.valueOf(doubleValue(index));
+		case BOOLEAN:
+			return String.valueOf(primitives[index] != 0);
+		default:
+			return objects[index] == null ? null : objects[index].toString();
+		}
+	}
+
+	public Integer getInt(String name) {
+		final int index = indexOf(name);
+
+		if (index < 0) {
+			return null;
+		}
+
+		switch (types[index]) {
+		case INT:
+		case LONG:
+			return (int) primitives[index];
+		case FLOAT:
+			return (int) floatValue(index);
+		case DOUBLE:
+			return (int) doubleValue(index);
+		case BOOLEAN:
+			throw new ClassCastException(name + " is a boolean attribute");
+		default:
+			return objects[index] == null ? null : Integer.valueOf(objects[index].toString());
+		}
+	}
+
+	public Long getLong(String name) {
+		final int index = indexOf(name);
+
+		if (index < 0) {
+			return null;
+		}
+
+		switch (types[index]) {
+		case INT:
+		case LONG:
+			return primitives[index];
+		case FLOAT:
+			return (long) floatValue(index);
+		case DOUBLE:
+			return (long) doubleValue(index);
+		case BOOLEAN:
+			throw new ClassCastException(name + " is a boolean attribute");
+		default:
+			return objects[index] == null ? null : Long.valueOf(objects[index].toString());
+		}
+	}
+
+	public Float getFloat(String name) {
+		final int index = indexOf(name);
+
+		if (index < 0) {
+			return null;
+		}
+
+		switch (types[index]) {
+		case INT:
+		case LONG:
+			return (float) primitives[index];
+		case FLOAT:
+			return floatValue(index);
+		case DOUBLE:
+			return (float) doubleValue(index);
+		case BOOLEAN:
+			throw new ClassCastException(name + " is a boolean attribute");
+		default:
+			return objects[index] == null ? null : Float.valueOf(objects[index].toString());
+		}
+	}
+
+	public Double getDouble(String name) {
+		final int index = indexOf(name);
+
+		if (index < 0) {
+			return null;
+		}
+
+		switch (types[index]) {
+		case INT:
+		case LONG:
+			return (double) primitives[index];
+		case FLOAT:
+			return (double) floatValue(index);
+		case DOUBLE:
+			return doubleValue(index);
+		case BOOLEAN:
+			throw new ClassCastException(name + " is a boolean attribute");
+		default:
+			return objects[index] == null ? null : Double.valueOf(objects[index].toString());
+		}
+	}
+
+	/**
+	 * Returns the attribute as a Boolean. Values that are not booleans are converted from their string form, so numbers are false.
+	 *
+	 * @param name the attribute name.
+	 * @return the boolean, or null if the attribute is not set.
+	 */
+	public Boolean getBoolean(String name) {
+		final int index = indexOf(name);
+
+		if (index < 0) {
+			return null;
+		} else if (types[index] == BOOLEAN) {
+			return primitives[index] != 0;
+		} else {
+			final String value = getString(name);
+			return value == null ? null : Boolean.valueOf(value);
+		}
+	}
+
+	/**
+	 * Returns the attribute as a Date. Dates are returned as is, numbers are taken as milliseconds since the epoch and strings are parsed with the
+	 * default date format.
+	 *
+	 * @param name the attribute name.
+	 * @return the date, or null if the attribute is not set or can not be converted.
+	 */
+	public Date getDate(String name) {
+		final int index = indexOf(name);
+
+		if (index < 0) {
+			return null;
+		}
+
+		switch (types[index]) {
+		case INT:
+		case LONG:
+			return new Date(primitives[index]);
+		case FLOAT:
+			return new Date((long) floatValue(index));
+		case DOUBLE:
+			return new Date((long) doubleValue(index));
+		case BOOLEAN:
+			throw new ClassCastException(name + " is a boolean attribute");
+		default:
+			final Object value = objects[index];
+
+			if (value == null || value instanceof Date) {
+				return (Date) value;
+			}
+
+			try {
+				return DATE_FORMAT.get().parse(value.toString());
+			} catch (ParseException e) {
+				return null;
+			}
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public String getName(int index) {
+		return names[index];
+	}
+
+	/**
+	 * Returns the value at the index, boxing primitive values.
+	 *
+	 * @param index the attribute index.
+	 * @return the value.
+	 */
+	public Object getValue(int index) {
+		switch (types[index]) {
+		case INT:
+			return (int) primitives[index];
+		case LONG:
+			return primitives[index];
+		case FLOAT:
+			return floatValue(index);
+		case DOUBLE:
+			return doubleValue(index);
+		case BOOLEAN:
+			return primitives[index] != 0;
+		default:
+			return objects[index];
+		}
+	}
+
+	/**
+	 * Returns the value at the index in the type-prefixed form expected by the client-side painter, for primitive, String and
+	 * {@link FrozenPayload} values.
+	 *
+	 * @param index the attribute index.
+	 * @return the prefixed value, or null if the value is neither a primitive, a String nor a frozen payload.
+	 */
+	public String getPaintValue(int index) {
+		switch (types[index]) {
+		case INT:
+			return "i" + (int) primitives[index];
+		case LONG:
+			return "l" + primitives[index];
+		case FLOAT:
+			return "f" + floatValue(index);
+		case DOUBLE:
+			return "d" + doubleValue(index);
+		case BOOLEAN:
+			return primitives[index] != 0 ? "btrue" : "bfalse";
+		default:
+			if (objects[index] instanceof String) {
+				return "s" + objects[index];
+			} else if (objects[index] instanceof FrozenPayload) {
+				return ((FrozenPayload) objects[index]).getPaintValue();
+			} else {
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Returns a copy of the attributes as a map, in insertion order.
+	 *
+	 * @return the attributes.
+	 */
+	public Map<String, Object> toMap() {
+		final Map<String, Object> map = new LinkedHashMap<String, Object>(size * 2);
+
+		for (int i = 0; i < size; i++) {
+			map.put(names[i], getValue(i));
+		}
+
+		return map;
+	}
+
+	private float floatValue(int index) {
+		return Float.intBitsToFloat((int) primitives[index]);
+	}
+
+	private double doubleValue(int index) {
+		return Double.longBitsToDouble(primitives[index]);
+	}
+
+	private int slot(String name, byte type) {
+		int index = indexOf(name);
+
+		if (index < 0) {
+			if (size == names.length) {
+				final int capacity = size == 0 ? 4 : size * 2;
+				names = Arrays.copyOf(names, capacity);
+				types = Arrays.copyOf(types, capacity);
+				primitives = Arrays.copyOf(primitives, capacity);
+				objects = Arrays.copyOf(objects, capacity);
+			}
+
+			index = size++;
+			names[index] = NAMES.intern(name);
+		}
+
+		types[index] = type;
+		objects[index] = null;
+		return index;
+	}
+
+	/**
+	 * Returns the index of the attribute, to be used with {@link #getName(int)}, {@link #getValue(int)} and {@link #getPaintValue(int)}.
+	 *
+	 * @param name the attribute name.
+	 * @return the index, or -1 if the attribute is not set.
+	 */
+	public int indexOf(String name) {
+		for (int i = 0; i < size; i++) {
+			if (names[i] == name) {
+				return i;
+			}
+		}
+
+		for (int i = 0; i < size; i++) {
+			if (names[i].equals(name)) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+}
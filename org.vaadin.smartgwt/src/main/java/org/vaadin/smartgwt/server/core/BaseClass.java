@@ -1,12 +1,11 @@
 package org.vaadin.smartgwt.server.core;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
+import java.io.IOException;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.log4j.Logger;
+import org.vaadin.smartgwt.server.PartialPaintChecker;
 import org.vaadin.smartgwt.server.data.Record;
 import org.vaadin.smartgwt.server.util.JSONHelper;
 
@@ -508,7 +507,8 @@ public abstract class BaseClass extends AbstractComponent {
 	// ------------ Vaadin integration methods
 
 	private static final long serialVersionUID = 1L;
-	protected Map<String, Object> attributes = new HashMap<String, Object>();
+	protected final AttributeStore attributes = new AttributeStore();
+	private final PartialPaintChecker paintChecker = new PartialPaintChecker(this);
 	private boolean isCreated = false;
 
 	public Object getOrCreateJsObj() {
@@ -524,7 +524,7 @@ public abstract class BaseClass extends AbstractComponent {
 			throw new IllegalArgumentException("Cannot modify property " + attribute + " once created");
 		}
 
-		attributes.put(attribute, value);
+		attributes.set(attribute, value);
 	}
 
 	public void setAttribute(String attribute, Object value) {
@@ -532,12 +532,7 @@ public abstract class BaseClass extends AbstractComponent {
 	}
 
 	public String getAttributeAsString(String attribute) {
-		Object value = attributes.get(attribute);
-
-		if (value == null)
-			return null;
-		else
-			return value.toString();
+		return attributes.getString(attribute);
 	}
 
 	public String getAttribute(String attribute) {
@@ -545,119 +540,124 @@ public abstract class BaseClass extends AbstractComponent {
 	}
 
 	public Integer getAttributeAsInt(String attribute) {
-		Object value = attributes.get(attribute);
-
-		if (value == null)
-			return null;
-		else
-			return Integer.valueOf(value.toString());
+		return attributes.getInt(attribute);
 	}
 
 	public Boolean getAttributeAsBoolean(String attribute) {
-		Object value = attributes.get(attribute);
-
-		if (value == null)
-			return null;
-		else
-			return Boolean.valueOf(value.toString());
+		return attributes.getBoolean(attribute);
 	}
 
 	public Double getAttributeAsDouble(String attribute) {
-		Object value = attributes.get(attribute);
-
-		if (value == null)
-			return null;
-		else
-			return Double.valueOf(value.toString());
+		return attributes.getDouble(attribute);
 	}
 
 	public Float getAttributeAsFloat(String attribute) {
-		Object value = attributes.get(attribute);
-
-		if (value == null)
-			return null;
-		else
-			return Float.valueOf(value.toString());
+		return attributes.getFloat(attribute);
 	}
 
 	public Map<?, ?> getAttributeAsMap(String attribute) {
-		Object value = attributes.get(attribute);
-
-		if (value == null)
-			return null;
-		else
-			return (Map<?, ?>) value;
+		return (Map<?, ?>) attributes.get(attribute);
 	}
 
 	public Date getAttributeAsDate(String attribute) {
-		Object value = attributes.get(attribute);
-
-		if (value == null)
-			return null;
-		else {
-			DateFormat df = new SimpleDateFormat();
-			try {
-				Date d = df.parse(value.toString());
-				return d;
-			} catch (Exception e) {
-				e.printStackTrace();
-			}
-		}
-		return null;
+		return attributes.getDate(attribute);
 	}
 
 	public String[] getAttributeAsStringArray(String attribute) {
-		Object value = attributes.get(attribute);
-
-		if (value == null)
-			return null;
-		else
-			return (String[]) value;
+		return (String[]) attributes.get(attribute);
 	}
 
 	public String[] getAttributeAsJava(String attribute) {
-		Object value = attributes.get(attribute);
+		return (String[]) attributes.get(attribute);
+	}
+
+	public Object getAttributeAsObject(String attribute) {
+		return attributes.get(attribute);
+	}
+
+	/**
+	 * Requests a repaint that does not send the attributes again, the flag naming the change that subclasses paint themselves. Flags of changes
+	 * that are not attributes should be meta names starting with '*'. A plain {@link #requestRepaint()} sends all the attributes again.
+	 * 
+	 * @param flag the name of the change.
+	 */
+	protected void requestPartialRepaint(String flag) {
+		paintChecker.setDirty(flag);
+	}
+
+	/**
+	 * Tells whether the paint in progress sends all the attributes, either because the whole application is repainted or because a full repaint was
+	 * requested. Only valid before {@link #paintContent(PaintTarget)} returns.
+	 * 
+	 * @param target the paint target.
+	 * @return true if all the attributes are painted.
+	 */
+	protected boolean isFullRepaint(PaintTarget target) {
+		return target.isFullRepaint() || paintChecker.isFullRepaint();
+	}
 
-		if (value == null)
-			return null;
-		else
-			return (String[]) value;
+	@Override
+	public void requestRepaint() {
+		paintChecker.checkBeforeRequestRepaint();
+		super.requestRepaint();
 	}
 
 	@Override
 	public void paintContent(PaintTarget target) throws PaintException {
-		for (Map.Entry<String, Object> entry : attributes.entrySet()) {
-			Object value = entry.getValue();
-			String name = entry.getKey();
-
-			if (value == null)
-				target.addAttribute(name, "null");
-
-			else if (value instanceof Boolean) {
-				target.addAttribute(name, "b" + String.valueOf(value));
-			} else if (value instanceof Integer) {
-				target.addAttribute(name, "i" + String.valueOf(value));
-			} else if (value instanceof Float) {
-				target.addAttribute(name, "f" + String.valueOf(value));
-			} else if (value instanceof Long) {
-				target.addAttribute(name, "l" + String.valueOf(value));
-			} else if (value instanceof Double) {
-				target.addAttribute(name, "d" + String.valueOf(value));
-			} else if (value instanceof String) {
-				target.addAttribute(name, "s" + String.valueOf(value));
-			} else if (value instanceof Record[]) {
-				try {
-					String json = JSONHelper.getJsonString((Record[]) value);
-					target.addAttribute(name, "j" + json);
-
-				} catch (Exception e) {
-					LOGGER.error(e.getMessage());
-				}
+		if (isFullRepaint(target)) {
+			for (int i = 0; i < attributes.size(); i++) {
+				paintAttribute(target, i);
 			}
+		} else {
+			for (String name : paintChecker.getFlagged()) {
+				final int index = attributes.indexOf(name);
 
+				if (index >= 0) {
+					paintAttribute(target, index);
+				}
+			}
 		}
 
+		paintChecker.paintContentPerformed();
+
 		// Since the paint is finished, set the created attribute
 		isCreated = true;
 	}
+
+	private void paintAttribute(PaintTarget target, int index) throws PaintException {
+		final String name = attributes.getName(index);
+		final String paintValue = attributes.getPaintValue(index);
+		final Object value = paintValue == null ? attributes.getValue(index) : null;
+
+		if (paintValue != null) {
+			target.addAttribute(name, paintValue);
+		} else if (value == null) {
+			target.addAttribute(name, "null");
+		} else if (value instanceof Record[]) {
+			try {
+				paintRecords(target, name, (Record[]) value);
+			} catch (Exception e) {
+				LOGGER.error(e.getMessage());
+			}
+		} else if (value instanceof Record) {
+			try {
+				target.addAttribute(name, JSONHelper.getJsonAttributeValue((Record) value));
+			} catch (Exception e) {
+				LOGGER.error(e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Paints a record array attribute. Subclasses may override this to paint some attributes in a more compact encoding.
+	 *
+	 * @param target the paint target.
+	 * @param name the attribute name.
+	 * @param records the attribute value.
+	 * @throws PaintException when the attribute could not be painted.
+	 * @throws IOException when the records could not be serialized.
+	 */
+	protected void paintRecords(PaintTarget target, String name, Record[] records) throws PaintException, IOException {
+		target.addAttribute(name, JSONHelper.getJsonAttributeValue(records));
+	}
 }
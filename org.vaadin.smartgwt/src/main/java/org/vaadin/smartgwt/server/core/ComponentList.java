@@ -2,21 +2,34 @@ package org.vaadin.smartgwt.server.core;
 
 import static com.google.common.base.Preconditions.*;
 
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import com.google.common.collect.Lists;
 import com.vaadin.terminal.PaintException;
 import com.vaadin.terminal.PaintTarget;
 import com.vaadin.ui.Component;
 
+/**
+ * List of child components painted as a property of their parent. Instead of replaying every change made between two paints, the list remembers
+ * the content it last painted and sends the difference as range instructions: removed runs of elements, then added runs of elements. Elements added
+ * and removed between two paints are not sent at all. When the elements were reordered, or when the difference would take as many instructions as
+ * the list holds, a single replace instruction listing the whole content is sent instead. Components are indexed by identity, so membership tests
+ * and lookups do not scan the list.
+ */
 public class ComponentList<E extends Component> implements ComponentProperty, Iterable<E> {
 	private final Component parent;
 	private final List<E> components = Lists.newArrayList();
-	private final List<Instruction<E>> instructions = Lists.newArrayList();
+	private final Map<E, Integer> indexes = new IdentityHashMap<E, Integer>();
+	private final List<E> removed = Lists.newArrayList();
 	private final String tagName;
+	private List<E> painted = Collections.emptyList();
+	private boolean indexesValid = true;
 
 	public ComponentList(Component parent, String tagName) {
 		this.parent = parent;
@@ -26,37 +39,49 @@ public class ComponentList<E extends Component> implements ComponentProperty, It
 	public void add(E e) {
 		e.setParent(parent);
 		components.add(e);
-		instructions.add(new Instruction<E>("add", e));
+
+		if (indexesValid && !indexes.containsKey(e)) {
+			indexes.put(e, components.size() - 1);
+		}
 	}
 
 	public void add(int index, E element) {
 		element.setParent(parent);
 		components.add(index, element);
-		instructions.add(new Instruction<E>("add", index, element));
+		indexesValid = false;
 	}
 
 	public void addAll(Collection<? extends E> c) {
 		for (E e : c) {
-			e.setParent(parent);
 			add(e);
 		}
 	}
 
 	public void remove(E e) {
-		final int index = components.indexOf(e);
+		final int index = indexOf(e);
 
-		if (components.remove(e)) {
-			instructions.add(new Instruction<E>("remove", index, e));
+		if (index >= 0) {
+			removeAt(index);
+			removed.add(e);
 		}
 	}
 
 	/**
 	 * Removes element that was removed on the client-side.
-	 * 
+	 *
 	 * @param element that was removed from the client.
 	 */
 	public void clientRemoved(E element) {
-		components.remove(element);
+		final int index = indexOf(element);
+
+		if (index >= 0) {
+			removeAt(index);
+		}
+
+		if (painted.contains(element)) {
+			painted = Lists.newArrayList(painted);
+			painted.remove(element);
+		}
 	}
 
 	public E get(int index) {
@@ -67,28 +92,43 @@ public class ComponentList<E extends Component> implements ComponentProperty, It
 		checkPositionIndex(index, components.size());
 		element.setParent(parent);
 		final E oldElement = components.set(index, element);
-		instructions.add(new Instruction<E>("remove", index, oldElement));
-		instructions.add(new Instruction<E>("add", index, element));
+		indexesValid = false;
+		removed.add(oldElement);
 		return oldElement;
 	}
 
 	public void clear() {
-		for (Iterator<E> iterator = iterator(); iterator.hasNext();) {
-			iterator.next();
-			iterator.remove();
-		}
+		removed.addAll(components);
+		components.clear();
+		indexes.clear();
+		indexesValid = true;
+	}
+
+	public int size() {
+		return components.size();
 	}
 
 	public E[] toArray(E[] a) {
-		return new ArrayList<E>(components).toArray(a);
+		return components.toArray(a);
 	}
 
 	public boolean contains(Object o) {
-		return components.contains(o);
+		return indexOf(o) >= 0;
 	}
 
 	public int indexOf(Object o) {
-		return components.indexOf(o);
+		if (!indexesValid) {
+			indexes.clear();
+
+			for (int i = components.size() - 1; i >= 0; i--) {
+				indexes.put(components.get(i), i);
+			}
+
+			indexesValid = true;
+		}
+
+		final Integer index = indexes.get(o);
+		return index == null ? -1 : index;
 	}
 
 	@Override
@@ -100,17 +140,18 @@ public class ComponentList<E extends Component> implements ComponentProperty, It
 			component.paint(target);
 		}
 
-		if (target.isFullRepaint()) {
-			for (E component : components) {
-				new Instruction<E>("add", component).paintContent(target);
-			}
+		final List<Instruction> instructions = target.isFullRepaint() ? null : diff();
+
+		if (instructions == null || (instructions.size() > 1 && instructions.size() >= components.size())) {
+			new Instruction("replace", null, components).paintContent(target);
 		} else {
-			for (Instruction<E> instruction : instructions) {
+			for (Instruction instruction : instructions) {
 				instruction.paintContent(target);
 			}
 		}
 
-		instructions.clear();
+		painted = Lists.newArrayList(components);
+		detachRemovedElements();
 		target.endTag(tagName);
 	}
 
@@ -119,6 +160,77 @@ public class ComponentList<E extends Component> implements ComponentProperty, It
 		return new ComponentIterator(components.iterator());
 	}
 
+	/**
+	 * Computes the edit script turning the painted content into the current one: the removed runs, from the last one so that the indexes of the
+	 * earlier ones stay valid, then the added runs, in order.
+	 *
+	 * @return the instructions, or null if the elements kept from the painted content were reordered.
+	 */
+	private List<Instruction> diff() {
+		final List<Instruction> instructions = Lists.newArrayList();
+		final Set<E> paintedElements = Collections.newSetFromMap(new IdentityHashMap<E, Boolean>());
+		int end = painted.size();
+
+		for (int i = painted.size() - 1; i >= -1; i--) {
+			if (i >= 0 && !contains(painted.get(i))) {
+				continue;
+			} else if (i + 1 < end) {
+				instructions.add(new Instruction("remove", i + 1, painted.subList(i + 1, end)));
+			}
+
+			if (i >= 0) {
+				paintedElements.add(painted.get(i));
+			}
+
+			end = i;
+		}
+
+		int kept = 0;
+		int start = -1;
+
+		for (int i = 0; i <= components.size(); i++) {
+			if (i < components.size() && !paintedElements.contains(components.get(i))) {
+				start = start < 0 ? i : start;
+				continue;
+			} else if (start >= 0) {
+				instructions.add(new Instruction("add", start, components.subList(start, i)));
+				start = -1;
+			}
+
+			if (i < components.size()) {
+				while (kept < painted.size() && !paintedElements.contains(painted.get(kept))) {
+					kept++;
+				}
+
+				if (kept == painted.size() || painted.get(kept++) != components.get(i)) {
+					return null;
+				}
+			}
+		}
+
+		return instructions;
+	}
+
+	private void removeAt(int index) {
+		final E element = components.remove(index);
+
+		if (index == components.size()) {
+			indexes.remove(element);
+		} else {
+			indexesValid = false;
+		}
+	}
+
+	private void detachRemovedElements() {
+		for (E element : removed) {
+			if (!contains(element)) {
+				element.setParent(null);
+			}
+		}
+
+		removed.clear();
+	}
+
 	private class ComponentIterator implements Iterator<E> {
 		private final Iterator<E> source;
 		private E next;
@@ -140,25 +252,23 @@ public class ComponentList<E extends Component> implements ComponentProperty, It
 		@Override
 		public void remove() {
 			source.remove();
-			instructions.add(new Instruction<E>("remove", next));
+			indexesValid = false;
+			removed.add(next);
 		}
 	}
 
-	private static class Instruction<E extends Component> {
-		private final E element;
-		private final Integer index;
+	/**
+	 * A range instruction: adds the elements at the index, removes as many elements from the index, or replaces the whole content with the elements.
+	 */
+	private static class Instruction {
 		private final String name;
+		private final Integer index;
+		private final List<? extends Component> elements;
 
-		public Instruction(String name, E element) {
-			this.name = name;
-			this.index = null;
-			this.element = element;
-		}
-
-		public Instruction(String name, int index, E element) {
+		public Instruction(String name, Integer index, List<? extends Component> elements) {
 			this.name = name;
 			this.index = index;
-			this.element = element;
+			this.elements = elements;
 		}
 
 		public void paintContent(PaintTarget target) throws PaintException {
@@ -168,18 +278,17 @@ public class ComponentList<E extends Component> implements ComponentProperty, It
 				target.addAttribute("index", index);
 			}
 
-			if (element != null) {
-				target.addAttribute("element", element);
-				detachRemovedElement();
+			if ("remove".equals(name)) {
+				target.addAttribute("count", elements.size());
+			} else {
+				for (Component element : elements) {
+					target.startTag("e");
+					target.addAttribute("element", element);
+					target.endTag("e");
+				}
 			}
 
 			target.endTag(name);
 		}
-
-		private void detachRemovedElement() {
-			if ("remove".equals(name)) {
-				element.setParent(null);
-			}
-		}
 	}
-}
\ No newline at end of file
+}
@@ -16,9 +16,9 @@
 
 package org.vaadin.smartgwt.server.core;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -34,55 +34,54 @@ import com.vaadin.terminal.gwt.server.JsonPaintTarget;
 import com.vaadin.ui.AbstractComponent;
 
 public class DataClass extends AbstractComponent {
-	private final Map<String, Object> attributes = new HashMap<String, Object>();
+	private final AttributeStore attributes = new AttributeStore();
 
 	public DataClass() {
 
 	}
 
 	public void setAttribute(String property, String value) {
-		attributes.put(property, value);
+		attributes.set(property, value);
 	}
 
 	public String getAttribute(String property) {
-		return (String) attributes.get(property);
+		return attributes.getString(property);
 	}
 
 	public String getAttributeAsString(String property) {
-		return (String) attributes.get(property);
+		return attributes.getString(property);
 	}
 
 	public void setAttribute(String property, int value) {
-		attributes.put(property, value);
+		attributes.setInt(property, value);
 	}
 
 	public void setAttribute(String property, double value) {
-		attributes.put(property, value);
+		attributes.setDouble(property, value);
 	}
 
 	public void setAttribute(String property, long value) {
-		attributes.put(property, new Double(value));
+		attributes.setDouble(property, value);
 	}
 
 	public Integer getAttributeAsInt(String property) {
-		return (Integer) attributes.get(property);
+		return attributes.getInt(property);
 	}
 
 	public void setAttribute(String property, boolean value) {
-		attributes.put(property, value);
+		attributes.setBoolean(property, value);
 	}
 
 	public Boolean getAttributeAsBoolean(String property) {
-		return (Boolean) attributes.get(property);
+		return attributes.getBoolean(property);
 	}
 
 	public Double getAttributeAsDouble(String property) {
-		return (Double) attributes.get(property);
+		return attributes.getDouble(property);
 	}
 
 	public Long getAttributeAsLong(String property) {
-		Double dVal = this.getAttributeAsDouble(property);
-		return dVal == null ? null : dVal.longValue();
+		return attributes.getLong(property);
 	}
 
 	public double[] getAttributeAsDoubleArray(String property) {
@@ -90,23 +89,23 @@ public class DataClass extends AbstractComponent {
 	}
 
 	public void setAttribute(String property, int[] value) {
-		attributes.put(property, value);
+		attributes.set(property, value);
 	}
 
 	public void setAttribute(String property, Integer[] value) {
-		attributes.put(property, value);
+		attributes.set(property, value);
 	}
 
 	public void setAttribute(String property, DataClass[] value) {
-		attributes.put(property, value);
+		attributes.set(property, value);
 	}
 
 	public void setAttribute(String property, BaseClass[] value) {
-		attributes.put(property, value);
+		attributes.set(property, value);
 	}
 
 	public void setAttribute(String property, BaseWidget[] value) {
-		attributes.put(property, value);
+		attributes.set(property, value);
 	}
 
 	public int[] getAttributeAsIntArray(String property) {
@@ -114,7 +113,7 @@ public class DataClass extends AbstractComponent {
 	}
 
 	public void setAttribute(String property, String[] value) {
-		attributes.put(property, value);
+		attributes.set(property, value);
 	}
 
 	public String[] getAttributeAsStringArray(String property) {
@@ -122,35 +121,35 @@ public class DataClass extends AbstractComponent {
 	}
 
 	public void setAttribute(String property, DataClass value) {
-		attributes.put(property, value);
+		attributes.set(property, value);
 	}
 
 	public void setAttribute(String property, BaseClass value) {
-		attributes.put(property, value);
+		attributes.set(property, value);
 	}
 
 	public void setAttribute(String property, Date value) {
-		attributes.put(property, value);
+		attributes.set(property, value);
 	}
 
 	public void setAttribute(String property, double[] value) {
-		attributes.put(property, value);
+		attributes.set(property, value);
 	}
 
 	public void setAttribute(String property, Boolean value) {
-		attributes.put(property, value);
+		attributes.set(property, value);
 	}
 
 	public void setAttribute(String property, Map value) {
-		attributes.put(property, value);
+		attributes.set(property, value);
 	}
 
 	public void setAttribute(String property, ValueEnum[] value) {
-		attributes.put(property, value);
+		attributes.set(property, value);
 	}
 
 	public void setAttribute(String property, ValueEnum value) {
-		attributes.put(property, value);
+		attributes.set(property, value);
 	}
 
 	/**
@@ -179,28 +178,28 @@ public class DataClass extends AbstractComponent {
 		} else if (value instanceof Map) {
 			setAttribute(property, (Map) value);
 		} else {
-			attributes.put(property, value);
+			attributes.set(property, value);
 		}
 	}
 
 	public void setAttribute(String property, Double value) {
-		attributes.put(property, value);
+		attributes.set(property, value);
 	}
 
 	public void setAttribute(String property, Integer value) {
-		attributes.put(property, value);
+		attributes.set(property, value);
 	}
 
 	public void setAttribute(String property, Float value) {
-		attributes.put(property, value);
+		attributes.set(property, value);
 	}
 
 	public Float getAttributeAsFloat(String property) {
-		return (Float) attributes.get(property);
+		return attributes.getFloat(property);
 	}
 
 	public Date getAttributeAsDate(String property) {
-		return (Date) attributes.get(property);
+		return attributes.getDate(property);
 	}
 
 	public Object getAttributeAsObject(String property) {
@@ -222,31 +221,28 @@ public class DataClass extends AbstractComponent {
 	}
 
 	public String[] getAttributes() {
-		return attributes.keySet().toArray(new String[0]);
+		final String[] names = new String[attributes.size()];
+
+		for (int i = 0; i < names.length; i++) {
+			names[i] = attributes.getName(i);
+		}
+
+		return names;
 	}
 
 	@Override
 	public void paintContent(PaintTarget target) throws PaintException {
 		JsonPaintTarget jspt = (JsonPaintTarget) target;
 
-		for (Map.Entry<String, Object> entry : attributes.entrySet()) {
-			Object value = entry.getValue();
-			String name = entry.getKey();
+		for (int i = 0; i < attributes.size(); i++) {
+			String name = attributes.getName(i);
+			final String paintValue = attributes.getPaintValue(i);
+			final Object value = paintValue == null ? attributes.getValue(i) : null;
 
-			if (value == null) {
+			if (paintValue != null) {
+				target.addAttribute(name, paintValue);
+			} else if (value == null) {
 				target.addAttribute(name, "null");
-			} else if (value instanceof Boolean) {
-				target.addAttribute(name, "b" + String.valueOf(value));
-			} else if (value instanceof Integer) {
-				target.addAttribute(name, "i" + String.valueOf(value));
-			} else if (value instanceof Float) {
-				target.addAttribute(name, "f" + String.valueOf(value));
-			} else if (value instanceof Long) {
-				target.addAttribute(name, "l" + String.valueOf(value));
-			} else if (value instanceof Double) {
-				target.addAttribute(name, "d" + String.valueOf(value));
-			} else if (value instanceof String) {
-				target.addAttribute(name, "s" + String.valueOf(value));
 			} else if (value instanceof String[]) {
 				if (name.charAt(0) != '*')
 					name = "!" + name;
@@ -254,12 +250,22 @@ public class DataClass extends AbstractComponent {
 				target.addAttribute(name, (String[]) value);
 			} else if (value instanceof Record[]) {
 				try {
-					String json = JSONHelper.getJsonString((Record[]) value);
-					target.addAttribute(name, "j" + json);
-
+					target.addAttribute(name, JSONHelper.getJsonAttributeValue((Record[]) value));
 				} catch (Exception e) {
 					e.printStackTrace();
 				}
+			} else if (value instanceof Record) {
+				try {
+					target.addAttribute(name, JSONHelper.getJsonAttributeValue((Record) value));
+				} catch (IOException e) {
+					throw new PaintException(e);
+				}
+			} else if (value instanceof Map) {
+				try {
+					target.addAttribute(name, JSONHelper.getJsonAttributeValue((Map<?, ?>) value));
+				} catch (IOException e) {
+					throw new PaintException(e);
+				}
 			} else if (value instanceof Paintable[]) {
 				List<String> references = new ArrayList<String>();
 
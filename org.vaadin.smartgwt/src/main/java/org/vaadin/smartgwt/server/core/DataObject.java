@@ -0,0 +1,251 @@
+package org.vaadin.smartgwt.server.core;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Map;
+
+import org.vaadin.smartgwt.server.data.Record;
+import org.vaadin.smartgwt.server.types.ValueEnum;
+
+/**
+ * Plain attribute holder offering the {@link DataClass} attribute API without being a Vaadin component. Attributes are kept in an
+ * {@link AttributeStore} instead of a map, which keeps the footprint of large record sets small; lookups are linear, which is cheaper than hashing
+ * for the handful of attributes a record usually holds.
+ * <p/>
+ * Use {@link DataClass} only for objects that need to be painted as components.
+ */
+public class DataObject implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private final AttributeStore attributes = new AttributeStore();
+	private boolean frozen;
+
+	public DataObject() {
+
+	}
+
+	public void setAttribute(String property, String value) {
+		put(property, value);
+	}
+
+	public String getAttribute(String property) {
+		return getAttributeAsString(property);
+	}
+
+	public String getAttributeAsString(String property) {
+		final Object value = get(property);
+		return value == null ? null : value.toString();
+	}
+
+	public void setAttribute(String property, int value) {
+		put(property, value);
+	}
+
+	public void setAttribute(String property, double value) {
+		put(property, value);
+	}
+
+	public void setAttribute(String property, long value) {
+		put(property, new Double(value));
+	}
+
+	public void setAttribute(String property, boolean value) {
+		put(property, value);
+	}
+
+	public void setAttribute(String property, Integer value) {
+		put(property, value);
+	}
+
+	public void setAttribute(String property, Double value) {
+		put(property, value);
+	}
+
+	public void setAttribute(String property, Float value) {
+		put(property, value);
+	}
+
+	public void setAttribute(String property, Boolean value) {
+		put(property, value);
+	}
+
+	public void setAttribute(String property, Date value) {
+		put(property, value);
+	}
+
+	public void setAttribute(String property, Map value) {
+		put(property, value);
+	}
+
+	public void setAttribute(String property, int[] value) {
+		put(property, value);
+	}
+
+	public void setAttribute(String property, Integer[] value) {
+		put(property, value);
+	}
+
+	public void setAttribute(String property, double[] value) {
+		put(property, value);
+	}
+
+	public void setAttribute(String property, String[] value) {
+		put(property, value);
+	}
+
+	public void setAttribute(String property, ValueEnum value) {
+		put(property, value);
+	}
+
+	public void setAttribute(String property, ValueEnum[] value) {
+		put(property, value);
+	}
+
+	public void setAttribute(String property, DataObject value) {
+		put(property, value);
+	}
+
+	public void setAttribute(String property, DataObject[] value) {
+		put(property, value);
+	}
+
+	/**
+	 * Set the attribute value as an Object. Primitive wrappers are stored the same way as through their dedicated setters; all other object types are
+	 * stored as is and are expected to be retrieved through {@link #getAttributeAsObject(String)}.
+	 *
+	 * @param property the attribute name
+	 * @param value the attribute value.
+	 */
+	public void setAttribute(String property, Object value) {
+		if (value instanceof Long) {
+			setAttribute(property, ((Long) value).longValue());
+		} else if (value instanceof Float) {
+			setAttribute(property, ((Float) value).doubleValue());
+		} else {
+			put(property, value);
+		}
+	}
+
+	public Integer getAttributeAsInt(String property) {
+		final Object value = get(property);
+		return value == null ? null : ((Number) value).intValue();
+	}
+
+	public Long getAttributeAsLong(String property) {
+		final Object value = get(property);
+		return value == null ? null : ((Number) value).longValue();
+	}
+
+	public Double getAttributeAsDouble(String property) {
+		final Object value = get(property);
+		return value == null ? null : ((Number) value).doubleValue();
+	}
+
+	public Float getAttributeAsFloat(String property) {
+		final Object value = get(property);
+		return value == null ? null : ((Number) value).floatValue();
+	}
+
+	public Boolean getAttributeAsBoolean(String property) {
+		return (Boolean) get(property);
+	}
+
+	public Date getAttributeAsDate(String property) {
+		return (Date) get(property);
+	}
+
+	public Map getAttributeAsMap(String property) {
+		return (Map) get(property);
+	}
+
+	public int[] getAttributeAsIntArray(String property) {
+		return (int[]) get(property);
+	}
+
+	public double[] getAttributeAsDoubleArray(String property) {
+		return (double[]) get(property);
+	}
+
+	public String[] getAttributeAsStringArray(String property) {
+		return (String[]) get(property);
+	}
+
+	/**
+	 * Get the attribute value as a Record.
+	 *
+	 * @param property the property name
+	 * @return the record value
+	 */
+	public Record getAttributeAsRecord(String property) {
+		return (Record) get(property);
+	}
+
+	public Object getAttributeAsObject(String property) {
+		return get(property);
+	}
+
+	/**
+	 * Removes the attribute.
+	 *
+	 * @param property the property name
+	 */
+	public void removeAttribute(String property) {
+		checkNotFrozen();
+		attributes.remove(property);
+	}
+
+	/**
+	 * Makes this object read-only, so that it can be shared, for instance across sessions. Setting or removing attributes afterwards throws an
+	 * UnsupportedOperationException; attribute values that are themselves mutable, like maps and arrays, are not protected.
+	 */
+	public void freeze() {
+		frozen = true;
+	}
+
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	public String[] getAttributes() {
+		final String[] names = new String[attributes.size()];
+
+		for (int i = 0; i < names.length; i++) {
+			names[i] = attributes.getName(i);
+		}
+
+		return names;
+	}
+
+	/**
+	 * Returns the number of attributes, to be used with {@link #getAttributeName(int)} and {@link #getAttributeValue(int)} to iterate the attributes
+	 * without allocating.
+	 *
+	 * @return the number of attributes.
+	 */
+	public int getAttributeCount() {
+		return attributes.size();
+	}
+
+	public String getAttributeName(int index) {
+		return attributes.getName(index);
+	}
+
+	public Object getAttributeValue(int index) {
+		return attributes.getValue(index);
+	}
+
+	private Object get(String property) {
+		return attributes.get(property);
+	}
+
+	private void put(String property, Object value) {
+		checkNotFrozen();
+		attributes.set(property, value);
+	}
+
+	private void checkNotFrozen() {
+		if (frozen) {
+			throw new UnsupportedOperationException("frozen objects cannot be modified");
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package org.vaadin.smartgwt.server.core;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.io.SegmentedStringWriter;
+import org.vaadin.smartgwt.server.util.JSONHelper;
+import org.vaadin.smartgwt.server.util.JSONWritable;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.hash.Hashing;
+
+/**
+ * Immutable attribute value serialized to JSON once, such as the cache data of a reference DataSource or a static value map. The payload is
+ * identified by a hash of its content and painted verbatim, as an 'h' prefixed value holding the hash and the JSON text; the client-side painter
+ * decodes a payload once and reuses the decoded value whenever the same hash is painted again. Payloads are interned JVM-wide, so that freezing
+ * the same content in every session shares a single instance.
+ */
+public final class FrozenPayload implements Serializable, JSONWritable {
+	private static final long serialVersionUID = 1L;
+	private static final Interner<FrozenPayload> PAYLOADS = Interners.newWeakInterner();
+
+	private final String paintValue;
+	private final int jsonOffset;
+
+	private FrozenPayload(String hash, String json) {
+		this.paintValue = "h" + hash + ":" + json;
+		this.jsonOffset = hash.length() + 2;
+	}
+
+	/**
+	 * Serializes a value, typically records, a map or a string array.
+	 *
+	 * @param value the value; it must not be modified afterwards for the payload to reflect it.
+	 * @return the payload.
+	 * @throws IllegalArgumentException when the value cannot be serialized.
+	 */
+	public static FrozenPayload of(Object value) throws IllegalArgumentException {
+		try {
+			final SegmentedStringWriter writer = JSONHelper.createStringWriter();
+			final JsonGenerator generator = JSONHelper.createGenerator(writer);
+			JSONHelper.writeValue(generator, value);
+			generator.flush();
+			return ofJson(writer.getAndClear());
+		} catch (IOException e) {
+			throw new IllegalArgumentException("the value cannot be serialized", e);
+		}
+	}
+
+	/**
+	 * Freezes JSON text that is already serialized.
+	 *
+	 * @param json the JSON text.
+	 * @return the payload.
+	 */
+	public static FrozenPayload ofJson(String json) {
+		return PAYLOADS.intern(new FrozenPayload(Hashing.murmur3_128().hashString(json).toString(), json));
+	}
+
+	public String getHash() {
+		return paintValue.substring(1, jsonOffset - 1);
+	}
+
+	public String getJson() {
+		return paintValue.substring(jsonOffset);
+	}
+
+	/**
+	 * Returns the value painted for this payload, as expected by the client-side painter.
+	 *
+	 * @return the paint value.
+	 */
+	public String getPaintValue() {
+		return paintValue;
+	}
+
+	/**
+	 * Writes the JSON text as a value, without encoding it again.
+	 *
+	 * @param generator the destination generator.
+	 * @throws IOException when the value could not be written.
+	 */
+	@Override
+	public void writeTo(JsonGenerator generator) throws IOException {
+		generator.writeRawValue(paintValue, jsonOffset, paintValue.length() - jsonOffset);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof FrozenPayload && paintValue.equals(((FrozenPayload) obj).paintValue);
+	}
+
+	@Override
+	public int hashCode() {
+		return paintValue.hashCode();
+	}
+
+	private Object readResolve() {
+		return PAYLOADS.intern(this);
+	}
+}
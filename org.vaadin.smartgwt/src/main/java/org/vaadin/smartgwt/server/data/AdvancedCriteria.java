@@ -0,0 +1,97 @@
+package org.vaadin.smartgwt.server.data;
+
+import java.util.List;
+
+import org.vaadin.smartgwt.server.core.DataObject;
+import org.vaadin.smartgwt.server.types.OperatorId;
+import org.vaadin.smartgwt.server.util.EnumUtil;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Criteria built from an {@link OperatorId}: either a condition on a field, or a logical combination of nested criteria. The attributes mirror the
+ * JSON sent by the client-side AdvancedCriteria, so criteria received from a filter editor and criteria built on the server are evaluated the same
+ * way by {@link RecordFilter}.
+ */
+public class AdvancedCriteria extends Criteria {
+	private static final long serialVersionUID = 1L;
+	private static final String CONSTRUCTOR = "AdvancedCriteria";
+
+	/**
+	 * Creates a condition without value, such as {@link OperatorId#IS_NULL}.
+	 *
+	 * @param fieldName the field.
+	 * @param operator the operator.
+	 */
+	public AdvancedCriteria(String fieldName, OperatorId operator) {
+		setAttribute("_constructor", CONSTRUCTOR);
+		setAttribute("fieldName", fieldName);
+		setAttribute("operator", operator.getValue());
+	}
+
+	/**
+	 * Creates a condition on a value; the value of {@link OperatorId#IN_SET} is a list, the value of the "field" operators is the name of the other
+	 * field.
+	 *
+	 * @param fieldName the field.
+	 * @param operator the operator.
+	 * @param value the value.
+	 */
+	public AdvancedCriteria(String fieldName, OperatorId operator, Object value) {
+		this(fieldName, operator);
+		setAttribute("value", value);
+	}
+
+	/**
+	 * Creates a range condition, for {@link OperatorId#BETWEEN} and {@link OperatorId#BETWEEN_INCLUSIVE}.
+	 *
+	 * @param fieldName the field.
+	 * @param operator the operator.
+	 * @param start the lower bound, or null when unbounded.
+	 * @param end the upper bound, or null when unbounded.
+	 */
+	public AdvancedCriteria(String fieldName, OperatorId operator, Object start, Object end) {
+		this(fieldName, operator);
+		setAttribute("start", start);
+		setAttribute("end", end);
+	}
+
+	/**
+	 * Combines criteria with {@link OperatorId#AND}, {@link OperatorId#OR} or {@link OperatorId#NOT}.
+	 *
+	 * @param operator the logical operator.
+	 * @param criteria the nested criteria.
+	 */
+	public AdvancedCriteria(OperatorId operator, Criteria... criteria) {
+		setAttribute("_constructor", CONSTRUCTOR);
+		setAttribute("operator", operator.getValue());
+		setAttribute("criteria", Lists.<Object> newArrayList(criteria));
+	}
+
+	/**
+	 * Returns whether criteria are advanced criteria, including the ones decoded from the JSON sent by the client.
+	 *
+	 * @param criteria the criteria.
+	 * @return true for advanced criteria, false for simple field-value criteria.
+	 */
+	public static boolean isAdvanced(DataObject criteria) {
+		return CONSTRUCTOR.equals(criteria.getAttributeAsObject("_constructor"));
+	}
+
+	public String getFieldName() {
+		return getAttribute("fieldName");
+	}
+
+	public OperatorId getOperator() {
+		return EnumUtil.getEnum(OperatorId.values(), getAttribute("operator"));
+	}
+
+	/**
+	 * Returns the nested criteria of a logical operator; they are either criteria or, when decoded from JSON, maps.
+	 *
+	 * @return the nested criteria, or null for a field condition.
+	 */
+	public List<?> getCriteria() {
+		return (List<?>) getAttributeAsObject("criteria");
+	}
+}
@@ -0,0 +1,98 @@
+package org.vaadin.smartgwt.server.data;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.vaadin.smartgwt.server.core.FrozenPayload;
+
+/**
+ * Immutable result held by the {@link DataSourceResultCache}, shared by every session. The records are copied, so that the caller keeps its own
+ * records writable, then frozen and serialized once into a {@link FrozenPayload}, so the result is painted and sent in responses as is, without
+ * encoding the records again.
+ */
+public class CachedRecords {
+	private final Record[] records;
+	private final FrozenPayload payload;
+	private final long created;
+	private final long expires;
+
+	CachedRecords(Record[] records, long created, long expires) {
+		this.records = new Record[records.length];
+
+		for (int i = 0; i < records.length; i++) {
+			this.records[i] = copyOf(records[i]);
+			this.records[i].freeze();
+		}
+
+		this.payload = FrozenPayload.of(this.records);
+		this.created = created;
+		this.expires = expires;
+	}
+
+	/**
+	 * Returns the cached records. The array is a copy; the records are frozen.
+	 *
+	 * @return the records.
+	 */
+	public Record[] getRecords() {
+		return records.clone();
+	}
+
+	/**
+	 * Returns a range of the cached records.
+	 *
+	 * @param from index of the first record.
+	 * @param to index after the last record.
+	 * @return the records; the records are frozen.
+	 */
+	public Record[] getRecords(int from, int to) {
+		return Arrays.copyOfRange(records, from, to);
+	}
+
+	public int size() {
+		return records.length;
+	}
+
+	/**
+	 * Returns the serialized records.
+	 *
+	 * @return the payload.
+	 */
+	public FrozenPayload getPayload() {
+		return payload;
+	}
+
+	/**
+	 * Returns the time the records were cached, in the ticker time of the cache.
+	 *
+	 * @return the creation time, in nanoseconds.
+	 */
+	public long getCreated() {
+		return created;
+	}
+
+	boolean isExpired(long now) {
+		return now - expires >= 0;
+	}
+
+	/**
+	 * Writes the serialized records as a JSON array value.
+	 */
+	void write(JsonGenerator generator) throws IOException {
+		payload.writeTo(generator);
+	}
+
+	/**
+	 * Returns a shallow copy of the record: attribute values are shared, like they are shared by the frozen record.
+	 */
+	private static Record copyOf(Record record) {
+		final Record copy = new Record();
+
+		for (int i = 0; i < record.getAttributeCount(); i++) {
+			copy.setAttribute(record.getAttributeName(i), record.getAttributeValue(i));
+		}
+
+		return copy;
+	}
+}
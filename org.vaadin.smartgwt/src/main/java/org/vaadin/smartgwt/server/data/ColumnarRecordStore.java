@@ -0,0 +1,665 @@
+package org.vaadin.smartgwt.server.data;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.vaadin.smartgwt.server.core.DataClass;
+import org.vaadin.smartgwt.server.grid.ListGridDataProvider;
+import org.vaadin.smartgwt.server.grid.ListGridField;
+import org.vaadin.smartgwt.server.grid.ListGridPage;
+import org.vaadin.smartgwt.server.types.SortDirection;
+import org.vaadin.smartgwt.server.types.TextMatchStyle;
+import org.vaadin.smartgwt.server.util.JSONHelper;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Booleans;
+import com.google.common.primitives.Doubles;
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
+
+/**
+ * Record container for large read-only grids, storing the values of each field in one column instead of one object per record. The column of a
+ * field is typed by the field type: integer, float, boolean and date fields are held in primitive arrays, text fields are dictionary encoded so that
+ * repeated values are stored once, and fields of other types are held as objects. Attributes of the added records that are not fields of the store
+ * are dropped.
+ * <p/>
+ * The store is a {@link ListGridDataProvider}: a paged {@link org.vaadin.smartgwt.server.grid.ListGrid} writes the rows it fetches straight from the
+ * columns through {@link #getPage(int, int, SortSpecifier[], Criteria)}. Records are only materialized when asked for, by {@link #getRecord(int)}
+ * and {@link #getRecords(int, int, SortSpecifier[], Criteria)}. Criteria are evaluated by a {@link RecordFilter} reading the columns of the
+ * fields they test, without building records; the last filtered and sorted rows are kept, so paging through a result does not evaluate it again.
+ */
+public class ColumnarRecordStore implements ListGridDataProvider {
+	private static final int INITIAL_CAPACITY = 16;
+	private static final SortSpecifier[] UNSORTED = new SortSpecifier[0];
+
+	private final String[] fieldNames;
+	private final Column[] columns;
+	private final Map<String, Integer> columnIndexes = Maps.newHashMap();
+	private int size;
+	private int capacity;
+	private TextMatchStyle textMatchStyle = TextMatchStyle.SUBSTRING;
+	private String filteredKey;
+	private int[] filteredRows;
+	private String sortedKey;
+	private int[] sortedRows;
+
+	public ColumnarRecordStore(DataSourceField... fields) {
+		this((DataClass[]) fields);
+	}
+
+	public ColumnarRecordStore(ListGridField... fields) {
+		this((DataClass[]) fields);
+	}
+
+	private ColumnarRecordStore(DataClass[] fields) {
+		fieldNames = new String[fields.length];
+		columns = new Column[fields.length];
+
+		for (int i = 0; i < fields.length; i++) {
+			fieldNames[i] = fields[i].getAttribute("name");
+			columns[i] = newColumn(fields[i].getAttribute("type"));
+			columnIndexes.put(fieldNames[i], i);
+		}
+
+		ensureCapacity(INITIAL_CAPACITY);
+	}
+
+	private static Column newColumn(String type) {
+		if ("integer".equals(type) || "intEnum".equals(type) || "sequence".equals(type)) {
+			return new IntColumn();
+		} else if ("float".equals(type)) {
+			return new DoubleColumn();
+		} else if ("boolean".equals(type)) {
+			return new BooleanColumn();
+		} else if ("date".equals(type) || "datetime".equals(type) || "time".equals(type)) {
+			return new DateColumn();
+		} else if ("text".equals(type) || "enum".equals(type) || "link".equals(type) || "image".equals(type) || "password".equals(type)) {
+			return new DictionaryColumn();
+		} else {
+			return new ObjectColumn();
+		}
+	}
+
+	/**
+	 * Appends a record, converting its values to the types of the columns.
+	 *
+	 * @param record the record.
+	 * @throws IllegalArgumentException when a value does not match the type of its field; the record is not added.
+	 */
+	public synchronized void addRecord(Record record) throws IllegalArgumentException {
+		ensureCapacity(size + 1);
+
+		for (int i = 0; i < columns.length; i++) {
+			try {
+				columns[i].set(size, record.getAttributeAsObject(fieldNames[i]));
+			} catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException("invalid value for field " + fieldNames[i] + ": " + e.getMessage(), e);
+			}
+		}
+
+		size++;
+		filteredKey = null;
+		sortedKey = null;
+	}
+
+	/**
+	 * Appends records.
+	 *
+	 * @param records the records.
+	 * @throws IllegalArgumentException when a value does not match the type of its field; the records before it are added.
+	 */
+	public synchronized void addRecords(Iterable<? extends Record> records) throws IllegalArgumentException {
+		for (Record record : records) {
+			addRecord(record);
+		}
+	}
+
+	public synchronized int size() {
+		return size;
+	}
+
+	public String[] getFieldNames() {
+		return fieldNames.clone();
+	}
+
+	/**
+	 * Returns a value without materializing its record.
+	 *
+	 * @param row the row.
+	 * @param fieldName the field.
+	 * @return the value, or null.
+	 */
+	public synchronized Object getValue(int row, String fieldName) {
+		checkRow(row);
+		return readValue(row, fieldName);
+	}
+
+	/**
+	 * Materializes a record. The record is a copy of the row; modifying it does not modify the store.
+	 *
+	 * @param row the row.
+	 * @return the record, holding the non-null values of the row.
+	 */
+	public synchronized Record getRecord(int row) {
+		checkRow(row);
+		final Record record = new Record();
+
+		for (int i = 0; i < columns.length; i++) {
+			if (!columns[i].isNull(row)) {
+				record.setAttribute(fieldNames[i], columns[i].get(row));
+			}
+		}
+
+		return record;
+	}
+
+	public synchronized TextMatchStyle getTextMatchStyle() {
+		return textMatchStyle;
+	}
+
+	/**
+	 * Sets the text match style of the simple criteria received through {@link ListGridDataProvider}, which carries none.
+	 *
+	 * @param textMatchStyle the text match style, {@link TextMatchStyle#SUBSTRING} by default, as for the filter editor of a grid.
+	 */
+	public synchronized void setTextMatchStyle(TextMatchStyle textMatchStyle) {
+		this.textMatchStyle = textMatchStyle;
+		filteredKey = null;
+		sortedKey = null;
+	}
+
+	@Override
+	public synchronized int getTotalRows(Criteria criteria) {
+		return filter(criteria).length;
+	}
+
+	/**
+	 * Materializes the records from startRow (inclusive) to endRow (exclusive) matching the criteria, in the requested order.
+	 *
+	 * @param startRow index of the first requested row.
+	 * @param endRow index after the last requested row.
+	 * @param sortBy the sort levels, empty when unsorted.
+	 * @param criteria the criteria, or null.
+	 * @return the records; may be shorter than requested at the end of the data.
+	 */
+	public synchronized Record[] getRecords(int startRow, int endRow, SortSpecifier[] sortBy, Criteria criteria) {
+		return getPage(startRow, endRow, sortBy, criteria).getRecords();
+	}
+
+	/**
+	 * Returns rows matching the criteria, in the requested order, as a page written straight from the columns.
+	 *
+	 * @param startRow index of the first requested row.
+	 * @param endRow index after the last requested row.
+	 * @param sortBy the sort levels, empty when unsorted.
+	 * @param criteria the criteria, or null.
+	 * @return the page; may be shorter than requested at the end of the data.
+	 */
+	@Override
+	public synchronized Page getPage(int startRow, int endRow, SortSpecifier[] sortBy, Criteria criteria) {
+		final int[] rows = query(criteria, sortBy == null ? UNSORTED : sortBy);
+		final int from = Math.min(startRow, rows.length);
+		return new Page(Arrays.copyOfRange(rows, from, Math.max(from, Math.min(endRow, rows.length))));
+	}
+
+	private int[] query(Criteria criteria, SortSpecifier[] sortBy) {
+		final String key = RecordQueryEngine.toKey(criteria, textMatchStyle, sortBy);
+
+		if (!key.equals(sortedKey)) {
+			sortedRows = sort(filter(criteria), sortBy);
+			sortedKey = key;
+		}
+
+		return sortedRows;
+	}
+
+	private int[] filter(Criteria criteria) {
+		final String key = RecordQueryEngine.toKey(criteria, textMatchStyle, UNSORTED);
+
+		if (!key.equals(filteredKey)) {
+			final RecordFilter filter = RecordFilter.compile(criteria, textMatchStyle);
+			final ColumnRow row = new ColumnRow();
+			final int[] rows = new int[size];
+			int count = 0;
+
+			for (int i = 0; i < size; i++) {
+				row.row = i;
+
+				if (filter == RecordFilter.ALL || filter.matches(row)) {
+					rows[count++] = i;
+				}
+			}
+
+			filteredRows = Arrays.copyOf(rows, count);
+			filteredKey = key;
+		}
+
+		return filteredRows;
+	}
+
+	private Object readValue(int row, String fieldName) {
+		final Integer column = columnIndexes.get(fieldName);
+		return column == null || columns[column].isNull(row) ? null : columns[column].get(row);
+	}
+
+	private int[] sort(int[] rows, SortSpecifier[] sortBy) {
+		if (sortBy.length == 0) {
+			return rows;
+		}
+
+		final Column[] sortColumns = new Column[sortBy.length];
+		final boolean[] descending = new boolean[sortBy.length];
+
+		for (int i = 0; i < sortBy.length; i++) {
+			final Integer column = columnIndexes.get(sortBy[i].getField());
+			sortColumns[i] = column == null ? NullColumn.INSTANCE : columns[column];
+			descending[i] = sortBy[i].getSortDirection() == SortDirection.DESCENDING;
+		}
+
+		final int[] sorted = rows.clone();
+		RowComparator.sort(sorted, new RowComparator() {
+			@Override
+			int compare(int row1, int row2) {
+				for (int i = 0; i < sortColumns.length; i++) {
+					final int comparison = sortColumns[i].compareRows(row1, row2);
+
+					if (comparison != 0) {
+						return descending[i] ? -comparison : comparison;
+					}
+				}
+
+				return 0;
+			}
+		});
+		return sorted;
+	}
+
+	private void ensureCapacity(int minCapacity) {
+		if (minCapacity > capacity) {
+			capacity = Math.max(minCapacity, capacity + (capacity >> 1));
+
+			for (Column column : columns) {
+				column.setCapacity(capacity);
+			}
+		}
+	}
+
+	private void checkRow(int row) {
+		if (row < 0 || row >= size) {
+			throw new IndexOutOfBoundsException("row " + row + " out of " + size);
+		}
+	}
+
+	/**
+	 * Row read by the filters, only reading the columns of the fields they test. The same instance is moved from row to row.
+	 */
+	private class ColumnRow implements RecordFilter.Row {
+		private int row;
+
+		@Override
+		public Object getValue(String fieldName) {
+			return readValue(row, fieldName);
+		}
+	}
+
+	/**
+	 * Rows of the store fetched by a grid. The page is written as a JSON array of records straight from the columns.
+	 */
+	public class Page implements ListGridPage {
+		private final int[] rows;
+
+		Page(int[] rows) {
+			this.rows = rows;
+		}
+
+		@Override
+		public int size() {
+			return rows.length;
+		}
+
+		/**
+		 * Materializes the records of the page.
+		 *
+		 * @return the records.
+		 */
+		@Override
+		public Record[] getRecords() {
+			synchronized (ColumnarRecordStore.this) {
+				final Record[] records = new Record[rows.length];
+
+				for (int i = 0; i < records.length; i++) {
+					records[i] = getRecord(rows[i]);
+				}
+
+				return records;
+			}
+		}
+
+		@Override
+		public void writeTo(JsonGenerator generator) throws IOException {
+			synchronized (ColumnarRecordStore.this) {
+				generator.writeStartArray();
+
+				for (int row : rows) {
+					generator.writeStartObject();
+
+					for (int i = 0; i < columns.length; i++) {
+						if (!columns[i].isNull(row)) {
+							generator.writeFieldName(fieldNames[i]);
+							columns[i].write(generator, row);
+						}
+					}
+
+					generator.writeEndObject();
+				}
+
+				generator.writeEndArray();
+			}
+		}
+	}
+
+	/**
+	 * Values of a field, by row. Null values are tracked apart from the values, and sort first.
+	 */
+	private abstract static class Column {
+		private final BitSet nulls = new BitSet();
+
+		abstract void setCapacity(int capacity);
+
+		abstract void setValue(int row, Object value);
+
+		abstract Object get(int row);
+
+		abstract void write(JsonGenerator generator, int row) throws IOException;
+
+		abstract int compareValues(int row1, int row2);
+
+		void set(int row, Object value) {
+			nulls.set(row, value == null);
+
+			if (value != null) {
+				setValue(row, value);
+			}
+		}
+
+		boolean isNull(int row) {
+			return nulls.get(row);
+		}
+
+		int compareRows(int row1, int row2) {
+			final boolean null1 = isNull(row1);
+			final boolean null2 = isNull(row2);
+			return null1 || null2 ? Booleans.compare(null2, null1) : compareValues(row1, row2);
+		}
+
+		static <T> T cast(Object value, Class<T> type) {
+			if (!type.isInstance(value)) {
+				throw new IllegalArgumentException("expected a " + type.getSimpleName() + ", got " + value.getClass().getSimpleName());
+			}
+
+			return type.cast(value);
+		}
+	}
+
+	private static class IntColumn extends Column {
+		private int[] values = new int[0];
+
+		@Override
+		void setCapacity(int capacity) {
+			values = Arrays.copyOf(values, capacity);
+		}
+
+		@Override
+		void setValue(int row, Object value) {
+			final double number = cast(value, Number.class).doubleValue();
+
+			if (number != (int) number) {
+				throw new IllegalArgumentException(number + " is not a 32-bit integer");
+			}
+
+			values[row] = (int) number;
+		}
+
+		@Override
+		Object get(int row) {
+			return values[row];
+		}
+
+		@Override
+		void write(JsonGenerator generator, int row) throws IOException {
+			generator.writeNumber(values[row]);
+		}
+
+		@Override
+		int compareValues(int row1, int row2) {
+			return Ints.compare(values[row1], values[row2]);
+		}
+	}
+
+	private static class DoubleColumn extends Column {
+		private double[] values = new double[0];
+
+		@Override
+		void setCapacity(int capacity) {
+			values = Arrays.copyOf(values, capacity);
+		}
+
+		@Override
+		void setValue(int row, Object value) {
+			values[row] = cast(value, Number.class).doubleValue();
+		}
+
+		@Override
+		Object get(int row) {
+			return values[row];
+		}
+
+		@Override
+		void write(JsonGenerator generator, int row) throws IOException {
+			generator.writeNumber(values[row]);
+		}
+
+		@Override
+		int compareValues(int row1, int row2) {
+			return Doubles.compare(values[row1], values[row2]);
+		}
+	}
+
+	private static class BooleanColumn extends Column {
+		private final BitSet values = new BitSet();
+
+		@Override
+		void setCapacity(int capacity) {
+		}
+
+		@Override
+		void setValue(int row, Object value) {
+			values.set(row, cast(value, Boolean.class));
+		}
+
+		@Override
+		Object get(int row) {
+			return values.get(row);
+		}
+
+		@Override
+		void write(JsonGenerator generator, int row) throws IOException {
+			generator.writeBoolean(values.get(row));
+		}
+
+		@Override
+		int compareValues(int row1, int row2) {
+			return Booleans.compare(values.get(row1), values.get(row2));
+		}
+	}
+
+	private static class DateColumn extends Column {
+		private long[] values = new long[0];
+
+		@Override
+		void setCapacity(int capacity) {
+			values = Arrays.copyOf(values, capacity);
+		}
+
+		@Override
+		void setValue(int row, Object value) {
+			values[row] = cast(value, Date.class).getTime();
+		}
+
+		@Override
+		Object get(int row) {
+			return new Date(values[row]);
+		}
+
+		@Override
+		void write(JsonGenerator generator, int row) throws IOException {
+			JSONHelper.writeValue(generator, get(row));
+		}
+
+		@Override
+		int compareValues(int row1, int row2) {
+			return Longs.compare(values[row1], values[row2]);
+		}
+	}
+
+	/**
+	 * Text column storing each distinct value once; rows hold the code of their value in the dictionary.
+	 */
+	private static class DictionaryColumn extends Column {
+		private final List<String> dictionary = Lists.newArrayList();
+		private final Map<String, Integer> codes = Maps.newHashMap();
+		private int[] values = new int[0];
+		private int[] ranks;
+
+		@Override
+		void setCapacity(int capacity) {
+			values = Arrays.copyOf(values, capacity);
+		}
+
+		@Override
+		void setValue(int row, Object value) {
+			final String text = cast(value, String.class);
+			Integer code = codes.get(text);
+
+			if (code == null) {
+				codes.put(text, code = dictionary.size());
+				dictionary.add(text);
+				ranks = null;
+			}
+
+			values[row] = code;
+		}
+
+		@Override
+		Object get(int row) {
+			return dictionary.get(values[row]);
+		}
+
+		@Override
+		void write(JsonGenerator generator, int row) throws IOException {
+			generator.writeString(dictionary.get(values[row]));
+		}
+
+		@Override
+		int compareValues(int row1, int row2) {
+			if (ranks == null) {
+				ranks = rankDictionary();
+			}
+
+			return Ints.compare(ranks[values[row1]], ranks[values[row2]]);
+		}
+
+		private int[] rankDictionary() {
+			final int[] order = new int[dictionary.size()];
+
+			for (int i = 0; i < order.length; i++) {
+				order[i] = i;
+			}
+
+			RowComparator.sort(order, new RowComparator() {
+				@Override
+				int compare(int code1, int code2) {
+					return dictionary.get(code1).compareTo(dictionary.get(code2));
+				}
+			});
+
+			final int[] dictionaryRanks = new int[order.length];
+
+			for (int i = 0; i < order.length; i++) {
+				dictionaryRanks[order[i]] = i;
+			}
+
+			return dictionaryRanks;
+		}
+	}
+
+	private static class ObjectColumn extends Column {
+		private Object[] values = new Object[0];
+
+		@Override
+		void setCapacity(int capacity) {
+			values = Arrays.copyOf(values, capacity);
+		}
+
+		@Override
+		void setValue(int row, Object value) {
+			values[row] = value;
+		}
+
+		@Override
+		Object get(int row) {
+			return values[row];
+		}
+
+		@Override
+		void write(JsonGenerator generator, int row) throws IOException {
+			JSONHelper.writeValue(generator, values[row]);
+		}
+
+		@Override
+		int compareValues(int row1, int row2) {
+			return RecordFilter.compareValues(values[row1], values[row2]);
+		}
+	}
+
+	/**
+	 * Sort column of a field that is not stored: every row is null.
+	 */
+	private static class NullColumn extends Column {
+		static final NullColumn INSTANCE = new NullColumn();
+
+		@Override
+		void setCapacity(int capacity) {
+		}
+
+		@Override
+		void setValue(int row, Object value) {
+		}
+
+		@Override
+		Object get(int row) {
+			return null;
+		}
+
+		@Override
+		void write(JsonGenerator generator, int row) throws IOException {
+			generator.writeNull();
+		}
+
+		@Override
+		int compareValues(int row1, int row2) {
+			return 0;
+		}
+
+		@Override
+		int compareRows(int row1, int row2) {
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package org.vaadin.smartgwt.server.data;
+
+import org.vaadin.smartgwt.server.core.DataObject;
+
+/**
+ * Simple field-value criteria, as sent by a {@link com.smartgwt.client.widgets.DataBoundComponent} when fetching data. Each attribute is the name of a
+ * field and the value it should match.
+ */
+public class Criteria extends DataObject {
+	private static final long serialVersionUID = 1L;
+
+	public Criteria() {
+
+	}
+
+	public Criteria(String fieldName, String value) {
+		setAttribute(fieldName, value);
+	}
+
+	public void addCriteria(String field, String value) {
+		setAttribute(field, value);
+	}
+
+	public void addCriteria(String field, Integer value) {
+		setAttribute(field, value);
+	}
+
+	public void addCriteria(String field, Boolean value) {
+		setAttribute(field, value);
+	}
+}
@@ -0,0 +1,212 @@
+package org.vaadin.smartgwt.server.data;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+import org.vaadin.smartgwt.server.types.DSOperationType;
+import org.vaadin.smartgwt.server.types.TextMatchStyle;
+import org.vaadin.smartgwt.server.util.EnumUtil;
+import org.vaadin.smartgwt.server.util.JSONHelper;
+
+import com.google.common.collect.Lists;
+
+/**
+ * An operation requested on a {@link DataSource} backed by a {@link DataSourceHandler}. Fetches carry the requested rows, sort levels and criteria;
+ * adds, updates and removes carry the record values, as sent by the client-side DataSource: the new record, the changed values with the primary key,
+ * or the primary key of the record to remove.
+ */
+public class DSRequest {
+	private final DSOperationType operationType;
+	private String requestId;
+	private Integer startRow;
+	private Integer endRow;
+	private SortSpecifier[] sortBy = new SortSpecifier[0];
+	private Criteria criteria;
+	private TextMatchStyle textMatchStyle;
+	private Record data;
+	private Record oldValues;
+
+	public DSRequest(DSOperationType operationType) {
+		this.operationType = operationType;
+	}
+
+	/**
+	 * Decodes a request sent by the client-side DataSource with a pull parser.
+	 *
+	 * @param json the request.
+	 * @param recordFactory the factory building the criteria and records.
+	 * @return the decoded request.
+	 * @throws IOException when the request could not be read.
+	 */
+	public static DSRequest parse(String json, RecordFactory recordFactory) throws IOException {
+		final JsonParser parser = JSONHelper.createParser(json);
+		DSOperationType operationType = null;
+		String requestId = null;
+		Integer startRow = null;
+		Integer endRow = null;
+		SortSpecifier[] sortBy = new SortSpecifier[0];
+		Criteria criteria = null;
+		TextMatchStyle textMatchStyle = null;
+		Record data = null;
+		Record oldValues = null;
+
+		try {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new IOException("expected a JSON object, found " + parser.getCurrentToken());
+			}
+
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				final String name = parser.getCurrentName();
+				parser.nextToken();
+
+				if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+					continue;
+				} else if ("operationType".equals(name)) {
+					operationType = EnumUtil.getEnum(DSOperationType.values(), parser.getText());
+				} else if ("requestId".equals(name)) {
+					requestId = parser.getText();
+				} else if ("startRow".equals(name)) {
+					startRow = parser.getIntValue();
+				} else if ("endRow".equals(name)) {
+					endRow = parser.getIntValue();
+				} else if ("sortBy".equals(name)) {
+					final List<SortSpecifier> sortSpecifiers = Lists.newArrayList();
+
+					while (parser.nextToken() != JsonToken.END_ARRAY) {
+						sortSpecifiers.add(SortSpecifier.valueOf(parser.getText()));
+					}
+
+					sortBy = sortSpecifiers.toArray(new SortSpecifier[sortSpecifiers.size()]);
+				} else if ("criteria".equals(name)) {
+					criteria = recordFactory.newCriteria(parser);
+				} else if ("textMatchStyle".equals(name)) {
+					textMatchStyle = EnumUtil.getEnum(TextMatchStyle.values(), parser.getText());
+				} else if ("data".equals(name)) {
+					data = recordFactory.newRecord(parser);
+				} else if ("oldValues".equals(name)) {
+					oldValues = recordFactory.newRecord(parser);
+				} else {
+					parser.skipChildren();
+				}
+			}
+		} finally {
+			parser.close();
+		}
+
+		if (operationType == null) {
+			throw new IOException("no operation type in request " + requestId);
+		}
+
+		final DSRequest request = new DSRequest(operationType);
+		request.requestId = requestId;
+		request.startRow = startRow;
+		request.endRow = endRow;
+		request.sortBy = sortBy;
+		request.criteria = criteria == null || criteria.getAttributeCount() == 0 ? null : criteria;
+		request.textMatchStyle = textMatchStyle;
+		request.data = data;
+		request.oldValues = oldValues;
+		return request;
+	}
+
+	public DSOperationType getOperationType() {
+		return operationType;
+	}
+
+	/**
+	 * Returns the id the client-side DataSource gave to this request, or null for requests built on the server.
+	 *
+	 * @return the request id.
+	 */
+	public String getRequestId() {
+		return requestId;
+	}
+
+	/**
+	 * Returns the index of the first requested row of a fetch, or null when the whole result is requested.
+	 *
+	 * @return the start row.
+	 */
+	public Integer getStartRow() {
+		return startRow;
+	}
+
+	public void setStartRow(Integer startRow) {
+		this.startRow = startRow;
+	}
+
+	/**
+	 * Returns the index after the last requested row of a fetch, or null when the whole result is requested.
+	 *
+	 * @return the end row.
+	 */
+	public Integer getEndRow() {
+		return endRow;
+	}
+
+	public void setEndRow(Integer endRow) {
+		this.endRow = endRow;
+	}
+
+	/**
+	 * Returns the sort levels of a fetch, empty when unsorted.
+	 *
+	 * @return the sort levels.
+	 */
+	public SortSpecifier[] getSortBy() {
+		return sortBy;
+	}
+
+	public void setSortBy(SortSpecifier... sortBy) {
+		this.sortBy = sortBy;
+	}
+
+	/**
+	 * Returns the criteria of a fetch, or null when it is not filtered.
+	 *
+	 * @return the criteria.
+	 */
+	public Criteria getCriteria() {
+		return criteria;
+	}
+
+	public void setCriteria(Criteria criteria) {
+		this.criteria = criteria;
+	}
+
+	public TextMatchStyle getTextMatchStyle() {
+		return textMatchStyle;
+	}
+
+	public void setTextMatchStyle(TextMatchStyle textMatchStyle) {
+		this.textMatchStyle = textMatchStyle;
+	}
+
+	/**
+	 * Returns the record values of an add, update or remove.
+	 *
+	 * @return the record values.
+	 */
+	public Record getData() {
+		return data;
+	}
+
+	public void setData(Record data) {
+		this.data = data;
+	}
+
+	/**
+	 * Returns the values of the record before an update, when the client-side component sent them.
+	 *
+	 * @return the old values, or null.
+	 */
+	public Record getOldValues() {
+		return oldValues;
+	}
+
+	public void setOldValues(Record oldValues) {
+		this.oldValues = oldValues;
+	}
+}
@@ -0,0 +1,148 @@
+package org.vaadin.smartgwt.server.data;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.vaadin.smartgwt.server.util.JSONHelper;
+
+/**
+ * The result of a {@link DSRequest}, as processed by the client-side DataSource. A fetch responds with the rows from startRow to endRow out of
+ * totalRows; an add or an update responds with the records as stored, a remove with the removed records.
+ */
+public class DSResponse {
+	public static final int STATUS_SUCCESS = 0;
+	public static final int STATUS_FAILURE = -1;
+	public static final int STATUS_VALIDATION_ERROR = -4;
+
+	private int status = STATUS_SUCCESS;
+	private Record[] data = new Record[0];
+	private Integer startRow;
+	private Integer endRow;
+	private Integer totalRows;
+	private Map<String, String> errors;
+	private String errorMessage;
+	private CachedRecords cachedData;
+
+	public DSResponse() {
+	}
+
+	public DSResponse(Record... data) {
+		this.data = data;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public void setStatus(int status) {
+		this.status = status;
+	}
+
+	public Record[] getData() {
+		return data;
+	}
+
+	public void setData(Record... data) {
+		this.data = data;
+		this.cachedData = null;
+	}
+
+	/**
+	 * Responds with a whole cached result, written from its serialized form.
+	 */
+	void setData(CachedRecords cachedData) {
+		this.data = cachedData.getRecords();
+		this.cachedData = cachedData;
+	}
+
+	public Integer getStartRow() {
+		return startRow;
+	}
+
+	public void setStartRow(Integer startRow) {
+		this.startRow = startRow;
+	}
+
+	public Integer getEndRow() {
+		return endRow;
+	}
+
+	public void setEndRow(Integer endRow) {
+		this.endRow = endRow;
+	}
+
+	public Integer getTotalRows() {
+		return totalRows;
+	}
+
+	public void setTotalRows(Integer totalRows) {
+		this.totalRows = totalRows;
+	}
+
+	public Map<String, String> getErrors() {
+		return errors;
+	}
+
+	/**
+	 * Sets the validation errors, mapping field names to messages. Use with {@link #STATUS_VALIDATION_ERROR}.
+	 *
+	 * @param errors the validation errors.
+	 */
+	public void setErrors(Map<String, String> errors) {
+		this.errors = errors;
+	}
+
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	/**
+	 * Sets the message reported by the client when the status is {@link #STATUS_FAILURE}.
+	 *
+	 * @param errorMessage the message.
+	 */
+	public void setErrorMessage(String errorMessage) {
+		this.errorMessage = errorMessage;
+	}
+
+	void write(JsonGenerator generator, String requestId) throws IOException {
+		generator.writeStartObject();
+		generator.writeStringField("requestId", requestId);
+		generator.writeNumberField("status", status);
+		writeNumberField(generator, "startRow", startRow);
+		writeNumberField(generator, "endRow", endRow);
+		writeNumberField(generator, "totalRows", totalRows);
+
+		if (errorMessage != null) {
+			generator.writeStringField("errorMessage", errorMessage);
+		}
+
+		if (errors != null) {
+			generator.writeFieldName("errors");
+			generator.writeStartObject();
+
+			for (Map.Entry<String, String> error : errors.entrySet()) {
+				generator.writeStringField(error.getKey(), error.getValue());
+			}
+
+			generator.writeEndObject();
+		}
+
+		generator.writeFieldName("data");
+
+		if (cachedData != null) {
+			cachedData.write(generator);
+		} else {
+			JSONHelper.writeValue(generator, data);
+		}
+
+		generator.writeEndObject();
+	}
+
+	private static void writeNumberField(JsonGenerator generator, String name, Integer value) throws IOException {
+		if (value != null) {
+			generator.writeNumberField(name, value);
+		}
+	}
+}
@@ -1,18 +1,28 @@
 package org.vaadin.smartgwt.server.data;
 
+import java.io.IOException;
 import java.util.Map;
 
+import org.apache.log4j.Logger;
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.io.SegmentedStringWriter;
 import org.vaadin.smartgwt.client.data.VDataSource;
+import org.vaadin.smartgwt.server.InjectorSingleton;
 import org.vaadin.smartgwt.server.core.BaseClass;
 import org.vaadin.smartgwt.server.core.ComponentList;
 import org.vaadin.smartgwt.server.core.ComponentPropertyPainter;
+import org.vaadin.smartgwt.server.core.FrozenPayload;
 import org.vaadin.smartgwt.server.types.CriteriaPolicy;
 import org.vaadin.smartgwt.server.types.DSDataFormat;
+import org.vaadin.smartgwt.server.types.DSOperationType;
 import org.vaadin.smartgwt.server.types.DSProtocol;
 import org.vaadin.smartgwt.server.types.EnumTranslateStrategy;
 import org.vaadin.smartgwt.server.types.RPCTransport;
 import org.vaadin.smartgwt.server.util.EnumUtil;
+import org.vaadin.smartgwt.server.util.JSONHelper;
 
+import com.google.common.base.Throwables;
+import com.google.common.collect.Maps;
 import com.vaadin.terminal.PaintException;
 import com.vaadin.terminal.PaintTarget;
 import com.vaadin.ui.ClientWidget;
@@ -232,6 +242,26 @@ public class DataSource extends BaseClass { //  BaseClass  implements com.smartg
         setAttribute("cacheData", cacheData, true);
     }
 
+    /**
+     * Sets the client-side cache to a result of the {@link DataSourceResultCache}. The result is shared by all the DataSources, across sessions,
+     * that use it, and is painted from its serialized form.
+     *
+     * @param cacheData the cached result.
+     */
+    public void setCacheData(CachedRecords cacheData) {
+        setCacheData(cacheData.getPayload());
+    }
+
+    /**
+     * Sets the client-side cache to records serialized once, typically static reference data shared by every session. The client decodes the
+     * records once per content hash, however many DataSources use them.
+     *
+     * @param cacheData the records, as a frozen JSON array.
+     */
+    public void setCacheData(FrozenPayload cacheData) {
+        setAttribute("cacheData", cacheData, true);
+    }
+
     /**
      * For a {@link com.smartgwt.client.data.DataSource#getCacheAllData cacheAllData} or client-only DataSource, a set of
      * records to use as a dataset,  specified as an Array of JavaScript Objects representing records.
@@ -3364,8 +3394,14 @@ public class DataSource extends BaseClass { //  BaseClass  implements com.smartg
 
 	// Vaadin Integration
 
+	private static final Logger LOGGER = Logger.getLogger(DataSource.class);
 	private final ComponentPropertyPainter propertyPainter = new ComponentPropertyPainter(this);
 	private final ComponentList<DataSourceField> fields = propertyPainter.addComponentList("fields");
+	private final Map<String, DSResponse> responses = Maps.newLinkedHashMap();
+	private DataSourceHandler handler;
+	private RecordFactory recordFactory;
+	private DataSourceResultCache resultCache;
+	private boolean useSharedCache;
 
 	public DataSource() {
 		scClassName = "DataSource";
@@ -3417,9 +3453,240 @@ public class DataSource extends BaseClass { //  BaseClass  implements com.smartg
 		return "dataSource";
 	}
 
+	/**
+	 * Serves the operations of this DataSource from the server. The client-side DataSource then sends every fetch, add, update and remove request,
+	 * with its paging, sort and criteria, to the handler through the Vaadin channel instead of a data URL, and only receives the records of the
+	 * response.
+	 *
+	 * @param handler the handler.
+	 * @throws IllegalStateException this property cannot be changed after the underlying component has been created
+	 */
+	public void setHandler(DataSourceHandler handler) throws IllegalStateException {
+		if (isCreated()) {
+			error("The handler cannot be set after the underlying component has been created.");
+		}
+
+		this.handler = handler;
+	}
+
+	public DataSourceHandler getHandler() {
+		return handler;
+	}
+
+	/**
+	 * Serves the fetches of the handler from the JVM-wide {@link DataSourceResultCache}, so that reference data is fetched and serialized once for
+	 * all the sessions. On a miss, the whole result for the criteria and sort is fetched from the handler and kept for {@link #setCacheMaxAge(int)}
+	 * seconds; requested rows are then served from it. Adds, updates and removes drop the cached results of this DataSource. The DataSource must
+	 * have an ID, shared by every instance serving the same data, and the handler's results must only depend on the criteria and sort.
+	 *
+	 * @param useSharedCache true to use the shared cache.
+	 */
+	public void setUseSharedCache(boolean useSharedCache) {
+		this.useSharedCache = useSharedCache;
+	}
+
+	public boolean getUseSharedCache() {
+		return useSharedCache;
+	}
+
+	/**
+	 * Executes an operation with the handler. Fetch responses get their rows defaulted from the request and the returned records.
+	 *
+	 * @param request the request.
+	 * @return the response.
+	 * @throws IllegalStateException when no handler was set, or the operation is not supported.
+	 */
+	public DSResponse execute(DSRequest request) throws IllegalStateException {
+		if (handler == null) {
+			throw new IllegalStateException("no handler set on DataSource " + getAttribute("*ID"));
+		}
+
+		switch (request.getOperationType()) {
+		case FETCH:
+			return useSharedCache ? fetchShared(request) : completeFetchResponse(request, handler.fetch(request));
+		case ADD:
+			return invalidateSharedCache(handler.add(request));
+		case UPDATE:
+			return invalidateSharedCache(handler.update(request));
+		case REMOVE:
+			return invalidateSharedCache(handler.remove(request));
+		default:
+			throw new IllegalStateException("unsupported operation " + request.getOperationType().getValue());
+		}
+	}
+
+	public DataSourceResultCache getResultCache() {
+		if (resultCache == null) {
+			return resultCache = InjectorSingleton.get().getInstance(DataSourceResultCache.class);
+		} else {
+			return resultCache;
+		}
+	}
+
+	public void setResultCache(DataSourceResultCache resultCache) {
+		this.resultCache = resultCache;
+	}
+
+	public RecordFactory getRecordFactory() {
+		if (recordFactory == null) {
+			return recordFactory = InjectorSingleton.get().getInstance(RecordFactory.class);
+		} else {
+			return recordFactory;
+		}
+	}
+
+	public void setRecordFactory(RecordFactory recordFactory) {
+		this.recordFactory = recordFactory;
+	}
+
+	/**
+	 * Paints the fields and the pending responses. Answering a request is a partial repaint, so that it does not send the whole configuration again,
+	 * cache data included.
+	 */
 	@Override
 	public void paintContent(PaintTarget target) throws PaintException {
 		propertyPainter.paintContent(target);
+
+		if (handler != null) {
+			target.addAttribute("*serverHandler", true);
+		}
+
+		if (!responses.isEmpty()) {
+			paintResponses(target);
+		}
+
 		super.paintContent(target);
 	}
+
+	@Override
+	public void changeVariables(Object source, Map<String, Object> variables) {
+		if (variables.containsKey("dsRequest")) {
+			try {
+				final DSRequest request = DSRequest.parse((String) variables.get("dsRequest"), getRecordFactory());
+				responses.put(request.getRequestId(), executeSafely(request));
+				requestPartialRepaint("*dsResponses");
+			} catch (Exception e) {
+				Throwables.propagate(e);
+			}
+		}
+
+		super.changeVariables(source, variables);
+	}
+
+	/**
+	 * Executes a request sent by the client. Failures of the handler are answered with a failure response, so that the client-side request does not
+	 * wait forever.
+	 */
+	private DSResponse executeSafely(DSRequest request) {
+		try {
+			return execute(request);
+		} catch (RuntimeException e) {
+			LOGGER.error("DataSource request " + request.getRequestId() + " failed", e);
+			final DSResponse response = new DSResponse();
+			response.setStatus(DSResponse.STATUS_FAILURE);
+			response.setErrorMessage(String.valueOf(e.getMessage()));
+			return response;
+		}
+	}
+
+	private DSResponse fetchShared(DSRequest request) {
+		final String id = getSharedCacheId();
+		CachedRecords result = getResultCache().get(id, request.getCriteria(), request.getTextMatchStyle(), request.getSortBy());
+
+		if (result == null) {
+			final DSRequest wholeRequest = new DSRequest(DSOperationType.FETCH);
+			wholeRequest.setCriteria(request.getCriteria());
+			wholeRequest.setSortBy(request.getSortBy());
+			wholeRequest.setTextMatchStyle(request.getTextMatchStyle());
+			final DSResponse response = handler.fetch(wholeRequest);
+
+			if (response.getStatus() != DSResponse.STATUS_SUCCESS) {
+				return response;
+			}
+
+			result = getResultCache().put(id, request.getCriteria(), request.getTextMatchStyle(), request.getSortBy(), response.getData(), getSharedCacheMaxAge());
+		}
+
+		final int startRow = request.getStartRow() == null ? 0 : Math.min(request.getStartRow(), result.size());
+		final int endRow = request.getEndRow() == null ? result.size() : Math.max(startRow, Math.min(request.getEndRow(), result.size()));
+		final DSResponse response = new DSResponse();
+
+		if (startRow == 0 && endRow == result.size()) {
+			response.setData(result);
+		} else {
+			response.setData(result.getRecords(startRow, endRow));
+		}
+
+		response.setStartRow(startRow);
+		response.setEndRow(endRow);
+		response.setTotalRows(result.size());
+		return response;
+	}
+
+	private DSResponse invalidateSharedCache(DSResponse response) {
+		if (useSharedCache && response.getStatus() == DSResponse.STATUS_SUCCESS) {
+			getResultCache().invalidate(getSharedCacheId());
+		}
+
+		return response;
+	}
+
+	private String getSharedCacheId() {
+		final String id = getAttribute("*ID");
+
+		if (id == null) {
+			throw new IllegalStateException("a DataSource using the shared cache must have an ID");
+		}
+
+		return id;
+	}
+
+	/**
+	 * Returns the cacheMaxAge, defaulting to 60 seconds like the client-side cache.
+	 */
+	private int getSharedCacheMaxAge() {
+		final Integer cacheMaxAge = getAttributeAsInt("cacheMaxAge");
+		return cacheMaxAge == null ? 60 : cacheMaxAge;
+	}
+
+	private static DSResponse completeFetchResponse(DSRequest request, DSResponse response) {
+		if (response.getStartRow() == null) {
+			response.setStartRow(request.getStartRow() == null ? 0 : request.getStartRow());
+		}
+
+		if (response.getEndRow() == null) {
+			response.setEndRow(response.getStartRow() + response.getData().length);
+		}
+
+		if (response.getTotalRows() == null) {
+			if (request.getEndRow() != null && response.getEndRow() >= request.getEndRow()) {
+				LOGGER.warn("fetch response to request " + request.getRequestId() + " fills the requested page but has no totalRows; assuming "
+						+ response.getEndRow() + " rows, so the client will not page further");
+			}
+
+			response.setTotalRows(response.getEndRow());
+		}
+
+		return response;
+	}
+
+	private void paintResponses(PaintTarget target) throws PaintException {
+		try {
+			final SegmentedStringWriter writer = JSONHelper.createStringWriter();
+			final JsonGenerator generator = JSONHelper.createGenerator(writer);
+			generator.writeStartArray();
+
+			for (Map.Entry<String, DSResponse> response : responses.entrySet()) {
+				response.getValue().write(generator, response.getKey());
+			}
+
+			generator.writeEndArray();
+			generator.flush();
+			target.addAttribute("*dsResponses", writer.getAndClear());
+		} catch (IOException e) {
+			throw new PaintException(e);
+		}
+
+		responses.clear();
+	}
 }
@@ -20,6 +20,7 @@ import java.util.Map;
 
 import org.vaadin.smartgwt.client.data.fields.VDataSourceField;
 import org.vaadin.smartgwt.server.core.DataClass;
+import org.vaadin.smartgwt.server.core.FrozenPayload;
 import org.vaadin.smartgwt.server.types.DateDisplayFormat;
 import org.vaadin.smartgwt.server.types.FieldType;
 import org.vaadin.smartgwt.server.types.OperatorId;
@@ -1521,6 +1522,16 @@ public class DataSourceField extends DataClass {
         setAttribute("valueMap", valueMap);
     }
 
+    /**
+     * Sets a value map serialized once, typically a static map shared by every session. The client decodes the map once per content hash,
+     * however many fields use it.
+     *
+     * @param valueMap the value map, as a frozen JSON array or object.
+     */
+    public void setValueMap(FrozenPayload valueMap) {
+        setAttribute("valueMap", valueMap);
+    }
+
 
 //    /**
 //     * Sets the default FormItem to be used whenever this field is edited (whether in a grid, form, or other component).
@@ -0,0 +1,41 @@
+package org.vaadin.smartgwt.server.data;
+
+/**
+ * Server-side implementation of the operations of a {@link DataSource}. Components bound to the DataSource, such as grids, forms and select items
+ * with an option DataSource, send their requests through the Vaadin channel, so the data is served by the application without a separate REST tier
+ * and only the requested rows reach the browser.
+ */
+public interface DataSourceHandler {
+	/**
+	 * Returns the records matching the criteria, in the requested order. When the request has a start and an end row, only these rows should be
+	 * returned, with the total number of matching rows.
+	 *
+	 * @param request the fetch request.
+	 * @return the response; start row, end row and total rows default to the returned rows when not set.
+	 */
+	DSResponse fetch(DSRequest request);
+
+	/**
+	 * Stores a new record.
+	 *
+	 * @param request the add request, whose data is the new record.
+	 * @return the response, holding the record as stored.
+	 */
+	DSResponse add(DSRequest request);
+
+	/**
+	 * Updates a record.
+	 *
+	 * @param request the update request, whose data holds the primary key and the changed values.
+	 * @return the response, holding the record as stored.
+	 */
+	DSResponse update(DSRequest request);
+
+	/**
+	 * Removes a record.
+	 *
+	 * @param request the remove request, whose data holds the primary key.
+	 * @return the response, holding the removed record.
+	 */
+	DSResponse remove(DSRequest request);
+}
@@ -0,0 +1,205 @@
+package org.vaadin.smartgwt.server.data;
+
+import static com.google.common.base.Preconditions.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.io.SegmentedStringWriter;
+import org.vaadin.smartgwt.server.types.SortDirection;
+import org.vaadin.smartgwt.server.types.TextMatchStyle;
+import org.vaadin.smartgwt.server.util.JSONHelper;
+
+import com.google.common.base.Throwables;
+import com.google.common.base.Ticker;
+
+/**
+ * JVM-wide cache of DataSource results, shared by all sessions, for read-mostly reference data such as countries or currencies. Results are keyed by
+ * DataSource ID, criteria, text match style and sort; they expire after the maximum age they were cached with, usually the DataSource's cacheMaxAge, and the least
+ * recently used results are evicted when the cache holds more records than its limit. A result larger than the whole cache is not kept.
+ * <p/>
+ * Cached records are copies, frozen and serialized once, see {@link CachedRecords}.
+ */
+@Singleton
+public class DataSourceResultCache {
+	public static final int DEFAULT_MAX_RECORDS = 500000;
+	private static final char SEPARATOR = '\u0000';
+
+	private final Map<String, CachedRecords> results = new LinkedHashMap<String, CachedRecords>(16, 0.75f, true);
+	private final int maxRecords;
+	private final Ticker ticker;
+	private int recordCount;
+
+	@Inject
+	public DataSourceResultCache() {
+		this(DEFAULT_MAX_RECORDS, Ticker.systemTicker());
+	}
+
+	/**
+	 * @param maxRecords the maximum number of records kept across all cached results.
+	 * @param ticker the time source of the maximum ages.
+	 */
+	public DataSourceResultCache(int maxRecords, Ticker ticker) {
+		checkArgument(maxRecords >= 0, "maxRecords must not be negative");
+		this.maxRecords = maxRecords;
+		this.ticker = ticker;
+	}
+
+	/**
+	 * Returns the cached result, marking it as recently used.
+	 *
+	 * @param dataSourceId the DataSource ID.
+	 * @param criteria the criteria, or null.
+	 * @param textMatchStyle the text match style of the criteria, or null.
+	 * @param sortBy the sort levels, may be empty.
+	 * @return the result, or null when it is not cached or has expired.
+	 */
+	public synchronized CachedRecords get(String dataSourceId, Criteria criteria, TextMatchStyle textMatchStyle, SortSpecifier[] sortBy) {
+		final String key = toKey(dataSourceId, criteria, textMatchStyle, sortBy);
+		final CachedRecords result = results.get(key);
+
+		if (result != null && result.isExpired(ticker.read())) {
+			remove(key);
+			return null;
+		}
+
+		return result;
+	}
+
+	/**
+	 * Caches a copy of a result. The copied records are frozen; they are serialized before the cache is locked.
+	 *
+	 * @param dataSourceId the DataSource ID.
+	 * @param criteria the criteria, or null.
+	 * @param textMatchStyle the text match style of the criteria, or null.
+	 * @param sortBy the sort levels, may be empty.
+	 * @param records the records.
+	 * @param maxAge the maximum age of the result, in seconds.
+	 * @return the cached result, also returned when it is too large to be kept.
+	 * @throws IllegalArgumentException when the records could not be serialized.
+	 */
+	public CachedRecords put(String dataSourceId, Criteria criteria, TextMatchStyle textMatchStyle, SortSpecifier[] sortBy, Record[] records,
+			int maxAge) {
+		final String key = toKey(dataSourceId, criteria, textMatchStyle, sortBy);
+		final long now = ticker.read();
+		final CachedRecords result = new CachedRecords(records, now, now + TimeUnit.SECONDS.toNanos(maxAge));
+
+		synchronized (this) {
+			remove(key);
+
+			if (result.size() <= maxRecords) {
+				results.put(key, result);
+				recordCount += result.size();
+				evict(now);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Drops the results of a DataSource, for instance after its data was modified.
+	 *
+	 * @param dataSourceId the DataSource ID.
+	 */
+	public synchronized void invalidate(String dataSourceId) {
+		final String prefix = dataSourceId + SEPARATOR;
+
+		for (Iterator<Map.Entry<String, CachedRecords>> iterator = results.entrySet().iterator(); iterator.hasNext();) {
+			final Map.Entry<String, CachedRecords> entry = iterator.next();
+
+			if (entry.getKey().startsWith(prefix)) {
+				recordCount -= entry.getValue().size();
+				iterator.remove();
+			}
+		}
+	}
+
+	public synchronized void clear() {
+		results.clear();
+		recordCount = 0;
+	}
+
+	public synchronized int getRecordCount() {
+		return recordCount;
+	}
+
+	public int getMaxRecords() {
+		return maxRecords;
+	}
+
+	private void remove(String key) {
+		final CachedRecords removed = results.remove(key);
+
+		if (removed != null) {
+			recordCount -= removed.size();
+		}
+	}
+
+	/**
+	 * Drops the expired results, then the least recently used ones until the cache is within its limit.
+	 */
+	private void evict(long now) {
+		for (Iterator<CachedRecords> iterator = results.values().iterator(); iterator.hasNext();) {
+			final CachedRecords result = iterator.next();
+
+			if (result.isExpired(now)) {
+				recordCount -= result.size();
+				iterator.remove();
+			}
+		}
+
+		for (Iterator<CachedRecords> iterator = results.values().iterator(); recordCount > maxRecords && iterator.hasNext();) {
+			recordCount -= iterator.next().size();
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * Returns the key of a result: the DataSource ID, the criteria as JSON with sorted attribute names, so that equal criteria built in a different
+	 * order share their result, the text match style, which changes what the criteria match, and the sort levels.
+	 */
+	private static String toKey(String dataSourceId, Criteria criteria, TextMatchStyle textMatchStyle, SortSpecifier[] sortBy) {
+		try {
+			final SegmentedStringWriter writer = JSONHelper.createStringWriter();
+			writer.write(dataSourceId);
+			writer.write(SEPARATOR);
+
+			if (criteria != null && criteria.getAttributeCount() > 0) {
+				final JsonGenerator generator = JSONHelper.createGenerator(writer);
+				final String[] names = criteria.getAttributes();
+				Arrays.sort(names);
+				generator.writeStartObject();
+
+				for (String name : names) {
+					generator.writeFieldName(name);
+					JSONHelper.writeValue(generator, criteria.getAttributeAsObject(name));
+				}
+
+				generator.writeEndObject();
+				generator.flush();
+			}
+
+			writer.write(SEPARATOR);
+			writer.write(textMatchStyle == null ? "" : textMatchStyle.getValue());
+
+			for (SortSpecifier sortSpecifier : sortBy) {
+				writer.write(SEPARATOR);
+				writer.write(sortSpecifier.getSortDirection() == SortDirection.DESCENDING ? "-" : "");
+				writer.write(sortSpecifier.getField());
+			}
+
+			return writer.getAndClear();
+		} catch (IOException e) {
+			throw Throwables.propagate(e);
+		}
+	}
+}
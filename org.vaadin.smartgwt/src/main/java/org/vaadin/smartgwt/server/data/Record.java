@@ -17,7 +17,7 @@ package org.vaadin.smartgwt.server.data;
 
 import java.util.Map;
 
-import org.vaadin.smartgwt.server.core.RefDataClass;
+import org.vaadin.smartgwt.server.core.DataObject;
 
 import com.google.common.collect.Maps;
 
@@ -52,8 +52,10 @@ import com.google.common.collect.Maps;
  * to occur.  Instead, use component-specific methods such as DynamicForm.setValue() or
  * ListGrid.setEditValue() to explicitly tell the components about a change that should be
  * saved.
+ * <p/>
+ * Records are plain value objects rather than components, so large record sets only cost their attribute values.
  */
-public class Record extends RefDataClass {
+public class Record extends DataObject {
 	/**
 	 * Convert this record to a Map. This is a recursive conversion so if an attribute on this record is set to
 	 * another Record instance it will also be converted to a Map.
@@ -61,8 +63,8 @@ public class Record extends RefDataClass {
 	 */
 	public Map toMap() {
 		final Map<Object, Object> mapped = Maps.newHashMap();
-		for (String name : getAttributes()) {
-			mapped.put(name, getAttributeAsObject(name));
+		for (int i = 0; i < getAttributeCount(); i++) {
+			mapped.put(getAttributeName(i), getAttributeValue(i));
 		}
 		return mapped;
 	}
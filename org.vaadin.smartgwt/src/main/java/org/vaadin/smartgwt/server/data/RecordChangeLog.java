@@ -0,0 +1,91 @@
+package org.vaadin.smartgwt.server.data;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Records the changes made to a record list since it was last painted, keyed by primary key. Consecutive changes to the same record are merged, so
+ * the log never holds more than one change per record: an update following an add or an update replaces its record, and a remove cancels a pending
+ * add.
+ */
+public class RecordChangeLog implements Serializable {
+	private static final long serialVersionUID = 1L;
+	private final List<Change> changes = Lists.newArrayList();
+	private final Map<Object, Change> pendingChanges = Maps.newHashMap();
+
+	public void add(Object key, Record record) {
+		final Change change = new Change("add", record);
+		changes.add(change);
+		pendingChanges.put(key, change);
+	}
+
+	public void update(Object key, Record record) {
+		final Change pending = pendingChanges.get(key);
+
+		if (pending != null && !"remove".equals(pending.name)) {
+			pending.record = record;
+		} else {
+			final Change change = new Change("update", record);
+			changes.add(change);
+			pendingChanges.put(key, change);
+		}
+	}
+
+	public void remove(Object key, Record record) {
+		final Change pending = pendingChanges.get(key);
+
+		if (pending != null && "add".equals(pending.name)) {
+			changes.remove(pending);
+			pendingChanges.remove(key);
+		} else if (pending != null) {
+			pending.name = "remove";
+			pending.record = record;
+		} else {
+			final Change change = new Change("remove", record);
+			changes.add(change);
+			pendingChanges.put(key, change);
+		}
+	}
+
+	public boolean isEmpty() {
+		return changes.isEmpty();
+	}
+
+	public void clear() {
+		changes.clear();
+		pendingChanges.clear();
+	}
+
+	/**
+	 * Returns the changes in order, each as a record holding the "op" name and the changed "record".
+	 * 
+	 * @return the changes.
+	 */
+	public Record[] toRecords() {
+		final Record[] records = new Record[changes.size()];
+
+		for (int i = 0; i < records.length; i++) {
+			final Change change = changes.get(i);
+			records[i] = new Record();
+			records[i].setAttribute("op", change.name);
+			records[i].setAttribute("record", change.record);
+		}
+
+		return records;
+	}
+
+	private static class Change implements Serializable {
+		private static final long serialVersionUID = 1L;
+		private String name;
+		private Record record;
+
+		public Change(String name, Record record) {
+			this.name = name;
+			this.record = record;
+		}
+	}
+}
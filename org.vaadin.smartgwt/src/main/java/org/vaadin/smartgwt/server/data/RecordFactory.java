@@ -1,9 +1,14 @@
 package org.vaadin.smartgwt.server.data;
 
+import java.io.IOException;
 import java.util.List;
 
 import javax.inject.Inject;
 
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+import org.vaadin.smartgwt.server.util.JSONHelper;
+
 import argo.jdom.JsonNode;
 
 /**
@@ -33,6 +38,22 @@ public class RecordFactory {
 		}
 	}
 
+	/**
+	 * builds a Criteria instance from a JsonNode.
+	 * 
+	 * @param node the source json node.
+	 * @return a new criteria instance base on the JsonNode information, or null if the node referred to a null node.
+	 */
+	public Criteria newCriteria(JsonNode node) {
+		if (!node.isNullNode()) {
+			final Criteria criteria = new Criteria();
+			updater.update(criteria, node);
+			return criteria;
+		} else {
+			return null;
+		}
+	}
+
 	/**
 	 * builds a Record matched size array from a List of JsonNode. 
 	 * 
@@ -46,4 +67,49 @@ public class RecordFactory {
 		}
 		return records;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * builds a Record instance from JSON text, decoding it with a pull parser.
+	 * 
+	 * @param json the source JSON object.
+	 * @return a new record instance base on the JSON information, or null if the JSON is null.
+	 * @throws IOException when the JSON could not be read.
+	 */
+	public Record newRecord(String json) throws IOException {
+		final JsonParser parser = JSONHelper.createParser(json);
+
+		try {
+			parser.nextToken();
+			return newRecord(parser);
+		} finally {
+			parser.close();
+		}
+	}
+
+	/**
+	 * builds a Record instance from the JSON value the parser is positioned on. The parser is left on the value's last token.
+	 * 
+	 * @param parser positioned on a JSON object or null.
+	 * @return a new record instance base on the JSON information, or null if the parser is positioned on null.
+	 * @throws IOException when the JSON could not be read.
+	 */
+	public Record newRecord(JsonParser parser) throws IOException {
+		if (parser.getCurrentToken() != JsonToken.VALUE_NULL) {
+			final Record record = new Record();
+			updater.update(record, parser);
+			return record;
+		} else {
+			return null;
+		}
+	}
+
+	public Criteria newCriteria(JsonParser parser) throws IOException {
+		if (parser.getCurrentToken() != JsonToken.VALUE_NULL) {
+			final Criteria criteria = new Criteria();
+			updater.update(criteria, parser);
+			return criteria;
+		} else {
+			return null;
+		}
+	}
+}
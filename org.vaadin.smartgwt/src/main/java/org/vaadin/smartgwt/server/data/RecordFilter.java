@@ -0,0 +1,591 @@
+package org.vaadin.smartgwt.server.data;
+
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.vaadin.smartgwt.server.core.DataObject;
+import org.vaadin.smartgwt.server.types.OperatorId;
+import org.vaadin.smartgwt.server.types.TextMatchStyle;
+import org.vaadin.smartgwt.server.util.EnumUtil;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Booleans;
+import com.google.common.primitives.Doubles;
+import com.google.common.primitives.Longs;
+
+/**
+ * Predicate over records compiled from criteria, evaluated the way the client-side DataSource filters its cache. Simple criteria match every
+ * field-value pair: string values are matched with the {@link TextMatchStyle}, ignoring case, other values and non-string fields by equality, and a
+ * list of values matches any of them. {@link AdvancedCriteria} are evaluated with their {@link OperatorId}. Criteria are compiled once, so
+ * operators, lower-cased text and patterns are not resolved again for every record.
+ */
+public abstract class RecordFilter implements Predicate<Record> {
+	/**
+	 * Filter matching every record, compiled from null criteria.
+	 */
+	public static final RecordFilter ALL = new RecordFilter() {
+		@Override
+		boolean matches(Row row) {
+			return true;
+		}
+	};
+
+	RecordFilter() {
+	}
+
+	@Override
+	public boolean apply(final Record record) {
+		return matches(new Row() {
+			@Override
+			public Object getValue(String fieldName) {
+				return record.getAttributeAsObject(fieldName);
+			}
+		});
+	}
+
+	/**
+	 * Evaluates the filter on the values of a row, so that stores that do not hold records are filtered without building them.
+	 */
+	abstract boolean matches(Row row);
+
+	/**
+	 * Compiles criteria.
+	 *
+	 * @param criteria the simple or advanced criteria, or null.
+	 * @param textMatchStyle the text match style of simple criteria, or null for {@link TextMatchStyle#SUBSTRING}.
+	 * @return the filter.
+	 * @throws IllegalArgumentException when the criteria use an unknown operator.
+	 */
+	public static RecordFilter compile(Criteria criteria, TextMatchStyle textMatchStyle) throws IllegalArgumentException {
+		if (criteria == null) {
+			return ALL;
+		} else if (AdvancedCriteria.isAdvanced(criteria)) {
+			return compileAdvanced(criteria);
+		} else {
+			return compileSimple(criteria, textMatchStyle == null ? TextMatchStyle.SUBSTRING : textMatchStyle);
+		}
+	}
+
+	/**
+	 * Adds the field conditions that every matching record satisfies, and that can be looked up in a sorted index of their field.
+	 */
+	void collectIndexableConditions(List<FieldFilter> conditions) {
+	}
+
+	/**
+	 * Compares two field values: nulls first, numbers by value, then dates, booleans and strings. A string compared with a number is compared as a
+	 * number when it can be parsed as one, and a string compared with a date as a date when it is an ISO date, as sent by the client; other values
+	 * of different types are compared as strings. The order of values of different types is therefore not total, see
+	 * {@link RecordQueryEngine} for how its indexes deal with fields holding several types.
+	 */
+	static int compareValues(Object value1, Object value2) {
+		if (value1 == value2) {
+			return 0;
+		} else if (value1 == null) {
+			return -1;
+		} else if (value2 == null) {
+			return 1;
+		} else if (value1 instanceof Number && value2 instanceof Number) {
+			return compareNumbers((Number) value1, (Number) value2);
+		} else if (value1 instanceof Date && value2 instanceof Date) {
+			return ((Date) value1).compareTo((Date) value2);
+		} else if (value1 instanceof Boolean && value2 instanceof Boolean) {
+			return Booleans.compare((Boolean) value1, (Boolean) value2);
+		} else if (value1 instanceof String && value2 instanceof String) {
+			return ((String) value1).compareTo((String) value2);
+		} else if (value1 instanceof Number && value2 instanceof String) {
+			final Double number2 = parseDouble((String) value2);
+			return number2 == null ? value1.toString().compareTo((String) value2) : Doubles.compare(((Number) value1).doubleValue(), number2);
+		} else if (value1 instanceof String && value2 instanceof Number) {
+			return -compareValues(value2, value1);
+		} else if (value1 instanceof Date && value2 instanceof String) {
+			final Date date2 = parseDate((String) value2);
+			return date2 == null ? value1.toString().compareTo((String) value2) : ((Date) value1).compareTo(date2);
+		} else if (value1 instanceof String && value2 instanceof Date) {
+			return -compareValues(value2, value1);
+		} else {
+			return value1.toString().compareTo(value2.toString());
+		}
+	}
+
+	private static int compareNumbers(Number number1, Number number2) {
+		if (isIntegral(number1) && isIntegral(number2)) {
+			return Longs.compare(number1.longValue(), number2.longValue());
+		} else {
+			return Doubles.compare(number1.doubleValue(), number2.doubleValue());
+		}
+	}
+
+	private static boolean isIntegral(Number number) {
+		return number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte;
+	}
+
+	static Double parseDouble(String value) {
+		try {
+			return Double.valueOf(value);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Parses an ISO date, <code>yyyy-MM-dd</code>, or date and time, <code>yyyy-MM-ddTHH:mm:ss</code> with optional milliseconds and time zone,
+	 * <code>Z</code> or an offset. Values without a time zone are in the default time zone.
+	 *
+	 * @return the date, or null when the value is not an ISO date.
+	 */
+	static Date parseDate(String value) {
+		if (value.length() < 10 || value.charAt(4) != '-' || value.charAt(7) != '-') {
+			return null;
+		}
+
+		String text = value;
+		String pattern = "yyyy-MM-dd";
+
+		if (text.length() > 10) {
+			if (text.length() < 19 || text.charAt(10) != 'T') {
+				return null;
+			}
+
+			final boolean millis = text.length() >= 23 && text.charAt(19) == '.';
+			final int zoneStart = millis ? 23 : 19;
+			final String zone = text.substring(zoneStart);
+			pattern = millis ? "yyyy-MM-dd'T'HH:mm:ss.SSS" : "yyyy-MM-dd'T'HH:mm:ss";
+
+			if (zone.equals("Z")) {
+				text = text.substring(0, zoneStart) + "+0000";
+				pattern += "Z";
+			} else if (zone.length() == 6 && (zone.charAt(0) == '+' || zone.charAt(0) == '-') && zone.charAt(3) == ':') {
+				text = text.substring(0, zoneStart) + zone.substring(0, 3) + zone.substring(4);
+				pattern += "Z";
+			} else if (zone.length() > 0) {
+				return null;
+			}
+		}
+
+		final SimpleDateFormat format = new SimpleDateFormat(pattern);
+		final ParsePosition position = new ParsePosition(0);
+		format.setLenient(false);
+		final Date date = format.parse(text, position);
+		return position.getIndex() == text.length() ? date : null;
+	}
+
+	private static RecordFilter compileSimple(DataObject criteria, TextMatchStyle textMatchStyle) {
+		final List<RecordFilter> filters = Lists.newArrayList();
+
+		for (int i = 0; i < criteria.getAttributeCount(); i++) {
+			final String fieldName = criteria.getAttributeName(i);
+			final Object value = criteria.getAttributeValue(i);
+
+			if (fieldName.startsWith("_") || value == null) {
+				continue;
+			} else if (value instanceof List || value instanceof Object[]) {
+				final List<RecordFilter> alternatives = Lists.newArrayList();
+
+				for (Object alternative : toList(value)) {
+					alternatives.add(newSimpleFilter(fieldName, alternative, textMatchStyle));
+				}
+
+				filters.add(new Junction(OperatorId.OR, alternatives));
+			} else {
+				filters.add(newSimpleFilter(fieldName, value, textMatchStyle));
+			}
+		}
+
+		return filters.isEmpty() ? ALL : filters.size() == 1 ? filters.get(0) : new Junction(OperatorId.AND, filters);
+	}
+
+	private static RecordFilter newSimpleFilter(String fieldName, Object value, TextMatchStyle textMatchStyle) {
+		if (!(value instanceof String)) {
+			return new FieldFilter(fieldName, OperatorId.EQUALS, value, null, null, false);
+		}
+
+		switch (textMatchStyle) {
+		case EXACT:
+			return new FieldFilter(fieldName, OperatorId.IEQUALS, value, null, null, true);
+		case STARTS_WITH:
+			return new FieldFilter(fieldName, OperatorId.ISTARTS_WITH, value, null, null, true);
+		default:
+			return new FieldFilter(fieldName, OperatorId.ICONTAINS, value, null, null, true);
+		}
+	}
+
+	private static RecordFilter compileAdvanced(Object criterion) {
+		final String operatorValue = (String) getAttribute(criterion, "operator");
+		final OperatorId operator = operatorValue == null ? null : EnumUtil.getEnum(OperatorId.values(), operatorValue);
+
+		if (operator == null) {
+			throw new IllegalArgumentException("unknown operator " + operatorValue);
+		}
+
+		switch (operator) {
+		case AND:
+		case OR:
+		case NOT:
+			final List<RecordFilter> filters = Lists.newArrayList();
+
+			for (Object nested : toList(getAttribute(criterion, "criteria"))) {
+				filters.add(compileAdvanced(nested));
+			}
+
+			return new Junction(operator, filters);
+		default:
+			return new FieldFilter((String) getAttribute(criterion, "fieldName"), operator, getAttribute(criterion, "value"),
+					getAttribute(criterion, "start"), getAttribute(criterion, "end"), false);
+		}
+	}
+
+	private static Object getAttribute(Object criterion, String name) {
+		if (criterion instanceof DataObject) {
+			return ((DataObject) criterion).getAttributeAsObject(name);
+		} else if (criterion instanceof Map) {
+			return ((Map<?, ?>) criterion).get(name);
+		} else {
+			throw new IllegalArgumentException("invalid criterion " + criterion);
+		}
+	}
+
+	private static List<?> toList(Object value) {
+		if (value == null) {
+			return Collections.emptyList();
+		} else if (value instanceof List) {
+			return (List<?>) value;
+		} else if (value instanceof Object[]) {
+			return Arrays.asList((Object[]) value);
+		} else {
+			return Collections.singletonList(value);
+		}
+	}
+
+	/**
+	 * Values of the row a filter is evaluated on.
+	 */
+	interface Row {
+		/**
+		 * Returns the value of a field of the row.
+		 *
+		 * @param fieldName the field.
+		 * @return the value, or null.
+		 */
+		Object getValue(String fieldName);
+	}
+
+	/**
+	 * Logical combination of filters.
+	 */
+	private static class Junction extends RecordFilter {
+		private final OperatorId operator;
+		private final RecordFilter[] filters;
+
+		Junction(OperatorId operator, List<RecordFilter> filters) {
+			this.operator = operator;
+			this.filters = filters.toArray(new RecordFilter[filters.size()]);
+		}
+
+		@Override
+		boolean matches(Row row) {
+			switch (operator) {
+			case AND:
+				for (RecordFilter filter : filters) {
+					if (!filter.matches(row)) {
+						return false;
+					}
+				}
+
+				return true;
+			case OR:
+				for (RecordFilter filter : filters) {
+					if (filter.matches(row)) {
+						return true;
+					}
+				}
+
+				return false;
+			default:
+				for (RecordFilter filter : filters) {
+					if (filter.matches(row)) {
+						return false;
+					}
+				}
+
+				return true;
+			}
+		}
+
+		@Override
+		void collectIndexableConditions(List<FieldFilter> conditions) {
+			if (operator == OperatorId.AND) {
+				for (RecordFilter filter : filters) {
+					filter.collectIndexableConditions(conditions);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Condition on the value of a field.
+	 */
+	static class FieldFilter extends RecordFilter {
+		private final String fieldName;
+		private final OperatorId operator;
+		private final Object value;
+		private final Object start;
+		private final Object end;
+		private final Date valueDate;
+		private final Date startDate;
+		private final Date endDate;
+		private final boolean textOnly;
+		private final String text;
+		private final Pattern pattern;
+
+		/**
+		 * @param textOnly whether the text operator only applies to string values, other values being matched by equality, as for simple criteria.
+		 * @throws IllegalArgumentException when the operator does not apply to a field.
+		 */
+		FieldFilter(String fieldName, OperatorId operator, Object value, Object start, Object end, boolean textOnly) throws IllegalArgumentException {
+			switch (operator) {
+			case AND:
+			case OR:
+			case NOT:
+				throw new IllegalArgumentException("unsupported operator " + operator.getValue() + " on field " + fieldName);
+			default:
+				break;
+			}
+
+			this.fieldName = fieldName;
+			this.operator = operator;
+			this.value = value;
+			this.start = start;
+			this.end = end;
+			// ISO date strings are parsed once here rather than on every comparison with a date
+			this.valueDate = toDate(value);
+			this.startDate = toDate(start);
+			this.endDate = toDate(end);
+			this.textOnly = textOnly;
+			this.text = value == null ? "" : isCaseInsensitive(operator) ? value.toString().toLowerCase() : value.toString();
+
+			switch (operator) {
+			case REGEXP:
+				this.pattern = Pattern.compile(text);
+				break;
+			case IREGEXP:
+				this.pattern = Pattern.compile(value == null ? "" : value.toString(), Pattern.CASE_INSENSITIVE);
+				break;
+			default:
+				this.pattern = null;
+			}
+		}
+
+		String getFieldName() {
+			return fieldName;
+		}
+
+		OperatorId getOperator() {
+			return operator;
+		}
+
+		Object getValue() {
+			return value;
+		}
+
+		Object getStart() {
+			return start;
+		}
+
+		Object getEnd() {
+			return end;
+		}
+
+		/**
+		 * Returns the value parsed as a date when it is an ISO date string, or null.
+		 */
+		Date getValueDate() {
+			return valueDate;
+		}
+
+		Date getStartDate() {
+			return startDate;
+		}
+
+		Date getEndDate() {
+			return endDate;
+		}
+
+		@Override
+		void collectIndexableConditions(List<FieldFilter> conditions) {
+			switch (operator) {
+			case EQUALS:
+			case GREATER_THAN:
+			case GREATER_OR_EQUAL:
+			case LESS_THAN:
+			case LESS_OR_EQUAL:
+			case BETWEEN:
+			case BETWEEN_INCLUSIVE:
+			case IS_NULL:
+				conditions.add(this);
+				break;
+			default:
+				break;
+			}
+		}
+
+		@Override
+		boolean matches(Row row) {
+			final Object fieldValue = row.getValue(fieldName);
+
+			if (textOnly && fieldValue != null && !(fieldValue instanceof String)) {
+				return compare(fieldValue, value, valueDate) == 0;
+			}
+
+			switch (operator) {
+			case EQUALS:
+				return compare(fieldValue, value, valueDate) == 0;
+			case NOT_EQUAL:
+				return compare(fieldValue, value, valueDate) != 0;
+			case GREATER_THAN:
+				return fieldValue != null && compare(fieldValue, value, valueDate) > 0;
+			case GREATER_OR_EQUAL:
+				return fieldValue != null && compare(fieldValue, value, valueDate) >= 0;
+			case LESS_THAN:
+				return fieldValue != null && compare(fieldValue, value, valueDate) < 0;
+			case LESS_OR_EQUAL:
+				return fieldValue != null && compare(fieldValue, value, valueDate) <= 0;
+			case BETWEEN:
+				return fieldValue != null && (start == null || compare(fieldValue, start, startDate) > 0)
+						&& (end == null || compare(fieldValue, end, endDate) < 0);
+			case BETWEEN_INCLUSIVE:
+				return fieldValue != null && (start == null || compare(fieldValue, start, startDate) >= 0)
+						&& (end == null || compare(fieldValue, end, endDate) <= 0);
+			case IS_NULL:
+				return fieldValue == null;
+			case NOT_NULL:
+				return fieldValue != null;
+			case IN_SET:
+				return isInSet(fieldValue);
+			case NOT_IN_SET:
+				return !isInSet(fieldValue);
+			case EQUALS_FIELD:
+				return compareValues(fieldValue, getOtherFieldValue(row)) == 0;
+			case NOT_EQUAL_FIELD:
+				return compareValues(fieldValue, getOtherFieldValue(row)) != 0;
+			case GREATER_THAN_FIELD:
+				return fieldValue != null && compareValues(fieldValue, getOtherFieldValue(row)) > 0;
+			case GREATER_OR_EQUAL_FIELD:
+				return fieldValue != null && compareValues(fieldValue, getOtherFieldValue(row)) >= 0;
+			case LESS_THAN_FIELD:
+				return fieldValue != null && compareValues(fieldValue, getOtherFieldValue(row)) < 0;
+			case LESS_OR_EQUAL_FIELD:
+				return fieldValue != null && compareValues(fieldValue, getOtherFieldValue(row)) <= 0;
+			case CONTAINS_FIELD:
+				return fieldValue != null && fieldValue.toString().contains(String.valueOf(getOtherFieldValue(row)));
+			case STARTS_WITH_FIELD:
+				return fieldValue != null && fieldValue.toString().startsWith(String.valueOf(getOtherFieldValue(row)));
+			case ENDS_WITH_FIELD:
+				return fieldValue != null && fieldValue.toString().endsWith(String.valueOf(getOtherFieldValue(row)));
+			case REGEXP:
+			case IREGEXP:
+				return fieldValue != null && pattern.matcher(fieldValue.toString()).find();
+			default:
+				return applyText(fieldValue);
+			}
+		}
+
+		private boolean applyText(Object fieldValue) {
+			if (fieldValue == null) {
+				return isNegated(operator);
+			}
+
+			final String fieldText = isCaseInsensitive(operator) ? fieldValue.toString().toLowerCase() : fieldValue.toString();
+
+			switch (operator) {
+			case IEQUALS:
+				return fieldText.equals(text);
+			case INOT_EQUAL:
+				return !fieldText.equals(text);
+			case CONTAINS:
+			case ICONTAINS:
+				return fieldText.contains(text);
+			case STARTS_WITH:
+			case ISTARTS_WITH:
+				return fieldText.startsWith(text);
+			case ENDS_WITH:
+			case IENDS_WITH:
+				return fieldText.endsWith(text);
+			case NOT_CONTAINS:
+			case INOT_CONTAINS:
+				return !fieldText.contains(text);
+			case NOT_STARTS_WITH:
+			case INOT_STARTS_WITH:
+				return !fieldText.startsWith(text);
+			case NOT_ENDS_WITH:
+			case INOT_ENDS_WITH:
+				return !fieldText.endsWith(text);
+			default:
+				throw new IllegalArgumentException("unsupported operator " + operator.getValue());
+			}
+		}
+
+		/**
+		 * Compares a field value with an operand, using the date parsed from the operand when the field value is a date.
+		 */
+		private static int compare(Object fieldValue, Object operand, Date operandDate) {
+			return operandDate != null && fieldValue instanceof Date ? ((Date) fieldValue).compareTo(operandDate) : compareValues(fieldValue, operand);
+		}
+
+		private static Date toDate(Object operand) {
+			return operand instanceof String ? parseDate((String) operand) : null;
+		}
+
+		private boolean isInSet(Object fieldValue) {
+			for (Object element : toList(value)) {
+				if (compareValues(fieldValue, element) == 0) {
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		private Object getOtherFieldValue(Row row) {
+			return row.getValue((String) value);
+		}
+
+		private static boolean isCaseInsensitive(OperatorId operator) {
+			switch (operator) {
+			case IEQUALS:
+			case INOT_EQUAL:
+			case ICONTAINS:
+			case ISTARTS_WITH:
+			case IENDS_WITH:
+			case INOT_CONTAINS:
+			case INOT_STARTS_WITH:
+			case INOT_ENDS_WITH:
+				return true;
+			default:
+				return false;
+			}
+		}
+
+		private static boolean isNegated(OperatorId operator) {
+			switch (operator) {
+			case INOT_EQUAL:
+			case NOT_CONTAINS:
+			case INOT_CONTAINS:
+			case NOT_STARTS_WITH:
+			case INOT_STARTS_WITH:
+			case NOT_ENDS_WITH:
+			case INOT_ENDS_WITH:
+				return true;
+			default:
+				return false;
+			}
+		}
+	}
+}
@@ -1,17 +1,26 @@
 package org.vaadin.smartgwt.server.data;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+import org.vaadin.smartgwt.server.core.DataObject;
+
 import argo.jdom.JsonNode;
 import argo.jdom.JsonStringNode;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 /**
- * Updates a Record with JSON information. 
+ * Updates a Record with JSON information, either from a parsed JsonNode or straight from the tokens of a pull parser. The pull parser path builds no
+ * document and no intermediate big numbers: values are set on the record as they are read. Both paths decode the numbers of nested objects and
+ * arrays as Longs and Doubles.
  */
 public class RecordJSONUpdater {
 	private static interface JSONAdapter {
@@ -26,6 +35,8 @@ public class RecordJSONUpdater {
 		void addNullField(String name);
 
 		void addObjectField(String name, Map<String, Object> value);
+
+		void addArrayField(String name, List<Object> value);
 	}
 
 	/**
@@ -34,7 +45,7 @@ public class RecordJSONUpdater {
 	 * @param record to be updated.
 	 * @param node containing update information.
 	 */
-	public void update(final Record record, JsonNode node) {
+	public void update(final DataObject record, JsonNode node) {
 		update(node, new JSONAdapter() {
 			@Override
 			public void addBooleanField(String name, Boolean value) {
@@ -65,9 +76,144 @@ public class RecordJSONUpdater {
 			public void addObjectField(String name, Map<String, Object> value) {
 				record.setAttribute(name, value);
 			}
+
+			@Override
+			public void addArrayField(String name, List<Object> value) {
+				record.setAttribute(name, value);
+			}
 		});
 	}
 
+	/**
+	 * updates the Record with the JSON object the parser is positioned on. The parser is left on the object's closing token.
+	 * 
+	 * @param record to be updated.
+	 * @param parser positioned on the start of the JSON object.
+	 * @throws IOException when the JSON could not be read.
+	 */
+	public void update(DataObject record, JsonParser parser) throws IOException {
+		expectStartObject(parser);
+
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			final String name = parser.getCurrentName();
+
+			switch (parser.nextToken()) {
+			case VALUE_TRUE:
+			case VALUE_FALSE:
+				record.setAttribute(name, parser.getBooleanValue());
+				break;
+			case VALUE_NUMBER_INT:
+				record.setAttribute(name, getLongValue(parser));
+				break;
+			case VALUE_NUMBER_FLOAT:
+				record.setAttribute(name, parser.getDoubleValue());
+				break;
+			case VALUE_STRING:
+				record.setAttribute(name, parser.getText());
+				break;
+			case VALUE_NULL:
+				record.setAttribute(name, (Object) null);
+				break;
+			case START_OBJECT:
+				record.setAttribute(name, readMap(parser));
+				break;
+			case START_ARRAY:
+				record.setAttribute(name, readList(parser));
+				break;
+			default:
+				throw new RuntimeException("unhandled token " + parser.getCurrentToken() + " for field " + name);
+			}
+		}
+	}
+
+	private Map<String, Object> readMap(JsonParser parser) throws IOException {
+		final Map<String, Object> jso = Maps.newHashMap();
+
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			final String name = parser.getCurrentName();
+
+			switch (parser.nextToken()) {
+			case VALUE_TRUE:
+			case VALUE_FALSE:
+				jso.put(name, parser.getBooleanValue());
+				break;
+			case VALUE_NUMBER_INT:
+				jso.put(name, getLongValue(parser));
+				break;
+			case VALUE_NUMBER_FLOAT:
+				jso.put(name, parser.getDoubleValue());
+				break;
+			case VALUE_STRING:
+				jso.put(name, parser.getText());
+				break;
+			case VALUE_NULL:
+				jso.put(name, null);
+				break;
+			case START_OBJECT:
+				jso.put(name, readMap(parser));
+				break;
+			case START_ARRAY:
+				jso.put(name, readList(parser));
+				break;
+			default:
+				throw new RuntimeException("unhandled token " + parser.getCurrentToken() + " for field " + name);
+			}
+		}
+
+		return jso;
+	}
+
+	private List<Object> readList(JsonParser parser) throws IOException {
+		final List<Object> list = Lists.newArrayList();
+		JsonToken token;
+
+		while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+			switch (token) {
+			case VALUE_TRUE:
+			case VALUE_FALSE:
+				list.add(parser.getBooleanValue());
+				break;
+			case VALUE_NUMBER_INT:
+				list.add(getLongValue(parser));
+				break;
+			case VALUE_NUMBER_FLOAT:
+				list.add(parser.getDoubleValue());
+				break;
+			case VALUE_STRING:
+				list.add(parser.getText());
+				break;
+			case VALUE_NULL:
+				list.add(null);
+				break;
+			case START_OBJECT:
+				list.add(readMap(parser));
+				break;
+			case START_ARRAY:
+				list.add(readList(parser));
+				break;
+			default:
+				throw new RuntimeException("unhandled token " + token + " in array");
+			}
+		}
+
+		return list;
+	}
+
+	private static long getLongValue(JsonParser parser) throws IOException {
+		// out of range integers are truncated the same way as BigInteger.longValue() does for parsed nodes
+		return parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER ? parser.getBigIntegerValue().longValue() : parser.getLongValue();
+	}
+
+	private static void expectStartObject(JsonParser parser) throws IOException {
+		if (parser.getCurrentToken() == null) {
+			parser.nextToken();
+		}
+
+		if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+			throw new RuntimeException("expected a JSON object, found " + parser.getCurrentToken());
+		}
+	}
+
 	private void update(JsonNode node, JSONAdapter adapter) {
 		for (Entry<JsonStringNode, JsonNode> entry : node.getFields().entrySet()) {
 			final String name = entry.getKey().getText();
@@ -86,6 +232,8 @@ public class RecordJSONUpdater {
 				adapter.addNullField(name);
 			} else if (entry.getValue().isObjectNode()) {
 				adapter.addObjectField(name, newJsonMap(entry.getValue()));
+			} else if (entry.getValue().isArrayNode()) {
+				adapter.addArrayField(name, newJsonList(entry.getValue()));
 			} else {
 				throw new RuntimeException("unhandled node type " + entry.getValue());
 			}
@@ -106,13 +254,18 @@ public class RecordJSONUpdater {
 			}
 
 			@Override
-			public void addNumberField(String name, BigDecimal value) {
+			public void addArrayField(String name, List<Object> value) {
 				jso.put(name, value);
 			}
 
+			@Override
+			public void addNumberField(String name, BigDecimal value) {
+				jso.put(name, value.doubleValue());
+			}
+
 			@Override
 			public void addNumberField(String name, BigInteger value) {
-				jso.put(name, value);
+				jso.put(name, value.longValue());
 			}
 
 			@Override
@@ -127,4 +280,33 @@ public class RecordJSONUpdater {
 		});
 		return jso;
 	}
-}
\ No newline at end of file
+
+	private List<Object> newJsonList(JsonNode node) {
+		final List<Object> list = Lists.newArrayList();
+
+		for (JsonNode element : node.getElements()) {
+			if (element.isBooleanValue()) {
+				list.add(element.getBooleanValue());
+			} else if (element.isNumberValue()) {
+				final String numberValue = element.getNumberValue();
+				if (numberValue.contains(".") || numberValue.contains("e") || numberValue.contains("E")) {
+					list.add(new BigDecimal(numberValue).doubleValue());
+				} else {
+					list.add(new BigInteger(numberValue).longValue());
+				}
+			} else if (element.isStringValue()) {
+				list.add(element.getStringValue());
+			} else if (element.isNullNode()) {
+				list.add(null);
+			} else if (element.isObjectNode()) {
+				list.add(newJsonMap(element));
+			} else if (element.isArrayNode()) {
+				list.add(newJsonList(element));
+			} else {
+				throw new RuntimeException("unhandled node type " + element);
+			}
+		}
+
+		return list;
+	}
+}
@@ -0,0 +1,489 @@
+package org.vaadin.smartgwt.server.data;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.io.SegmentedStringWriter;
+import org.vaadin.smartgwt.server.data.RecordFilter.FieldFilter;
+import org.vaadin.smartgwt.server.grid.ListGridDataProvider;
+import org.vaadin.smartgwt.server.grid.ListGridPage;
+import org.vaadin.smartgwt.server.grid.RecordPage;
+import org.vaadin.smartgwt.server.types.SortDirection;
+import org.vaadin.smartgwt.server.types.TextMatchStyle;
+import org.vaadin.smartgwt.server.util.JSONHelper;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Ints;
+
+/**
+ * Filters, sorts and pages records held in server memory, so that a grid over tens or hundreds of thousands of records only receives the page it
+ * draws. The engine is a {@link ListGridDataProvider}, and answers fetches of a {@link DataSourceHandler} through {@link #fetch(DSRequest)}.
+ * <p/>
+ * Criteria are evaluated by a {@link RecordFilter}. A sorted index of a field is built the first time the field is sorted on or looked up, and kept
+ * until the records change: sorts compare the integer ranks of the index instead of the values, and equality and range conditions of the criteria
+ * only scan the index range they select. An index only selects a range when the field holds values of a single type and the condition value is
+ * of that type, or a string parsed as that type; other conditions are evaluated on every record, since {@link RecordFilter#compareValues} does
+ * not order values of mixed types consistently. The last filtered and sorted rows are kept, so paging through a result does not evaluate it
+ * again.
+ * <p/>
+ * The records are not copied; call {@link #invalidate()} after modifying them.
+ */
+public class RecordQueryEngine implements ListGridDataProvider {
+	private static final SortSpecifier[] UNSORTED = new SortSpecifier[0];
+
+	private final Map<String, FieldIndex> indexes = Maps.newHashMap();
+	private List<Record> records;
+	private TextMatchStyle textMatchStyle = TextMatchStyle.SUBSTRING;
+	private String filteredKey;
+	private int[] filteredRows;
+	private String sortedKey;
+	private int[] sortedRows;
+
+	public RecordQueryEngine(Collection<? extends Record> records) {
+		this.records = Lists.<Record> newArrayList(records);
+	}
+
+	public RecordQueryEngine(Record... records) {
+		this(Arrays.asList(records));
+	}
+
+	/**
+	 * Replaces the records, dropping the indexes and the kept results.
+	 *
+	 * @param records the records.
+	 */
+	public synchronized void setRecords(Collection<? extends Record> records) {
+		this.records = Lists.<Record> newArrayList(records);
+		invalidate();
+	}
+
+	/**
+	 * Drops the indexes and the kept results, after the records have been modified.
+	 */
+	public synchronized void invalidate() {
+		indexes.clear();
+		filteredKey = null;
+		filteredRows = null;
+		sortedKey = null;
+		sortedRows = null;
+	}
+
+	public synchronized int size() {
+		return records.size();
+	}
+
+	public synchronized TextMatchStyle getTextMatchStyle() {
+		return textMatchStyle;
+	}
+
+	/**
+	 * Sets the text match style of the simple criteria received through {@link ListGridDataProvider}, which carries none. Fetches use the style of
+	 * their request.
+	 *
+	 * @param textMatchStyle the text match style, {@link TextMatchStyle#SUBSTRING} by default, as for the filter editor of a grid.
+	 */
+	public synchronized void setTextMatchStyle(TextMatchStyle textMatchStyle) {
+		this.textMatchStyle = textMatchStyle;
+	}
+
+	@Override
+	public synchronized int getTotalRows(Criteria criteria) {
+		return filter(criteria, textMatchStyle).length;
+	}
+
+	@Override
+	public ListGridPage getPage(int startRow, int endRow, SortSpecifier[] sortBy, Criteria criteria) {
+		return new RecordPage(getRecords(startRow, endRow, sortBy, criteria));
+	}
+
+	/**
+	 * Returns the records from startRow (inclusive) to endRow (exclusive) matching the criteria, in the requested order.
+	 *
+	 * @param startRow index of the first requested row.
+	 * @param endRow index after the last requested row.
+	 * @param sortBy the sort levels, empty when unsorted.
+	 * @param criteria the criteria, or null.
+	 * @return the records; may be shorter than requested at the end of the data.
+	 */
+	public synchronized Record[] getRecords(int startRow, int endRow, SortSpecifier[] sortBy, Criteria criteria) {
+		final int[] rows = query(criteria, textMatchStyle, sortBy);
+		return toRecords(rows, Math.min(startRow, rows.length), Math.min(endRow, rows.length));
+	}
+
+	/**
+	 * Returns every record matching the criteria, in the requested order.
+	 *
+	 * @param criteria the simple or advanced criteria, or null.
+	 * @param textMatchStyle the text match style of simple criteria.
+	 * @param sortBy the sort levels.
+	 * @return the records.
+	 */
+	public synchronized Record[] getRecords(Criteria criteria, TextMatchStyle textMatchStyle, SortSpecifier... sortBy) {
+		final int[] rows = query(criteria, textMatchStyle, sortBy);
+		return toRecords(rows, 0, rows.length);
+	}
+
+	/**
+	 * Answers a fetch request with the requested rows of the matching records.
+	 *
+	 * @param request the fetch request.
+	 * @return the response, with its rows and total row count set.
+	 */
+	public synchronized DSResponse fetch(DSRequest request) {
+		final TextMatchStyle requestTextMatchStyle = request.getTextMatchStyle() == null ? textMatchStyle : request.getTextMatchStyle();
+		final int[] rows = query(request.getCriteria(), requestTextMatchStyle, request.getSortBy());
+		final int startRow = request.getStartRow() == null ? 0 : Math.min(request.getStartRow(), rows.length);
+		final int endRow = request.getEndRow() == null ? rows.length : Math.max(startRow, Math.min(request.getEndRow(), rows.length));
+		final DSResponse response = new DSResponse(toRecords(rows, startRow, endRow));
+
+		response.setStartRow(startRow);
+		response.setEndRow(endRow);
+		response.setTotalRows(rows.length);
+		return response;
+	}
+
+	private Record[] toRecords(int[] rows, int from, int to) {
+		final Record[] result = new Record[Math.max(0, to - from)];
+
+		for (int i = 0; i < result.length; i++) {
+			result[i] = records.get(rows[from + i]);
+		}
+
+		return result;
+	}
+
+	private int[] query(Criteria criteria, TextMatchStyle textMatchStyle, SortSpecifier[] sortBy) {
+		final SortSpecifier[] sortLevels = sortBy == null ? UNSORTED : sortBy;
+		final String key = toKey(criteria, textMatchStyle, sortLevels);
+
+		if (!key.equals(sortedKey)) {
+			sortedRows = sort(filter(criteria, textMatchStyle), sortLevels);
+			sortedKey = key;
+		}
+
+		return sortedRows;
+	}
+
+	private int[] filter(Criteria criteria, TextMatchStyle textMatchStyle) {
+		final String key = toKey(criteria, textMatchStyle, UNSORTED);
+
+		if (!key.equals(filteredKey)) {
+			filteredRows = filter(RecordFilter.compile(criteria, textMatchStyle));
+			filteredKey = key;
+		}
+
+		return filteredRows;
+	}
+
+	private int[] filter(RecordFilter filter) {
+		if (filter == RecordFilter.ALL) {
+			final int[] rows = new int[records.size()];
+
+			for (int i = 0; i < rows.length; i++) {
+				rows[i] = i;
+			}
+
+			return rows;
+		}
+
+		final int[] candidates = selectCandidates(filter);
+		final int[] rows = new int[candidates == null ? records.size() : candidates.length];
+		int count = 0;
+
+		for (int i = 0; i < rows.length; i++) {
+			final int row = candidates == null ? i : candidates[i];
+
+			if (filter.apply(records.get(row))) {
+				rows[count++] = row;
+			}
+		}
+
+		return Arrays.copyOf(rows, count);
+	}
+
+	/**
+	 * Returns the rows of the narrowest index range selected by a condition every matching record satisfies, in record order, or null when the
+	 * criteria have no such condition.
+	 */
+	private int[] selectCandidates(RecordFilter filter) {
+		final List<FieldFilter> conditions = Lists.newArrayList();
+		filter.collectIndexableConditions(conditions);
+		FieldIndex bestIndex = null;
+		int bestFrom = 0;
+		int bestTo = records.size();
+
+		for (FieldFilter condition : conditions) {
+			final FieldIndex index = getIndex(condition.getFieldName());
+			// dates are looked up with the dates parsed once by the condition from ISO strings
+			final Object value = index.isDateIndex() && condition.getValueDate() != null ? condition.getValueDate() : condition.getValue();
+			final Object start = index.isDateIndex() && condition.getStartDate() != null ? condition.getStartDate() : condition.getStart();
+			final Object end = index.isDateIndex() && condition.getEndDate() != null ? condition.getEndDate() : condition.getEnd();
+
+			if (!index.isOrderedFor(value) || !index.isOrderedFor(start) || !index.isOrderedFor(end)) {
+				continue;
+			}
+
+			final int from;
+			final int to;
+
+			switch (condition.getOperator()) {
+			case EQUALS:
+				from = index.lowerBound(value);
+				to = index.upperBound(value);
+				break;
+			case GREATER_THAN:
+				from = index.upperBound(value);
+				to = index.size();
+				break;
+			case GREATER_OR_EQUAL:
+				from = index.lowerBound(value);
+				to = index.size();
+				break;
+			case LESS_THAN:
+				from = index.upperBound(null);
+				to = index.lowerBound(value);
+				break;
+			case LESS_OR_EQUAL:
+				from = index.upperBound(null);
+				to = index.upperBound(value);
+				break;
+			case BETWEEN:
+			case BETWEEN_INCLUSIVE:
+				from = start == null ? index.upperBound(null) : index.lowerBound(start);
+				to = end == null ? index.size() : index.upperBound(end);
+				break;
+			default:
+				from = 0;
+				to = index.upperBound(null);
+				break;
+			}
+
+			if (Math.max(0, to - from) < bestTo - bestFrom) {
+				bestIndex = index;
+				bestFrom = from;
+				bestTo = Math.max(from, to);
+			}
+		}
+
+		if (bestIndex == null) {
+			return null;
+		}
+
+		final int[] candidates = bestIndex.getRows(bestFrom, bestTo);
+		Arrays.sort(candidates);
+		return candidates;
+	}
+
+	private int[] sort(int[] rows, SortSpecifier[] sortBy) {
+		if (sortBy.length == 0) {
+			return rows;
+		}
+
+		final int[][] ranks = new int[sortBy.length][];
+		final boolean[] descending = new boolean[sortBy.length];
+
+		for (int i = 0; i < sortBy.length; i++) {
+			ranks[i] = getIndex(sortBy[i].getField()).ranks;
+			descending[i] = sortBy[i].getSortDirection() == SortDirection.DESCENDING;
+		}
+
+		final int[] sorted = rows.clone();
+		RowComparator.sort(sorted, new RowComparator() {
+			@Override
+			int compare(int row1, int row2) {
+				for (int i = 0; i < ranks.length; i++) {
+					final int comparison = Ints.compare(ranks[i][row1], ranks[i][row2]);
+
+					if (comparison != 0) {
+						return descending[i] ? -comparison : comparison;
+					}
+				}
+
+				return 0;
+			}
+		});
+		return sorted;
+	}
+
+	private FieldIndex getIndex(String fieldName) {
+		FieldIndex index = indexes.get(fieldName);
+
+		if (index == null) {
+			indexes.put(fieldName, index = new FieldIndex(records, fieldName));
+		}
+
+		return index;
+	}
+
+	static String toKey(Criteria criteria, TextMatchStyle textMatchStyle, SortSpecifier[] sortBy) {
+		try {
+			final SegmentedStringWriter writer = JSONHelper.createStringWriter();
+			final JsonGenerator generator = JSONHelper.createGenerator(writer);
+			JSONHelper.writeValue(generator, criteria);
+			generator.flush();
+			writer.write(' ');
+			writer.write(textMatchStyle == null ? "" : textMatchStyle.getValue());
+
+			for (SortSpecifier sortSpecifier : sortBy) {
+				writer.write(sortSpecifier.getSortDirection() == SortDirection.DESCENDING ? " -" : " ");
+				writer.write(sortSpecifier.getField());
+			}
+
+			return writer.getAndClear();
+		} catch (IOException e) {
+			throw Throwables.propagate(e);
+		}
+	}
+
+	/**
+	 * Rows of the records sorted by the value of a field, nulls first, with the rank of each row in that order; equal values share a rank. Values of
+	 * different types are ordered by type first (numbers, dates, booleans, strings, then other values), so that the order is total.
+	 */
+	private static class FieldIndex {
+		private static final int NO_TYPE = -1;
+		private static final int MIXED_TYPES = -2;
+		private static final int NUMBER = 0;
+		private static final int DATE = 1;
+		private static final int BOOLEAN = 2;
+		private static final int STRING = 3;
+		private static final int OTHER = 4;
+
+		private final Object[] values;
+		private final int[] order;
+		private final int[] ranks;
+		private final int type;
+
+		FieldIndex(List<Record> records, String fieldName) {
+			values = new Object[records.size()];
+			order = new int[values.length];
+			ranks = new int[values.length];
+			int valuesType = NO_TYPE;
+
+			for (int i = 0; i < values.length; i++) {
+				values[i] = records.get(i).getAttributeAsObject(fieldName);
+				order[i] = i;
+
+				if (values[i] != null && valuesType != MIXED_TYPES) {
+					final int valueType = typeOf(values[i]);
+					valuesType = valuesType == NO_TYPE || valuesType == valueType ? valueType : MIXED_TYPES;
+				}
+			}
+
+			type = valuesType;
+			RowComparator.sort(order, new RowComparator() {
+				@Override
+				int compare(int row1, int row2) {
+					return compareIndexed(values[row1], values[row2]);
+				}
+			});
+
+			for (int i = 1; i < order.length; i++) {
+				final boolean sameValue = compareIndexed(values[order[i - 1]], values[order[i]]) == 0;
+				ranks[order[i]] = sameValue ? ranks[order[i - 1]] : i;
+			}
+		}
+
+		/**
+		 * Tells whether the bounds of a condition value can be looked up in the index, that is whether {@link RecordFilter#compareValues} orders
+		 * the indexed values against it the same way as the index.
+		 */
+		boolean isOrderedFor(Object value) {
+			if (value == null || type == NO_TYPE) {
+				return true;
+			} else if (type == MIXED_TYPES) {
+				return false;
+			} else if (typeOf(value) == type) {
+				return true;
+			} else if (value instanceof String && type == NUMBER) {
+				return RecordFilter.parseDouble((String) value) != null;
+			} else {
+				return false;
+			}
+		}
+
+		boolean isDateIndex() {
+			return type == DATE;
+		}
+
+		int size() {
+			return order.length;
+		}
+
+		/**
+		 * Returns the position of the first value not lower than the value.
+		 */
+		int lowerBound(Object value) {
+			int low = 0;
+			int high = order.length;
+
+			while (low < high) {
+				final int middle = (low + high) >>> 1;
+
+				if (RecordFilter.compareValues(values[order[middle]], value) < 0) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+
+			return low;
+		}
+
+		/**
+		 * Returns the position of the first value greater than the value.
+		 */
+		int upperBound(Object value) {
+			int low = 0;
+			int high = order.length;
+
+			while (low < high) {
+				final int middle = (low + high) >>> 1;
+
+				if (RecordFilter.compareValues(values[order[middle]], value) <= 0) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+
+			return low;
+		}
+
+		int[] getRows(int from, int to) {
+			return Arrays.copyOfRange(order, from, to);
+		}
+
+		private static int compareIndexed(Object value1, Object value2) {
+			if (value1 != null && value2 != null) {
+				final int comparison = Ints.compare(typeOf(value1), typeOf(value2));
+
+				if (comparison != 0) {
+					return comparison;
+				}
+			}
+
+			return RecordFilter.compareValues(value1, value2);
+		}
+
+		private static int typeOf(Object value) {
+			if (value instanceof Number) {
+				return NUMBER;
+			} else if (value instanceof Date) {
+				return DATE;
+			} else if (value instanceof Boolean) {
+				return BOOLEAN;
+			} else if (value instanceof String) {
+				return STRING;
+			} else {
+				return OTHER;
+			}
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package org.vaadin.smartgwt.server.data;
+
+/**
+ * Order of row numbers, used to sort rows without boxing them.
+ */
+abstract class RowComparator {
+	abstract int compare(int row1, int row2);
+
+	/**
+	 * Stable bottom-up merge sort of row numbers.
+	 *
+	 * @param rows the row numbers, sorted in place.
+	 * @param comparator the order of the rows.
+	 */
+	static void sort(int[] rows, RowComparator comparator) {
+		final int[] buffer = new int[rows.length];
+
+		for (int width = 1; width < rows.length; width *= 2) {
+			for (int from = 0; from < rows.length - width; from += 2 * width) {
+				final int middle = from + width;
+				final int to = Math.min(from + 2 * width, rows.length);
+
+				if (comparator.compare(rows[middle - 1], rows[middle]) <= 0) {
+					continue;
+				}
+
+				int left = from;
+				int right = middle;
+				int target = from;
+
+				while (left < middle && right < to) {
+					buffer[target++] = comparator.compare(rows[left], rows[right]) <= 0 ? rows[left++] : rows[right++];
+				}
+
+				System.arraycopy(rows, left, buffer, target, middle - left);
+				target += middle - left;
+				System.arraycopy(rows, right, buffer, target, to - right);
+				System.arraycopy(buffer, from, rows, from, to - from);
+			}
+		}
+	}
+}
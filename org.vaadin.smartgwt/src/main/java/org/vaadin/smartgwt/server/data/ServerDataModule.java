@@ -10,5 +10,6 @@ public class ServerDataModule extends AbstractModule {
 	protected void configure() {
 		bind(RecordJSONUpdater.class);
 		bind(RecordFactory.class);
+		bind(DataSourceResultCache.class);
 	}
 }
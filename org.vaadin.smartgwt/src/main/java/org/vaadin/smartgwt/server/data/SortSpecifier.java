@@ -0,0 +1,41 @@
+package org.vaadin.smartgwt.server.data;
+
+import java.io.Serializable;
+
+import org.vaadin.smartgwt.server.types.SortDirection;
+
+/**
+ * Specifies the field and direction of one level of a sort.
+ */
+public class SortSpecifier implements Serializable {
+	private static final long serialVersionUID = 1L;
+	private final String field;
+	private final SortDirection sortDirection;
+
+	public SortSpecifier(String field, SortDirection sortDirection) {
+		this.field = field;
+		this.sortDirection = sortDirection;
+	}
+
+	/**
+	 * builds a SortSpecifier from a SmartClient sortBy string, where a leading "-" denotes a descending sort.
+	 * 
+	 * @param sortBy the sortBy string.
+	 * @return the matching SortSpecifier.
+	 */
+	public static SortSpecifier valueOf(String sortBy) {
+		if (sortBy.startsWith("-")) {
+			return new SortSpecifier(sortBy.substring(1), SortDirection.DESCENDING);
+		} else {
+			return new SortSpecifier(sortBy, SortDirection.ASCENDING);
+		}
+	}
+
+	public String getField() {
+		return field;
+	}
+
+	public SortDirection getSortDirection() {
+		return sortDirection;
+	}
+}
@@ -0,0 +1,90 @@
+package org.vaadin.smartgwt.server.extra;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.collect.MapMaker;
+
+/**
+ * The server side of a push connection: a dirty flag that a waiting {@link PushServlet} request is woken up by. Channels are registered JVM-wide
+ * under a random id, which is the only thing the client knows of them. The registry only holds channels weakly: a channel whose {@link Pusher} is
+ * garbage collected along with an expired session goes away even if the pusher was never detached.
+ */
+public class PushChannel {
+	private static final ConcurrentMap<String, PushChannel> CHANNELS = new MapMaker().weakValues().makeMap();
+
+	private final String id = UUID.randomUUID().toString();
+	private boolean dirty;
+	private boolean closed;
+
+	private PushChannel() {
+
+	}
+
+	/**
+	 * Opens and registers a new channel.
+	 * 
+	 * @return the channel.
+	 */
+	public static PushChannel open() {
+		final PushChannel channel = new PushChannel();
+		CHANNELS.put(channel.id, channel);
+		return channel;
+	}
+
+	/**
+	 * Returns the channel registered under the id.
+	 * 
+	 * @param id the channel id.
+	 * @return the channel, or null if no open channel has the id.
+	 */
+	public static PushChannel get(String id) {
+		return id == null ? null : CHANNELS.get(id);
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * Marks the server state as changed, waking up the waiting request if there is one. May be called from any thread.
+	 */
+	public synchronized void markDirty() {
+		dirty = true;
+		notifyAll();
+	}
+
+	/**
+	 * Unregisters the channel and releases the waiting request.
+	 */
+	public synchronized void close() {
+		CHANNELS.remove(id);
+		closed = true;
+		notifyAll();
+	}
+
+	public synchronized boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Waits until the channel is marked dirty, then clears the flag. Returns at once if the channel was marked dirty while no request was waiting.
+	 * 
+	 * @param timeout the maximum time to wait in milliseconds.
+	 * @return true if the channel was dirty, false if the wait timed out or the channel was closed.
+	 * @throws InterruptedException when the waiting thread is interrupted.
+	 */
+	public synchronized boolean await(long timeout) throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + timeout;
+		long remaining = timeout;
+
+		while (!dirty && !closed && remaining > 0) {
+			wait(remaining);
+			remaining = deadline - System.currentTimeMillis();
+		}
+
+		final boolean wasDirty = dirty;
+		dirty = false;
+		return wasDirty;
+	}
+}
@@ -0,0 +1,58 @@
+package org.vaadin.smartgwt.server.extra;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Answers the long-poll requests of {@link Pusher}s. A request names its channel and is held open until the channel is marked dirty, the channel is
+ * closed or the timeout elapses, and is answered with <code>1</code>, <code>x</code> or <code>0</code> respectively.
+ * <p/>
+ * The servlet blocks its thread while waiting, so it runs in any servlet container; the timeout (init parameter <code>timeout</code>, in
+ * milliseconds, 30 seconds by default) bounds how long a thread is held. Map it next to the application servlet and point
+ * {@link Pusher#setPushUrl(String)} at it.
+ */
+public class PushServlet extends HttpServlet {
+	private long timeout = 30000;
+
+	@Override
+	public void init() throws ServletException {
+		final String timeoutParameter = getInitParameter("timeout");
+
+		if (timeoutParameter != null) {
+			timeout = Long.parseLong(timeoutParameter);
+		}
+	}
+
+	public long getTimeout() {
+		return timeout;
+	}
+
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	@Override
+	protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+		final PushChannel channel = PushChannel.get(req.getParameter("channel"));
+		String answer;
+
+		if (channel == null) {
+			answer = "x";
+		} else {
+			try {
+				answer = channel.await(timeout) ? "1" : channel.isClosed() ? "x" : "0";
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				answer = "0";
+			}
+		}
+
+		resp.setContentType("text/plain");
+		resp.setHeader("Cache-Control", "no-cache");
+		resp.getWriter().write(answer);
+	}
+}
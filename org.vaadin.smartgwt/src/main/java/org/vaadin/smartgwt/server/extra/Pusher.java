@@ -0,0 +1,97 @@
+package org.vaadin.smartgwt.server.extra;
+
+import java.util.Map;
+
+import org.vaadin.smartgwt.server.layout.NonUIComponent;
+
+import com.vaadin.terminal.PaintException;
+import com.vaadin.terminal.PaintTarget;
+import com.vaadin.ui.AbstractComponent;
+
+/**
+ * A non-visual component that lets the server wake the client up instead of having the client poll.<p>
+ * 
+ * While attached, the client keeps a long-poll request open on a {@link PushServlet}. Calling {@link #push()} after changing the UI from a
+ * background thread answers that request, and the client then fetches the changes in a regular request. Nothing is sent while the server state does
+ * not change.
+ */
+@com.vaadin.ui.ClientWidget(org.vaadin.smartgwt.client.extra.VPusher.class)
+public class Pusher extends AbstractComponent implements NonUIComponent {
+	// channels live in a registry of this JVM, so a restored session opens a new one on its next paint
+	private transient volatile PushChannel channel;
+	private boolean attached;
+	private String pushUrl = "PUSH";
+
+	/**
+	 * URL of the {@link PushServlet}, relative to the page or absolute.
+	 * 
+	 * @return the URL, "PUSH" by default.
+	 */
+	public String getPushUrl() {
+		return pushUrl;
+	}
+
+	/**
+	 * URL of the {@link PushServlet}, relative to the page or absolute.
+	 * 
+	 * @param pushUrl { _ != null } the URL.
+	 */
+	public void setPushUrl(String pushUrl) {
+		assert pushUrl != null : "pushUrl must not be null";
+		this.pushUrl = pushUrl;
+		requestRepaint();
+	}
+
+	/**
+	 * Wakes the client up so that it fetches the pending changes. May be called from any thread, after the changes have been made while holding the
+	 * application lock.
+	 */
+	public void push() {
+		final PushChannel channel = this.channel;
+
+		if (channel != null) {
+			channel.markDirty();
+		}
+	}
+
+	@Override
+	public void attach() {
+		super.attach();
+		attached = true;
+		channel = PushChannel.open();
+	}
+
+	@Override
+	public void detach() {
+		final PushChannel channel = this.channel;
+
+		if (channel != null) {
+			channel.close();
+			this.channel = null;
+		}
+
+		attached = false;
+		super.detach();
+	}
+
+	@Override
+	public void paintContent(PaintTarget target) throws PaintException {
+		if (attached && channel == null) {
+			channel = PushChannel.open();
+		}
+
+		if (channel != null) {
+			target.addAttribute("url", pushUrl);
+			target.addAttribute("channel", channel.getId());
+		}
+	}
+
+	@Override
+	public void changeVariables(Object source, Map<String, Object> variables) {
+		// the request sent after a push only serves to fetch the pending changes
+	}
+
+	PushChannel getChannel() {
+		return channel;
+	}
+}
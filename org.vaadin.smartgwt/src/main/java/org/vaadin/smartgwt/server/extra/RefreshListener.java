@@ -4,4 +4,17 @@ public class RefreshListener {
 	public void refresh(Refresher source) {
 
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Called instead of {@link #refresh(Refresher)} when the source is in adaptive mode. Returning false reports that nothing changed, which lets the
+	 * shared poller back off. Calls {@link #refresh(Refresher)} and reports a change by default, so that listeners not overriding this method keep
+	 * the base interval.
+	 * 
+	 * @param source the refresher.
+	 * @return whether the listener changed anything.
+	 */
+	public boolean poll(Refresher source) {
+		refresh(source);
+		return true;
+	}
+}
@@ -0,0 +1,97 @@
+package org.vaadin.smartgwt.server.extra;
+
+import java.io.Serializable;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.vaadin.ui.Component;
+
+/**
+ * Schedules the polling shared by the adaptive {@link Refresher}s of an application. One poll notifies all of them, so several refreshers cost a
+ * single request. The delay before the next poll starts at the smallest interval of the refreshers and doubles, up to their largest maximum interval,
+ * each time a poll reports no change; it drops back to the smallest interval as soon as a listener reports one.
+ */
+public class RefreshPoller implements Serializable {
+	private int interval = -1;
+
+	/**
+	 * Notifies the listeners of the adaptive refreshers and adapts the interval.
+	 * 
+	 * @param components the components holding the refreshers; other components are ignored.
+	 * @return the delay before the next poll in milliseconds, or -1 when no adaptive refresher has listeners.
+	 */
+	public int poll(Iterable<? extends Component> components) {
+		final List<Refresher> refreshers = Lists.newArrayList();
+		boolean changed = false;
+
+		for (Component component : components) {
+			if (isPolled(component)) {
+				refreshers.add((Refresher) component);
+			}
+		}
+
+		// listeners may add or remove refreshers
+		for (Refresher refresher : refreshers) {
+			changed |= refresher.poll();
+		}
+
+		final int baseInterval = getBaseInterval(components);
+
+		if (baseInterval < 0) {
+			interval = -1;
+		} else if (changed || interval < 0) {
+			interval = baseInterval;
+		} else {
+			interval = Math.max(Math.min(interval * 2, getMaxInterval(components)), baseInterval);
+		}
+
+		return interval;
+	}
+
+	/**
+	 * Returns the current delay between polls, without polling.
+	 * 
+	 * @param components the components holding the refreshers; other components are ignored.
+	 * @return the delay in milliseconds, or -1 when no adaptive refresher has listeners.
+	 */
+	public int getInterval(Iterable<? extends Component> components) {
+		final int baseInterval = getBaseInterval(components);
+
+		if (baseInterval < 0) {
+			interval = -1;
+		} else {
+			interval = Math.max(Math.min(interval, getMaxInterval(components)), baseInterval);
+		}
+
+		return interval;
+	}
+
+	private static int getBaseInterval(Iterable<? extends Component> components) {
+		int baseInterval = -1;
+
+		for (Component component : components) {
+			if (isPolled(component)) {
+				final int refresherInterval = ((Refresher) component).getInterval();
+				baseInterval = baseInterval < 0 ? refresherInterval : Math.min(baseInterval, refresherInterval);
+			}
+		}
+
+		return baseInterval;
+	}
+
+	private static int getMaxInterval(Iterable<? extends Component> components) {
+		int maxInterval = 0;
+
+		for (Component component : components) {
+			if (isPolled(component)) {
+				maxInterval = Math.max(maxInterval, ((Refresher) component).getMaxInterval());
+			}
+		}
+
+		return maxInterval;
+	}
+
+	private static boolean isPolled(Component component) {
+		return component instanceof Refresher && ((Refresher) component).isAdaptive() && ((Refresher) component).hasListeners();
+	}
+}
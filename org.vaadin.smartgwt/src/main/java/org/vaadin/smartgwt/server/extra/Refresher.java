@@ -2,11 +2,11 @@ package org.vaadin.smartgwt.server.extra;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+import org.vaadin.smartgwt.server.layout.MasterContainer;
 import org.vaadin.smartgwt.server.layout.NonUIComponent;
 
-import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
 import com.google.web.bindery.event.shared.HandlerRegistration;
 import com.vaadin.terminal.PaintException;
 import com.vaadin.terminal.PaintTarget;
@@ -15,12 +15,18 @@ import com.vaadin.ui.AbstractComponent;
 /**
  * A non-visual component that notifies registered listeners at a specific interval.<p>
  * 
- * While listeners are registered, it is possible to make asynchronous UI changes without the user triggering a server call.
+ * While listeners are registered, it is possible to make asynchronous UI changes without the user triggering a server call.<p>
+ * 
+ * In adaptive mode, the refresher does not poll on its own: the {@link org.vaadin.smartgwt.server.layout.MasterContainer} holding it polls for all its
+ * adaptive refreshers in a single request, backing off up to the maximum interval while listeners report no change (see {@link RefreshPoller}).
  */
 @com.vaadin.ui.ClientWidget(org.vaadin.smartgwt.client.extra.VRefresher.class)
 public class Refresher extends AbstractComponent implements NonUIComponent {
-	private List<RefreshListener> listeners = Lists.newArrayList();
+	// copied on the rare registration changes rather than on every tick
+	private final List<RefreshListener> listeners = new CopyOnWriteArrayList<RefreshListener>();
 	private int interval;
+	private int maxInterval = 30000;
+	private boolean adaptive;
 
 	/**
 	 * Refresher with a 1 second interval by default.
@@ -46,6 +52,52 @@ public class Refresher extends AbstractComponent implements NonUIComponent {
 	public void setInterval(int interval) {
 		assert interval > 0 : "interval must be a positive number";
 		this.interval = interval;
+		requestRepaint();
+	}
+
+	/**
+	 * Largest interval the shared poller backs off to in adaptive mode.
+	 * 
+	 * @return interval in milliseconds, 30 seconds by default.
+	 */
+	public int getMaxInterval() {
+		return maxInterval;
+	}
+
+	/**
+	 * Largest interval the shared poller backs off to in adaptive mode.
+	 * 
+	 * @param maxInterval { _ > 0 } in milliseconds.
+	 */
+	public void setMaxInterval(int maxInterval) {
+		assert maxInterval > 0 : "maxInterval must be a positive number";
+		this.maxInterval = maxInterval;
+		requestRepaint();
+	}
+
+	public boolean isAdaptive() {
+		return adaptive;
+	}
+
+	/**
+	 * Switches between polling on a fixed interval from this refresher's own client timer and polling through the shared, adaptive poller of the
+	 * master container.
+	 * 
+	 * @param adaptive true for adaptive mode.
+	 */
+	public void setAdaptive(boolean adaptive) {
+		// leaving adaptive mode also repaints the poll interval, which then leaves this refresher out
+		final boolean wasAdaptive = this.adaptive;
+		this.adaptive = adaptive;
+		requestRepaint();
+
+		if (wasAdaptive && !adaptive) {
+			requestPollIntervalRepaint();
+		}
+	}
+
+	public boolean hasListeners() {
+		return !listeners.isEmpty();
 	}
 
 	/**
@@ -67,17 +119,45 @@ public class Refresher extends AbstractComponent implements NonUIComponent {
 		};
 	}
 
+	/**
+	 * In adaptive mode, also repaints the interval of the shared poller painted by the master container.
+	 */
+	@Override
+	public void requestRepaint() {
+		super.requestRepaint();
+
+		if (adaptive) {
+			requestPollIntervalRepaint();
+		}
+	}
+
 	@Override
 	public void paintContent(PaintTarget target) throws PaintException {
-		if (!listeners.isEmpty()) {
+		if (!adaptive && !listeners.isEmpty()) {
 			target.addAttribute("interval", interval);
 		}
 	}
 
 	@Override
 	public void changeVariables(Object source, Map<String, Object> variables) {
-		for (RefreshListener listener : ImmutableList.copyOf(listeners)) {
+		for (RefreshListener listener : listeners) {
 			listener.refresh(this);
 		}
 	}
+
+	private void requestPollIntervalRepaint() {
+		if (getParent() instanceof MasterContainer) {
+			((MasterContainer) getParent()).requestPollIntervalRepaint();
+		}
+	}
+
+	boolean poll() {
+		boolean changed = false;
+
+		for (RefreshListener listener : listeners) {
+			changed |= listener.poll(this);
+		}
+
+		return changed;
+	}
 }
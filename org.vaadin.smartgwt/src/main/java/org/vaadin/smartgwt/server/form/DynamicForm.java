@@ -1,5 +1,7 @@
 package org.vaadin.smartgwt.server.form;
 
+import static com.google.common.base.Preconditions.*;
+
 import java.util.Arrays;
 
 import org.vaadin.smartgwt.server.Canvas;
@@ -4128,6 +4130,8 @@ public class DynamicForm extends Canvas
 
 	private final ComponentPropertyPainter propertyPainter = new ComponentPropertyPainter(this);
 	private final ComponentList<FormItem> fields = propertyPainter.addComponentList("fields");
+	private boolean batchValueChanges;
+	private int valueSyncDelay = 1000;
 
 	public void addField(FormItem item) {
 		this.fields.add(item);
@@ -4155,9 +4159,47 @@ public class DynamicForm extends Canvas
 		return getAttributeAsObject("dataSource");
 	}
 
+	/**
+	 * Queues the item value changes on the client so that they ride along with the next request, or are sent together when the form is submitted,
+	 * when no value has changed for the {@link #setValueSyncDelay(int) sync delay}, or as soon as an item with value change listeners changes.
+	 * Without batching, each item sends its value on its own as soon as it loses focus.
+	 * 
+	 * @param batchValueChanges
+	 *            true to batch the value changes.
+	 */
+	public void setBatchValueChanges(boolean batchValueChanges) {
+		this.batchValueChanges = batchValueChanges;
+		requestRepaint();
+	}
+
+	public boolean getBatchValueChanges() {
+		return batchValueChanges;
+	}
+
+	/**
+	 * Sets the idle delay after which batched value changes are sent, 0 sending them only on submit or when a listener needs them.
+	 * 
+	 * @param valueSyncDelay
+	 *            the delay in milliseconds.
+	 */
+	public void setValueSyncDelay(int valueSyncDelay) {
+		checkArgument(valueSyncDelay >= 0, "valueSyncDelay must not be negative");
+		this.valueSyncDelay = valueSyncDelay;
+		requestRepaint();
+	}
+
+	public int getValueSyncDelay() {
+		return valueSyncDelay;
+	}
+
 	@Override
 	public void paintContent(PaintTarget target) throws PaintException {
 		propertyPainter.paintContent(target);
+
+		if (batchValueChanges) {
+			target.addAttribute("*valueSyncDelay", valueSyncDelay);
+		}
+
 		super.paintContent(target);
 	}
 }
@@ -8,6 +8,7 @@ import java.util.Map;
 import org.vaadin.smartgwt.client.ui.form.fields.VFormItem;
 import org.vaadin.smartgwt.server.core.ComponentArray;
 import org.vaadin.smartgwt.server.core.ComponentPropertyPainter;
+import org.vaadin.smartgwt.server.core.FrozenPayload;
 import org.vaadin.smartgwt.server.core.RefDataClass;
 import org.vaadin.smartgwt.server.data.DataSource;
 import org.vaadin.smartgwt.server.types.Alignment;
@@ -4072,36 +4073,33 @@ public class FormItem extends RefDataClass { // implements com.smartgwt.client.w
 		setAttribute("defaultValue", defaultValue);
 	}
 
-	//    /**
-	//     * Set the valueMap for this item.
-	//     *
-	//     * @param valueMap the value map
-	//     */
-	//    public void setValueMap(String... valueMap) {
-	//        if (!isCreated()) {
-	//            setAttribute("valueMap", valueMap);
-	//        } else {
-	//            setValueMapMethod(JSOHelper.convertToJavaScriptArray(valueMap));
-	//        }
-	//    }
-	//
-	//    /**
-	//     * Set the valueMap for this item.
-	//     *
-	//     * @param valueMap the value map
-	//     */
-	//    public void setValueMap(java.util.LinkedHashMap valueMap) {
-	//        if (!isCreated()) {
-	//            setAttribute("valueMap", valueMap);
-	//        } else {
-	//            setValueMapMethod(JSOHelper.convertMapToJavascriptObject(valueMap));
-	//        }
-	//    }
-	//
-	//    private native void setValueMapMethod(JavaScriptObject value) /*-{
-	//        var self = this.@com.smartgwt.client.core.DataClass::getJsObj()();
-	//        self.setValueMap(value);
-	//    }-*/;
+	/**
+	 * Set the valueMap for this item.
+	 *
+	 * @param valueMap the value map
+	 */
+	public void setValueMap(String... valueMap) {
+		setAttribute("valueMap", valueMap);
+	}
+
+	/**
+	 * Set the valueMap for this item.
+	 *
+	 * @param valueMap the value map
+	 */
+	public void setValueMap(java.util.LinkedHashMap valueMap) {
+		setAttribute("valueMap", valueMap);
+	}
+
+	/**
+	 * Set the valueMap for this item to a map serialized once, typically a static map shared by every session. The client decodes the map once
+	 * per content hash, however many items use it.
+	 *
+	 * @param valueMap the value map, as a frozen JSON array or object.
+	 */
+	public void setValueMap(FrozenPayload valueMap) {
+		setAttribute("valueMap", valueMap);
+	}
 
 	/**
 	 * Set the valueIcons for this item.
@@ -4821,23 +4819,32 @@ public class FormItem extends RefDataClass { // implements com.smartgwt.client.w
 
 	public void addPropertyChangeListener(PropertyChangeListener listener) {
 		propertyChangeSupport.addPropertyChangeListener(listener);
+		requestRepaint();
 	}
 
 	public void addPropertyChangeListener(String propertyName, PropertyChangeListener listener) {
 		propertyChangeSupport.addPropertyChangeListener(propertyName, listener);
+		requestRepaint();
 	}
 
 	public void removePropertyChangeListener(PropertyChangeListener listener) {
 		propertyChangeSupport.removePropertyChangeListener(listener);
+		requestRepaint();
 	}
 
 	public void removePropertyChangeListener(String propertyName, PropertyChangeListener listener) {
 		propertyChangeSupport.removePropertyChangeListener(propertyName, listener);
+		requestRepaint();
 	}
 
 	@Override
 	public void paintContent(PaintTarget target) throws PaintException {
 		propertyPainter.paintContent(target);
+
+		if (propertyChangeSupport.hasListeners(PROPERTYNAME_VALUE)) {
+			target.addAttribute("*hasValueChangeListeners", true);
+		}
+
 		super.paintContent(target);
 	}
 
@@ -0,0 +1,150 @@
+package org.vaadin.smartgwt.server.grid;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+import org.vaadin.smartgwt.server.data.Record;
+import org.vaadin.smartgwt.server.data.RecordFactory;
+import org.vaadin.smartgwt.server.util.JSONHelper;
+
+import com.google.common.collect.Lists;
+
+/**
+ * A grid event as sent by the client in a single variable. Records are identified by primary key when the grid has one, and only carry the fields
+ * requested with {@link ListGrid#setEventRecordFields(String...)}; without a primary key, records are sent with their fields. The envelope is a
+ * JSON object with short member names, all optional:
+ * <ul>
+ * <li><code>k</code>, <code>d</code>: key and fields of the event record</li>
+ * <li><code>r</code>, <code>c</code>, <code>f</code>: record number, field number and field name</li>
+ * <li><code>s</code>: selection state</li>
+ * <li><code>sk</code>, <code>sd</code>: keys and fields of the selected records</li>
+ * <li><code>xk</code>, <code>xd</code>: key and fields of the first selected record</li>
+ * </ul>
+ * Numeric keys are decoded as Doubles.
+ */
+public class GridEventEnvelope {
+	private Object key;
+	private Record record;
+	private int recordNum = -1;
+	private int fieldNum = -1;
+	private String fieldName;
+	private boolean state;
+	private List<Object> selectionKeys;
+	private List<Record> selectionRecords;
+	private Object selectedKey;
+	private Record selectedRecord;
+
+	/**
+	 * Decodes an envelope with a pull parser.
+	 * 
+	 * @param json the envelope.
+	 * @param recordFactory the factory building the records.
+	 * @return the decoded envelope.
+	 * @throws IOException when the envelope could not be read.
+	 */
+	public static GridEventEnvelope parse(String json, RecordFactory recordFactory) throws IOException {
+		final GridEventEnvelope envelope = new GridEventEnvelope();
+		final JsonParser parser = JSONHelper.createParser(json);
+
+		try {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new IOException("expected a JSON object, found " + parser.getCurrentToken());
+			}
+
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				final String name = parser.getCurrentName();
+				parser.nextToken();
+
+				if ("k".equals(name)) {
+					envelope.key = readKey(parser);
+				} else if ("d".equals(name)) {
+					envelope.record = recordFactory.newRecord(parser);
+				} else if ("r".equals(name)) {
+					envelope.recordNum = parser.getIntValue();
+				} else if ("c".equals(name)) {
+					envelope.fieldNum = parser.getIntValue();
+				} else if ("f".equals(name)) {
+					envelope.fieldName = parser.getText();
+				} else if ("s".equals(name)) {
+					envelope.state = parser.getBooleanValue();
+				} else if ("sk".equals(name)) {
+					envelope.selectionKeys = Lists.newArrayList();
+
+					while (parser.nextToken() != JsonToken.END_ARRAY) {
+						envelope.selectionKeys.add(readKey(parser));
+					}
+				} else if ("sd".equals(name)) {
+					envelope.selectionRecords = Lists.newArrayList();
+
+					while (parser.nextToken() != JsonToken.END_ARRAY) {
+						envelope.selectionRecords.add(recordFactory.newRecord(parser));
+					}
+				} else if ("xk".equals(name)) {
+					envelope.selectedKey = readKey(parser);
+				} else if ("xd".equals(name)) {
+					envelope.selectedRecord = recordFactory.newRecord(parser);
+				} else {
+					parser.skipChildren();
+				}
+			}
+		} finally {
+			parser.close();
+		}
+
+		return envelope;
+	}
+
+	public Object getKey() {
+		return key;
+	}
+
+	public Record getRecord() {
+		return record;
+	}
+
+	public int getRecordNum() {
+		return recordNum;
+	}
+
+	public int getFieldNum() {
+		return fieldNum;
+	}
+
+	public String getFieldName() {
+		return fieldName;
+	}
+
+	public boolean getState() {
+		return state;
+	}
+
+	public List<Object> getSelectionKeys() {
+		return selectionKeys;
+	}
+
+	public List<Record> getSelectionRecords() {
+		return selectionRecords;
+	}
+
+	public Object getSelectedKey() {
+		return selectedKey;
+	}
+
+	public Record getSelectedRecord() {
+		return selectedRecord;
+	}
+
+	private static Object readKey(JsonParser parser) throws IOException {
+		switch (parser.getCurrentToken()) {
+		case VALUE_NUMBER_INT:
+		case VALUE_NUMBER_FLOAT:
+			return parser.getDoubleValue();
+		case VALUE_NULL:
+			return null;
+		default:
+			return parser.getText();
+		}
+	}
+}
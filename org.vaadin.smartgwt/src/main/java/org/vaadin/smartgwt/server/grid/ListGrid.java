@@ -15,20 +15,28 @@
  */
 package org.vaadin.smartgwt.server.grid;
 
+import static com.google.common.base.Preconditions.*;
+
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.apache.log4j.Logger;
 import org.vaadin.smartgwt.client.ui.grid.VListGrid;
 import org.vaadin.smartgwt.server.Button;
 import org.vaadin.smartgwt.server.Canvas;
 import org.vaadin.smartgwt.server.InjectorSingleton;
 import org.vaadin.smartgwt.server.core.ComponentList;
 import org.vaadin.smartgwt.server.core.ComponentPropertyPainter;
+import org.vaadin.smartgwt.server.data.Criteria;
 import org.vaadin.smartgwt.server.data.DataSource;
 import org.vaadin.smartgwt.server.data.Record;
+import org.vaadin.smartgwt.server.data.RecordChangeLog;
 import org.vaadin.smartgwt.server.data.RecordFactory;
+import org.vaadin.smartgwt.server.data.SortSpecifier;
 import org.vaadin.smartgwt.server.grid.events.HasRecordDoubleClickHandlers;
 import org.vaadin.smartgwt.server.grid.events.HasSelectionChangedHandlers;
 import org.vaadin.smartgwt.server.grid.events.HasSelectionUpdatedHandlers;
@@ -63,11 +71,15 @@ import org.vaadin.smartgwt.server.types.SelectionStyle;
 import org.vaadin.smartgwt.server.types.SortArrow;
 import org.vaadin.smartgwt.server.types.TextMatchStyle;
 import org.vaadin.smartgwt.server.util.EnumUtil;
+import org.vaadin.smartgwt.server.util.JSONHelper;
 
 import argo.jdom.JdomParser;
+import argo.jdom.JsonNode;
 import argo.jdom.JsonRootNode;
 
 import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.web.bindery.event.shared.HandlerRegistration;
 import com.vaadin.terminal.PaintException;
@@ -79,12 +91,26 @@ import com.vaadin.terminal.PaintTarget;
  */
 @com.vaadin.ui.ClientWidget(VListGrid.class)
 public class ListGrid extends Canvas implements HasSelectionChangedHandlers, HasSelectionUpdatedHandlers, HasRecordDoubleClickHandlers {
+	private static final Logger LOGGER = Logger.getLogger(ListGrid.class);
 	protected final ComponentPropertyPainter propertyPainter = new ComponentPropertyPainter(this);
 	private final ComponentList<ListGridField> fields = propertyPainter.addComponentList("fields");
 	private final Set<SelectionChangedHandler> selectionChangedHandlers = Sets.newHashSet();
 	private final Set<SelectionUpdatedHandler> selectionUpdatedHandlers = Sets.newHashSet();
 	private final Set<RecordDoubleClickHandler> recordDoubleClickHandlers = Sets.newHashSet();
+	private final List<Record> fetchResponses = Lists.newArrayList();
+	private final RecordChangeLog dataChanges = new RecordChangeLog();
+	private List<Record> data;
+	private Map<Object, Integer> dataIndex;
+	private int removedRecordCount;
+	private boolean dataReplaced;
+	private String primaryKeyField;
+	private String[] eventRecordFields;
+	private RecordSelection recordSelection;
+	private Map<Object, Record> selectableRecordIndex;
+	private boolean keyOnlyEventRecordLogged;
 	private DataSource dataSource;
+	private ListGridDataProvider dataProvider;
+	private boolean cacheInvalidated;
 	private ListGridRecord[] selectedRecords;
 	private SelectionEventFactory selectionEventFactory;
 	private RecordFactory recordFactory;
@@ -7470,8 +7496,8 @@ public class ListGrid extends Canvas implements HasSelectionChangedHandlers, Has
 	 * @param records data to show in the list. Default value is null
 	 */
 	public void setData(ListGridRecord[] records) {
-		setAttribute("data", records, true);
-		requestRepaint();
+		replaceData(records);
+		requestPartialRepaint("*data");
 	}
 
 	/**
@@ -7481,17 +7507,311 @@ public class ListGrid extends Canvas implements HasSelectionChangedHandlers, Has
 	 * @see #setData(ListGridRecord[])   
 	 */
 	public void setData(Record[] data) {
-		setAttribute("data", data, true);
+		replaceData(data);
+		requestPartialRepaint("*data");
+	}
+
+	/**
+	 * Returns the records set through {@link #setData(Record[])}, including the changes made through {@link #addData(Record)},
+	 * {@link #updateData(Record)} and {@link #removeData(Record)}.
+	 *
+	 * @return the records, or null when no data was set.
+	 */
+	public Record[] getRecords() {
+		return data == null ? null : compactData().toArray(new Record[data.size()]);
+	}
+
+	/**
+	 * Name of the field holding the primary key of the records, used to identify the records passed to {@link #updateData(Record)} and
+	 * {@link #removeData(Record)}. When set, the client reports selection changes as the primary keys added to or removed from the selection
+	 * instead of sending all the selected records.
+	 *
+	 * @param primaryKeyField the primary key field name.
+	 */
+	public void setPrimaryKeyField(String primaryKeyField) {
+		this.primaryKeyField = primaryKeyField;
+		recordSelection = null;
+		dataIndex = null;
+		invalidateSelectableRecords();
+	}
+
+	public String getPrimaryKeyField() {
+		return primaryKeyField;
+	}
+
+	/**
+	 * Adds a record at the end of the grid's data. Only the added record is sent to the client on the next repaint.
+	 *
+	 * @param record the record to add.
+	 * @throws IllegalStateException when no primary key field was set.
+	 */
+	public void addData(Record record) throws IllegalStateException {
+		if (data == null) {
+			data = Lists.newArrayList();
+		}
+
+		final Object key = RecordSelection.toKey(getPrimaryKey(record));
+		data.add(record);
+
+		if (dataIndex != null) {
+			dataIndex.put(key, data.size() - 1);
+		}
+
+		dataChanges.add(key, record);
+		invalidateSelectableRecords();
+		requestPartialRepaint("*dataChanges");
+	}
+
+	/**
+	 * Replaces the record having the same primary key as the given record. Only the updated record is sent to the client on the next repaint.
+	 *
+	 * @param record the updated record.
+	 * @throws IllegalStateException when no primary key field was set.
+	 * @throws IllegalArgumentException when the grid has no record with that primary key.
+	 */
+	public void updateData(Record record) throws IllegalStateException, IllegalArgumentException {
+		final Object key = RecordSelection.toKey(getPrimaryKey(record));
+		data.set(indexOfData(key), record);
+		dataChanges.update(key, record);
+		invalidateSelectableRecords();
+
+		if (recordSelection != null) {
+			selectedRecords = null;
+		}
+
+		requestPartialRepaint("*dataChanges");
+	}
+
+	/**
+	 * Removes the record having the same primary key as the given record. Only the primary key is sent to the client on the next repaint.
+	 *
+	 * @param record the record to remove.
+	 * @throws IllegalStateException when no primary key field was set.
+	 * @throws IllegalArgumentException when the grid has no record with that primary key.
+	 */
+	public void removeData(Record record) throws IllegalStateException, IllegalArgumentException {
+		final Object primaryKey = getPrimaryKey(record);
+		final Object key = RecordSelection.toKey(primaryKey);
+		final Record keyRecord = new Record();
+
+		// leaves a hole compacted on the next read, so that removing many records stays linear
+		data.set(indexOfData(key), null);
+		dataIndex.remove(key);
+		removedRecordCount++;
+		keyRecord.setAttribute(primaryKeyField, primaryKey);
+		dataChanges.remove(key, keyRecord);
+		invalidateSelectableRecords();
+		deselect(key);
+		requestPartialRepaint("*dataChanges");
+	}
+
+	private void replaceData(Record[] records) {
+		data = records == null ? null : Lists.newArrayList(records);
+		dataIndex = null;
+		removedRecordCount = 0;
+		dataReplaced = true;
+		dataChanges.clear();
+		invalidateSelectableRecords();
+		clearRecordSelection();
+	}
+
+	private void clearRecordSelection() {
+		if (recordSelection != null) {
+			recordSelection.clear();
+			selectedRecords = null;
+		}
+	}
+
+	private void deselect(Object key) {
+		if (recordSelection != null) {
+			recordSelection.deselect(key);
+			selectedRecords = null;
+		}
+	}
+
+	/**
+	 * Returns the records the selected records are looked up from when the selection is tracked by primary key.
+	 *
+	 * @return the grid's records.
+	 */
+	protected List<? extends Record> getSelectableRecords() {
+		return data == null ? Collections.<Record> emptyList() : compactData();
+	}
+
+	/**
+	 * Drops the index of the {@link #getSelectableRecords() selectable records} by key, which event records are looked up from. Subclasses call it
+	 * when the records they return change.
+	 */
+	protected void invalidateSelectableRecords() {
+		selectableRecordIndex = null;
+	}
+
+	/**
+	 * Sets the record fields the client sends along with grid events. When the grid has a primary key field, event records are otherwise sent as
+	 * their key alone and looked up from the grid's records; when it has none, they are otherwise sent with all their fields. A grid backed by a
+	 * {@link ListGridDataProvider} holds no records on the server, so its event records only hold their key unless the fields are set here.
+	 *
+	 * @param eventRecordFields the field names, or null to fall back to the default.
+	 */
+	public void setEventRecordFields(String... eventRecordFields) {
+		this.eventRecordFields = eventRecordFields;
+		requestRepaint();
+	}
+
+	public String[] getEventRecordFields() {
+		return eventRecordFields;
+	}
+
+	/**
+	 * Returns the record an event refers to: the grid's record with the key when there is one, otherwise a record built from the key and the fields
+	 * sent by the client.
+	 */
+	ListGridRecord resolveRecord(Object key, Record fields) {
+		final Record record = findSelectableRecord(key, true);
+		return record != null ? toListGridRecord(record) : newEventRecord(key, fields);
+	}
+
+	/**
+	 * Returns the records an event refers to, as {@link #resolveRecord(Object, Record)} does for a single record.
+	 */
+	ListGridRecord[] resolveRecords(List<Object> keys, List<Record> fields) {
+		if (keys == null && fields == null) {
+			return null;
+		}
+
+		final ListGridRecord[] records = new ListGridRecord[keys == null ? fields.size() : keys.size()];
+		boolean reindexed = false;
+
+		for (int i = 0; i < records.length; i++) {
+			final Object key = keys == null ? null : keys.get(i);
+			final Record record = findSelectableRecord(key, !reindexed);
+			// keys missing after the records were indexed again stay missing, so the records are indexed again at most once per event
+			reindexed |= record == null && key != null;
+			records[i] = record != null ? toListGridRecord(record) : newEventRecord(key, fields == null ? null : fields.get(i));
+		}
+
+		return records;
+	}
+
+	/**
+	 * Looks the record with the key up from the selectable records, indexed by key once per change of the data.
+	 *
+	 * @param reindexOnMiss whether a key missing from an existing index indexes the records again, in case they were changed without the grid
+	 *            knowing, like nodes added to a tree.
+	 */
+	private Record findSelectableRecord(Object key, boolean reindexOnMiss) {
+		if (key == null || primaryKeyField == null) {
+			return null;
+		}
+
+		if (selectableRecordIndex == null) {
+			indexSelectableRecords();
+		} else if (reindexOnMiss && !selectableRecordIndex.containsKey(key)) {
+			indexSelectableRecords();
+		}
+
+		return selectableRecordIndex.get(key);
+	}
+
+	private void indexSelectableRecords() {
+		final List<? extends Record> records = getSelectableRecords();
+		selectableRecordIndex = Maps.newHashMapWithExpectedSize(records.size());
+
+		for (Record selectableRecord : records) {
+			selectableRecordIndex.put(RecordSelection.toKey(selectableRecord.getAttributeAsObject(primaryKeyField)), selectableRecord);
+		}
+	}
+
+	private ListGridRecord newEventRecord(Object key, Record fields) {
+		if (key == null && fields == null) {
+			return null;
+		}
+
+		if (fields == null && !keyOnlyEventRecordLogged) {
+			LOGGER.warn("no record with key " + key + " in the grid, event records only hold their key; see setEventRecordFields");
+			keyOnlyEventRecordLogged = true;
+		}
+
+		final ListGridRecord record = toListGridRecord(fields == null ? new Record() : fields);
+
+		if (key != null && primaryKeyField != null) {
+			record.setAttribute(primaryKeyField, key);
+		}
+
+		return record;
+	}
+
+	private Object getPrimaryKey(Record record) {
+		checkState(primaryKeyField != null, "no primary key field set");
+		return record.getAttributeAsObject(primaryKeyField);
+	}
+
+	/**
+	 * Returns the position of the record with the key, as normalized by {@link RecordSelection#toKey(Object)}. The positions are indexed on the first
+	 * lookup following a change of the data, and kept up to date by the edits.
+	 */
+	private int indexOfData(Object key) {
+		if (dataIndex == null && data != null) {
+			dataIndex = Maps.newHashMapWithExpectedSize(data.size());
+
+			for (int i = 0; i < data.size(); i++) {
+				if (data.get(i) != null) {
+					dataIndex.put(RecordSelection.toKey(data.get(i).getAttributeAsObject(primaryKeyField)), i);
+				}
+			}
+		}
+
+		final Integer index = dataIndex == null ? null : dataIndex.get(key);
+		checkArgument(index != null, "no record with primary key %s", key);
+		return index;
+	}
+
+	private List<Record> compactData() {
+		if (removedRecordCount > 0) {
+			data.removeAll(Collections.singleton(null));
+			removedRecordCount = 0;
+			dataIndex = null;
+		}
+
+		return data;
+	}
+
+	/**
+	 * Backs this grid with a server-side data provider. The grid then fetches its rows page by page: the client only requests the rows it is about to
+	 * draw (see {@link #setDataPageSize(int)} and {@link #setDrawAheadRatio(float)} for the size of the window and its prefetch margin), and the
+	 * server only keeps a fetched page until it has been sent.
+	 *
+	 * @param dataProvider the data provider, or null to stop paging from the server; the client then goes back to showing the grid's own data.
+	 */
+	public void setDataProvider(ListGridDataProvider dataProvider) {
+		this.dataProvider = dataProvider;
+		fetchResponses.clear();
+		cacheInvalidated = false;
 		requestRepaint();
 	}
 
+	public ListGridDataProvider getDataProvider() {
+		return dataProvider;
+	}
+
+	/**
+	 * Drops the rows cached by the client, which fetches the visible rows again from the data provider. Call this when the provider's data has
+	 * changed.
+	 */
+	public void invalidateCache() {
+		if (dataProvider != null) {
+			cacheInvalidated = true;
+			requestPartialRepaint("*invalidateCache");
+		}
+	}
+
 	/**
 	 * Synonym for {@link #setData(ListGridRecord[])}
 	 *
 	 * @param records the records
 	 */
 	public void setRecords(ListGridRecord[] records) {
-		setAttribute("data", records, true);
+		replaceData(records);
 	}
 
 	/**
@@ -7896,15 +8216,51 @@ public class ListGrid extends Canvas implements HasSelectionChangedHandlers, Has
 		return fields.toArray(new ListGridField[0]);
 	}
 
+	/**
+	 * Returns the field with the given name.
+	 *
+	 * @param fieldName the field name.
+	 * @return the field, or null if the grid has no such field.
+	 */
+	public ListGridField getField(String fieldName) {
+		for (ListGridField field : fields) {
+			if (field.getName() != null && field.getName().equals(fieldName)) {
+				return field;
+			}
+		}
+
+		return null;
+	}
+
 	public void setFields(ListGridField... fields) {
 		this.fields.clear();
 		this.fields.addAll(Arrays.asList(fields));
 	}
 
+	/**
+	 * Returns the selected records. When the selection is tracked by primary key (see {@link #setPrimaryKeyField(String)}), the records are looked
+	 * up from the grid's records on the first call following a selection change. A grid backed by a {@link ListGridDataProvider} holds no records on
+	 * the server, so only {@link #getSelectedKeys()} tells its selection.
+	 *
+	 * @return the selected records.
+	 */
 	public ListGridRecord[] getSelectedRecords() {
+		if (selectedRecords == null && recordSelection != null) {
+			selectedRecords = toListGridRecords(recordSelection.getSelectedRecords(getSelectableRecords()));
+		}
+
 		return selectedRecords;
 	}
 
+	/**
+	 * Returns the primary keys of the selected records, when the selection is tracked by primary key. Numeric keys are returned as Doubles.
+	 *
+	 * @return the selected keys.
+	 */
+	public Set<Object> getSelectedKeys() {
+		return recordSelection == null ? Collections.<Object> emptySet() : recordSelection.getKeys();
+	}
+
 	public void selectionChanged(ListGridRecord[] selections) {
 	}
 
@@ -7979,6 +8335,15 @@ public class ListGrid extends Canvas implements HasSelectionChangedHandlers, Has
 			target.addAttribute("*hasRecordDoubleClickHandlers", true);
 		}
 
+		if (eventRecordFields != null) {
+			target.addAttribute("*eventRecordFields", eventRecordFields);
+		}
+
+		if (dataProvider != null) {
+			paintDataProvider(target);
+		}
+
+		paintData(target);
 		super.paintContent(target);
 	}
 
@@ -7986,17 +8351,35 @@ public class ListGrid extends Canvas implements HasSelectionChangedHandlers, Has
 	public void changeVariables(Object source, Map<String, Object> variables) {
 		if (variables.containsKey("selectedRecords")) {
 			try {
-				final JsonRootNode node = new JdomParser().parse((String) variables.get("selectedRecords"));
-				selectedRecords = getListGridRecordFactory().newListGridRecords(node.getArrayNode());
+				selectedRecords = getListGridRecordFactory().newListGridRecords((String) variables.get("selectedRecords"));
+			} catch (Exception e) {
+				Throwables.propagate(e);
+			}
+		}
+
+		if (variables.containsKey("fetchRequest")) {
+			try {
+				final JsonRootNode root = new JdomParser().parse((String) variables.get("fetchRequest"));
+				fetch(root);
 			} catch (Exception e) {
 				Throwables.propagate(e);
 			}
 		}
 
-		if (variables.containsKey("onSelectionChanged.event")) {
+		if (variables.containsKey("selectionDelta")) {
 			try {
-				final JsonRootNode root = new JdomParser().parse((String) variables.get("onSelectionChanged.event"));
-				final SelectionEvent event = getSelectionEventFactory().newSelectionEvent(root);
+				final JsonRootNode root = new JdomParser().parse((String) variables.get("selectionDelta"));
+				getRecordSelection().update(root);
+				selectedRecords = null;
+			} catch (Exception e) {
+				Throwables.propagate(e);
+			}
+		}
+
+		if (variables.containsKey("onSelectionChanged")) {
+			try {
+				final GridEventEnvelope envelope = GridEventEnvelope.parse((String) variables.get("onSelectionChanged"), getRecordFactory());
+				final SelectionEvent event = getSelectionEventFactory().newSelectionEvent(envelope, this);
 
 				for (SelectionChangedHandler handler : selectionChangedHandlers) {
 					handler.onSelectionChanged(event);
@@ -8016,12 +8399,10 @@ public class ListGrid extends Canvas implements HasSelectionChangedHandlers, Has
 
 		if (variables.containsKey("onRecordDoubleClick")) {
 			try {
-				final JsonRootNode root = new JdomParser().parse((String) variables.get("onRecordDoubleClick.event.record"));
-				final Record record = getRecordFactory().newRecord(root);
-				final int recordNum = (Integer) variables.get("onRecordDoubleClick.event.recordNum");
-				final ListGridField field = (ListGridField) variables.get("onRecordDoubleClick.event.field");
-				final int fieldNum = (Integer) variables.get("onRecordDoubleClick.event.fieldNum");
-				final RecordDoubleClickEvent event = new RecordDoubleClickEvent(this, this, record, recordNum, field, fieldNum);
+				final GridEventEnvelope envelope = GridEventEnvelope.parse((String) variables.get("onRecordDoubleClick"), getRecordFactory());
+				final Record record = resolveRecord(envelope.getKey(), envelope.getRecord());
+				final ListGridField field = getField(envelope.getFieldName());
+				final RecordDoubleClickEvent event = new RecordDoubleClickEvent(this, this, record, envelope.getRecordNum(), field, envelope.getFieldNum());
 
 				for (RecordDoubleClickHandler handler : recordDoubleClickHandlers) {
 					handler.onRecordDoubleClick(event);
@@ -8034,6 +8415,129 @@ public class ListGrid extends Canvas implements HasSelectionChangedHandlers, Has
 		super.changeVariables(source, variables);
 	}
 
+	private void paintData(PaintTarget target) throws PaintException {
+		try {
+			if (primaryKeyField != null) {
+				target.addAttribute("*primaryKeyField", primaryKeyField);
+			}
+
+			if (data != null && (dataReplaced || isFullRepaint(target))) {
+				target.addAttribute("data", JSONHelper.getJsonAttributeValue(getRecords()));
+				// the client drops its selection along with the records it replaces
+				clearRecordSelection();
+			} else if (dataReplaced) {
+				// setData(null) clears the records the client still shows
+				target.addAttribute("data", "null");
+			} else if (!dataChanges.isEmpty()) {
+				target.addAttribute("*dataChanges", JSONHelper.getJsonString(dataChanges.toRecords()));
+			}
+		} catch (IOException e) {
+			throw new PaintException(e);
+		}
+
+		dataReplaced = false;
+		dataChanges.clear();
+	}
+
+	private RecordSelection getRecordSelection() {
+		if (recordSelection == null) {
+			checkState(primaryKeyField != null, "no primary key field set");
+			recordSelection = new RecordSelection(primaryKeyField);
+		}
+
+		return recordSelection;
+	}
+
+	private static ListGridRecord[] toListGridRecords(List<Record> records) {
+		final ListGridRecord[] listGridRecords = new ListGridRecord[records.size()];
+
+		for (int i = 0; i < listGridRecords.length; i++) {
+			listGridRecords[i] = toListGridRecord(records.get(i));
+		}
+
+		return listGridRecords;
+	}
+
+	private static ListGridRecord toListGridRecord(Record record) {
+		if (record instanceof ListGridRecord) {
+			return (ListGridRecord) record;
+		}
+
+		final ListGridRecord listGridRecord = new ListGridRecord();
+
+		for (int i = 0; i < record.getAttributeCount(); i++) {
+			listGridRecord.setAttribute(record.getAttributeName(i), record.getAttributeValue(i));
+		}
+
+		return listGridRecord;
+	}
+
+	private void paintDataProvider(PaintTarget target) throws PaintException {
+		target.addAttribute("*dataProvider", true);
+
+		if (cacheInvalidated) {
+			target.addAttribute("*invalidateCache", true);
+			cacheInvalidated = false;
+		}
+
+		if (!fetchResponses.isEmpty()) {
+			try {
+				target.addAttribute("*fetchResponses", JSONHelper.getJsonString(fetchResponses.toArray(new Record[fetchResponses.size()])));
+			} catch (IOException e) {
+				throw new PaintException(e);
+			}
+
+			fetchResponses.clear();
+		}
+	}
+
+	private void fetch(JsonNode request) {
+		if (dataProvider == null) {
+			return;
+		}
+
+		final int startRow = Integer.parseInt(request.getNumberValue("startRow"));
+		final Criteria criteria = newCriteria(request);
+		final SortSpecifier[] sortBy = newSortSpecifiers(request);
+		final int totalRows = dataProvider.getTotalRows(criteria);
+		final int endRow = Math.min(Integer.parseInt(request.getNumberValue("endRow")), totalRows);
+		// written by the page itself when painted
+		final ListGridPage page = startRow < endRow ? dataProvider.getPage(startRow, endRow, sortBy, criteria) : new RecordPage();
+		final Record response = new Record();
+
+		response.setAttribute("requestId", request.getStringValue("requestId"));
+		response.setAttribute("startRow", startRow);
+		response.setAttribute("endRow", startRow + page.size());
+		response.setAttribute("totalRows", totalRows);
+		response.setAttribute("data", page);
+		fetchResponses.add(response);
+		requestPartialRepaint("*fetchResponses");
+	}
+
+	private Criteria newCriteria(JsonNode request) {
+		if (!request.isNode("criteria")) {
+			return null;
+		}
+
+		final Criteria criteria = getRecordFactory().newCriteria(request.getNode("criteria"));
+		return criteria == null || criteria.getAttributeCount() == 0 ? null : criteria;
+	}
+
+	private static SortSpecifier[] newSortSpecifiers(JsonNode request) {
+		if (!request.isArrayNode("sortBy")) {
+			return new SortSpecifier[0];
+		}
+
+		final List<JsonNode> nodes = request.getArrayNode("sortBy");
+		final SortSpecifier[] sortBy = new SortSpecifier[nodes.size()];
+
+		for (int i = 0; i < sortBy.length; i++) {
+			sortBy[i] = SortSpecifier.valueOf(nodes.get(i).getText());
+		}
+
+		return sortBy;
+	}
+
 	protected void fireEvent(com.google.web.bindery.event.shared.Event<?> event) {
 		if (event instanceof RecordDoubleClickEvent) {
 			for (RecordDoubleClickHandler handler : recordDoubleClickHandlers) {
@@ -0,0 +1,33 @@
+package org.vaadin.smartgwt.server.grid;
+
+import org.vaadin.smartgwt.server.data.Criteria;
+import org.vaadin.smartgwt.server.data.SortSpecifier;
+
+/**
+ * Server-side source of rows for a {@link ListGrid} in paged mode. The grid only asks for the rows the client is about to draw, so the full data set
+ * never has to be held by the component nor sent to the browser.
+ * <p/>
+ * {@link org.vaadin.smartgwt.server.data.RecordQueryEngine} provides the rows of records held in server memory;
+ * {@link org.vaadin.smartgwt.server.data.ColumnarRecordStore} holds large read-only data sets column by column.
+ */
+public interface ListGridDataProvider {
+	/**
+	 * Returns the number of rows matching the criteria.
+	 * 
+	 * @param criteria the criteria, or null when the grid is not filtered.
+	 * @return the total number of rows.
+	 */
+	int getTotalRows(Criteria criteria);
+
+	/**
+	 * Returns the rows from startRow (inclusive) to endRow (exclusive) matching the criteria, in the requested order. Providers holding records
+	 * return them as a {@link RecordPage}.
+	 * 
+	 * @param startRow index of the first requested row.
+	 * @param endRow index after the last requested row.
+	 * @param sortBy the sort levels, empty when unsorted.
+	 * @param criteria the criteria, or null when the grid is not filtered.
+	 * @return the rows; may be shorter than requested at the end of the data.
+	 */
+	ListGridPage getPage(int startRow, int endRow, SortSpecifier[] sortBy, Criteria criteria);
+}
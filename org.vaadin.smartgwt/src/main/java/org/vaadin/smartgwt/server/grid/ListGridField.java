@@ -21,6 +21,7 @@ import java.util.Map;
 
 import org.vaadin.smartgwt.client.ui.grid.VListGridField;
 import org.vaadin.smartgwt.server.core.DataClass;
+import org.vaadin.smartgwt.server.core.FrozenPayload;
 import org.vaadin.smartgwt.server.form.fields.FormItem;
 import org.vaadin.smartgwt.server.types.Alignment;
 import org.vaadin.smartgwt.server.types.AutoFitWidthApproach;
@@ -3162,6 +3163,16 @@ public class ListGridField extends DataClass
         setAttribute("valueMap", valueMap);
     }
 
+    /**
+     * Sets a value map serialized once, typically a static map shared by every session. The client decodes the map once per content hash,
+     * however many fields use it.
+     *
+     * @param valueMap the value map, as a frozen JSON array or object.
+     */
+    public void setValueMap(FrozenPayload valueMap) {
+        setAttribute("valueMap", valueMap);
+    }
+
     /**
      * This property is a mapping between data values and URLs of icons to display. If specified, for every cell in this
      * field where the data value matches an entry in the valueIcons map, an icon with the appropriate URL will be
@@ -0,0 +1,24 @@
+package org.vaadin.smartgwt.server.grid;
+
+import org.vaadin.smartgwt.server.data.Record;
+import org.vaadin.smartgwt.server.util.JSONWritable;
+
+/**
+ * Rows fetched from a {@link ListGridDataProvider}. The grid paints the page as a JSON array of records through {@link #writeTo}, so a provider
+ * that does not hold records, such as {@link org.vaadin.smartgwt.server.data.ColumnarRecordStore}, can write its rows without materializing them.
+ */
+public interface ListGridPage extends JSONWritable {
+	/**
+	 * Returns the number of rows of the page.
+	 * 
+	 * @return the number of rows.
+	 */
+	int size();
+
+	/**
+	 * Returns the rows of the page as records.
+	 * 
+	 * @return the records.
+	 */
+	Record[] getRecords();
+}
@@ -1,10 +1,15 @@
 package org.vaadin.smartgwt.server.grid;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.inject.Inject;
 
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
 import org.vaadin.smartgwt.server.data.RecordJSONUpdater;
+import org.vaadin.smartgwt.server.util.JSONHelper;
 
 import argo.jdom.JsonNode;
 
@@ -48,4 +53,60 @@ public class ListGridRecordFactory {
 		}
 		return records;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * builds a new ListGridRecord from the JSON value the parser is positioned on. The parser is left on the value's last token.
+	 * 
+	 * @param parser positioned on a JSON object or null.
+	 * @return a new ListGridRecord built from the JSON attributes, or null if the parser is positioned on null.
+	 * @throws IOException when the JSON could not be read.
+	 */
+	public ListGridRecord newListGridRecord(JsonParser parser) throws IOException {
+		if (parser.getCurrentToken() != JsonToken.VALUE_NULL) {
+			final ListGridRecord record = new ListGridRecord();
+			updater.update(record, parser);
+			return record;
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * builds a new array of ListGridRecords from JSON text, decoding it with a pull parser.
+	 * 
+	 * @param json the source JSON array of objects.
+	 * @return a new array of ListGridRecords built from the JSON attributes.
+	 * @throws IOException when the JSON could not be read.
+	 */
+	public ListGridRecord[] newListGridRecords(String json) throws IOException {
+		final JsonParser parser = JSONHelper.createParser(json);
+
+		try {
+			parser.nextToken();
+			return newListGridRecords(parser);
+		} finally {
+			parser.close();
+		}
+	}
+
+	/**
+	 * builds a new array of ListGridRecords from the JSON array the parser is positioned on. The parser is left on the array's closing token.
+	 * 
+	 * @param parser positioned on the start of a JSON array.
+	 * @return a new array of ListGridRecords built from the JSON attributes.
+	 * @throws IOException when the JSON could not be read.
+	 */
+	public ListGridRecord[] newListGridRecords(JsonParser parser) throws IOException {
+		if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+			throw new IOException("expected a JSON array, found " + parser.getCurrentToken());
+		}
+
+		final List<ListGridRecord> records = new ArrayList<ListGridRecord>();
+
+		while (parser.nextToken() != JsonToken.END_ARRAY) {
+			records.add(newListGridRecord(parser));
+		}
+
+		return records.toArray(new ListGridRecord[records.size()]);
+	}
+}
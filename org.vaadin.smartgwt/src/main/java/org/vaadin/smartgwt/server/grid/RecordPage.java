@@ -0,0 +1,33 @@
+package org.vaadin.smartgwt.server.grid;
+
+import java.io.IOException;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.vaadin.smartgwt.server.data.Record;
+import org.vaadin.smartgwt.server.util.JSONHelper;
+
+/**
+ * {@link ListGridPage} of records, for the providers that hold or build the records of their rows.
+ */
+public class RecordPage implements ListGridPage {
+	private final Record[] records;
+
+	public RecordPage(Record... records) {
+		this.records = records;
+	}
+
+	@Override
+	public int size() {
+		return records.length;
+	}
+
+	@Override
+	public Record[] getRecords() {
+		return records;
+	}
+
+	@Override
+	public void writeTo(JsonGenerator generator) throws IOException {
+		JSONHelper.writeValue(generator, records);
+	}
+}
@@ -0,0 +1,107 @@
+package org.vaadin.smartgwt.server.grid;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.vaadin.smartgwt.server.data.Record;
+
+import argo.jdom.JsonNode;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * Selection of a grid kept as the set of the primary keys of the selected records. The client only reports the keys that were added to or removed
+ * from the selection, and the selected records are looked up from the grid's records when they are asked for.
+ */
+public class RecordSelection implements Serializable {
+	private static final long serialVersionUID = 1L;
+	private final Set<Object> keys = Sets.newHashSet();
+	private final String primaryKeyField;
+
+	public RecordSelection(String primaryKeyField) {
+		this.primaryKeyField = primaryKeyField;
+	}
+
+	/**
+	 * Applies a selection delta sent by the client, of the form <code>{"added": [keys], "removed": [keys]}</code>.
+	 * 
+	 * @param delta the selection delta.
+	 */
+	public void update(JsonNode delta) {
+		if (delta.isArrayNode("removed")) {
+			for (JsonNode key : delta.getArrayNode("removed")) {
+				keys.remove(toKey(key));
+			}
+		}
+
+		if (delta.isArrayNode("added")) {
+			for (JsonNode key : delta.getArrayNode("added")) {
+				keys.add(toKey(key));
+			}
+		}
+	}
+
+	public void deselect(Object key) {
+		keys.remove(toKey(key));
+	}
+
+	public void clear() {
+		keys.clear();
+	}
+
+	public boolean isSelected(Record record) {
+		return keys.contains(toKey(record.getAttributeAsObject(primaryKeyField)));
+	}
+
+	/**
+	 * Returns the keys of the selected records. Numeric keys are returned as Doubles.
+	 * 
+	 * @return the selected keys.
+	 */
+	public Set<Object> getKeys() {
+		return Collections.unmodifiableSet(keys);
+	}
+
+	public int size() {
+		return keys.size();
+	}
+
+	/**
+	 * Returns the selected records among the given records, in their order.
+	 * 
+	 * @param records the records to look the selected records up from.
+	 * @return the selected records.
+	 */
+	public List<Record> getSelectedRecords(Iterable<? extends Record> records) {
+		final List<Record> selectedRecords = Lists.newArrayListWithCapacity(keys.size());
+
+		if (!keys.isEmpty()) {
+			for (Record record : records) {
+				if (isSelected(record)) {
+					selectedRecords.add(record);
+				}
+			}
+		}
+
+		return selectedRecords;
+	}
+
+	private static Object toKey(JsonNode node) {
+		if (node.isNumberValue()) {
+			return Double.valueOf(node.getText());
+		} else {
+			return node.getText();
+		}
+	}
+
+	static Object toKey(Object value) {
+		if (value instanceof Number) {
+			return ((Number) value).doubleValue();
+		} else {
+			return value == null ? null : value.toString();
+		}
+	}
+}
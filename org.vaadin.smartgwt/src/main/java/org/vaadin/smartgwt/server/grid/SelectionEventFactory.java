@@ -1,10 +1,15 @@
 package org.vaadin.smartgwt.server.grid;
 
+import java.io.IOException;
+
 import javax.inject.Inject;
 
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
 import org.vaadin.smartgwt.server.data.Record;
 import org.vaadin.smartgwt.server.data.RecordFactory;
 import org.vaadin.smartgwt.server.grid.events.SelectionEvent;
+import org.vaadin.smartgwt.server.util.JSONHelper;
 
 import argo.jdom.JsonNode;
 
@@ -34,4 +39,60 @@ public class SelectionEventFactory {
 		final ListGridRecord selectedRecord = listGridRecordFactory.newListGridRecord(node.getNode("selectedRecord"));
 		return new SelectionEvent(record, state, selection, selectedRecord);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * builds a new SelectionEvent from an event envelope, looking the records it refers to up in the grid.
+	 * 
+	 * @param envelope containing the SelectionEvent information.
+	 * @param grid the grid the event was fired by.
+	 * @return a new SelectionEvent built from the envelope.
+	 */
+	public SelectionEvent newSelectionEvent(GridEventEnvelope envelope, ListGrid grid) {
+		final ListGridRecord record = grid.resolveRecord(envelope.getKey(), envelope.getRecord());
+		final ListGridRecord[] selection = grid.resolveRecords(envelope.getSelectionKeys(), envelope.getSelectionRecords());
+		final ListGridRecord selectedRecord = grid.resolveRecord(envelope.getSelectedKey(), envelope.getSelectedRecord());
+		return new SelectionEvent(record, envelope.getState(), selection, selectedRecord);
+	}
+
+	/**
+	 * builds a new SelectionEvent from JSON text, decoding it with a pull parser. Fields may come in any order and unknown fields are skipped.
+	 * 
+	 * @param json containing the SelectionEvent information.
+	 * @return a new SelectionEvent built from the JSON attributes.
+	 * @throws IOException when the JSON could not be read.
+	 */
+	public SelectionEvent newSelectionEvent(String json) throws IOException {
+		final JsonParser parser = JSONHelper.createParser(json);
+		Record record = null;
+		boolean state = false;
+		ListGridRecord[] selection = null;
+		ListGridRecord selectedRecord = null;
+
+		try {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new IOException("expected a JSON object, found " + parser.getCurrentToken());
+			}
+
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				final String name = parser.getCurrentName();
+				parser.nextToken();
+
+				if ("record".equals(name)) {
+					record = recordFactory.newRecord(parser);
+				} else if ("state".equals(name)) {
+					state = parser.getBooleanValue();
+				} else if ("selection".equals(name)) {
+					selection = listGridRecordFactory.newListGridRecords(parser);
+				} else if ("selectedRecord".equals(name)) {
+					selectedRecord = listGridRecordFactory.newListGridRecord(parser);
+				} else {
+					parser.skipChildren();
+				}
+			}
+		} finally {
+			parser.close();
+		}
+
+		return new SelectionEvent(record, state, selection, selectedRecord);
+	}
+}
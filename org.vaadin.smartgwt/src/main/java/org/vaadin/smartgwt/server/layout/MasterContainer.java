@@ -2,15 +2,18 @@ package org.vaadin.smartgwt.server.layout;
 
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.Map;
 
 import org.vaadin.smartgwt.server.BaseWidget;
 import org.vaadin.smartgwt.server.Canvas;
+import org.vaadin.smartgwt.server.RepaintPolicy;
 import org.vaadin.smartgwt.server.Window;
 import org.vaadin.smartgwt.server.core.ComponentList;
 import org.vaadin.smartgwt.server.core.ComponentPropertyPainter;
 import org.vaadin.smartgwt.server.core.ComponentReference;
 import org.vaadin.smartgwt.server.core.RegistrationEntry;
 import org.vaadin.smartgwt.server.data.DataSource;
+import org.vaadin.smartgwt.server.extra.RefreshPoller;
 import org.vaadin.smartgwt.server.util.SC;
 
 import com.vaadin.terminal.PaintException;
@@ -30,6 +33,8 @@ public class MasterContainer extends BaseWidget implements ComponentContainer {
 	private final ComponentList<DataSource> dataSources = paintablePropertyPainter.addComponentList("dataSources");
 	private final ComponentReference<Canvas> pane = paintablePropertyPainter.addProperty("pane");
 	private final ComponentList<Window> window = paintablePropertyPainter.addComponentList("window");
+	private final RefreshPoller refreshPoller = new RefreshPoller();
+	private final RepaintPolicy repaintPolicy = new RepaintPolicy();
 
 	public MasterContainer() {
 		sc.set(new SC());
@@ -57,6 +62,22 @@ public class MasterContainer extends BaseWidget implements ComponentContainer {
 		nonUIComponents.remove(component);
 	}
 
+	/**
+	 * Repaint policy of the application holding this container.
+	 * 
+	 * @return the repaint policy.
+	 */
+	public RepaintPolicy getRepaintPolicy() {
+		return repaintPolicy;
+	}
+
+	/**
+	 * Repaints the interval of the shared poller, after an adaptive refresher changed.
+	 */
+	public void requestPollIntervalRepaint() {
+		requestPartialRepaint("*pollInterval");
+	}
+
 	public void addDataSource(DataSource dataSource) {
 		if (!dataSources.contains(dataSource)) {
 			dataSources.add(dataSource);
@@ -96,9 +117,26 @@ public class MasterContainer extends BaseWidget implements ComponentContainer {
 	@Override
 	public void paintContent(PaintTarget target) throws PaintException {
 		paintablePropertyPainter.paintContent(target);
+		final int pollInterval = refreshPoller.getInterval(nonUIComponents);
+
+		if (pollInterval > 0) {
+			target.addAttribute("*pollInterval", pollInterval);
+		}
+
 		super.paintContent(target);
 	}
 
+	@Override
+	public void changeVariables(Object source, Map<String, Object> variables) {
+		if (variables.containsKey("poll")) {
+			refreshPoller.poll(nonUIComponents);
+			// the client schedules the next poll when it receives the interval
+			requestPartialRepaint("*pollInterval");
+		}
+
+		super.changeVariables(source, variables);
+	}
+
 	@Override
 	public void addComponent(Component c) {
 
@@ -0,0 +1,148 @@
+package org.vaadin.smartgwt.server.tree;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.io.SegmentedStringWriter;
+import org.vaadin.smartgwt.server.util.JSONHelper;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Encodes the nodes of a {@link Tree} in modelType "parent" as flat columns instead of nested children:
+ * <p/>
+ * <code>{"ids": [...], "parentIds": [...], "folders": [1, 0, ...], "columns": {"name": [...], ...}}</code>
+ * <p/>
+ * Nodes are listed depth first, the n-th entry of every array describing the n-th node, and a column holds null for nodes that do not have the
+ * attribute. Nested children are walked with an explicit stack, so the encoding is linear in the number of nodes whatever the depth of the tree.
+ * Nodes without an id are given a generated one, for the encoding only, so that their children can refer to them. Ids are written with their JSON
+ * type, so that numeric ids come back from the client as numbers.
+ */
+public class FlatTreeEncoder {
+	// compared by identity, so that it can not be mistaken for a node id
+	private static final Object NO_PARENT = new Object();
+
+	private final String idField;
+	private final String parentIdField;
+	private final String isFolderProperty;
+	private final String childrenProperty;
+
+	public FlatTreeEncoder(String idField, String parentIdField, String isFolderProperty, String childrenProperty) {
+		this.idField = idField;
+		this.parentIdField = parentIdField;
+		this.isFolderProperty = isFolderProperty;
+		this.childrenProperty = childrenProperty;
+	}
+
+	/**
+	 * Encodes the nodes and their nested children.
+	 *
+	 * @param roots the top-level nodes.
+	 * @return the JSON encoding.
+	 * @throws IOException when the nodes could not be serialized.
+	 */
+	public String encode(TreeNode[] roots) throws IOException {
+		final List<TreeNode> nodes = Lists.newArrayList();
+		final List<Object> ids = Lists.newArrayList();
+		final List<Object> parentIds = Lists.newArrayList();
+		final Map<String, Boolean> columns = Maps.newLinkedHashMap();
+		final Deque<TreeNode> stack = new ArrayDeque<TreeNode>();
+		final Deque<Object> stackParentIds = new ArrayDeque<Object>();
+		pushAll(stack, stackParentIds, roots, NO_PARENT);
+
+		while (!stack.isEmpty()) {
+			final TreeNode node = stack.pop();
+			final Object stackParentId = stackParentIds.pop();
+			final Object parentId = stackParentId == NO_PARENT ? node.getAttributeAsObject(parentIdField) : stackParentId;
+			Object id = node.getAttributeAsObject(idField);
+
+			if (id == null) {
+				id = "_" + nodes.size();
+			}
+
+			nodes.add(node);
+			ids.add(id);
+			parentIds.add(parentId);
+
+			for (int i = 0; i < node.getAttributeCount(); i++) {
+				final String name = node.getAttributeName(i);
+
+				if (!isStructural(name)) {
+					columns.put(name, Boolean.TRUE);
+				}
+			}
+
+			final Object children = node.getAttributeAsObject(childrenProperty);
+
+			if (children instanceof TreeNode[]) {
+				pushAll(stack, stackParentIds, (TreeNode[]) children, id);
+			}
+		}
+
+		final SegmentedStringWriter writer = JSONHelper.createStringWriter();
+		final JsonGenerator generator = JSONHelper.createGenerator(writer);
+		generator.writeStartObject();
+		writeValues(generator, "ids", ids);
+		writeValues(generator, "parentIds", parentIds);
+		generator.writeArrayFieldStart("folders");
+
+		for (TreeNode node : nodes) {
+			generator.writeNumber(isFolder(node) ? 1 : 0);
+		}
+
+		generator.writeEndArray();
+		generator.writeObjectFieldStart("columns");
+
+		for (String name : columns.keySet()) {
+			generator.writeArrayFieldStart(name);
+
+			for (TreeNode node : nodes) {
+				JSONHelper.writeValue(generator, node.getAttributeAsObject(name));
+			}
+
+			generator.writeEndArray();
+		}
+
+		generator.writeEndObject();
+		generator.writeEndObject();
+		generator.flush();
+		return writer.getAndClear();
+	}
+
+	private boolean isStructural(String name) {
+		return name.equals(idField) || name.equals(parentIdField) || name.equals(isFolderProperty) || name.equals(childrenProperty);
+	}
+
+	private boolean isFolder(TreeNode node) {
+		final Object isFolder = node.getAttributeAsObject(isFolderProperty);
+
+		if (isFolder instanceof Boolean) {
+			return (Boolean) isFolder;
+		}
+
+		final Object children = node.getAttributeAsObject(childrenProperty);
+		return children instanceof TreeNode[] && ((TreeNode[]) children).length > 0;
+	}
+
+	private static void pushAll(Deque<TreeNode> stack, Deque<Object> stackParentIds, TreeNode[] nodes, Object parentId) {
+		for (int i = nodes.length - 1; i >= 0; i--) {
+			stack.push(nodes[i]);
+			stackParentIds.push(parentId);
+		}
+	}
+
+	private static void writeValues(JsonGenerator generator, String name, List<Object> values) throws IOException {
+		generator.writeArrayFieldStart(name);
+
+		for (Object value : values) {
+			JSONHelper.writeValue(generator, value);
+		}
+
+		generator.writeEndArray();
+	}
+}
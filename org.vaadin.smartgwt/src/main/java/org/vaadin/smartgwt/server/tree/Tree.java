@@ -1,10 +1,20 @@
 package org.vaadin.smartgwt.server.tree;
 
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
 import org.vaadin.smartgwt.client.ui.tree.VTree;
 import org.vaadin.smartgwt.server.core.BaseClass;
+import org.vaadin.smartgwt.server.data.Record;
 import org.vaadin.smartgwt.server.types.TreeModelType;
 import org.vaadin.smartgwt.server.util.EnumUtil;
 
+import com.google.common.collect.Lists;
+import com.vaadin.terminal.PaintException;
+import com.vaadin.terminal.PaintTarget;
+
 /*
  * Smart GWT (GWT for SmartClient)
  * Copyright 2008 and beyond, Isomorphic Software, Inc.
@@ -484,6 +494,15 @@ public class Tree extends BaseClass  {
         setAttribute("root", root, true);
     }
 
+    /**
+     * The root node of the tree.
+     *
+     * @return the root node, or null if none was set
+     */
+    public TreeNode getRoot()  {
+        return (TreeNode) getAttributeAsObject("root");
+    }
+
     /**
      * Should folders be sorted separately from leaves or should nodes be ordered according to their sort field value
      * regardless of whether the node is a leaf or folder?
@@ -613,7 +632,68 @@ public class Tree extends BaseClass  {
     public void setData(TreeNode[] nodes) {
         setAttribute("data", nodes, false);
     }
-}
 
+    /**
+     * The nodes set via {@link #setData(TreeNode[])}.
+     *
+     * @return the nodes, or null if none were set
+     */
+    public TreeNode[] getData()  {
+        return (TreeNode[]) getAttributeAsObject("data");
+    }
 
+    /**
+     * Returns every node of the tree: the root and its descendants, followed by the nodes set as data and their children.
+     *
+     * @return the nodes, depth first
+     */
+    public List<TreeNode> getAllNodes() {
+        final List<TreeNode> nodes = Lists.newArrayList();
+        final Deque<TreeNode> stack = new ArrayDeque<TreeNode>();
 
+        if (getData() != null) {
+            pushAll(stack, getData());
+        }
+
+        if (getRoot() != null) {
+            stack.push(getRoot());
+        }
+
+        while (!stack.isEmpty()) {
+            final TreeNode node = stack.pop();
+            nodes.add(node);
+
+            if (node.getChildren() != null) {
+                pushAll(stack, node.getChildren());
+            }
+        }
+
+        return nodes;
+    }
+
+    /**
+     * In modelType "parent", the data is painted as flat id, parent id and attribute columns (see {@link FlatTreeEncoder}) and linked again on the
+     * client, instead of as nested JSON. Nested children set with {@link TreeNode#setChildren(TreeNode[])} are flattened as well.
+     */
+    @Override
+    protected void paintRecords(PaintTarget target, String name, Record[] records) throws PaintException, IOException {
+        if ("data".equals(name) && records instanceof TreeNode[] && getModelType() == TreeModelType.PARENT) {
+            final FlatTreeEncoder encoder = new FlatTreeEncoder(getAttributeOrDefault("idField", "id"), getAttributeOrDefault("parentIdField",
+                    "parentId"), getAttributeOrDefault("isFolderProperty", "isFolder"), getAttributeOrDefault("childrenProperty", "children"));
+            target.addAttribute("*flatData", encoder.encode((TreeNode[]) records));
+        } else {
+            super.paintRecords(target, name, records);
+        }
+    }
+
+    private String getAttributeOrDefault(String name, String defaultValue) {
+        final String value = getAttributeAsString(name);
+        return value == null ? defaultValue : value;
+    }
+
+    private static void pushAll(Deque<TreeNode> stack, TreeNode[] nodes) {
+        for (int i = nodes.length - 1; i >= 0; i--) {
+            stack.push(nodes[i]);
+        }
+    }
+}
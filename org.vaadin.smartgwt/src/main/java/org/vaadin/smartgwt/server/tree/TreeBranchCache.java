@@ -0,0 +1,107 @@
+package org.vaadin.smartgwt.server.tree;
+
+import static com.google.common.base.Preconditions.*;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Least recently used cache of the branches a {@link TreeDataProvider} has loaded, keyed by parent id. The cache is bounded by the total number of
+ * cached nodes rather than by the number of branches, so that a few very wide folders can not hold on to an unbounded amount of memory. A branch
+ * that is larger than the whole cache is not kept.
+ */
+public class TreeBranchCache implements Serializable {
+	private final Map<String, TreeNode[]> branches = new LinkedHashMap<String, TreeNode[]>(16, 0.75f, true);
+	private int maxNodes;
+	private int nodeCount;
+
+	/**
+	 * @param maxNodes the maximum number of nodes kept across all cached branches.
+	 */
+	public TreeBranchCache(int maxNodes) {
+		checkArgument(maxNodes >= 0, "maxNodes must not be negative");
+		this.maxNodes = maxNodes;
+	}
+
+	/**
+	 * Returns the children cached for the parent, marking the branch as recently used.
+	 * 
+	 * @param parentId the parent id, or null for the top-level nodes.
+	 * @return the children, or null when the branch is not cached.
+	 */
+	public TreeNode[] get(String parentId) {
+		return branches.get(parentId);
+	}
+
+	public void put(String parentId, TreeNode[] children) {
+		remove(parentId);
+
+		if (children.length <= maxNodes) {
+			branches.put(parentId, children);
+			nodeCount += children.length;
+			evict();
+		}
+	}
+
+	public void remove(String parentId) {
+		final TreeNode[] removed = branches.remove(parentId);
+
+		if (removed != null) {
+			nodeCount -= removed.length;
+		}
+	}
+
+	public void clear() {
+		branches.clear();
+		nodeCount = 0;
+	}
+
+	/**
+	 * Returns the nodes of all cached branches, without changing their recency.
+	 * 
+	 * @return the cached nodes.
+	 */
+	public List<TreeNode> getNodes() {
+		final List<TreeNode> nodes = Lists.newArrayListWithCapacity(nodeCount);
+
+		for (TreeNode[] children : branches.values()) {
+			Collections.addAll(nodes, children);
+		}
+
+		return nodes;
+	}
+
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	public int getMaxNodes() {
+		return maxNodes;
+	}
+
+	/**
+	 * Changes the maximum number of cached nodes, evicting the least recently used branches that no longer fit.
+	 * 
+	 * @param maxNodes the maximum number of nodes kept across all cached branches.
+	 */
+	public void setMaxNodes(int maxNodes) {
+		checkArgument(maxNodes >= 0, "maxNodes must not be negative");
+		this.maxNodes = maxNodes;
+		evict();
+	}
+
+	private void evict() {
+		final Iterator<TreeNode[]> iterator = branches.values().iterator();
+
+		while (nodeCount > maxNodes && iterator.hasNext()) {
+			nodeCount -= iterator.next().length;
+			iterator.remove();
+		}
+	}
+}
@@ -0,0 +1,16 @@
+package org.vaadin.smartgwt.server.tree;
+
+/**
+ * Server-side source of nodes for a {@link TreeGrid} loading its data on demand. The grid only asks for the children of the folders the user opens,
+ * so the hierarchy never has to be materialized as nested {@link TreeNode}s nor sent to the browser in one paint.
+ */
+public interface TreeDataProvider {
+	/**
+	 * Returns the children of a node. Each child must carry its id in the grid's id field, and children that can be opened must be marked with
+	 * {@link TreeNode#setIsFolder(boolean)}. Children are returned without their own children; those are asked for when the child is opened.
+	 * 
+	 * @param parentId the id of the opened node, or null for the top-level nodes.
+	 * @return the children, empty when the node has none.
+	 */
+	TreeNode[] getChildren(String parentId);
+}
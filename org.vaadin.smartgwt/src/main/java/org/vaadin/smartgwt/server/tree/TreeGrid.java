@@ -1,13 +1,28 @@
 package org.vaadin.smartgwt.server.tree;
 
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
 import org.vaadin.smartgwt.client.ui.tree.VTreeGrid;
 import org.vaadin.smartgwt.server.core.ComponentReference;
+import org.vaadin.smartgwt.server.data.Record;
 import org.vaadin.smartgwt.server.grid.ListGrid;
 import org.vaadin.smartgwt.server.types.AnimationAcceleration;
 import org.vaadin.smartgwt.server.types.DisplayNodeType;
 import org.vaadin.smartgwt.server.types.FetchMode;
 import org.vaadin.smartgwt.server.types.TextMatchStyle;
 import org.vaadin.smartgwt.server.util.EnumUtil;
+import org.vaadin.smartgwt.server.util.JSONHelper;
+
+import argo.jdom.JdomParser;
+import argo.jdom.JsonNode;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import com.vaadin.terminal.PaintException;
+import com.vaadin.terminal.PaintTarget;
 
 /*
  * Smart GWT (GWT for SmartClient)
@@ -49,6 +64,10 @@ import org.vaadin.smartgwt.server.util.EnumUtil;
 public class TreeGrid extends ListGrid {  
 
 	private ComponentReference<Tree> data = propertyPainter.addProperty("data");
+    private final List<Record> childrenResponses = Lists.newArrayList();
+    private TreeDataProvider treeDataProvider;
+    private final TreeBranchCache branchCache = new TreeBranchCache(10000);
+    private boolean treeCacheInvalidated;
 
     public TreeGrid(){
         setAnimateFolderSpeed(3000);setAlternateRecordStyles(false);
@@ -635,6 +654,144 @@ public class TreeGrid extends ListGrid {
      */
     public void setData(Tree data) {
     	this.data.set(data);
+    	invalidateSelectableRecords();
+    }
+
+    /**
+     * The {@link Tree} displayed by this TreeGrid.
+     *
+     * @return the tree, or null if none was set
+     */
+    public Tree getData() {
+        return data.get();
+    }
+
+    @Override
+    protected List<? extends Record> getSelectableRecords() {
+        if (treeDataProvider != null) {
+            return branchCache.getNodes();
+        }
+
+        return data.get() == null ? Collections.<Record> emptyList() : data.get().getAllNodes();
+    }
+
+    /**
+     * Backs this grid with a server-side tree data provider. The client then loads the children of a folder when it is opened and drops them when it
+     * is closed, so only the expanded frontier of the tree is ever painted. Nodes are identified by {@link TreeNode#setID(String)}. Loaded branches
+     * are kept in a {@link TreeBranchCache}, so reopening a folder does not go back to the provider until its branch has been evicted.
+     * <p/>
+     * When selecting by primary key, {@link #getSelectedRecords()} only returns the selected nodes that are still cached; {@link #getSelectedKeys()}
+     * is always complete.
+     *
+     * @param treeDataProvider the data provider, or null to stop loading children from the server.
+     */
+    public void setTreeDataProvider(TreeDataProvider treeDataProvider) {
+        this.treeDataProvider = treeDataProvider;
+        branchCache.clear();
+        invalidateSelectableRecords();
+        childrenResponses.clear();
+        requestRepaint();
+    }
+
+    public TreeDataProvider getTreeDataProvider() {
+        return treeDataProvider;
+    }
+
+    /**
+     * Sets the maximum number of nodes kept in the branch cache. The least recently opened branches are evicted first.
+     *
+     * @param maxNodes the maximum number of cached nodes. Default value is 10000
+     */
+    public void setBranchCacheSize(int maxNodes) {
+        branchCache.setMaxNodes(maxNodes);
+    }
+
+    public int getBranchCacheSize() {
+        return branchCache.getMaxNodes();
+    }
+
+    /**
+     * When backed by a tree data provider, drops the cached branches on both sides and reloads the top-level nodes from the provider. Call this when
+     * the provider's data has changed.
+     */
+    @Override
+    public void invalidateCache() {
+        if (treeDataProvider != null) {
+            branchCache.clear();
+            invalidateSelectableRecords();
+            treeCacheInvalidated = true;
+            requestPartialRepaint("*invalidateCache");
+        } else {
+            super.invalidateCache();
+        }
+    }
+
+    @Override
+    public void paintContent(PaintTarget target) throws PaintException {
+        if (treeDataProvider != null) {
+            paintTreeDataProvider(target);
+        }
+
+        super.paintContent(target);
+    }
+
+    @Override
+    public void changeVariables(Object source, Map<String, Object> variables) {
+        if (variables.containsKey("childrenRequest")) {
+            try {
+                fetchChildren(new JdomParser().parse((String) variables.get("childrenRequest")));
+            } catch (Exception e) {
+                Throwables.propagate(e);
+            }
+        }
+
+        super.changeVariables(source, variables);
+    }
+
+    private void paintTreeDataProvider(PaintTarget target) throws PaintException {
+        target.addAttribute("*treeDataProvider", true);
+
+        if (treeCacheInvalidated) {
+            target.addAttribute("*invalidateCache", true);
+            treeCacheInvalidated = false;
+        }
+
+        if (!childrenResponses.isEmpty()) {
+            try {
+                target.addAttribute("*childrenResponses", JSONHelper.getJsonString(childrenResponses.toArray(new Record[childrenResponses.size()])));
+            } catch (IOException e) {
+                throw new PaintException(e);
+            }
+
+            childrenResponses.clear();
+        }
+    }
+
+    private void fetchChildren(JsonNode request) {
+        if (treeDataProvider == null) {
+            return;
+        }
+
+        final String parentId = request.isStringValue("parentId") ? request.getStringValue("parentId") : null;
+        TreeNode[] children = branchCache.get(parentId);
+
+        if (children == null) {
+            children = treeDataProvider.getChildren(parentId);
+            branchCache.put(parentId, children);
+            invalidateSelectableRecords();
+        }
+
+        // the client links the children to the parent itself, so the provider's nodes are painted as they are
+        final Record response = new Record();
+        response.setAttribute("requestId", request.getStringValue("requestId"));
+
+        if (parentId != null) {
+            response.setAttribute("parentId", parentId);
+        }
+
+        response.setAttribute("data", children);
+        childrenResponses.add(response);
+        requestPartialRepaint("*childrenResponses");
     }
 
     /**
@@ -391,7 +391,14 @@ public class TreeNode extends ListGridRecord {
         setAttribute("children", children);
     }
 
-    //TODO getChildren
+    /**
+     * For trees with the modelType "children", this property specifies the children of this TreeNode.
+     *
+     * @return the children, or null if none were set
+     */
+    public TreeNode[] getChildren() {
+        return (TreeNode[]) getAttributeAsObject("children");
+    }
 
 }
 
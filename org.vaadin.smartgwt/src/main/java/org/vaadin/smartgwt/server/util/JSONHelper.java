@@ -1,56 +1,200 @@
 package org.vaadin.smartgwt.server.util;
 
-import java.util.Arrays;
-import java.util.Iterator;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
 import java.util.Map;
 
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.io.SegmentedStringWriter;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.codehaus.jackson.map.SerializationConfig;
+import org.vaadin.smartgwt.server.core.DataObject;
 import org.vaadin.smartgwt.server.data.Record;
 
-import com.google.common.collect.Maps;
-
+/**
+ * Serializes records to JSON. Records are streamed straight from their attributes into a single shared generator factory, so no intermediate maps or
+ * per-record strings are built. Values that are not records or primitive wrappers are delegated to a shared {@link ObjectMapper}.
+ */
 public class JSONHelper {
-	public static String getJsonString(Record[] records) throws Exception {
-		ObjectMapper objectMapper = new ObjectMapper();
-		objectMapper.configure(SerializationConfig.Feature.WRITE_DATES_AS_TIMESTAMPS, false);
+	private static final ObjectMapper OBJECT_MAPPER = newObjectMapper();
+	private static final JsonFactory JSON_FACTORY = OBJECT_MAPPER.getJsonFactory();
 
-		StringBuffer buffer = new StringBuffer();
+	public static String getJsonString(Record[] records) throws IOException {
+		final SegmentedStringWriter writer = new SegmentedStringWriter(JSON_FACTORY._getBufferRecycler());
+		writeRecords(writer, records);
+		return writer.getAndClear();
+	}
 
-		buffer.append('[');
+	/**
+	 * Returns the records as a 'j' prefixed attribute value, as expected by the client-side painter.
+	 *
+	 * @param records the records to serialize.
+	 * @return the paintable attribute value.
+	 * @throws IOException when the records could not be serialized.
+	 */
+	public static String getJsonAttributeValue(Record[] records) throws IOException {
+		final SegmentedStringWriter writer = new SegmentedStringWriter(JSON_FACTORY._getBufferRecycler());
+		writer.write('j');
+		writeRecords(writer, records);
+		return writer.getAndClear();
+	}
 
-		for (Iterator<Record> iterator = Arrays.asList(records).iterator(); iterator.hasNext();) {
-			buffer.append(objectMapper.writeValueAsString(toMap(iterator.next())));
+	/**
+	 * Returns the record as a 'j' prefixed attribute value, as expected by the client-side painter.
+	 *
+	 * @param record the record to serialize.
+	 * @return the paintable attribute value.
+	 * @throws IOException when the record could not be serialized.
+	 */
+	public static String getJsonAttributeValue(Record record) throws IOException {
+		final SegmentedStringWriter writer = new SegmentedStringWriter(JSON_FACTORY._getBufferRecycler());
+		writer.write('j');
+		final JsonGenerator generator = JSON_FACTORY.createJsonGenerator(writer);
+		writeRecord(generator, record);
+		generator.flush();
+		return writer.getAndClear();
+	}
 
-			if (iterator.hasNext()) {
-				buffer.append(',');
-			}
+	/**
+	 * Returns the map as a 'j' prefixed attribute value, as expected by the client-side painter.
+	 *
+	 * @param map the map to serialize.
+	 * @return the paintable attribute value.
+	 * @throws IOException when the map could not be serialized.
+	 */
+	public static String getJsonAttributeValue(Map<?, ?> map) throws IOException {
+		final SegmentedStringWriter writer = new SegmentedStringWriter(JSON_FACTORY._getBufferRecycler());
+		writer.write('j');
+		final JsonGenerator generator = JSON_FACTORY.createJsonGenerator(writer);
+		writeValue(generator, map);
+		generator.flush();
+		return writer.getAndClear();
+	}
+
+	/**
+	 * Returns a pull parser over the JSON text, sharing the generator factory's buffers and field name symbol tables.
+	 *
+	 * @param json the JSON text.
+	 * @return the parser, positioned before the first token.
+	 * @throws IOException when the parser could not be created.
+	 */
+	public static JsonParser createParser(String json) throws IOException {
+		return JSON_FACTORY.createJsonParser(json);
+	}
+
+	/**
+	 * Returns a generator writing to the writer, created by the shared generator factory. The caller must flush the generator.
+	 *
+	 * @param writer the destination writer.
+	 * @return the generator.
+	 * @throws IOException when the generator could not be created.
+	 */
+	public static JsonGenerator createGenerator(Writer writer) throws IOException {
+		return JSON_FACTORY.createJsonGenerator(writer);
+	}
+
+	/**
+	 * Returns a writer buffering into the shared generator factory's recycled segments, to be read with {@link SegmentedStringWriter#getAndClear()}.
+	 *
+	 * @return the writer.
+	 */
+	public static SegmentedStringWriter createStringWriter() {
+		return new SegmentedStringWriter(JSON_FACTORY._getBufferRecycler());
+	}
+
+	/**
+	 * Writes the records as a JSON array to the writer.
+	 *
+	 * @param writer the destination writer.
+	 * @param records the records to serialize.
+	 * @throws IOException when the records could not be written.
+	 */
+	public static void writeRecords(Writer writer, Record[] records) throws IOException {
+		final JsonGenerator generator = JSON_FACTORY.createJsonGenerator(writer);
+		writeRecords(generator, records);
+		generator.flush();
+	}
+
+	private static void writeRecords(JsonGenerator generator, Record[] records) throws IOException {
+		generator.writeStartArray();
+
+		for (Record record : records) {
+			writeRecord(generator, record);
 		}
 
-		buffer.append(']');
+		generator.writeEndArray();
+	}
+
+	private static void writeRecord(JsonGenerator generator, DataObject record) throws IOException {
+		generator.writeStartObject();
+
+		for (int i = 0; i < record.getAttributeCount(); i++) {
+			generator.writeFieldName(record.getAttributeName(i));
+			writeValue(generator, record.getAttributeValue(i));
+		}
 
-		return buffer.toString();
+		generator.writeEndObject();
 	}
 
-	private static Map toMap(Record record) throws Exception {
-		final Map<Object, Object> mapped = Maps.newHashMap();
-		for (String name : record.getAttributes()) {
-			Object value = record.getAttributeAsObject(name);
+	/**
+	 * Writes a single attribute value, streaming records, maps, collections and primitive wrappers and delegating other values to the shared object
+	 * mapper.
+	 *
+	 * @param generator the destination generator.
+	 * @param value the value, may be null.
+	 * @throws IOException when the value could not be written.
+	 */
+	public static void writeValue(JsonGenerator generator, Object value) throws IOException {
+		if (value == null) {
+			generator.writeNull();
+		} else if (value instanceof String) {
+			generator.writeString((String) value);
+		} else if (value instanceof Integer) {
+			generator.writeNumber(((Integer) value).intValue());
+		} else if (value instanceof Long) {
+			generator.writeNumber(((Long) value).longValue());
+		} else if (value instanceof Double) {
+			generator.writeNumber(((Double) value).doubleValue());
+		} else if (value instanceof Float) {
+			generator.writeNumber(((Float) value).floatValue());
+		} else if (value instanceof Boolean) {
+			generator.writeBoolean(((Boolean) value).booleanValue());
+		} else if (value instanceof Record) {
+			writeRecord(generator, (Record) value);
+		} else if (value instanceof Record[]) {
+			writeRecords(generator, (Record[]) value);
+		} else if (value instanceof JSONWritable) {
+			((JSONWritable) value).writeTo(generator);
+		} else if (value instanceof DataObject) {
+			writeRecord(generator, (DataObject) value);
+		} else if (value instanceof Map) {
+			generator.writeStartObject();
 
-			if (value instanceof Record) {
-				mapped.put(name, toMap((Record) value));
-			} else if (value instanceof Record[]) {
-				Record[] arr = (Record[]) value;
-				Map[] maps = new Map[arr.length];
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				generator.writeFieldName(String.valueOf(entry.getKey()));
+				writeValue(generator, entry.getValue());
+			}
+
+			generator.writeEndObject();
+		} else if (value instanceof Collection) {
+			generator.writeStartArray();
 
-				for (int i = 0; i < arr.length; i++) {
-					maps[i] = toMap(arr[i]);
-				}
-				mapped.put(name, maps);
-			} else {
-				mapped.put(name, value);
+			for (Object element : (Collection<?>) value) {
+				writeValue(generator, element);
 			}
+
+			generator.writeEndArray();
+		} else {
+			generator.writeObject(value);
 		}
-		return mapped;
 	}
-}
\ No newline at end of file
+
+	private static ObjectMapper newObjectMapper() {
+		final ObjectMapper objectMapper = new ObjectMapper();
+		objectMapper.configure(SerializationConfig.Feature.WRITE_DATES_AS_TIMESTAMPS, false);
+		return objectMapper;
+	}
+}
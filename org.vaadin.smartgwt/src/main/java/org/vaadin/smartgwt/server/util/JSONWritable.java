@@ -0,0 +1,19 @@
+package org.vaadin.smartgwt.server.util;
+
+import java.io.IOException;
+
+import org.codehaus.jackson.JsonGenerator;
+
+/**
+ * Value that writes its own JSON, such as pre-serialized or column-stored data. {@link JSONHelper#writeValue(JsonGenerator, Object)} delegates to
+ * it, so such values can be set as record attributes and are written without being converted to records first.
+ */
+public interface JSONWritable {
+	/**
+	 * Writes the value.
+	 *
+	 * @param generator the destination generator.
+	 * @throws IOException when the value could not be written.
+	 */
+	void writeTo(JsonGenerator generator) throws IOException;
+}
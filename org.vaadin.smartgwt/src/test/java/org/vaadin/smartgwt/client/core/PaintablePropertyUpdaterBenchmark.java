@@ -0,0 +1,117 @@
+package org.vaadin.smartgwt.client.core;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import com.google.gwt.benchmarks.client.Benchmark;
+import com.google.gwt.benchmarks.client.IntRange;
+import com.google.gwt.benchmarks.client.Operator;
+import com.google.gwt.benchmarks.client.RangeField;
+import com.google.gwt.benchmarks.client.Setup;
+import com.vaadin.terminal.gwt.client.ApplicationConnection;
+import com.vaadin.terminal.gwt.client.UIDL;
+
+/**
+ * Measures the dispatch of property tags by PaintablePropertyUpdater against the former linear lookup, which scanned the properties by name and
+ * copied the property children into a list on every update. Each update carries one empty list property per registered property, mixed with
+ * regular children, so only the dispatch itself is measured.
+ * <p>
+ * Not run by surefire; run it with the GWT JUnit shell, e.g. <code>mvn gwt:test -Dgwt.test.includes=**&#47;*Benchmark.java</code>.
+ */
+public class PaintablePropertyUpdaterBenchmark extends Benchmark {
+	private static final int UPDATES = 100;
+
+	protected final IntRange propertyCounts = new IntRange(2, 64, Operator.MULTIPLY, 2);
+
+	private UIDL uidl;
+	private PaintablePropertyUpdater updater;
+	private LinearPropertyUpdater linearUpdater;
+
+	@Override
+	public String getModuleName() {
+		return "org.vaadin.smartgwt.SmartGWTWidgetset";
+	}
+
+	public void testPropertyUpdater() {
+	}
+
+	@Setup("setUpUpdaters")
+	public void testPropertyUpdater(@RangeField("propertyCounts") Integer propertyCount) {
+		for (int i = 0; i < UPDATES; i++) {
+			updater.updateFromUIDL(uidl, null);
+		}
+	}
+
+	public void testLinearPropertyUpdater() {
+	}
+
+	@Setup("setUpUpdaters")
+	public void testLinearPropertyUpdater(@RangeField("propertyCounts") Integer propertyCount) {
+		for (int i = 0; i < UPDATES; i++) {
+			linearUpdater.updateFromUIDL(uidl, null);
+		}
+	}
+
+	public void setUpUpdaters(Integer propertyCount) {
+		uidl = newComponentUIDL(propertyCount);
+		updater = new PaintablePropertyUpdater();
+		linearUpdater = new LinearPropertyUpdater();
+		updater.updateFromUIDL(uidl, null);
+		linearUpdater.updateFromUIDL(uidl, null);
+	}
+
+	// @formatter:off
+	private static native UIDL newComponentUIDL(int propertyCount) /*-{
+        var uidl = ["0", {id: "PID0"}];
+
+        for (var i = 0; i < propertyCount; i++) {
+            uidl.push(["$property" + i, {type: "List"}]);
+            uidl.push(["component", {}]);
+        }
+
+        uidl.push("text");
+        return uidl;
+    }-*/;
+	// @formatter:on
+
+	/**
+	 * The lookup used before the properties were indexed by tag.
+	 */
+	private static class LinearPropertyUpdater {
+		private final List<PaintableProperty> properties = new ArrayList<PaintableProperty>();
+
+		public void updateFromUIDL(UIDL uidl, ApplicationConnection client) {
+			for (UIDL propertyUIDL : filterUIDLPropertyChildren(uidl.getChildIterator())) {
+				final String name = propertyUIDL.getTag().substring(1);
+				getOrCreateProperty(name).updateFromUIDL(propertyUIDL, client);
+			}
+		}
+
+		private PaintableProperty getOrCreateProperty(String name) {
+			for (PaintableProperty property : properties) {
+				if (name.equals(property.getName())) {
+					return property;
+				}
+			}
+
+			final PaintableProperty property = new PaintableList(name);
+			properties.add(property);
+			return property;
+		}
+
+		private static List<UIDL> filterUIDLPropertyChildren(Iterator<Object> childrenIterator) {
+			final List<UIDL> children = new ArrayList<UIDL>();
+
+			while (childrenIterator.hasNext()) {
+				final Object next = childrenIterator.next();
+
+				if (next instanceof UIDL && ((UIDL) next).getTag().startsWith("$")) {
+					children.add((UIDL) next);
+				}
+			}
+
+			return children;
+		}
+	}
+}
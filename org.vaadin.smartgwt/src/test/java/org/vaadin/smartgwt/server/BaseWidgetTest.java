@@ -4,9 +4,13 @@ import static org.mockito.Mockito.*;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.vaadin.smartgwt.MasterContainerHolder;
+import org.vaadin.smartgwt.server.layout.MasterContainer;
 
+import com.vaadin.Application;
 import com.vaadin.terminal.PaintException;
 import com.vaadin.terminal.gwt.server.JsonPaintTarget;
+import com.vaadin.ui.Component;
 
 public class BaseWidgetTest {
 	private BaseWidget baseWidget;
@@ -26,4 +30,68 @@ public class BaseWidgetTest {
 		baseWidget.paintContent(paintTarget);
 		verify(paintTarget).addAttribute("b$attribute", true);
 	}
+
+	@Test
+	public void test_paintsOnlyChangedAttributesOnPartialRepaint() throws PaintException {
+		final JsonPaintTarget paintTarget = mock(JsonPaintTarget.class);
+
+		baseWidget.setAttribute("title", "title", true);
+		baseWidget.setAttribute("width", 100, true);
+		baseWidget.paintContent(paintTarget);
+		reset(paintTarget);
+
+		baseWidget.setAttribute("width", 200, true);
+		baseWidget.paintContent(paintTarget);
+		verify(paintTarget).addAttribute("width", "i200");
+		verify(paintTarget, never()).addAttribute("title", "stitle");
+	}
+
+	@Test
+	public void test_paintsRemovedAttributeAsNullOnPartialRepaint() throws PaintException {
+		final JsonPaintTarget paintTarget = mock(JsonPaintTarget.class);
+
+		baseWidget.setAttribute("title", "title", true);
+		baseWidget.paintContent(paintTarget);
+		reset(paintTarget);
+
+		baseWidget.setAttribute("title", null, true);
+		baseWidget.paintContent(paintTarget);
+		verify(paintTarget).addAttribute("title", "null");
+	}
+
+	@Test
+	public void test_paintsAllAttributesAfterRequestRepaint() throws PaintException {
+		final JsonPaintTarget paintTarget = mock(JsonPaintTarget.class);
+
+		baseWidget.setAttribute("title", "title", true);
+		baseWidget.setAttribute("width", 100, true);
+		baseWidget.paintContent(paintTarget);
+		reset(paintTarget);
+
+		baseWidget.setAttribute("width", 200, true);
+		baseWidget.requestRepaint();
+		baseWidget.paintContent(paintTarget);
+		verify(paintTarget).addAttribute("width", "i200");
+		verify(paintTarget).addAttribute("title", "stitle");
+	}
+
+	@Test
+	public void test_paintsAllAttributesWhenApplicationForcesFullRepaint() throws PaintException {
+		final JsonPaintTarget paintTarget = mock(JsonPaintTarget.class);
+		final Application application = mock(Application.class, withSettings().extraInterfaces(MasterContainerHolder.class));
+		final MasterContainer masterContainer = new MasterContainer();
+		final Component parent = mock(Component.class);
+
+		when(((MasterContainerHolder) application).getMasterContainer()).thenReturn(masterContainer);
+		when(parent.getApplication()).thenReturn(application);
+		baseWidget.setParent(parent);
+		baseWidget.setAttribute("title", "title", true);
+		baseWidget.paintContent(paintTarget);
+		reset(paintTarget);
+
+		masterContainer.getRepaintPolicy().forceFullRepaint();
+		baseWidget.setAttribute("width", 200, true);
+		baseWidget.paintContent(paintTarget);
+		verify(paintTarget).addAttribute("title", "stitle");
+	}
 }
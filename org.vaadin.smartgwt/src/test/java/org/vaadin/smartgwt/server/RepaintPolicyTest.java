@@ -0,0 +1,28 @@
+package org.vaadin.smartgwt.server;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.vaadin.smartgwt.server.layout.MasterContainer;
+
+public class RepaintPolicyTest {
+	@Test
+	public void test_resetsForcedFullRepaint() {
+		final RepaintPolicy policy = new RepaintPolicy();
+
+		policy.forceFullRepaint();
+		assertTrue(policy.isFullRepaintForced());
+		policy.resetFullRepaint();
+		assertFalse(policy.isFullRepaintForced());
+	}
+
+	@Test
+	public void test_forcedFullRepaintDoesNotAffectOtherApplications() {
+		final MasterContainer masterContainer = new MasterContainer();
+		final MasterContainer otherMasterContainer = new MasterContainer();
+
+		masterContainer.getRepaintPolicy().forceFullRepaint();
+		assertTrue(masterContainer.getRepaintPolicy().isFullRepaintForced());
+		assertFalse(otherMasterContainer.getRepaintPolicy().isFullRepaintForced());
+	}
+}
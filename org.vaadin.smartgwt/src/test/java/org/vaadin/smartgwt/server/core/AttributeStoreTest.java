@@ -0,0 +1,100 @@
+package org.vaadin.smartgwt.server.core;
+
+import static org.junit.Assert.*;
+
+import java.util.Date;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class AttributeStoreTest {
+	private AttributeStore store;
+
+	@Before
+	public void before() {
+		store = new AttributeStore();
+	}
+
+	@Test
+	public void test_storesPrimitiveWrappersAsTheirType() {
+		store.set("int", 1);
+		store.set("double", 1.5d);
+		store.set("float", 2.5f);
+		store.set("long", 3L);
+		store.set("boolean", true);
+
+		assertEquals(Integer.valueOf(1), store.get("int"));
+		assertEquals(Double.valueOf(1.5d), store.get("double"));
+		assertEquals(Float.valueOf(2.5f), store.get("float"));
+		assertEquals(Long.valueOf(3L), store.get("long"));
+		assertEquals(Boolean.TRUE, store.get("boolean"));
+	}
+
+	@Test
+	public void test_convertsNumbersBetweenTypes() {
+		store.setInt("value", 3);
+
+		assertEquals(Double.valueOf(3d), store.getDouble("value"));
+		assertEquals(Float.valueOf(3f), store.getFloat("value"));
+		assertEquals(Long.valueOf(3L), store.getLong("value"));
+		assertEquals("3", store.getString("value"));
+	}
+
+	@Test
+	public void test_parsesStringValues() {
+		store.set("int", "12");
+		store.set("boolean", "true");
+
+		assertEquals(Integer.valueOf(12), store.getInt("int"));
+		assertEquals(Boolean.TRUE, store.getBoolean("boolean"));
+	}
+
+	@Test
+	public void test_convertsNumbersToBooleansLeniently() {
+		store.setInt("int", 1);
+		assertEquals(Boolean.FALSE, store.getBoolean("int"));
+	}
+
+	@Test
+	public void test_returnsDatesAsIs() {
+		final Date date = new Date();
+		store.set("date", date);
+		assertSame(date, store.getDate("date"));
+	}
+
+	@Test
+	public void test_replacingAttributeKeepsItsPositionAndChangesItsType() {
+		store.setInt("first", 1);
+		store.setInt("second", 2);
+		store.set("first", "one");
+
+		assertEquals(2, store.size());
+		assertEquals("first", store.getName(0));
+		assertEquals("sone", store.getPaintValue(0));
+		assertEquals("i2", store.getPaintValue(1));
+	}
+
+	@Test
+	public void test_remove() {
+		store.setInt("first", 1);
+		store.setBoolean("second", false);
+		store.remove("first");
+
+		assertFalse(store.contains("first"));
+		assertEquals(1, store.size());
+		assertEquals("bfalse", store.getPaintValue(0));
+	}
+
+	@Test
+	public void test_paintValueIsNullForObjectValues() {
+		store.set("array", new String[] { "a" });
+		assertNull(store.getPaintValue(0));
+	}
+
+	@Test
+	public void test_paintValueOfFrozenPayloadIsItsPaintValue() {
+		final FrozenPayload payload = FrozenPayload.ofJson("[\"a\"]");
+		store.set("valueMap", payload);
+		assertSame(payload.getPaintValue(), store.getPaintValue(0));
+	}
+}
@@ -3,6 +3,8 @@ package org.vaadin.smartgwt.server.core;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
+import java.util.Arrays;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -32,7 +34,140 @@ public class ComponentListTest {
 		componentList.paintContent(paintTarget);
 
 		verify(paintTarget).startTag("remove");
-		verify(paintTarget).addAttribute("element", component);
+		verify(paintTarget).addAttribute("index", 0);
+		verify(paintTarget).addAttribute("count", 1);
+	}
+
+	@Test
+	public void test_doesNotPaintElementAddedAndRemovedBetweenPaints() throws PaintException {
+		final Component component = mock(Component.class);
+		final JsonPaintTarget paintTarget = mock(JsonPaintTarget.class);
+
+		componentList.add(mock(Component.class));
+		componentList.add(mock(Component.class));
+		componentList.paintContent(mock(JsonPaintTarget.class));
+
+		componentList.add(component);
+		componentList.remove(component);
+		componentList.paintContent(paintTarget);
+
+		verify(paintTarget, never()).startTag("add");
+		verify(paintTarget, never()).startTag("remove");
+		verify(paintTarget, never()).startTag("replace");
+	}
+
+	@Test
+	public void test_paintsConsecutiveAddsAsOneRange() throws PaintException {
+		final Component first = mock(Component.class);
+		final Component second = mock(Component.class);
+		final JsonPaintTarget paintTarget = mock(JsonPaintTarget.class);
+
+		for (int i = 0; i < 4; i++) {
+			componentList.add(mock(Component.class));
+		}
+
+		componentList.paintContent(mock(JsonPaintTarget.class));
+
+		componentList.add(2, second);
+		componentList.add(2, first);
+		componentList.paintContent(paintTarget);
+
+		verify(paintTarget, times(1)).startTag("add");
+		verify(paintTarget).addAttribute("index", 2);
+		verify(paintTarget, times(2)).startTag("e");
+		verify(paintTarget).addAttribute("element", first);
+		verify(paintTarget).addAttribute("element", second);
+	}
+
+	@Test
+	public void test_paintsSetAsRemovalAndAdditionAtIndex() throws PaintException {
+		final Component replacement = mock(Component.class);
+		final JsonPaintTarget paintTarget = mock(JsonPaintTarget.class);
+
+		for (int i = 0; i < 3; i++) {
+			componentList.add(mock(Component.class));
+		}
+
+		componentList.paintContent(mock(JsonPaintTarget.class));
+
+		componentList.set(1, replacement);
+		componentList.paintContent(paintTarget);
+
+		verify(paintTarget).startTag("remove");
+		verify(paintTarget).startTag("add");
+		verify(paintTarget, times(2)).addAttribute("index", 1);
+		verify(paintTarget).addAttribute("element", replacement);
+	}
+
+	@Test
+	public void test_paintsReorderAsReplaceInstruction() throws PaintException {
+		final Component first = mock(Component.class);
+		final Component second = mock(Component.class);
+		final JsonPaintTarget paintTarget = mock(JsonPaintTarget.class);
+
+		componentList.add(first);
+		componentList.add(second);
+		componentList.add(mock(Component.class));
+		componentList.paintContent(mock(JsonPaintTarget.class));
+
+		componentList.remove(first);
+		componentList.add(first);
+		componentList.paintContent(paintTarget);
+
+		verify(paintTarget).startTag("replace");
+		verify(paintTarget, never()).startTag("remove");
+	}
+
+	@Test
+	public void test_paintsClearAndAddAllAsSingleReplaceInstruction() throws PaintException {
+		final Component first = mock(Component.class);
+		final Component second = mock(Component.class);
+		final JsonPaintTarget paintTarget = mock(JsonPaintTarget.class);
+
+		componentList.add(mock(Component.class));
+		componentList.paintContent(mock(JsonPaintTarget.class));
+
+		componentList.clear();
+		componentList.addAll(Arrays.asList(first, second));
+		componentList.paintContent(paintTarget);
+
+		verify(paintTarget).startTag("replace");
+		verify(paintTarget, never()).startTag("add");
+		verify(paintTarget, never()).startTag("remove");
+		verify(paintTarget).addAttribute("element", first);
+		verify(paintTarget).addAttribute("element", second);
+	}
+
+	@Test
+	public void test_detachesClearedComponentsOnPaintUnlessAddedBack() throws PaintException {
+		final Component kept = mock(Component.class);
+		final Component dropped = mock(Component.class);
+
+		componentList.add(kept);
+		componentList.add(dropped);
+		componentList.clear();
+		componentList.add(kept);
+		componentList.paintContent(mock(JsonPaintTarget.class));
+
+		verify(dropped).setParent(null);
+		verify(kept, never()).setParent(null);
+	}
+
+	@Test
+	public void test_indexOfFollowsInsertionsAndRemovals() {
+		final Component first = mock(Component.class);
+		final Component second = mock(Component.class);
+		final Component third = mock(Component.class);
+
+		componentList.add(first);
+		componentList.add(second);
+		componentList.add(0, third);
+		componentList.remove(first);
+
+		assertEquals(0, componentList.indexOf(third));
+		assertEquals(1, componentList.indexOf(second));
+		assertEquals(-1, componentList.indexOf(first));
+		assertFalse(componentList.contains(first));
 	}
 
 	@Test
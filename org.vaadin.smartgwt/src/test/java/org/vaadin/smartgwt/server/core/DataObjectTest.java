@@ -0,0 +1,64 @@
+package org.vaadin.smartgwt.server.core;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class DataObjectTest {
+	private DataObject dataObject;
+
+	@Before
+	public void before() {
+		dataObject = new DataObject();
+	}
+
+	@Test
+	public void test_replacesExistingAttribute() {
+		dataObject.setAttribute("attribute", "value1");
+		dataObject.setAttribute("attribute", "value2");
+
+		assertEquals(1, dataObject.getAttributeCount());
+		assertEquals("value2", dataObject.getAttribute("attribute"));
+	}
+
+	@Test
+	public void test_keepsAttributesBeyondInitialCapacity() {
+		for (int i = 0; i < 10; i++) {
+			dataObject.setAttribute("attribute" + i, i);
+		}
+
+		assertEquals(10, dataObject.getAttributeCount());
+		assertEquals(Integer.valueOf(9), dataObject.getAttributeAsInt("attribute9"));
+	}
+
+	@Test
+	public void test_storesLongAsDouble() {
+		dataObject.setAttribute("attribute", 10L);
+
+		assertEquals(Double.valueOf(10), dataObject.getAttributeAsDouble("attribute"));
+		assertEquals(Long.valueOf(10), dataObject.getAttributeAsLong("attribute"));
+	}
+
+	@Test
+	public void test_returnsNullForMissingAttribute() {
+		assertNull(dataObject.getAttributeAsInt("attribute"));
+		assertNull(dataObject.getAttributeAsObject("attribute"));
+	}
+
+	@Test
+	public void test_removesAttribute() {
+		dataObject.setAttribute("attribute1", "value1");
+		dataObject.setAttribute("attribute2", "value2");
+		dataObject.removeAttribute("attribute1");
+
+		assertArrayEquals(new String[] { "attribute2" }, dataObject.getAttributes());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void test_cannotModifyFrozenObject() {
+		dataObject.setAttribute("attribute", "value");
+		dataObject.freeze();
+		dataObject.setAttribute("attribute", "other");
+	}
+}
@@ -0,0 +1,48 @@
+package org.vaadin.smartgwt.server.core;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.junit.Test;
+import org.vaadin.smartgwt.server.util.JSONHelper;
+
+public class FrozenPayloadTest {
+	@Test
+	public void test_internsEqualContent() {
+		assertSame(FrozenPayload.of(newValueMap()), FrozenPayload.of(newValueMap()));
+	}
+
+	@Test
+	public void test_paintValueHoldsHashAndJson() {
+		final FrozenPayload payload = FrozenPayload.of(newValueMap());
+
+		assertEquals("{\"FR\":\"France\",\"JP\":\"Japan\"}", payload.getJson());
+		assertEquals("h" + payload.getHash() + ":" + payload.getJson(), payload.getPaintValue());
+		assertFalse(payload.getHash().equals(FrozenPayload.ofJson("{}").getHash()));
+	}
+
+	@Test
+	public void test_writesJsonAsRawValue() throws IOException {
+		final StringWriter writer = new StringWriter();
+		final JsonGenerator generator = JSONHelper.createGenerator(writer);
+		generator.writeStartObject();
+		generator.writeFieldName("valueMap");
+		FrozenPayload.ofJson("[\"a\",\"b\"]").writeTo(generator);
+		generator.writeEndObject();
+		generator.flush();
+
+		assertEquals("{\"valueMap\":[\"a\",\"b\"]}", writer.toString());
+	}
+
+	private static Map<String, String> newValueMap() {
+		final Map<String, String> valueMap = new LinkedHashMap<String, String>();
+		valueMap.put("FR", "France");
+		valueMap.put("JP", "Japan");
+		return valueMap;
+	}
+}
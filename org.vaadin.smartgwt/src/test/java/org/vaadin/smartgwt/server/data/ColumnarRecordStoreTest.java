@@ -0,0 +1,112 @@
+package org.vaadin.smartgwt.server.data;
+
+import static org.junit.Assert.*;
+
+import java.io.StringWriter;
+import java.util.Date;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.junit.Before;
+import org.junit.Test;
+import org.vaadin.smartgwt.server.data.fields.DataSourceBooleanField;
+import org.vaadin.smartgwt.server.data.fields.DataSourceDateField;
+import org.vaadin.smartgwt.server.data.fields.DataSourceFloatField;
+import org.vaadin.smartgwt.server.data.fields.DataSourceIntegerField;
+import org.vaadin.smartgwt.server.data.fields.DataSourceTextField;
+import org.vaadin.smartgwt.server.types.OperatorId;
+import org.vaadin.smartgwt.server.util.JSONHelper;
+
+public class ColumnarRecordStoreTest {
+	private static final String[] FIELD_NAMES = { "name", "continent", "population", "area", "member" };
+
+	private ColumnarRecordStore store;
+
+	@Before
+	public void before() {
+		final Object[][] rows = { { "Japan", "Asia", 127, 377.9, true }, { "France", "Europe", 65, 643.8, true },
+				{ "Peru", "America", 29, 1285.2, false }, { "Italy", "Europe", null, 301.3, null } };
+		store = new ColumnarRecordStore(new DataSourceTextField("name"), new DataSourceTextField("continent"), new DataSourceIntegerField("population"),
+				new DataSourceFloatField("area"), new DataSourceBooleanField("member"));
+
+		for (Object[] row : rows) {
+			final Record record = new Record();
+
+			for (int i = 0; i < FIELD_NAMES.length; i++) {
+				record.setAttribute(FIELD_NAMES[i], row[i]);
+			}
+
+			store.addRecord(record);
+		}
+	}
+
+	@Test
+	public void test_materializesRecordsWithTypedValues() {
+		final Record record = store.getRecord(0);
+
+		assertEquals("Japan", record.getAttribute("name"));
+		assertEquals(Integer.valueOf(127), record.getAttributeAsObject("population"));
+		assertEquals(Double.valueOf(377.9), record.getAttributeAsObject("area"));
+		assertEquals(Boolean.TRUE, record.getAttributeAsObject("member"));
+		assertEquals(3, store.getRecord(3).getAttributeCount());
+		assertNull(store.getValue(3, "population"));
+		assertEquals("Europe", store.getValue(3, "continent"));
+	}
+
+	@Test
+	public void test_dropsAttributesThatAreNotFields() {
+		final Record record = new Record();
+		record.setAttribute("name", "Chad");
+		record.setAttribute("capital", "N'Djamena");
+		store.addRecord(record);
+
+		assertNull(store.getRecord(4).getAttributeAsObject("capital"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_rejectsValuesOfAnotherType() {
+		final Record record = new Record();
+		record.setAttribute("population", "many");
+		store.addRecord(record);
+	}
+
+	@Test
+	public void test_pagesSortedAndFilteredRows() {
+		final SortSpecifier[] sortBy = new SortSpecifier[] { SortSpecifier.valueOf("continent"), SortSpecifier.valueOf("-population") };
+
+		assertNames(store.getRecords(0, 10, sortBy, null), "Peru", "Japan", "France", "Italy");
+		assertEquals(2, store.getTotalRows(new Criteria("continent", "eur")));
+		assertNames(store.getRecords(1, 10, sortBy, new Criteria("continent", "eur")), "Italy");
+		assertNames(store.getRecords(0, 10, sortBy, new AdvancedCriteria("area", OperatorId.GREATER_THAN, 350)), "Peru", "Japan", "France");
+	}
+
+	@Test
+	public void test_writesPageFromColumns() throws Exception {
+		final StringWriter writer = new StringWriter();
+		final JsonGenerator generator = JSONHelper.createGenerator(writer);
+		store.getPage(2, 10, new SortSpecifier[0], null).writeTo(generator);
+		generator.flush();
+
+		assertEquals("[{\"name\":\"Peru\",\"continent\":\"America\",\"population\":29,\"area\":1285.2,\"member\":false},"
+				+ "{\"name\":\"Italy\",\"continent\":\"Europe\",\"area\":301.3}]", writer.toString());
+	}
+
+	@Test
+	public void test_storesDatesAsTime() {
+		final ColumnarRecordStore dates = new ColumnarRecordStore(new DataSourceDateField("day"));
+		final Record record = new Record();
+		record.setAttribute("day", new Date(86400000L));
+		dates.addRecord(record);
+
+		assertEquals(new Date(86400000L), dates.getRecord(0).getAttributeAsDate("day"));
+	}
+
+	private static void assertNames(Record[] records, String... names) {
+		final String[] actualNames = new String[records.length];
+
+		for (int i = 0; i < records.length; i++) {
+			actualNames[i] = records[i].getAttribute("name");
+		}
+
+		assertArrayEquals(names, actualNames);
+	}
+}
@@ -0,0 +1,56 @@
+package org.vaadin.smartgwt.server.data;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.vaadin.smartgwt.server.types.DSOperationType;
+import org.vaadin.smartgwt.server.types.SortDirection;
+import org.vaadin.smartgwt.server.types.TextMatchStyle;
+
+public class DSRequestTest {
+	private RecordFactory recordFactory;
+
+	@Before
+	public void before() {
+		recordFactory = new RecordFactory(new RecordJSONUpdater());
+	}
+
+	@Test
+	public void test_decodesFetchRequest() throws IOException {
+		final DSRequest request = DSRequest.parse("{\"requestId\":\"r1\",\"operationType\":\"fetch\",\"startRow\":10,\"endRow\":20,"
+				+ "\"textMatchStyle\":\"substring\",\"criteria\":{\"continent\":\"Asia\"},\"sortBy\":[\"-name\"]}", recordFactory);
+		assertEquals(DSOperationType.FETCH, request.getOperationType());
+		assertEquals("r1", request.getRequestId());
+		assertEquals(Integer.valueOf(10), request.getStartRow());
+		assertEquals(Integer.valueOf(20), request.getEndRow());
+		assertEquals(TextMatchStyle.SUBSTRING, request.getTextMatchStyle());
+		assertEquals("Asia", request.getCriteria().getAttribute("continent"));
+		assertEquals("name", request.getSortBy()[0].getField());
+		assertEquals(SortDirection.DESCENDING, request.getSortBy()[0].getSortDirection());
+	}
+
+	@Test
+	public void test_decodesEmptyCriteriaAsNull() throws IOException {
+		final DSRequest request = DSRequest.parse("{\"requestId\":\"r1\",\"operationType\":\"fetch\",\"criteria\":{}}", recordFactory);
+		assertNull(request.getCriteria());
+		assertNull(request.getStartRow());
+		assertEquals(0, request.getSortBy().length);
+	}
+
+	@Test
+	public void test_decodesUpdateRequest() throws IOException {
+		final DSRequest request = DSRequest.parse("{\"data\":{\"pk\":1,\"name\":\"b\"},\"oldValues\":{\"pk\":1,\"name\":\"a\"},\"operationType\":\"update\"}",
+				recordFactory);
+		assertEquals(DSOperationType.UPDATE, request.getOperationType());
+		assertEquals("b", request.getData().getAttribute("name"));
+		assertEquals("a", request.getOldValues().getAttribute("name"));
+	}
+
+	@Test(expected = IOException.class)
+	public void test_rejectsRequestWithoutOperationType() throws IOException {
+		DSRequest.parse("{\"requestId\":\"r1\"}", recordFactory);
+	}
+}
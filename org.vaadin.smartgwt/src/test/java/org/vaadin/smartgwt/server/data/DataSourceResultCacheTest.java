@@ -0,0 +1,125 @@
+package org.vaadin.smartgwt.server.data;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.vaadin.smartgwt.server.types.SortDirection;
+import org.vaadin.smartgwt.server.types.TextMatchStyle;
+
+import com.google.common.base.Ticker;
+
+public class DataSourceResultCacheTest {
+	private static final SortSpecifier[] UNSORTED = new SortSpecifier[0];
+
+	private DataSourceResultCache cache;
+	private long now;
+
+	@Before
+	public void before() {
+		cache = new DataSourceResultCache(3, new Ticker() {
+			@Override
+			public long read() {
+				return now;
+			}
+		});
+	}
+
+	@Test
+	public void test_sharesResultForEqualCriteria() {
+		final Criteria criteria = new Criteria("continent", "Asia");
+		criteria.addCriteria("member_g8", true);
+		final Criteria sameCriteria = new Criteria();
+		sameCriteria.addCriteria("member_g8", true);
+		sameCriteria.addCriteria("continent", "Asia");
+
+		final CachedRecords result = cache.put("countryDS", criteria, null, UNSORTED, new Record[] { newRecord("Japan") }, 60);
+		assertSame(result, cache.get("countryDS", sameCriteria, null, UNSORTED));
+		assertNull(cache.get("countryDS", null, null, UNSORTED));
+		assertNull(cache.get("countryDS", criteria, null, new SortSpecifier[] { new SortSpecifier("name", SortDirection.ASCENDING) }));
+	}
+
+	@Test
+	public void test_expiresResultsAfterMaxAge() {
+		cache.put("countryDS", null, null, UNSORTED, new Record[] { newRecord("Japan") }, 60);
+
+		now = TimeUnit.SECONDS.toNanos(59);
+		assertNotNull(cache.get("countryDS", null, null, UNSORTED));
+		now = TimeUnit.SECONDS.toNanos(60);
+		assertNull(cache.get("countryDS", null, null, UNSORTED));
+		assertEquals(0, cache.getRecordCount());
+	}
+
+	@Test
+	public void test_evictsLeastRecentlyUsedResultsBeyondMaxRecords() {
+		cache.put("a", null, null, UNSORTED, new Record[] { newRecord("1"), newRecord("2") }, 60);
+		cache.put("b", null, null, UNSORTED, new Record[] { newRecord("3") }, 60);
+		cache.get("a", null, null, UNSORTED);
+		cache.put("c", null, null, UNSORTED, new Record[] { newRecord("4") }, 60);
+
+		assertNotNull(cache.get("a", null, null, UNSORTED));
+		assertNull(cache.get("b", null, null, UNSORTED));
+		assertNotNull(cache.get("c", null, null, UNSORTED));
+		assertEquals(3, cache.getRecordCount());
+	}
+
+	@Test
+	public void test_doesNotKeepResultLargerThanCache() {
+		final CachedRecords result = cache.put("a", null, null, UNSORTED, new Record[] { newRecord("1"), newRecord("2"), newRecord("3"), newRecord("4") },
+				60);
+		assertEquals(4, result.size());
+		assertNull(cache.get("a", null, null, UNSORTED));
+	}
+
+	@Test
+	public void test_invalidatesResultsOfDataSource() {
+		cache.put("a", null, null, UNSORTED, new Record[] { newRecord("1") }, 60);
+		cache.put("a", new Criteria("name", "1"), null, UNSORTED, new Record[] { newRecord("1") }, 60);
+		cache.put("ab", null, null, UNSORTED, new Record[] { newRecord("2") }, 60);
+		cache.invalidate("a");
+
+		assertNull(cache.get("a", null, null, UNSORTED));
+		assertNull(cache.get("a", new Criteria("name", "1"), null, UNSORTED));
+		assertNotNull(cache.get("ab", null, null, UNSORTED));
+		assertEquals(1, cache.getRecordCount());
+	}
+
+	@Test
+	public void test_separatesResultsByTextMatchStyle() {
+		final Criteria criteria = new Criteria("name", "Jap");
+		cache.put("countryDS", criteria, TextMatchStyle.SUBSTRING, UNSORTED, new Record[] { newRecord("Japan") }, 60);
+
+		assertNotNull(cache.get("countryDS", criteria, TextMatchStyle.SUBSTRING, UNSORTED));
+		assertNull(cache.get("countryDS", criteria, TextMatchStyle.EXACT, UNSORTED));
+		assertNull(cache.get("countryDS", criteria, null, UNSORTED));
+	}
+
+	@Test
+	public void test_leavesCallerRecordsWritable() {
+		final Record record = newRecord("1");
+		final CachedRecords result = cache.put("a", null, null, UNSORTED, new Record[] { record }, 60);
+		record.setAttribute("name", "2");
+
+		assertEquals("1", result.getRecords()[0].getAttribute("name"));
+		assertEquals("[{\"name\":\"1\"}]", result.getPayload().getJson());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void test_freezesCachedRecords() {
+		cache.put("a", null, null, UNSORTED, new Record[] { newRecord("1") }, 60).getRecords()[0].setAttribute("name", "2");
+	}
+
+	@Test
+	public void test_serializesRecordsOnce() {
+		final CachedRecords result = cache.put("a", null, null, UNSORTED, new Record[] { newRecord("1") }, 60);
+		assertEquals("[{\"name\":\"1\"}]", result.getPayload().getJson());
+	}
+
+	private static Record newRecord(String name) {
+		final Record record = new Record();
+		record.setAttribute("name", name);
+		return record;
+	}
+}
@@ -0,0 +1,147 @@
+package org.vaadin.smartgwt.server.data;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.HashMap;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.vaadin.smartgwt.server.types.DSOperationType;
+
+import com.google.common.collect.Maps;
+import com.vaadin.terminal.PaintException;
+import com.vaadin.terminal.gwt.server.JsonPaintTarget;
+
+public class DataSourceTest {
+	private DataSource dataSource;
+	private DataSourceHandler handler;
+	private JsonPaintTarget paintTarget;
+
+	@Before
+	public void before() {
+		paintTarget = mock(JsonPaintTarget.class);
+		dataSource = new DataSource();
+		dataSource.setRecordFactory(new RecordFactory(new RecordJSONUpdater()));
+		dataSource.setHandler(handler = mock(DataSourceHandler.class));
+	}
+
+	@Test
+	public void test_paintsServerHandlerFlag() throws PaintException {
+		dataSource.paintContent(paintTarget);
+		verify(paintTarget).addAttribute("*serverHandler", true);
+	}
+
+	@Test
+	public void test_dispatchesRequestToHandlerOperation() {
+		when(handler.update(any(DSRequest.class))).thenReturn(new DSResponse());
+		dataSource.changeVariables(null, newRequestVariables("{\"requestId\":\"r1\",\"operationType\":\"update\",\"data\":{\"pk\":1}}"));
+
+		final ArgumentCaptor<DSRequest> requestCaptor = ArgumentCaptor.forClass(DSRequest.class);
+		verify(handler).update(requestCaptor.capture());
+		assertEquals("r1", requestCaptor.getValue().getRequestId());
+		verify(handler, never()).fetch(any(DSRequest.class));
+	}
+
+	@Test
+	public void test_defaultsFetchResponseRows() {
+		final DSRequest request = new DSRequest(DSOperationType.FETCH);
+		request.setStartRow(10);
+		request.setEndRow(20);
+		when(handler.fetch(request)).thenReturn(new DSResponse(new Record(), new Record()));
+
+		final DSResponse response = dataSource.execute(request);
+		assertEquals(Integer.valueOf(10), response.getStartRow());
+		assertEquals(Integer.valueOf(12), response.getEndRow());
+		assertEquals(Integer.valueOf(12), response.getTotalRows());
+	}
+
+	@Test
+	public void test_paintsResponseOnlyOnce() throws PaintException {
+		final DSResponse fetchResponse = new DSResponse(new Record());
+		fetchResponse.setTotalRows(100);
+		when(handler.fetch(any(DSRequest.class))).thenReturn(fetchResponse);
+		dataSource.changeVariables(null, newRequestVariables("{\"requestId\":\"r1\",\"operationType\":\"fetch\",\"startRow\":0,\"endRow\":75}"));
+
+		dataSource.paintContent(paintTarget);
+		dataSource.paintContent(paintTarget);
+		verify(paintTarget).addAttribute("*dsResponses",
+				"[{\"requestId\":\"r1\",\"status\":0,\"startRow\":0,\"endRow\":1,\"totalRows\":100,\"data\":[{}]}]");
+	}
+
+	@Test
+	public void test_answersHandlerFailureWithFailureResponse() throws PaintException {
+		when(handler.remove(any(DSRequest.class))).thenThrow(new IllegalArgumentException("locked"));
+		dataSource.changeVariables(null, newRequestVariables("{\"requestId\":\"r1\",\"operationType\":\"remove\",\"data\":{\"pk\":1}}"));
+
+		dataSource.paintContent(paintTarget);
+		verify(paintTarget).addAttribute("*dsResponses", "[{\"requestId\":\"r1\",\"status\":-1,\"errorMessage\":\"locked\",\"data\":[]}]");
+	}
+
+	@Test
+	public void test_doesNotPaintAttributesAgainWhenAnsweringRequests() throws PaintException {
+		dataSource.setID("countryDS");
+		dataSource.paintContent(paintTarget);
+		when(handler.fetch(any(DSRequest.class))).thenReturn(new DSResponse());
+		dataSource.changeVariables(null, newRequestVariables("{\"requestId\":\"r1\",\"operationType\":\"fetch\"}"));
+
+		dataSource.paintContent(paintTarget);
+		verify(paintTarget, times(1)).addAttribute(eq("*ID"), anyString());
+	}
+
+	@Test
+	public void test_paintsAttributesAgainAfterRepaintRequest() throws PaintException {
+		dataSource.setID("countryDS");
+		dataSource.paintContent(paintTarget);
+		when(handler.fetch(any(DSRequest.class))).thenReturn(new DSResponse());
+		dataSource.changeVariables(null, newRequestVariables("{\"requestId\":\"r1\",\"operationType\":\"fetch\"}"));
+		dataSource.requestRepaint();
+
+		dataSource.paintContent(paintTarget);
+		verify(paintTarget, times(2)).addAttribute(eq("*ID"), anyString());
+	}
+
+	@Test
+	public void test_servesFetchesFromSharedCache() throws PaintException {
+		dataSource.setID("countryDS");
+		dataSource.setUseSharedCache(true);
+		dataSource.setResultCache(new DataSourceResultCache());
+		when(handler.fetch(any(DSRequest.class))).thenReturn(new DSResponse(new Record(), new Record(), new Record()));
+
+		dataSource.changeVariables(null, newRequestVariables("{\"requestId\":\"r1\",\"operationType\":\"fetch\"}"));
+		dataSource.changeVariables(null, newRequestVariables("{\"requestId\":\"r2\",\"operationType\":\"fetch\",\"startRow\":1,\"endRow\":2}"));
+
+		dataSource.paintContent(paintTarget);
+		verify(handler, times(1)).fetch(any(DSRequest.class));
+		verify(paintTarget).addAttribute("*dsResponses", "[{\"requestId\":\"r1\",\"status\":0,\"startRow\":0,\"endRow\":3,\"totalRows\":3,"
+				+ "\"data\":[{},{},{}]},{\"requestId\":\"r2\",\"status\":0,\"startRow\":1,\"endRow\":2,\"totalRows\":3,\"data\":[{}]}]");
+	}
+
+	@Test
+	public void test_invalidatesSharedCacheOnUpdate() {
+		final DataSourceResultCache resultCache = new DataSourceResultCache();
+		dataSource.setID("countryDS");
+		dataSource.setUseSharedCache(true);
+		dataSource.setResultCache(resultCache);
+		when(handler.fetch(any(DSRequest.class))).thenReturn(new DSResponse(new Record()));
+		when(handler.update(any(DSRequest.class))).thenReturn(new DSResponse(new Record()));
+
+		dataSource.execute(new DSRequest(DSOperationType.FETCH));
+		dataSource.execute(new DSRequest(DSOperationType.UPDATE));
+		dataSource.execute(new DSRequest(DSOperationType.FETCH));
+		verify(handler, times(2)).fetch(any(DSRequest.class));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void test_cannotExecuteWithoutHandler() {
+		new DataSource().execute(new DSRequest(DSOperationType.FETCH));
+	}
+
+	private static HashMap<String, Object> newRequestVariables(String request) {
+		final HashMap<String, Object> variables = Maps.<String, Object> newHashMap();
+		variables.put("dsRequest", request);
+		return variables;
+	}
+}
@@ -0,0 +1,59 @@
+package org.vaadin.smartgwt.server.data;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class RecordChangeLogTest {
+	private RecordChangeLog changeLog;
+
+	@Before
+	public void before() {
+		changeLog = new RecordChangeLog();
+	}
+
+	@Test
+	public void test_keepsChangesInOrder() {
+		final Record added = new Record();
+		final Record removed = new Record();
+		changeLog.add(1, added);
+		changeLog.remove(2, removed);
+
+		final Record[] changes = changeLog.toRecords();
+		assertEquals(2, changes.length);
+		assertEquals("add", changes[0].getAttribute("op"));
+		assertSame(added, changes[0].getAttributeAsRecord("record"));
+		assertEquals("remove", changes[1].getAttribute("op"));
+		assertSame(removed, changes[1].getAttributeAsRecord("record"));
+	}
+
+	@Test
+	public void test_updateAfterAddReplacesAddedRecord() {
+		final Record updated = new Record();
+		changeLog.add(1, new Record());
+		changeLog.update(1, updated);
+
+		final Record[] changes = changeLog.toRecords();
+		assertEquals(1, changes.length);
+		assertEquals("add", changes[0].getAttribute("op"));
+		assertSame(updated, changes[0].getAttributeAsRecord("record"));
+	}
+
+	@Test
+	public void test_removeAfterAddCancelsAdd() {
+		changeLog.add(1, new Record());
+		changeLog.remove(1, new Record());
+		assertTrue(changeLog.isEmpty());
+	}
+
+	@Test
+	public void test_removeAfterUpdateReplacesUpdate() {
+		changeLog.update(1, new Record());
+		changeLog.remove(1, new Record());
+
+		final Record[] changes = changeLog.toRecords();
+		assertEquals(1, changes.length);
+		assertEquals("remove", changes[0].getAttribute("op"));
+	}
+}
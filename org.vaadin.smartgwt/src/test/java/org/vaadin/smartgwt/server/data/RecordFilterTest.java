@@ -0,0 +1,116 @@
+package org.vaadin.smartgwt.server.data;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import org.junit.Test;
+import org.vaadin.smartgwt.server.types.OperatorId;
+import org.vaadin.smartgwt.server.types.TextMatchStyle;
+
+import argo.jdom.JdomParser;
+
+public class RecordFilterTest {
+	@Test
+	public void test_matchesSimpleCriteriaWithTextMatchStyle() {
+		final Record record = newCountry("Japan", 127);
+
+		assertTrue(RecordFilter.compile(new Criteria("name", "APA"), TextMatchStyle.SUBSTRING).apply(record));
+		assertFalse(RecordFilter.compile(new Criteria("name", "APA"), TextMatchStyle.STARTS_WITH).apply(record));
+		assertTrue(RecordFilter.compile(new Criteria("name", "ja"), TextMatchStyle.STARTS_WITH).apply(record));
+		assertFalse(RecordFilter.compile(new Criteria("name", "Jap"), TextMatchStyle.EXACT).apply(record));
+		assertTrue(RecordFilter.compile(new Criteria("name", "japan"), TextMatchStyle.EXACT).apply(record));
+	}
+
+	@Test
+	public void test_matchesNonStringFieldsByEquality() {
+		final Record record = newCountry("Japan", 127);
+
+		assertTrue(RecordFilter.compile(new Criteria("population", "127"), TextMatchStyle.SUBSTRING).apply(record));
+		assertFalse(RecordFilter.compile(new Criteria("population", "12"), TextMatchStyle.SUBSTRING).apply(record));
+	}
+
+	@Test
+	public void test_matchesAnyValueOfList() {
+		final Criteria criteria = new Criteria();
+		criteria.setAttribute("name", Arrays.asList("France", "Japan"));
+
+		assertTrue(RecordFilter.compile(criteria, TextMatchStyle.EXACT).apply(newCountry("Japan", 127)));
+		assertFalse(RecordFilter.compile(criteria, TextMatchStyle.EXACT).apply(newCountry("Peru", 29)));
+	}
+
+	@Test
+	public void test_evaluatesAdvancedCriteria() {
+		final RecordFilter filter = RecordFilter.compile(new AdvancedCriteria(OperatorId.OR,
+				new AdvancedCriteria("population", OperatorId.BETWEEN_INCLUSIVE, 60, 70),
+				new AdvancedCriteria(OperatorId.AND, new AdvancedCriteria("name", OperatorId.IENDS_WITH, "AN"),
+						new AdvancedCriteria(OperatorId.NOT, new AdvancedCriteria("population", OperatorId.LESS_THAN, 100)))), null);
+
+		assertTrue(filter.apply(newCountry("France", 65)));
+		assertTrue(filter.apply(newCountry("Japan", 127)));
+		assertFalse(filter.apply(newCountry("Sudan", 40)));
+		assertFalse(filter.apply(newCountry("Peru", 29)));
+	}
+
+	@Test
+	public void test_evaluatesAdvancedCriteriaDecodedFromJson() throws Exception {
+		final RecordFactory recordFactory = new RecordFactory(new RecordJSONUpdater());
+		final Criteria criteria = recordFactory.newCriteria(new JdomParser().parse("{\"_constructor\":\"AdvancedCriteria\","
+				+ "\"operator\":\"and\",\"criteria\":[{\"fieldName\":\"name\",\"operator\":\"inSet\",\"value\":[\"Japan\",\"Peru\"]},"
+				+ "{\"fieldName\":\"population\",\"operator\":\"greaterThan\",\"value\":100}]}"));
+		final RecordFilter filter = RecordFilter.compile(criteria, null);
+
+		assertTrue(filter.apply(newCountry("Japan", 127)));
+		assertFalse(filter.apply(newCountry("Peru", 29)));
+		assertFalse(filter.apply(newCountry("France", 65)));
+	}
+
+	@Test
+	public void test_nullValuesFailRangeConditions() {
+		assertFalse(RecordFilter.compile(new AdvancedCriteria("population", OperatorId.LESS_THAN, 100), null).apply(new Record()));
+		assertTrue(RecordFilter.compile(new AdvancedCriteria("population", OperatorId.IS_NULL), null).apply(new Record()));
+	}
+
+	@Test
+	public void test_comparesDatesWithIsoStrings() {
+		final Record record = new Record();
+		record.setAttribute("founded", new Date(0));
+
+		assertTrue(RecordFilter.compile(new AdvancedCriteria("founded", OperatorId.EQUALS, "1970-01-01T00:00:00Z"), null).apply(record));
+		assertTrue(RecordFilter.compile(new AdvancedCriteria("founded", OperatorId.EQUALS, "1969-12-31T23:00:00.000-01:00"), null).apply(record));
+		assertTrue(RecordFilter.compile(new AdvancedCriteria("founded", OperatorId.GREATER_THAN, "1960-05-04"), null).apply(record));
+		assertFalse(RecordFilter.compile(new AdvancedCriteria("founded", OperatorId.GREATER_THAN, "1970-01-01T00:00:00.001Z"), null).apply(record));
+		assertNull(RecordFilter.parseDate("1970-13-01"));
+		assertNull(RecordFilter.parseDate("January 1970"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_rejectsUnknownOperator() {
+		final Criteria criteria = new Criteria();
+		criteria.setAttribute("_constructor", "AdvancedCriteria");
+		criteria.setAttribute("operator", "matches");
+		RecordFilter.compile(criteria, null);
+	}
+
+	@Test
+	public void test_parsesIsoDatesOfConditionOnce() {
+		final RecordFilter.FieldFilter filter = new RecordFilter.FieldFilter("founded", OperatorId.BETWEEN, null, "1960-05-04", "not a date", false);
+
+		assertNull(filter.getValueDate());
+		assertEquals(RecordFilter.parseDate("1960-05-04"), filter.getStartDate());
+		assertNull(filter.getEndDate());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_rejectsLogicalOperatorOnField() {
+		new RecordFilter.FieldFilter("name", OperatorId.AND, "France", null, null, false);
+	}
+
+	private static Record newCountry(String name, int population) {
+		final Record record = new Record();
+		record.setAttribute("name", name);
+		record.setAttribute("population", population);
+		return record;
+	}
+}
@@ -5,10 +5,14 @@ import static org.junit.Assert.*;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
+import org.codehaus.jackson.JsonParser;
 import org.junit.Before;
 import org.junit.Test;
+import org.vaadin.smartgwt.server.util.JSONHelper;
 
 import argo.jdom.JdomParser;
 import argo.jdom.JsonRootNode;
@@ -146,9 +150,76 @@ public class RecordJSONUpdaterTest {
 		assertEquals("value", ((Map<String, Object>) record.getAttributeAsMap("attribute").get("attribute")).get("attribute"));
 	}
 
+	@Test
+	public void test_updatesJSONArrayAttribute() throws Exception {
+		final JsonRootNode node = new JdomParser().parse("{ \"attribute\":[ \"value\", { \"attribute\":[ 1 ] } ] }");
+		final Record record = new Record();
+
+		updater.update(record, node);
+		final List<?> list = (List<?>) record.getAttributeAsObject("attribute");
+		assertEquals("value", list.get(0));
+		assertEquals(Arrays.asList(1L), ((Map<?, ?>) list.get(1)).get("attribute"));
+	}
+
+	@Test
+	public void test_updatesAttributesFromParserTokens() throws Exception {
+		final JsonParser parser = JSONHelper.createParser("{ \"boolean\":true, \"number\":10, \"decimal\":1.1e2, \"string\":\"value\", \"null\":null }");
+		final Record record = new Record();
+
+		parser.nextToken();
+		updater.update(record, parser);
+		assertEquals(true, record.getAttributeAsBoolean("boolean"));
+		assertEquals(new Long(10), record.getAttributeAsLong("number"));
+		assertEquals(new Double(110), record.getAttributeAsDouble("decimal"));
+		assertEquals("value", record.getAttributeAsString("string"));
+		assertNull(record.getAttributeAsObject("null"));
+	}
+
+	@Test
+	public void test_updatesJSONObjectNestedAttributeFromParserTokens() throws Exception {
+		final JsonParser parser = JSONHelper.createParser("{ \"attribute\":{ \"attribute\":{ \"attribute\":\"value\" } }, \"next\":1 }");
+		final Record record = new Record();
+
+		parser.nextToken();
+		updater.update(record, parser);
+		assertEquals("value", ((Map<String, Object>) record.getAttributeAsMap("attribute").get("attribute")).get("attribute"));
+		assertEquals(new Long(1), record.getAttributeAsLong("next"));
+	}
+
+	@Test
+	public void test_updatesJSONArrayAttributeFromParserTokens() throws Exception {
+		final JsonParser parser = JSONHelper.createParser("{ \"attribute\":[ \"value\", { \"attribute\":[ 1 ] } ], \"next\":1 }");
+		final Record record = new Record();
+
+		parser.nextToken();
+		updater.update(record, parser);
+		final List<?> list = (List<?>) record.getAttributeAsObject("attribute");
+		assertEquals("value", list.get(0));
+		assertEquals(Arrays.asList(1L), ((Map<?, ?>) list.get(1)).get("attribute"));
+		assertEquals(new Long(1), record.getAttributeAsLong("next"));
+	}
+
 	@Test(expected = RuntimeException.class)
-	public void test_throwsExceptionWhenUnhandledAttributeType() throws Exception {
-		final JsonRootNode node = new JdomParser().parse("{ \"attribute\":[] }");
-		updater.update(new Record(), node);
+	public void test_throwsExceptionWhenNotAnObject() throws Exception {
+		final JsonParser parser = JSONHelper.createParser("[]");
+		updater.update(new Record(), parser);
+	}
+
+	@Test
+	public void test_decodesNestedNumbersToTheSameTypesOnBothPaths() throws Exception {
+		final String json = "{ \"attribute\":{ \"number\":10, \"decimal\":1.5, \"list\":[ 1, 2.5 ] } }";
+		final Record parsedRecord = new Record();
+		final Record streamedRecord = new Record();
+		final JsonParser parser = JSONHelper.createParser(json);
+
+		updater.update(parsedRecord, new JdomParser().parse(json));
+		parser.nextToken();
+		updater.update(streamedRecord, parser);
+
+		final Map<?, ?> map = parsedRecord.getAttributeAsMap("attribute");
+		assertEquals(Long.valueOf(10), map.get("number"));
+		assertEquals(Double.valueOf(1.5), map.get("decimal"));
+		assertEquals(Arrays.<Object> asList(1L, 2.5), map.get("list"));
+		assertEquals(map, streamedRecord.getAttributeAsMap("attribute"));
 	}
 }
@@ -0,0 +1,111 @@
+package org.vaadin.smartgwt.server.data;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.vaadin.smartgwt.server.types.DSOperationType;
+import org.vaadin.smartgwt.server.types.OperatorId;
+import org.vaadin.smartgwt.server.types.SortDirection;
+import org.vaadin.smartgwt.server.types.TextMatchStyle;
+
+public class RecordQueryEngineTest {
+	private RecordQueryEngine engine;
+
+	@Before
+	public void before() {
+		engine = new RecordQueryEngine(newCountry("Japan", "Asia", 127), newCountry("France", "Europe", 65), newCountry("Peru", "America", 29),
+				newCountry("Italy", "Europe", 60), newCountry("China", "Asia", 1340), newCountry("Chad", "Africa", null));
+	}
+
+	@Test
+	public void test_sortsByMultipleFields() {
+		final Record[] records = engine.getRecords(null, null, SortSpecifier.valueOf("continent"), SortSpecifier.valueOf("-population"));
+		assertNames(records, "Chad", "Peru", "China", "Japan", "France", "Italy");
+	}
+
+	@Test
+	public void test_sortsNullsFirstAndKeepsOrderOfEqualValues() {
+		final Record[] records = engine.getRecords(null, null, new SortSpecifier("continent", SortDirection.DESCENDING));
+		assertNames(records, "France", "Italy", "Japan", "China", "Peru", "Chad");
+		assertNames(engine.getRecords(null, null, SortSpecifier.valueOf("population")), "Chad", "Peru", "Italy", "France", "Japan", "China");
+	}
+
+	@Test
+	public void test_filtersWithIndexedRangeConditions() {
+		final Criteria criteria = new AdvancedCriteria(OperatorId.AND, new AdvancedCriteria("population", OperatorId.LESS_THAN, 100),
+				new AdvancedCriteria("continent", OperatorId.EQUALS, "Europe"));
+
+		assertNames(engine.getRecords(criteria, null), "France", "Italy");
+		assertNames(engine.getRecords(new AdvancedCriteria("population", OperatorId.BETWEEN, 29, 127), null), "France", "Italy");
+		assertNames(engine.getRecords(new AdvancedCriteria("population", OperatorId.IS_NULL), null), "Chad");
+	}
+
+	@Test
+	public void test_scansFieldsOfMixedTypesInsteadOfUsingTheirIndex() {
+		final Record sudan = newCountry("Sudan", "Africa", null);
+		sudan.setAttribute("population", "40");
+		final Record nauru = newCountry("Nauru", "Oceania", null);
+		nauru.setAttribute("population", "n/a");
+		engine = new RecordQueryEngine(newCountry("Japan", "Asia", 127), sudan, newCountry("Peru", "America", 29), nauru,
+				newCountry("Italy", "Europe", 60));
+
+		assertNames(engine.getRecords(new AdvancedCriteria("population", OperatorId.GREATER_THAN, 50), null), "Japan", "Nauru", "Italy");
+		assertNames(engine.getRecords(new AdvancedCriteria("population", OperatorId.EQUALS, 40), null), "Sudan");
+		assertNames(engine.getRecords(null, null, SortSpecifier.valueOf("population")), "Peru", "Italy", "Japan", "Sudan", "Nauru");
+	}
+
+	@Test
+	public void test_pagesGridRowsWithTextMatchStyle() {
+		final Criteria criteria = new Criteria("name", "CH");
+
+		assertEquals(2, engine.getTotalRows(criteria));
+		assertNames(engine.getRecords(1, 75, new SortSpecifier[] { SortSpecifier.valueOf("name") }, criteria), "China");
+
+		engine.setTextMatchStyle(TextMatchStyle.EXACT);
+		assertEquals(0, engine.getTotalRows(criteria));
+	}
+
+	@Test
+	public void test_answersFetchRequests() {
+		final DSRequest request = new DSRequest(DSOperationType.FETCH);
+		request.setCriteria(new Criteria("continent", "Europe"));
+		request.setTextMatchStyle(TextMatchStyle.EXACT);
+		request.setSortBy(new SortSpecifier[] { SortSpecifier.valueOf("-name") });
+		request.setStartRow(1);
+		request.setEndRow(10);
+
+		final DSResponse response = engine.fetch(request);
+		assertNames(response.getData(), "France");
+		assertEquals(Integer.valueOf(1), response.getStartRow());
+		assertEquals(Integer.valueOf(2), response.getEndRow());
+		assertEquals(Integer.valueOf(2), response.getTotalRows());
+	}
+
+	@Test
+	public void test_invalidateRebuildsIndexes() {
+		final Record[] records = engine.getRecords(null, null, SortSpecifier.valueOf("population"));
+		records[0].setAttribute("population", 2000);
+		engine.invalidate();
+
+		assertNames(engine.getRecords(null, null, SortSpecifier.valueOf("-population")), "Chad", "China", "Japan", "France", "Italy", "Peru");
+	}
+
+	private static void assertNames(Record[] records, String... names) {
+		final String[] actualNames = new String[records.length];
+
+		for (int i = 0; i < records.length; i++) {
+			actualNames[i] = records[i].getAttribute("name");
+		}
+
+		assertArrayEquals(names, actualNames);
+	}
+
+	private static Record newCountry(String name, String continent, Integer population) {
+		final Record record = new Record();
+		record.setAttribute("name", name);
+		record.setAttribute("continent", continent);
+		record.setAttribute("population", population);
+		return record;
+	}
+}
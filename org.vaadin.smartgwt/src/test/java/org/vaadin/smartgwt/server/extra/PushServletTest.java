@@ -0,0 +1,78 @@
+package org.vaadin.smartgwt.server.extra;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PushServletTest {
+	private PushServlet servlet;
+	private PushChannel channel;
+
+	@Before
+	public void before() {
+		servlet = new PushServlet();
+		servlet.setTimeout(50);
+		channel = PushChannel.open();
+	}
+
+	@After
+	public void after() {
+		channel.close();
+	}
+
+	@Test
+	public void test_answersAtOnceWhenChannelIsDirty() throws Exception {
+		channel.markDirty();
+		assertEquals("1", get(channel.getId()));
+	}
+
+	@Test
+	public void test_answersWhenChannelIsMarkedDirtyWhileWaiting() throws Exception {
+		servlet.setTimeout(10000);
+		new Thread() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(20);
+				} catch (InterruptedException e) {
+				}
+
+				channel.markDirty();
+			}
+		}.start();
+
+		assertEquals("1", get(channel.getId()));
+	}
+
+	@Test
+	public void test_answersZeroOnTimeout() throws Exception {
+		assertEquals("0", get(channel.getId()));
+	}
+
+	@Test
+	public void test_answersXForUnknownOrClosedChannel() throws Exception {
+		assertEquals("x", get("unknown"));
+		channel.close();
+		assertEquals("x", get(channel.getId()));
+	}
+
+	private String get(String channelId) throws Exception {
+		final HttpServletRequest request = mock(HttpServletRequest.class);
+		final HttpServletResponse response = mock(HttpServletResponse.class);
+		final StringWriter writer = new StringWriter();
+		when(request.getParameter("channel")).thenReturn(channelId);
+		when(response.getWriter()).thenReturn(new PrintWriter(writer));
+
+		servlet.doGet(request, response);
+		return writer.toString();
+	}
+}
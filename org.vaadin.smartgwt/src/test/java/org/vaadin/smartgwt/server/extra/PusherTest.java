@@ -0,0 +1,90 @@
+package org.vaadin.smartgwt.server.extra;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vaadin.terminal.PaintException;
+import com.vaadin.terminal.gwt.server.JsonPaintTarget;
+
+public class PusherTest {
+	private Pusher pusher;
+
+	@Before
+	public void before() {
+		pusher = new Pusher();
+		pusher.attach();
+	}
+
+	@Test
+	public void test_paintsUrlAndChannelWhileAttached() throws PaintException {
+		final JsonPaintTarget paintTarget = mock(JsonPaintTarget.class);
+
+		pusher.paintContent(paintTarget);
+		verify(paintTarget).addAttribute("url", "PUSH");
+		verify(paintTarget).addAttribute("channel", pusher.getChannel().getId());
+	}
+
+	@Test
+	public void test_pushMarksChannelDirty() throws InterruptedException {
+		pusher.push();
+		assertTrue(pusher.getChannel().await(0));
+		assertFalse(pusher.getChannel().await(0));
+	}
+
+	@Test
+	public void test_detachClosesAndUnregistersChannel() {
+		final PushChannel channel = pusher.getChannel();
+
+		pusher.detach();
+		assertTrue(channel.isClosed());
+		assertNull(PushChannel.get(channel.getId()));
+	}
+
+	@Test
+	public void test_reopensChannelAfterSerialization() throws Exception {
+		final JsonPaintTarget paintTarget = mock(JsonPaintTarget.class);
+		final Pusher restored = serializeAndRestore(pusher);
+
+		assertNull(restored.getChannel());
+		restored.paintContent(paintTarget);
+		assertNotNull(restored.getChannel());
+		verify(paintTarget).addAttribute("channel", restored.getChannel().getId());
+	}
+
+	@Test
+	public void test_detachesWithoutChannelAfterSerialization() throws Exception {
+		final Pusher restored = serializeAndRestore(pusher);
+
+		restored.detach();
+		assertNull(restored.getChannel());
+	}
+
+	@Test
+	public void test_registryReleasesChannelsThatWereNeverClosed() throws InterruptedException {
+		final String id = PushChannel.open().getId();
+
+		for (int i = 0; i < 50 && PushChannel.get(id) != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+
+		assertNull(PushChannel.get(id));
+	}
+
+	private static Pusher serializeAndRestore(Pusher pusher) throws IOException, ClassNotFoundException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(pusher);
+		out.close();
+		return (Pusher) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+	}
+}
@@ -0,0 +1,72 @@
+package org.vaadin.smartgwt.server.extra;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vaadin.ui.Component;
+
+public class RefreshPollerTest {
+	private RefreshPoller poller;
+	private Refresher refresher;
+	private RefreshListener listener;
+	private List<Component> components;
+
+	@Before
+	public void before() {
+		poller = new RefreshPoller();
+		refresher = new Refresher();
+		refresher.setAdaptive(true);
+		refresher.setInterval(1000);
+		refresher.setMaxInterval(5000);
+		refresher.addListener(listener = mock(RefreshListener.class));
+		components = Arrays.<Component> asList(refresher);
+	}
+
+	@Test
+	public void test_backsOffExponentiallyUpToMaxIntervalWithoutChanges() {
+		assertEquals(1000, poller.getInterval(components));
+		assertEquals(2000, poller.poll(components));
+		assertEquals(4000, poller.poll(components));
+		assertEquals(5000, poller.poll(components));
+		assertEquals(5000, poller.poll(components));
+	}
+
+	@Test
+	public void test_dropsBackToBaseIntervalOnChange() {
+		poller.getInterval(components);
+		poller.poll(components);
+		poller.poll(components);
+
+		when(listener.poll(refresher)).thenReturn(true);
+		assertEquals(1000, poller.poll(components));
+	}
+
+	@Test
+	public void test_coalescesRefreshersIntoOnePoll() {
+		final Refresher other = new Refresher();
+		final RefreshListener otherListener = mock(RefreshListener.class);
+		other.setAdaptive(true);
+		other.setInterval(500);
+		other.addListener(otherListener);
+
+		final List<Component> both = Arrays.<Component> asList(refresher, other);
+		assertEquals(500, poller.getInterval(both));
+		poller.poll(both);
+		verify(listener).poll(refresher);
+		verify(otherListener).poll(other);
+	}
+
+	@Test
+	public void test_ignoresRefreshersNotInAdaptiveMode() {
+		refresher.setAdaptive(false);
+
+		assertEquals(-1, poller.poll(components));
+		verify(listener, never()).poll(refresher);
+	}
+}
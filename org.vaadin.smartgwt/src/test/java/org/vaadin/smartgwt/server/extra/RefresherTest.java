@@ -5,6 +5,7 @@ import static org.mockito.Mockito.*;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.vaadin.smartgwt.server.layout.MasterContainer;
 
 import com.vaadin.terminal.PaintException;
 import com.vaadin.terminal.gwt.server.JsonPaintTarget;
@@ -70,4 +71,26 @@ public class RefresherTest {
 		refresher.paintContent(paintTarget);
 		verify(paintTarget, never()).addAttribute("interval", 1000);
 	}
+
+	@Test
+	public void test_repaintsPollIntervalOfContainerInAdaptiveMode() {
+		final MasterContainer container = mock(MasterContainer.class);
+
+		refresher.setParent(container);
+		refresher.setAdaptive(true);
+		refresher.setMaxInterval(5000);
+		verify(container, times(2)).requestPollIntervalRepaint();
+		verify(container, never()).requestRepaint();
+	}
+
+	@Test
+	public void test_leavesContainerAloneOutsideAdaptiveMode() {
+		final MasterContainer container = mock(MasterContainer.class);
+
+		refresher.setParent(container);
+		refresher.setInterval(3000);
+		refresher.addListener(mock(RefreshListener.class));
+		verify(container, never()).requestPollIntervalRepaint();
+		verify(container, never()).requestRepaint();
+	}
 }
@@ -0,0 +1,38 @@
+package org.vaadin.smartgwt.server.form;
+
+import static org.mockito.Mockito.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.vaadin.smartgwt.server.form.fields.FormItem;
+
+import com.vaadin.terminal.PaintException;
+import com.vaadin.terminal.gwt.server.JsonPaintTarget;
+
+public class DynamicFormTest {
+	private DynamicForm form;
+
+	@Before
+	public void before() {
+		form = new DynamicForm();
+		form.setFields(new FormItem(), new FormItem());
+	}
+
+	@Test
+	public void test_paintsValueSyncDelayWhenBatching() throws PaintException {
+		final JsonPaintTarget target = mock(JsonPaintTarget.class);
+
+		form.setBatchValueChanges(true);
+		form.setValueSyncDelay(250);
+		form.paintContent(target);
+		verify(target).addAttribute("*valueSyncDelay", 250);
+	}
+
+	@Test
+	public void test_doesNotPaintValueSyncDelayWithoutBatching() throws PaintException {
+		final JsonPaintTarget target = mock(JsonPaintTarget.class);
+
+		form.paintContent(target);
+		verify(target, never()).addAttribute(eq("*valueSyncDelay"), anyInt());
+	}
+}
@@ -97,6 +97,15 @@ public class FormItemTest {
 		assertEquals(Boolean.TRUE, formItem.getValue());
 	}
 
+	@Test
+	public void test_paintsValueChangeListenersFlag() throws PaintException {
+		final JsonPaintTarget paintTarget = mock(JsonPaintTarget.class);
+
+		formItem.addPropertyChangeListener(FormItem.PROPERTYNAME_VALUE, mock(PropertyChangeListener.class));
+		formItem.paintContent(paintTarget);
+		verify(paintTarget).addAttribute("*hasValueChangeListeners", true);
+	}
+
 	private static void assertPropertyChangeEvent(PropertyChangeEvent event, Object source, String propertyName, Object oldValue, Object newValue) {
 		assertEquals(source, event.getSource());
 		assertEquals(propertyName, event.getPropertyName());
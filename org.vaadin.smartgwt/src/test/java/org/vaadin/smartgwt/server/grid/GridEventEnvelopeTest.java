@@ -0,0 +1,49 @@
+package org.vaadin.smartgwt.server.grid;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.vaadin.smartgwt.server.data.RecordFactory;
+import org.vaadin.smartgwt.server.data.RecordJSONUpdater;
+
+public class GridEventEnvelopeTest {
+	private RecordFactory recordFactory;
+
+	@Before
+	public void before() {
+		recordFactory = new RecordFactory(new RecordJSONUpdater());
+	}
+
+	@Test
+	public void test_decodesNumericKeysAsDoubles() throws IOException {
+		final GridEventEnvelope envelope = GridEventEnvelope.parse("{\"k\":3,\"s\":true,\"sk\":[3,\"a\"],\"xk\":4.5}", recordFactory);
+		assertEquals(3.0, envelope.getKey());
+		assertTrue(envelope.getState());
+		assertEquals(3.0, envelope.getSelectionKeys().get(0));
+		assertEquals("a", envelope.getSelectionKeys().get(1));
+		assertEquals(4.5, envelope.getSelectedKey());
+	}
+
+	@Test
+	public void test_decodesRecordsAndPositions() throws IOException {
+		final GridEventEnvelope envelope = GridEventEnvelope.parse("{\"d\":{\"name\":\"x\"},\"r\":2,\"c\":1,\"f\":\"name\",\"sd\":[{\"name\":\"y\"}]}",
+				recordFactory);
+		assertEquals("x", envelope.getRecord().getAttribute("name"));
+		assertEquals(2, envelope.getRecordNum());
+		assertEquals(1, envelope.getFieldNum());
+		assertEquals("name", envelope.getFieldName());
+		assertEquals("y", envelope.getSelectionRecords().get(0).getAttribute("name"));
+	}
+
+	@Test
+	public void test_leavesAbsentMembersUnset() throws IOException {
+		final GridEventEnvelope envelope = GridEventEnvelope.parse("{\"unknown\":{\"a\":[1]}}", recordFactory);
+		assertNull(envelope.getKey());
+		assertNull(envelope.getRecord());
+		assertNull(envelope.getSelectionKeys());
+		assertEquals(-1, envelope.getRecordNum());
+	}
+}
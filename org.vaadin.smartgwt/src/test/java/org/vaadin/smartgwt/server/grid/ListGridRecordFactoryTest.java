@@ -53,4 +53,15 @@ public class ListGridRecordFactoryTest {
 		verify(updater).update(records[0], nodes.get(0));
 		verify(updater).update(records[1], nodes.get(1));
 	}
+
+	@Test
+	public void test_decodesRecordsArrayFromJSONText() throws Exception {
+		final ListGridRecordFactory factory = new ListGridRecordFactory(new RecordJSONUpdater());
+		final ListGridRecord[] records = factory.newListGridRecords("[{ \"id\":1 }, null, { \"id\":2 }]");
+
+		assertEquals(3, records.length);
+		assertEquals(new Integer(1), records[0].getAttributeAsInt("id"));
+		assertNull(records[1]);
+		assertEquals(new Integer(2), records[2].getAttributeAsInt("id"));
+	}
 }
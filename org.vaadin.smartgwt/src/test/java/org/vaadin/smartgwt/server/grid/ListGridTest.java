@@ -4,22 +4,30 @@ import static org.junit.Assert.*;
 import static org.mockito.Matchers.*;
 import static org.mockito.Mockito.*;
 
+import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
+import org.vaadin.smartgwt.server.data.ColumnarRecordStore;
+import org.vaadin.smartgwt.server.data.Criteria;
 import org.vaadin.smartgwt.server.data.Record;
 import org.vaadin.smartgwt.server.data.RecordFactory;
+import org.vaadin.smartgwt.server.data.RecordJSONUpdater;
+import org.vaadin.smartgwt.server.data.SortSpecifier;
+import org.vaadin.smartgwt.server.data.fields.DataSourceIntegerField;
+import org.vaadin.smartgwt.server.data.fields.DataSourceTextField;
 import org.vaadin.smartgwt.server.grid.events.RecordDoubleClickEvent;
 import org.vaadin.smartgwt.server.grid.events.RecordDoubleClickHandler;
 import org.vaadin.smartgwt.server.grid.events.SelectionChangedHandler;
 import org.vaadin.smartgwt.server.grid.events.SelectionEvent;
 import org.vaadin.smartgwt.server.grid.events.SelectionUpdatedEvent;
 import org.vaadin.smartgwt.server.grid.events.SelectionUpdatedHandler;
+import org.vaadin.smartgwt.server.types.SortDirection;
 
-import argo.jdom.JsonNode;
-
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.web.bindery.event.shared.HandlerRegistration;
 import com.vaadin.terminal.PaintException;
@@ -71,21 +79,15 @@ public class ListGridTest {
 	}
 
 	@Test
-	public void test_firesRecordDoubleClickEventWhenReceivingClientSideNotification() {
+	public void test_firesRecordDoubleClickEventWhenReceivingClientSideNotification() throws IOException {
 		final RecordDoubleClickHandler handler = mock(RecordDoubleClickHandler.class);
 		final HashMap<String, Object> variables = Maps.newHashMap();
-		final ListGridField expectedField = new ListGridField();
-		final Record expectedRecord = new Record();
+		final ListGridField expectedField = new ListGridField("name");
 
-		variables.put("onRecordDoubleClick", true);
-		variables.put("onRecordDoubleClick.event.record", "{ }");
-		variables.put("onRecordDoubleClick.event.recordNum", 0);
-		variables.put("onRecordDoubleClick.event.field", expectedField);
-		variables.put("onRecordDoubleClick.event.fieldNum", 0);
+		variables.put("onRecordDoubleClick", "{\"d\":{\"name\":\"x\"},\"r\":0,\"c\":0,\"f\":\"name\"}");
 
-		final RecordFactory recordFactory = mock(RecordFactory.class);
-		when(recordFactory.newRecord(isA(JsonNode.class))).thenReturn(expectedRecord);
-		listGrid.setRecordFactory(recordFactory);
+		listGrid.setRecordFactory(new RecordFactory(new RecordJSONUpdater()));
+		listGrid.setFields(expectedField);
 
 		listGrid.addRecordDoubleClickHandler(handler);
 		listGrid.changeVariables(null, variables);
@@ -94,12 +96,55 @@ public class ListGridTest {
 		verify(handler).onRecordDoubleClick(eventCaptor.capture());
 		assertEquals(listGrid, eventCaptor.getValue().getSource());
 		assertEquals(listGrid, eventCaptor.getValue().getViewer());
-		assertEquals(expectedRecord, eventCaptor.getValue().getRecord());
+		assertEquals("x", eventCaptor.getValue().getRecord().getAttribute("name"));
 		assertEquals(0, eventCaptor.getValue().getRecordNum());
 		assertEquals(expectedField, eventCaptor.getValue().getField());
 		assertEquals(0, eventCaptor.getValue().getFieldNum());
 	}
 
+	@Test
+	public void test_resolvesRecordDoubleClickRecordByPrimaryKey() {
+		final RecordDoubleClickHandler handler = mock(RecordDoubleClickHandler.class);
+		final HashMap<String, Object> variables = Maps.newHashMap();
+		final Record record = new Record();
+		record.setAttribute("id", 7);
+
+		listGrid.setRecordFactory(new RecordFactory(new RecordJSONUpdater()));
+		listGrid.setPrimaryKeyField("id");
+		listGrid.setData(new Record[] { record });
+		listGrid.addRecordDoubleClickHandler(handler);
+
+		variables.put("onRecordDoubleClick", "{\"k\":7,\"r\":0}");
+		listGrid.changeVariables(null, variables);
+
+		final ArgumentCaptor<RecordDoubleClickEvent> eventCaptor = ArgumentCaptor.forClass(RecordDoubleClickEvent.class);
+		verify(handler).onRecordDoubleClick(eventCaptor.capture());
+		assertEquals(record.getAttributeAsObject("id"), eventCaptor.getValue().getRecord().getAttributeAsObject("id"));
+	}
+
+	@Test
+	public void test_resolveRecordsFallsBackToSentFieldsForUnknownKeys() {
+		final Record record = new Record();
+		final Record fields = new Record();
+		record.setAttribute("id", "a");
+		fields.setAttribute("name", "b");
+
+		listGrid.setPrimaryKeyField("id");
+		listGrid.setData(new Record[] { record });
+
+		final ListGridRecord[] records = listGrid.resolveRecords(Lists.<Object> newArrayList("a", "b"), Lists.newArrayList(null, fields));
+		assertEquals("a", records[0].getAttribute("id"));
+		assertEquals("b", records[1].getAttribute("id"));
+		assertEquals("b", records[1].getAttribute("name"));
+	}
+
+	@Test
+	public void test_paintsEventRecordFields() throws PaintException {
+		listGrid.setEventRecordFields("name");
+		listGrid.paintContent(paintTarget);
+		verify(paintTarget).addAttribute("*eventRecordFields", new String[] { "name" });
+	}
+
 	@Test
 	public void test_selectionEventFactoryProperty() {
 		final SelectionEventFactory selectionEventFactory = mock(SelectionEventFactory.class);
@@ -124,12 +169,12 @@ public class ListGridTest {
 	}
 
 	@Test
-	public void test_firesSelectionChangeEvent() {
+	public void test_firesSelectionChangeEvent() throws IOException {
 		final HashMap<String, Object> variables = Maps.<String, Object> newHashMap();
-		variables.put("onSelectionChanged.event", "{}");
+		variables.put("onSelectionChanged", "{}");
 
 		final SelectionEvent event = mock(SelectionEvent.class);
-		when(selectionEventFactory.newSelectionEvent(any(JsonNode.class))).thenReturn(event);
+		when(selectionEventFactory.newSelectionEvent(any(GridEventEnvelope.class), eq(listGrid))).thenReturn(event);
 
 		final SelectionChangedHandler handler = mock(SelectionChangedHandler.class);
 		listGrid.addSelectionChangedHandler(handler);
@@ -193,7 +238,7 @@ public class ListGridTest {
 	}
 
 	@Test
-	public void test_updatesSelectedRecords() {
+	public void test_updatesSelectedRecords() throws IOException {
 		final HashMap<String, Object> variables = Maps.<String, Object> newHashMap();
 		variables.put("selectedRecords", "[]");
 
@@ -201,14 +246,14 @@ public class ListGridTest {
 		listGrid.setListGridRecordFactory(factory);
 		
 		final ListGridRecord[] records = new ListGridRecord[0];
-		when(factory.newListGridRecords(anyList())).thenReturn(records);
+		when(factory.newListGridRecords(anyString())).thenReturn(records);
 
 		listGrid.changeVariables(null, variables);
 		assertArrayEquals(records, listGrid.getSelectedRecords());
 	}
 
 	@Test
-	public void test_updatesSelectedRecordsBeforeFiringEvent() {
+	public void test_updatesSelectedRecordsBeforeFiringEvent() throws IOException {
 		final HashMap<String, Object> variables = Maps.<String, Object> newHashMap();
 		variables.put("onSelectionUpdated.event", true);
 		variables.put("selectedRecords", "[]");
@@ -217,7 +262,7 @@ public class ListGridTest {
 		listGrid.setListGridRecordFactory(factory);
 
 		final ListGridRecord[] records = new ListGridRecord[0];
-		when(factory.newListGridRecords(anyList())).thenReturn(records);
+		when(factory.newListGridRecords(anyString())).thenReturn(records);
 
 		final CaptureSelectedRecords handler = new CaptureSelectedRecords();
 		listGrid.addSelectionUpdatedHandler(handler);
@@ -238,6 +283,227 @@ public class ListGridTest {
 		assertNotNull(listGrid.getRecordFactory());
 	}
 
+	@Test
+	public void test_fetchesRequestedRowsFromDataProvider() {
+		final ListGridDataProvider dataProvider = mock(ListGridDataProvider.class);
+		final Record[] records = new Record[] { new Record(), new Record() };
+		when(dataProvider.getTotalRows(null)).thenReturn(100);
+		when(dataProvider.getPage(eq(10), eq(12), any(SortSpecifier[].class), isNull(Criteria.class))).thenReturn(new RecordPage(records));
+		listGrid.setDataProvider(dataProvider);
+
+		final HashMap<String, Object> variables = Maps.<String, Object> newHashMap();
+		variables.put("fetchRequest", "{\"requestId\":\"r1\",\"startRow\":10,\"endRow\":12,\"sortBy\":[\"-name\"],\"criteria\":{}}");
+		listGrid.changeVariables(null, variables);
+
+		final ArgumentCaptor<SortSpecifier[]> sortByCaptor = ArgumentCaptor.forClass(SortSpecifier[].class);
+		verify(dataProvider).getPage(eq(10), eq(12), sortByCaptor.capture(), isNull(Criteria.class));
+		assertEquals("name", sortByCaptor.getValue()[0].getField());
+		assertEquals(SortDirection.DESCENDING, sortByCaptor.getValue()[0].getSortDirection());
+	}
+
+	@Test
+	public void test_paintsFetchResponseOnlyOnce() throws PaintException {
+		final ListGridDataProvider dataProvider = mock(ListGridDataProvider.class);
+		when(dataProvider.getTotalRows(null)).thenReturn(1);
+		when(dataProvider.getPage(eq(0), eq(1), any(SortSpecifier[].class), isNull(Criteria.class))).thenReturn(new RecordPage(new Record()));
+		listGrid.setDataProvider(dataProvider);
+
+		final HashMap<String, Object> variables = Maps.<String, Object> newHashMap();
+		variables.put("fetchRequest", "{\"requestId\":\"r1\",\"startRow\":0,\"endRow\":75}");
+		listGrid.changeVariables(null, variables);
+
+		listGrid.paintContent(paintTarget);
+		listGrid.paintContent(paintTarget);
+		verify(paintTarget).addAttribute("*fetchResponses", "[{\"requestId\":\"r1\",\"startRow\":0,\"endRow\":1,\"totalRows\":1,\"data\":[{}]}]");
+	}
+
+	@Test
+	public void test_paintsFetchResponseFromColumnarRecordStore() throws PaintException {
+		final ColumnarRecordStore store = new ColumnarRecordStore(new DataSourceTextField("name"), new DataSourceIntegerField("population"));
+		final Record record = new Record();
+		record.setAttribute("name", "Japan");
+		record.setAttribute("population", 127);
+		store.addRecord(record);
+		listGrid.setDataProvider(store);
+
+		final HashMap<String, Object> variables = Maps.<String, Object> newHashMap();
+		variables.put("fetchRequest", "{\"requestId\":\"r1\",\"startRow\":0,\"endRow\":75}");
+		listGrid.changeVariables(null, variables);
+
+		listGrid.paintContent(paintTarget);
+		verify(paintTarget).addAttribute("*fetchResponses",
+				"[{\"requestId\":\"r1\",\"startRow\":0,\"endRow\":1,\"totalRows\":1,\"data\":[{\"name\":\"Japan\",\"population\":127}]}]");
+	}
+
+	@Test
+	public void test_paintsInvalidateCacheFlagWhenBackedByDataProvider() throws PaintException {
+		listGrid.setDataProvider(mock(ListGridDataProvider.class));
+		listGrid.invalidateCache();
+
+		listGrid.paintContent(paintTarget);
+		verify(paintTarget).addAttribute("*dataProvider", true);
+		verify(paintTarget).addAttribute("*invalidateCache", true);
+	}
+
+	@Test
+	public void test_repaintsOwnDataWhenDataProviderIsRemoved() throws PaintException {
+		listGrid.setData(new Record[] { newRecord(1) });
+		listGrid.setDataProvider(mock(ListGridDataProvider.class));
+		listGrid.paintContent(paintTarget);
+		listGrid.invalidateCache();
+		listGrid.setDataProvider(null);
+
+		listGrid.paintContent(paintTarget);
+		verify(paintTarget, times(1)).addAttribute("*dataProvider", true);
+		verify(paintTarget, never()).addAttribute("*invalidateCache", true);
+		verify(paintTarget, times(2)).addAttribute("data", "j[{\"id\":1}]");
+	}
+
+	@Test
+	public void test_paintsDataOnceAfterSetData() throws PaintException {
+		listGrid.setData(new Record[] { newRecord(1) });
+
+		listGrid.paintContent(paintTarget);
+		listGrid.paintContent(paintTarget);
+		verify(paintTarget, times(1)).addAttribute("data", "j[{\"id\":1}]");
+	}
+
+	@Test
+	public void test_paintsNullDataAfterDataIsCleared() throws PaintException {
+		listGrid.setData(new Record[] { newRecord(1) });
+		listGrid.paintContent(paintTarget);
+		listGrid.setData(null);
+
+		listGrid.paintContent(paintTarget);
+		verify(paintTarget, times(1)).addAttribute("data", "j[{\"id\":1}]");
+		verify(paintTarget, times(1)).addAttribute("data", "null");
+	}
+
+	@Test
+	public void test_paintsOnlyChangedRecordsAfterUpdate() throws PaintException {
+		listGrid.setPrimaryKeyField("id");
+		listGrid.setData(new Record[] { newRecord(1), newRecord(2) });
+		listGrid.paintContent(paintTarget);
+
+		final Record updated = newRecord(2);
+		updated.setAttribute("name", "two");
+		listGrid.updateData(updated);
+		listGrid.removeData(newRecord(1));
+		listGrid.paintContent(paintTarget);
+
+		verify(paintTarget).addAttribute("*dataChanges",
+				"[{\"op\":\"update\",\"record\":{\"id\":2,\"name\":\"two\"}},{\"op\":\"remove\",\"record\":{\"id\":1}}]");
+		assertArrayEquals(new Record[] { updated }, listGrid.getRecords());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_updateDataThrowsOnUnknownPrimaryKey() {
+		listGrid.setPrimaryKeyField("id");
+		listGrid.setData(new Record[] { newRecord(1) });
+		listGrid.updateData(newRecord(2));
+	}
+
+	@Test
+	public void test_editsRecordsByNormalizedPrimaryKey() {
+		final Record first = new Record();
+		first.setAttribute("id", 1L);
+		final Record third = newRecord(3);
+		listGrid.setPrimaryKeyField("id");
+		listGrid.setData(new Record[] { first, newRecord(2), third, newRecord(4) });
+
+		final Record updated = newRecord(1);
+		listGrid.updateData(updated);
+		listGrid.removeData(newRecord(2));
+		listGrid.removeData(newRecord(4));
+		listGrid.addData(newRecord(5));
+		listGrid.removeData(newRecord(5));
+
+		assertArrayEquals(new Record[] { updated, third }, listGrid.getRecords());
+	}
+
+	@Test
+	public void test_materializesSelectedRecordsFromSelectionDelta() {
+		final Record first = newRecord(1);
+		final ListGridRecord second = new ListGridRecord();
+		second.setAttribute("id", 2);
+		listGrid.setPrimaryKeyField("id");
+		listGrid.setData(new Record[] { first, second });
+
+		final HashMap<String, Object> variables = Maps.<String, Object> newHashMap();
+		variables.put("selectionDelta", "{\"added\":[1,2],\"removed\":[]}");
+		listGrid.changeVariables(null, variables);
+		variables.put("selectionDelta", "{\"added\":[],\"removed\":[1]}");
+		listGrid.changeVariables(null, variables);
+
+		assertArrayEquals(new ListGridRecord[] { second }, listGrid.getSelectedRecords());
+		assertEquals(1, listGrid.getSelectedKeys().size());
+	}
+
+	@Test
+	public void test_clearsSelectionWhenDataIsRepainted() throws PaintException {
+		listGrid.setPrimaryKeyField("id");
+		listGrid.setData(new Record[] { newRecord(1) });
+		listGrid.paintContent(paintTarget);
+
+		final HashMap<String, Object> variables = Maps.<String, Object> newHashMap();
+		variables.put("selectionDelta", "{\"added\":[1],\"removed\":[]}");
+		listGrid.changeVariables(null, variables);
+		listGrid.requestRepaint();
+		listGrid.paintContent(paintTarget);
+
+		assertEquals(0, listGrid.getSelectedRecords().length);
+		assertTrue(listGrid.getSelectedKeys().isEmpty());
+	}
+
+	@Test
+	public void test_indexesEventRecordsOncePerDataChange() {
+		final int[] lookups = new int[1];
+		listGrid = new ListGrid() {
+			@Override
+			protected List<? extends Record> getSelectableRecords() {
+				lookups[0]++;
+				return super.getSelectableRecords();
+			}
+		};
+		listGrid.setPrimaryKeyField("id");
+		listGrid.setData(new Record[] { newRecord(1), newRecord(2) });
+
+		assertEquals(Integer.valueOf(1), listGrid.resolveRecord(1.0, null).getAttributeAsInt("id"));
+		assertEquals(Integer.valueOf(2), listGrid.resolveRecord(2.0, null).getAttributeAsInt("id"));
+		assertEquals(1, lookups[0]);
+
+		final Record updated = newRecord(2);
+		updated.setAttribute("name", "two");
+		listGrid.updateData(updated);
+		assertEquals("two", listGrid.resolveRecord(2.0, null).getAttribute("name"));
+		assertEquals(2, lookups[0]);
+	}
+
+	@Test
+	public void test_indexesEventRecordsAgainAtMostOncePerEvent() {
+		final int[] lookups = new int[1];
+		listGrid = new ListGrid() {
+			@Override
+			protected List<? extends Record> getSelectableRecords() {
+				lookups[0]++;
+				return super.getSelectableRecords();
+			}
+		};
+		listGrid.setPrimaryKeyField("id");
+		listGrid.setData(new Record[] { newRecord(1) });
+		listGrid.resolveRecord(1.0, null);
+
+		final ListGridRecord[] records = listGrid.resolveRecords(Lists.<Object> newArrayList(3.0, 1.0, 4.0, 5.0), null);
+		assertEquals(Integer.valueOf(1), records[1].getAttributeAsInt("id"));
+		assertEquals(2, lookups[0]);
+	}
+
+	private static Record newRecord(int id) {
+		final Record record = new Record();
+		record.setAttribute("id", id);
+		return record;
+	}
+
 	private static RecordDoubleClickEvent newRecordDoubleClickEvent() {
 		return new RecordDoubleClickEvent(null, null, null, -1, null, -1);
 	}
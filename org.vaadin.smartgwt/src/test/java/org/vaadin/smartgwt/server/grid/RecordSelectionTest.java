@@ -0,0 +1,56 @@
+package org.vaadin.smartgwt.server.grid;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.vaadin.smartgwt.server.data.Record;
+
+import argo.jdom.JdomParser;
+
+public class RecordSelectionTest {
+	private RecordSelection selection;
+
+	@Before
+	public void before() {
+		selection = new RecordSelection("id");
+	}
+
+	@Test
+	public void test_appliesAddedAndRemovedKeys() throws Exception {
+		selection.update(new JdomParser().parse("{\"added\":[1,2,\"a\"],\"removed\":[]}"));
+		selection.update(new JdomParser().parse("{\"added\":[],\"removed\":[2]}"));
+
+		assertEquals(2, selection.size());
+		assertTrue(selection.getKeys().contains(1d));
+		assertTrue(selection.getKeys().contains("a"));
+	}
+
+	@Test
+	public void test_matchesNumericKeysWhateverTheirType() throws Exception {
+		selection.update(new JdomParser().parse("{\"added\":[1]}"));
+
+		final Record intRecord = new Record();
+		intRecord.setAttribute("id", 1);
+		final Record longRecord = new Record();
+		longRecord.setAttribute("id", 1L);
+
+		assertTrue(selection.isSelected(intRecord));
+		assertTrue(selection.isSelected(longRecord));
+	}
+
+	@Test
+	public void test_getSelectedRecordsKeepsRecordsOrder() throws Exception {
+		final Record first = new Record();
+		first.setAttribute("id", "first");
+		final Record second = new Record();
+		second.setAttribute("id", "second");
+		final Record third = new Record();
+		third.setAttribute("id", "third");
+		selection.update(new JdomParser().parse("{\"added\":[\"third\",\"first\"]}"));
+
+		assertEquals(Arrays.asList(first, third), selection.getSelectedRecords(Arrays.asList(first, second, third)));
+	}
+}
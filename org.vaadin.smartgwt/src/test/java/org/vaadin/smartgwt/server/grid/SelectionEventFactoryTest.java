@@ -8,6 +8,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.vaadin.smartgwt.server.data.Record;
 import org.vaadin.smartgwt.server.data.RecordFactory;
+import org.vaadin.smartgwt.server.data.RecordJSONUpdater;
 import org.vaadin.smartgwt.server.grid.events.SelectionEvent;
 
 import argo.jdom.JsonRootNode;
@@ -59,6 +60,18 @@ public class SelectionEventFactoryTest {
 		assertEquals(listGridRecordFactory.newListGridRecord(node.getNode("selectedRecord")), event.getSelectedRecord());
 	}
 
+	@Test
+	public void test_decodesSelectionEventFromJSONText() throws Exception {
+		final RecordJSONUpdater updater = new RecordJSONUpdater();
+		final SelectionEventFactory factory = new SelectionEventFactory(new RecordFactory(updater), new ListGridRecordFactory(updater));
+		final SelectionEvent event = factory.newSelectionEvent("{ \"state\":true, \"record\":{ \"id\":1 }, \"selection\":[{ \"id\":1 }], \"selectedRecord\":null }");
+
+		assertEquals(true, event.getState());
+		assertEquals(new Integer(1), event.getRecord().getAttributeAsInt("id"));
+		assertEquals(1, event.getSelection().length);
+		assertNull(event.getSelectedRecord());
+	}
+
 	// @formatter:off
 	private static JsonRootNode buildJSON() {
 		return aJsonObject(
@@ -9,8 +9,11 @@ import org.junit.Test;
 import org.mockito.InOrder;
 import org.vaadin.smartgwt.server.Window;
 import org.vaadin.smartgwt.server.core.RegistrationEntry;
+import org.vaadin.smartgwt.server.extra.RefreshListener;
+import org.vaadin.smartgwt.server.extra.Refresher;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.vaadin.terminal.PaintException;
 import com.vaadin.terminal.Paintable.RepaintRequestEvent;
 import com.vaadin.terminal.Paintable.RepaintRequestListener;
@@ -90,4 +93,22 @@ public class MasterContainerTest {
 		inOrder.verify(nonUIComponent).paint(paintTarget);
 		inOrder.verify(paintTarget).endTag("$nonUIComponents");
 	}
+
+	@Test
+	public void test_pollsAdaptiveRefreshersAndPaintsNextInterval() throws PaintException {
+		final JsonPaintTarget paintTarget = mock(JsonPaintTarget.class);
+		final RefreshListener listener = mock(RefreshListener.class);
+		final Refresher refresher = new Refresher();
+		refresher.setAdaptive(true);
+		refresher.addListener(listener);
+		container.addNonUIComponent(refresher);
+
+		container.paintContent(paintTarget);
+		container.changeVariables(null, ImmutableMap.<String, Object> of("poll", true));
+		container.paintContent(paintTarget);
+
+		verify(listener).poll(refresher);
+		verify(paintTarget).addAttribute("*pollInterval", 1000);
+		verify(paintTarget).addAttribute("*pollInterval", 2000);
+	}
 }
@@ -0,0 +1,95 @@
+package org.vaadin.smartgwt.server.tree;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.vaadin.smartgwt.server.types.TreeModelType;
+
+import com.vaadin.terminal.PaintException;
+import com.vaadin.terminal.gwt.server.JsonPaintTarget;
+
+public class FlatTreeEncoderTest {
+	private FlatTreeEncoder encoder;
+
+	@Before
+	public void before() {
+		encoder = new FlatTreeEncoder("id", "parentId", "isFolder", "children");
+	}
+
+	@Test
+	public void test_flattensNestedChildrenDepthFirst() throws IOException {
+		final TreeNode leaf = newNode("leaf");
+		final TreeNode folder = newNode("folder", leaf);
+		final TreeNode sibling = newNode("sibling");
+
+		assertEquals("{\"ids\":[\"folder\",\"leaf\",\"sibling\"],\"parentIds\":[null,\"folder\",null],\"folders\":[1,0,0],"
+				+ "\"columns\":{\"name\":[\"folder\",\"leaf\",\"sibling\"]}}", encoder.encode(new TreeNode[] { folder, sibling }));
+	}
+
+	@Test
+	public void test_keepsParentIdsOfFlatNodesAndFillsMissingColumnsWithNull() throws IOException {
+		final TreeNode first = new TreeNode();
+		first.setID("1");
+		first.setParentID("root");
+		first.setIsFolder(true);
+		final TreeNode second = new TreeNode();
+		second.setID("2");
+		second.setParentID("1");
+		second.setTitle("two");
+
+		assertEquals("{\"ids\":[\"1\",\"2\"],\"parentIds\":[\"root\",\"1\"],\"folders\":[1,0],\"columns\":{\"title\":[null,\"two\"]}}",
+				encoder.encode(new TreeNode[] { first, second }));
+	}
+
+	@Test
+	public void test_writesNumericIdsAsNumbers() throws IOException {
+		final TreeNode first = new TreeNode();
+		first.setAttribute("id", 7);
+		final TreeNode second = new TreeNode();
+		second.setAttribute("id", 8L);
+		second.setAttribute("parentId", 7);
+
+		assertEquals("{\"ids\":[7,8.0],\"parentIds\":[null,7],\"folders\":[0,0],\"columns\":{}}", encoder.encode(new TreeNode[] { first, second }));
+	}
+
+	@Test
+	public void test_encodesDeepTreeWithoutRecursion() throws IOException {
+		final TreeNode root = newNode("0");
+		TreeNode node = root;
+
+		for (int i = 1; i < 100000; i++) {
+			final TreeNode child = newNode(String.valueOf(i));
+			node.setChildren(new TreeNode[] { child });
+			node = child;
+		}
+
+		assertTrue(encoder.encode(new TreeNode[] { root }).endsWith("\"99999\"]}}"));
+	}
+
+	@Test
+	public void test_treePaintsFlatDataInParentModelType() throws PaintException {
+		final JsonPaintTarget paintTarget = mock(JsonPaintTarget.class);
+		final Tree tree = new Tree();
+		tree.setModelType(TreeModelType.PARENT);
+		tree.setData(new TreeNode[] { newNode("a") });
+
+		tree.paintContent(paintTarget);
+		verify(paintTarget).addAttribute("*flatData", "{\"ids\":[\"a\"],\"parentIds\":[null],\"folders\":[0],\"columns\":{\"name\":[\"a\"]}}");
+		verify(paintTarget, never()).addAttribute(eq("data"), anyString());
+	}
+
+	private static TreeNode newNode(String id, TreeNode... children) {
+		final TreeNode node = new TreeNode(id);
+		node.setID(id);
+
+		if (children.length > 0) {
+			node.setChildren(children);
+		}
+
+		return node;
+	}
+}
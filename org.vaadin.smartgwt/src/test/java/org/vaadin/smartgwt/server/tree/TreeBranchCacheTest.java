@@ -0,0 +1,68 @@
+package org.vaadin.smartgwt.server.tree;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TreeBranchCacheTest {
+	private TreeBranchCache cache;
+
+	@Before
+	public void before() {
+		cache = new TreeBranchCache(4);
+	}
+
+	@Test
+	public void test_evictsLeastRecentlyUsedBranchWhenFull() {
+		cache.put("a", newNodes(2));
+		cache.put("b", newNodes(2));
+		cache.get("a");
+		cache.put("c", newNodes(1));
+
+		assertNotNull(cache.get("a"));
+		assertNull(cache.get("b"));
+		assertNotNull(cache.get("c"));
+		assertEquals(3, cache.getNodeCount());
+	}
+
+	@Test
+	public void test_doesNotKeepBranchLargerThanCache() {
+		cache.put("a", newNodes(1));
+		cache.put("b", newNodes(5));
+
+		assertNull(cache.get("b"));
+		assertNotNull(cache.get("a"));
+		assertEquals(1, cache.getNodeCount());
+	}
+
+	@Test
+	public void test_replacingBranchUpdatesNodeCount() {
+		cache.put(null, newNodes(3));
+		cache.put(null, newNodes(1));
+
+		assertEquals(1, cache.getNodeCount());
+		assertEquals(1, cache.getNodes().size());
+	}
+
+	@Test
+	public void test_shrinkingEvictsLeastRecentlyUsedBranches() {
+		cache.put("a", newNodes(2));
+		cache.put("b", newNodes(2));
+		cache.setMaxNodes(3);
+
+		assertNull(cache.get("a"));
+		assertNotNull(cache.get("b"));
+		assertEquals(2, cache.getNodeCount());
+	}
+
+	private static TreeNode[] newNodes(int count) {
+		final TreeNode[] nodes = new TreeNode[count];
+
+		for (int i = 0; i < count; i++) {
+			nodes[i] = new TreeNode();
+		}
+
+		return nodes;
+	}
+}
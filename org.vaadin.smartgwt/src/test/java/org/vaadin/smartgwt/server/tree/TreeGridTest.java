@@ -0,0 +1,72 @@
+package org.vaadin.smartgwt.server.tree;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.HashMap;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Maps;
+import com.vaadin.terminal.PaintException;
+import com.vaadin.terminal.gwt.server.JsonPaintTarget;
+
+public class TreeGridTest {
+	private TreeGrid treeGrid;
+	private TreeDataProvider dataProvider;
+	private JsonPaintTarget paintTarget;
+
+	@Before
+	public void before() {
+		paintTarget = mock(JsonPaintTarget.class);
+		dataProvider = mock(TreeDataProvider.class);
+		treeGrid = new TreeGrid();
+		treeGrid.setTreeDataProvider(dataProvider);
+	}
+
+	@Test
+	public void test_paintsChildrenOfOpenedFolderOnce() throws PaintException {
+		final TreeNode child = new TreeNode();
+		child.setID("2");
+		when(dataProvider.getChildren("1")).thenReturn(new TreeNode[] { child });
+
+		treeGrid.changeVariables(null, newChildrenRequest("{\"requestId\":\"r1\",\"parentId\":\"1\"}"));
+		treeGrid.paintContent(paintTarget);
+		treeGrid.paintContent(paintTarget);
+
+		verify(paintTarget, times(2)).addAttribute("*treeDataProvider", true);
+		verify(paintTarget).addAttribute("*childrenResponses", "[{\"requestId\":\"r1\",\"parentId\":\"1\",\"data\":[{\"id\":\"2\"}]}]");
+		assertNull(child.getAttributeAsObject("parentId"));
+	}
+
+	@Test
+	public void test_servesReopenedFolderFromBranchCache() {
+		when(dataProvider.getChildren(null)).thenReturn(new TreeNode[] { new TreeNode() });
+
+		treeGrid.changeVariables(null, newChildrenRequest("{\"requestId\":\"r1\"}"));
+		treeGrid.changeVariables(null, newChildrenRequest("{\"requestId\":\"r2\"}"));
+		verify(dataProvider, times(1)).getChildren(null);
+
+		treeGrid.invalidateCache();
+		treeGrid.changeVariables(null, newChildrenRequest("{\"requestId\":\"r3\"}"));
+		verify(dataProvider, times(2)).getChildren(null);
+	}
+
+	@Test
+	public void test_resizingBranchCacheKeepsLoadedBranches() {
+		when(dataProvider.getChildren(null)).thenReturn(new TreeNode[] { new TreeNode() });
+
+		treeGrid.changeVariables(null, newChildrenRequest("{\"requestId\":\"r1\"}"));
+		treeGrid.setBranchCacheSize(5);
+		treeGrid.changeVariables(null, newChildrenRequest("{\"requestId\":\"r2\"}"));
+		verify(dataProvider, times(1)).getChildren(null);
+		assertEquals(5, treeGrid.getBranchCacheSize());
+	}
+
+	private static HashMap<String, Object> newChildrenRequest(String request) {
+		final HashMap<String, Object> variables = Maps.<String, Object> newHashMap();
+		variables.put("childrenRequest", request);
+		return variables;
+	}
+}
@@ -2,6 +2,9 @@ package org.vaadin.smartgwt.server.util;
 
 import static org.junit.Assert.*;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.junit.Test;
 import org.vaadin.smartgwt.server.data.Record;
 
@@ -60,4 +63,58 @@ public class JSONHelperTest {
 
 		assertEquals("[{\"testAttribute1\":\"testAttributeValue1\"},{\"testAttribute2\":\"testAttributeValue2\"}]", actualResult);
 	}
+
+	@Test
+	public void test_getJsonString_WritesPrimitiveAttributes() throws Exception {
+
+		Record record = new Record();
+		record.setAttribute("integer", 1);
+		record.setAttribute("double", 1.5);
+		record.setAttribute("boolean", true);
+
+		Record[] records = { record };
+		String actualResult = JSONHelper.getJsonString(records);
+
+		assertTrue(actualResult.contains("\"integer\":1"));
+		assertTrue(actualResult.contains("\"double\":1.5"));
+		assertTrue(actualResult.contains("\"boolean\":true"));
+	}
+
+	@Test
+	public void test_getJsonString_WritesNestedRecords() throws Exception {
+
+		Record child = new Record();
+		child.setAttribute("name", "child");
+
+		Record record = new Record();
+		record.setAttribute("children", new Record[] { child });
+
+		Record[] records = { record };
+		String actualResult = JSONHelper.getJsonString(records);
+
+		assertEquals("[{\"children\":[{\"name\":\"child\"}]}]", actualResult);
+	}
+
+	@Test
+	public void test_getJsonAttributeValue_PrefixesJsonString() throws Exception {
+
+		Record record = new Record();
+		record.setAttribute("testAttribute", "testAttributeValue");
+
+		Record[] records = { record };
+		String actualResult = JSONHelper.getJsonAttributeValue(records);
+
+		assertEquals("j[{\"testAttribute\":\"testAttributeValue\"}]", actualResult);
+	}
+
+	@Test
+	public void test_getJsonAttributeValue_PrefixesMap() throws Exception {
+
+		Map<String, String> valueMap = new LinkedHashMap<String, String>();
+		valueMap.put("FR", "France");
+
+		String actualResult = JSONHelper.getJsonAttributeValue(valueMap);
+
+		assertEquals("j{\"FR\":\"France\"}", actualResult);
+	}
 }